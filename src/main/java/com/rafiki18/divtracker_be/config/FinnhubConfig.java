@@ -6,18 +6,24 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.rafiki18.divtracker_be.config.properties.FinnhubCaptureProperties;
 import com.rafiki18.divtracker_be.config.properties.FinnhubProperties;
+import com.rafiki18.divtracker_be.config.properties.FundamentalsRefreshProperties;
+import com.rafiki18.divtracker_be.config.properties.SymbolIndexProperties;
+import com.rafiki18.divtracker_be.marketdata.FinnhubPayloadCapture;
 
 @Configuration
-@EnableConfigurationProperties(FinnhubProperties.class)
+@EnableConfigurationProperties({FinnhubProperties.class, FinnhubCaptureProperties.class,
+        FundamentalsRefreshProperties.class, SymbolIndexProperties.class})
 public class FinnhubConfig {
 
     @Bean
-    WebClient finnhubWebClient(FinnhubProperties properties) {
+    WebClient finnhubWebClient(FinnhubProperties properties, FinnhubPayloadCapture payloadCapture) {
         return WebClient.builder()
             .baseUrl(properties.getApiUrl())
+                .filter(payloadCapture.filter())
                 .exchangeStrategies(ExchangeStrategies.builder()
-                        .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(10 * 1024 * 1024)) // 10MB buffer for large symbol lists
+                        .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(2 * 1024 * 1024)) // metric=all exceeds the 256KB default; symbol lists are streamed
                         .build())
                 .build();
     }
@@ -0,0 +1,17 @@
+package com.rafiki18.divtracker_be.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled jobs (fundamentals refresh queue, cleanup, daily summary).
+ * Can be switched off with {@code app.scheduling.enabled=false} (e.g. in tests).
+ * The jobs that delete data or message users stay idle until opted in with
+ * {@code fundamentals.refresh.cleanup-enabled} and {@code fcm.daily-summary.enabled}.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
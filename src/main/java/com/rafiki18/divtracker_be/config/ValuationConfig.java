@@ -0,0 +1,11 @@
+package com.rafiki18.divtracker_be.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import com.rafiki18.divtracker_be.config.properties.ValuationProperties;
+
+@Configuration
+@EnableConfigurationProperties(ValuationProperties.class)
+public class ValuationConfig {
+}
@@ -0,0 +1,66 @@
+package com.rafiki18.divtracker_be.config.properties;
+
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import com.rafiki18.divtracker_be.marketdata.FinnhubEndpoint;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Initial settings for the sampled capture of Finnhub response payloads.
+ * Enabling, endpoints, tickers and rate can be changed at runtime through
+ * the admin API; the file settings apply for the whole run.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "finnhub.capture")
+public class FinnhubCaptureProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Endpoints to capture; empty means all of them.
+     */
+    private Set<FinnhubEndpoint> endpoints = new LinkedHashSet<>();
+
+    /**
+     * Tickers (or search queries/exchanges) to capture; empty means all of them.
+     */
+    private Set<String> tickers = new LinkedHashSet<>();
+
+    /**
+     * Payloads captured per minute at most; further responses are not sampled.
+     */
+    private int samplesPerMinute = 30;
+
+    /**
+     * Payloads longer than this are truncated.
+     */
+    private DataSize maxPayloadSize = DataSize.ofKilobytes(64);
+
+    /**
+     * Directory of the gzip-compressed JSON-lines capture files.
+     */
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "divtracker", "finnhub-capture");
+
+    /**
+     * Uncompressed bytes written to a file before rotating to a new one.
+     */
+    private DataSize maxFileSize = DataSize.ofMegabytes(16);
+
+    /**
+     * Capture files kept; the oldest are deleted on rotation.
+     */
+    private int maxFiles = 8;
+
+    /**
+     * Samples waiting for the writer thread; when full, new samples are dropped.
+     */
+    private int queueCapacity = 256;
+}
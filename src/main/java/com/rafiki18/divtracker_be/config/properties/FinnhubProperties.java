@@ -20,6 +20,26 @@ public class FinnhubProperties {
     private boolean streamEnabled = true;
     private String webhookSecret;
 
+    /**
+     * Upstream call budget per minute (Finnhub free plan: 60 calls/minute).
+     */
+    private int rateLimitPerMinute = 60;
+
+    /**
+     * Consecutive upstream failures that open an endpoint's circuit.
+     */
+    private int circuitFailureThreshold = 5;
+
+    /**
+     * How long an open circuit rejects calls before letting a probe through.
+     */
+    private Duration circuitOpenDuration = Duration.ofSeconds(30);
+
+    /**
+     * Calls allowed in flight per endpoint; extra callers fail fast.
+     */
+    private int maxConcurrentCallsPerEndpoint = 4;
+
     public boolean isEnabled() {
         return StringUtils.hasText(apiKey) && StringUtils.hasText(apiUrl);
     }
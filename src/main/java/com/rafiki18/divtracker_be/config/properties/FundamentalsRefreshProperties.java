@@ -0,0 +1,71 @@
+package com.rafiki18.divtracker_be.config.properties;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings for the background fundamentals refresh queue.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "fundamentals.refresh")
+public class FundamentalsRefreshProperties {
+
+    /**
+     * Whether the background queue drains automatically.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Whether the nightly job deletes STALE fundamentals older than 30 days.
+     * Off by default; the admin endpoint can still run it on demand.
+     */
+    private boolean cleanupEnabled = false;
+
+    /**
+     * Age after which COMPLETE fundamentals are considered stale.
+     */
+    private Duration staleAfter = Duration.ofHours(24);
+
+    /**
+     * Minimum wait before retrying PARTIAL or STALE fundamentals, so tickers
+     * that Finnhub cannot complete do not monopolise the budget.
+     */
+    private Duration incompleteRetryAfter = Duration.ofHours(6);
+
+    /**
+     * Backoff after a transient failure (timeout, 5xx). Like the other retry
+     * delays it doubles with every consecutive failure, up to 64 times.
+     */
+    private Duration failedRetryAfter = Duration.ofMinutes(15);
+
+    /**
+     * Backoff after HTTP 429 or a local circuit breaker rejection.
+     */
+    private Duration throttledRetryAfter = Duration.ofMinutes(1);
+
+    /**
+     * Backoff after HTTP 401/403: the ticker or endpoint is outside the API plan
+     * and is unlikely to become available soon.
+     */
+    private Duration planLimitRetryAfter = Duration.ofHours(24);
+
+    /**
+     * Backoff when Finnhub answered without data for the ticker.
+     */
+    private Duration noDataRetryAfter = Duration.ofHours(6);
+
+    /**
+     * Calls per minute kept free for interactive (user-triggered) traffic.
+     */
+    private int interactiveReservePerMinute = 20;
+
+    /**
+     * Upper bound of refreshes performed in a single drain cycle.
+     */
+    private int maxRefreshesPerCycle = 5;
+}
@@ -0,0 +1,35 @@
+package com.rafiki18.divtracker_be.config.properties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings for the local symbol index used by ticker lookups.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "symbols.index")
+public class SymbolIndexProperties {
+
+    /**
+     * Index file, memory-mapped at startup and replaced atomically on rebuild.
+     * Should be on persistent storage: the default under {@code java.io.tmpdir}
+     * is lost on redeploys, and every start without it downloads the symbol list.
+     */
+    private Path path = Path.of(System.getProperty("java.io.tmpdir"), "divtracker", "symbols-us.idx");
+
+    /**
+     * Exchange whose symbol list is indexed.
+     */
+    private String exchange = "US";
+
+    /**
+     * Age after which the index is rebuilt from Finnhub.
+     */
+    private Duration refreshAfter = Duration.ofHours(24);
+}
@@ -0,0 +1,96 @@
+package com.rafiki18.divtracker_be.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Settings for the watchlist valuation metrics.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "valuation")
+public class ValuationProperties {
+
+    /**
+     * Implementation of the valuation metrics: DOUBLE (primitive single-pass
+     * kernel) or REFERENCE (original BigDecimal calculations).
+     */
+    private Kernel kernel = Kernel.DOUBLE;
+
+    /**
+     * Cache valuations shared by items of the same ticker with the same parameters.
+     */
+    private boolean cacheEnabled = true;
+
+    /**
+     * Tickers kept in the valuation cache; least recently used are evicted.
+     */
+    private int cacheMaxTickers = 2_000;
+
+    /**
+     * Parameter combinations cached per ticker.
+     */
+    private int cacheMaxEntriesPerTicker = 32;
+
+    /**
+     * Items valued per fork/join task by batch valuations; smaller batches run
+     * on the calling thread.
+     */
+    private int batchChunkSize = 256;
+
+    /**
+     * Paths of a Monte Carlo DCF simulation when the request does not set them.
+     */
+    private int simulationDefaultPaths = 100_000;
+
+    /**
+     * Upper bound on the paths a simulation request may ask for.
+     */
+    private int simulationMaxPaths = 1_000_000;
+
+    /**
+     * Paths simulated per fork/join task.
+     */
+    private int simulationChunkSize = 8_192;
+
+    /**
+     * Simulation results kept per input set; least recently used are evicted.
+     */
+    private int simulationCacheMaxEntries = 256;
+
+    /**
+     * Minimum time between two syncs of the screener snapshot with the prices
+     * and fundamentals that changed since the last one.
+     */
+    private long screenerSyncIntervalMillis = 1_000;
+
+    /**
+     * Time after which the screener snapshot is reloaded in full instead of
+     * synced, dropping rows whose fundamentals were deleted without an event.
+     */
+    private long screenerReloadIntervalMillis = 3_600_000;
+
+    /**
+     * Instruments evaluated per fork/join task by screener filters.
+     */
+    private int screenerChunkSize = 1_024;
+
+    /**
+     * Time between two flushes of the tickers whose price or fundamentals
+     * changed into the per-item valuation table.
+     */
+    private long itemTableFlushIntervalMillis = 2_000;
+
+    /**
+     * Tickers revalued per flush of the per-item valuation table; the rest wait
+     * for the next run.
+     */
+    private int itemTableFlushMaxTickers = 500;
+
+    public enum Kernel {
+        DOUBLE,
+        REFERENCE
+    }
+}
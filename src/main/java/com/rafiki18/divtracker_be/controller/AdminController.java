@@ -1,5 +1,6 @@
 package com.rafiki18.divtracker_be.controller;
 
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.ResponseEntity;
@@ -7,8 +8,11 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.rafiki18.divtracker_be.marketdata.FinnhubEndpoint;
+import com.rafiki18.divtracker_be.marketdata.FinnhubPayloadCapture;
 import com.rafiki18.divtracker_be.marketdata.FinnhubWebSocketClient;
 import com.rafiki18.divtracker_be.model.User;
 import com.rafiki18.divtracker_be.scheduler.FundamentalsRefreshScheduler;
@@ -32,15 +36,16 @@ public class AdminController {
     
     private final FundamentalsRefreshScheduler scheduler;
     private final FinnhubWebSocketClient webSocketClient;
+    private final FinnhubPayloadCapture payloadCapture;
     
     /**
-     * Manually trigger the scheduled fundamentals refresh job.
-     * Refreshes stale fundamentals (> 24h old), up to 50 per run.
+     * Manually trigger a planning + drain cycle of the fundamentals refresh queue.
+     * Refreshes as many queued tickers as the spare Finnhub budget allows.
      */
     @PostMapping("/refresh-fundamentals")
     @Operation(
         summary = "Manually refresh stale fundamentals",
-        description = "Triggers the scheduled job to refresh fundamentals older than 24 hours (max 50 per run)",
+        description = "Re-plans the fundamentals refresh queue and drains it within the spare Finnhub rate budget",
         security = @SecurityRequirement(name = "bearer-auth"),
         responses = {
             @ApiResponse(responseCode = "200", description = "Refresh job started successfully"),
@@ -62,6 +67,24 @@ public class AdminController {
         return ResponseEntity.ok("Fundamentals refresh job started");
     }
     
+    /**
+     * Get the fundamentals refresh queue status.
+     */
+    @GetMapping("/refresh-queue")
+    @Operation(
+        summary = "Get fundamentals refresh queue status",
+        description = "Returns the refresh backlog, tickers ready to refresh, throughput and estimated time to drain",
+        security = @SecurityRequirement(name = "bearer-auth"),
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Status retrieved successfully"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+        }
+    )
+    public ResponseEntity<Map<String, Object>> getRefreshQueueStatus(@AuthenticationPrincipal User user) {
+        log.info("User {} requested fundamentals refresh queue status", user.getEmail());
+        return ResponseEntity.ok(scheduler.getQueueStatus());
+    }
+    
     /**
      * Manually trigger the cleanup of old fundamentals job.
      * Deletes STALE fundamentals older than 30 days.
@@ -155,4 +178,48 @@ public class AdminController {
         webSocketClient.refreshSubscriptions();
         return ResponseEntity.ok("WebSocket subscriptions refreshed");
     }
+    
+    /**
+     * Get the Finnhub payload capture settings and counters.
+     */
+    @GetMapping("/finnhub-capture")
+    @Operation(
+        summary = "Get Finnhub payload capture status",
+        description = "Returns whether sampled capture of Finnhub responses is enabled, its filters and counters",
+        security = @SecurityRequirement(name = "bearer-auth"),
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Status retrieved successfully"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+        }
+    )
+    public ResponseEntity<Map<String, Object>> getPayloadCaptureStatus(@AuthenticationPrincipal User user) {
+        log.info("User {} requested Finnhub payload capture status", user.getEmail());
+        return ResponseEntity.ok(payloadCapture.getStatus());
+    }
+    
+    /**
+     * Toggle the Finnhub payload capture at runtime.
+     * Omitted parameters keep their current value; an empty list captures everything.
+     */
+    @PostMapping("/finnhub-capture")
+    @Operation(
+        summary = "Configure Finnhub payload capture",
+        description = "Enables or disables sampled capture of Finnhub responses, optionally limited to endpoints and tickers",
+        security = @SecurityRequirement(name = "bearer-auth"),
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Capture settings updated"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized")
+        }
+    )
+    public ResponseEntity<Map<String, Object>> configurePayloadCapture(
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) Boolean enabled,
+            @RequestParam(required = false) List<FinnhubEndpoint> endpoints,
+            @RequestParam(required = false) List<String> tickers,
+            @RequestParam(required = false) Integer samplesPerMinute) {
+        log.info("User {} updated Finnhub payload capture: enabled={}, endpoints={}, tickers={}, samplesPerMinute={}",
+                user.getEmail(), enabled, endpoints, tickers, samplesPerMinute);
+        payloadCapture.update(enabled, endpoints, tickers, samplesPerMinute);
+        return ResponseEntity.ok(payloadCapture.getStatus());
+    }
 }
@@ -0,0 +1,79 @@
+package com.rafiki18.divtracker_be.controller;
+
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.rafiki18.divtracker_be.dto.ScreenerRequest;
+import com.rafiki18.divtracker_be.dto.ScreenerResultResponse;
+import com.rafiki18.divtracker_be.service.ScreenerService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/v1/screener")
+@RequiredArgsConstructor
+@Tag(name = "Screener", description = "Búsqueda de empresas por fundamentales y valoración")
+@SecurityRequirement(name = "bearerAuth")
+public class ScreenerController {
+
+    private final ScreenerService screenerService;
+
+    @Operation(
+        summary = "Filtrar instrumentos",
+        description = "Filtra todos los instrumentos con fundamentales en caché (por ejemplo infravaloradas, " +
+                "Chowder ≥ 12 y payout < 60%) y devuelve una página ordenada. Cada instrumento incluye una " +
+                "valoración con parámetros por defecto: crecimiento y tasa de descuento derivados de los " +
+                "fundamentales, 5 años y salida a P/FCF 15. Los instrumentos sin el valor ordenado van al final."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Resultados obtenidos exitosamente",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = Page.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Campo de ordenamiento desconocido",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "No autenticado",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Page<ScreenerResultResponse>> screen(
+            @ParameterObject @Valid ScreenerRequest filters,
+            @Parameter(description = "Número de página (0-indexed)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Tamaño de página") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Campo de ordenamiento (cualquier campo numérico del resultado o ticker)")
+            @RequestParam(defaultValue = "marginOfSafety") String sortBy,
+            @Parameter(description = "Dirección de ordenamiento") @RequestParam(defaultValue = "DESC") Sort.Direction direction
+    ) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+        return ResponseEntity.ok(screenerService.screen(filters, pageable));
+    }
+}
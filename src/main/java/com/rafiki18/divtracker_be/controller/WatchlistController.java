@@ -1,12 +1,15 @@
 package com.rafiki18.divtracker_be.controller;
 
+import java.math.BigDecimal;
 import java.net.URI;
 import java.util.UUID;
 
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -19,11 +22,18 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.rafiki18.divtracker_be.dto.PortfolioSummaryResponse;
+import com.rafiki18.divtracker_be.dto.ValuationSensitivityRequest;
+import com.rafiki18.divtracker_be.dto.ValuationSensitivityResponse;
+import com.rafiki18.divtracker_be.dto.ValuationSimulationRequest;
+import com.rafiki18.divtracker_be.dto.ValuationSimulationResponse;
 import com.rafiki18.divtracker_be.dto.WatchlistItemRequest;
 import com.rafiki18.divtracker_be.dto.WatchlistItemResponse;
 import com.rafiki18.divtracker_be.model.User;
+import com.rafiki18.divtracker_be.service.PortfolioSummaryService;
 import com.rafiki18.divtracker_be.service.WatchlistService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -45,12 +55,18 @@ import lombok.RequiredArgsConstructor;
 public class WatchlistController {
     
     private final WatchlistService watchlistService;
+    private final PortfolioSummaryService portfolioSummaryService;
     
     @Operation(
         summary = "Listar items del watchlist",
         description = "Obtiene una lista paginada de todas las empresas en el watchlist del usuario autenticado. " +
                 "Incluye datos del cache (<24h): precio actual, FCF per share (Annual). " +
-                "Calcula métricas de valoración: DCF, TIR, FCF Yield, margen de seguridad, payback period, ROI estimado, etc."
+                "Calcula métricas de valoración: DCF, TIR, FCF Yield, margen de seguridad, payback period, ROI estimado, etc. " +
+                "Se puede ordenar por currentPrice, fcfYield, dcfFairValue, marginOfSafety, estimatedIRR, estimatedROI, " +
+                "paybackPeriod o undervalued y filtrar por undervalued y margen de seguridad mínimo; estos campos se " +
+                "resuelven en SQL con la última valoración guardada de cada item (los items sin valoración van al final). " +
+                "La respuesta incluye un ETag fuerte; con If-None-Match devuelve 304 si no ha cambiado ningún item, " +
+                "precio ni fundamental del watchlist."
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -61,6 +77,11 @@ public class WatchlistController {
                 schema = @Schema(implementation = Page.class)
             )
         ),
+        @ApiResponse(
+            responseCode = "304",
+            description = "La lista no ha cambiado desde el ETag indicado en If-None-Match",
+            content = @Content
+        ),
         @ApiResponse(
             responseCode = "401",
             description = "No autenticado",
@@ -74,18 +95,56 @@ public class WatchlistController {
             @Parameter(description = "Número de página (0-indexed)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Tamaño de página") @RequestParam(defaultValue = "20") int size,
             @Parameter(description = "Campo de ordenamiento") @RequestParam(defaultValue = "createdAt") String sortBy,
-            @Parameter(description = "Dirección de ordenamiento") @RequestParam(defaultValue = "DESC") Sort.Direction direction
+            @Parameter(description = "Dirección de ordenamiento") @RequestParam(defaultValue = "DESC") Sort.Direction direction,
+            @Parameter(description = "Solo infravaloradas (true) o solo no infravaloradas (false)") @RequestParam(required = false) Boolean undervalued,
+            @Parameter(description = "Margen de seguridad mínimo (%)") @RequestParam(required = false) BigDecimal minMarginOfSafety,
+            WebRequest webRequest
     ) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
-        Page<WatchlistItemResponse> items = watchlistService.list(user.getId(), pageable);
-        return ResponseEntity.ok(items);
+        // Sin cambios: 304 antes de enriquecer y serializar la página
+        String eTag = watchlistService.listETag(user.getId(), undervalued, minMarginOfSafety, pageable);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        Page<WatchlistItemResponse> items = watchlistService.list(user.getId(), undervalued, minMarginOfSafety, pageable);
+        return ResponseEntity.ok().eTag(eTag).body(items);
+    }
+    
+    @Operation(
+        summary = "Resumen del watchlist",
+        description = "Agregados de todo el watchlist del usuario: dividend yield medio y ponderado por capitalización, " +
+                "margen de seguridad y TIR medios, número de infravaloradas y desglose por sector. " +
+                "Se calcula con los datos en caché y los parámetros de cada item, y se reutiliza hasta que cambian " +
+                "los precios o fundamentals de sus tickers o el propio watchlist."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Resumen obtenido exitosamente",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = PortfolioSummaryResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "No autenticado",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    @GetMapping("/summary")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<PortfolioSummaryResponse> summary(@AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(portfolioSummaryService.summarize(user.getId()));
     }
     
     @Operation(
         summary = "Obtener un item del watchlist",
         description = "Obtiene los detalles completos de un item específico del watchlist. " +
                 "Incluye fundamentals desde cache (<24h): precio actual, FCF per share (Annual). " +
-                "Calcula métricas de valoración: DCF, TIR, margen de seguridad, FCF Yield, payback period, ROI estimado, etc."
+                "Calcula métricas de valoración: DCF, TIR, margen de seguridad, FCF Yield, payback period, ROI estimado, etc. " +
+                "La respuesta incluye un ETag fuerte; con If-None-Match devuelve 304 si el item, su precio y sus " +
+                "fundamentals no han cambiado."
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -96,6 +155,11 @@ public class WatchlistController {
                 schema = @Schema(implementation = WatchlistItemResponse.class)
             )
         ),
+        @ApiResponse(
+            responseCode = "304",
+            description = "El item no ha cambiado desde el ETag indicado en If-None-Match",
+            content = @Content
+        ),
         @ApiResponse(
             responseCode = "404",
             description = "Item no encontrado",
@@ -111,10 +175,15 @@ public class WatchlistController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<WatchlistItemResponse> getById(
             @AuthenticationPrincipal User user,
-            @Parameter(description = "ID del item") @PathVariable UUID id
+            @Parameter(description = "ID del item") @PathVariable UUID id,
+            WebRequest webRequest
     ) {
+        String eTag = watchlistService.itemETag(user.getId(), id);
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
         WatchlistItemResponse item = watchlistService.getById(user.getId(), id);
-        return ResponseEntity.ok(item);
+        return ResponseEntity.ok().eTag(eTag).body(item);
     }
     
     @Operation(
@@ -210,6 +279,91 @@ public class WatchlistController {
         return ResponseEntity.ok(updated);
     }
     
+    @Operation(
+        summary = "Simular la valoración de un item",
+        description = "Simulación Monte Carlo del DCF (por defecto 100000 caminos): crecimiento del FCF, tasa de descuento " +
+                "y múltiplo P/FCF terminal se muestrean de distribuciones normales centradas en los valores del item. " +
+                "Devuelve percentiles del valor razonable y la probabilidad de que la acción esté infravalorada. " +
+                "El cuerpo es opcional; los mismos datos y la misma semilla dan el mismo resultado."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Simulación realizada",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ValuationSimulationResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Parámetros inválidos o sin precio / FCF para el ticker",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Item no encontrado",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "No autenticado",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    @PostMapping("/{id}/simulation")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ValuationSimulationResponse> simulate(
+            @AuthenticationPrincipal User user,
+            @Parameter(description = "ID del item") @PathVariable UUID id,
+            @Valid @RequestBody(required = false) ValuationSimulationRequest request
+    ) {
+        ValuationSimulationResponse simulation = watchlistService.simulate(user.getId(), id, request);
+        return ResponseEntity.ok(simulation);
+    }
+    
+    @Operation(
+        summary = "Sensibilidad de la valoración de un item",
+        description = "Tabla (por defecto 21×21) de DCF fair value y margen de seguridad por crecimiento del FCF (filas) " +
+                "y tasa de descuento (columnas), y TIR por crecimiento. Por defecto los rangos se centran en los " +
+                "parámetros del item. No modifica el item."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Tabla calculada",
+            content = @Content(
+                mediaType = "application/json",
+                schema = @Schema(implementation = ValuationSensitivityResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Rangos inválidos o sin precio / FCF para el ticker",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Item no encontrado",
+            content = @Content(mediaType = "application/json")
+        ),
+        @ApiResponse(
+            responseCode = "401",
+            description = "No autenticado",
+            content = @Content(mediaType = "application/json")
+        )
+    })
+    @GetMapping("/{id}/sensitivity")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ValuationSensitivityResponse> sensitivity(
+            @AuthenticationPrincipal User user,
+            @Parameter(description = "ID del item") @PathVariable UUID id,
+            @ParameterObject @Valid ValuationSensitivityRequest request
+    ) {
+        ValuationSensitivityResponse grid = watchlistService.sensitivity(user.getId(), id, request);
+        return ResponseEntity.ok(grid);
+    }
+    
     @Operation(
         summary = "Eliminar item del watchlist",
         description = "Elimina un item del watchlist del usuario autenticado"
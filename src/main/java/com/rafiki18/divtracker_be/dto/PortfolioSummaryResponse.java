@@ -0,0 +1,72 @@
+package com.rafiki18.divtracker_be.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resumen agregado del watchlist de un usuario, valorado con los parámetros de cada item")
+public class PortfolioSummaryResponse {
+    
+    @Schema(description = "Número de items del watchlist", example = "24")
+    private Integer totalItems;
+    
+    @Schema(description = "Items con precio y FCF (los que tienen valoración)", example = "22")
+    private Integer valuedItems;
+    
+    @Schema(description = "Items con precio por debajo del DCF fair value", example = "9")
+    private Integer undervaluedCount;
+    
+    @Schema(description = "Dividend yield medio, mismo peso por item (%)", example = "2.85")
+    private BigDecimal averageDividendYield;
+    
+    @Schema(description = "Dividend yield ponderado por capitalización de mercado (%)", example = "2.10")
+    private BigDecimal weightedDividendYield;
+    
+    @Schema(description = "Margen de seguridad medio respecto al DCF (%)", example = "8.40")
+    private BigDecimal averageMarginOfSafety;
+    
+    @Schema(description = "TIR estimada media (%)", example = "9.75")
+    private BigDecimal averageEstimatedIRR;
+    
+    @Schema(description = "Desglose por sector, de más a menos items")
+    private List<SectorBreakdown> sectors;
+    
+    @Schema(description = "Momento del cálculo (el resumen se cachea hasta que cambian precios, fundamentals o items)")
+    private LocalDateTime computedAt;
+    
+    /**
+     * Agregados de un sector del watchlist
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Agregados de un sector")
+    public static class SectorBreakdown {
+        
+        @Schema(description = "Sector (\"Unknown\" sin fundamentals)", example = "Technology")
+        private String sector;
+        
+        @Schema(description = "Número de items del sector", example = "6")
+        private Integer items;
+        
+        @Schema(description = "Peso del sector en número de items (0-1)", example = "0.2500")
+        private BigDecimal weight;
+        
+        @Schema(description = "Items infravalorados del sector", example = "2")
+        private Integer undervaluedCount;
+        
+        @Schema(description = "Margen de seguridad medio del sector (%)", example = "5.10")
+        private BigDecimal averageMarginOfSafety;
+    }
+}
@@ -0,0 +1,50 @@
+package com.rafiki18.divtracker_be.dto;
+
+import java.math.BigDecimal;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Filtros del screener. Todos son opcionales; un instrumento sin el dato de un filtro no lo cumple")
+public class ScreenerRequest {
+
+    @Schema(description = "Solo infravaloradas (precio < DCF fair value con parámetros por defecto)", example = "true")
+    private Boolean undervalued;
+
+    @Schema(description = "Margen de seguridad mínimo (%)", example = "20")
+    private BigDecimal minMarginOfSafety;
+
+    @Schema(description = "Valor mínimo de la regla de Chowder (yield + crecimiento del dividendo 5Y)", example = "12")
+    private BigDecimal minChowderRuleValue;
+
+    @Schema(description = "Payout ratio sobre FCF máximo (decimal: 0.60 = 60%)", example = "0.60")
+    private BigDecimal maxPayoutRatioFcf;
+
+    @Schema(description = "Dividend yield mínimo (%)", example = "2.5")
+    private BigDecimal minDividendYield;
+
+    @Schema(description = "FCF yield mínimo (%)", example = "5")
+    private BigDecimal minFcfYield;
+
+    @Schema(description = "TIR estimada mínima (%)", example = "10")
+    private BigDecimal minEstimatedIRR;
+
+    @Schema(description = "PER anual máximo", example = "25")
+    private BigDecimal maxPeAnnual;
+
+    @Schema(description = "Beta máxima", example = "1.2")
+    private BigDecimal maxBeta;
+
+    @Schema(description = "Capitalización de mercado mínima (millones)", example = "10000")
+    private BigDecimal minMarketCapitalization;
+
+    @Schema(description = "Sector (sin distinguir mayúsculas)", example = "Technology")
+    private String sector;
+}
@@ -0,0 +1,77 @@
+package com.rafiki18.divtracker_be.dto;
+
+import java.math.BigDecimal;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Instrumento del screener con sus fundamentales y una valoración con parámetros por defecto")
+public class ScreenerResultResponse {
+
+    @Schema(description = "Símbolo del ticker de la empresa", example = "AAPL")
+    private String ticker;
+
+    @Schema(description = "Nombre de la empresa", example = "Apple Inc")
+    private String companyName;
+
+    @Schema(description = "Sector", example = "Technology")
+    private String sector;
+
+    @Schema(description = "Precio actual de mercado", example = "172.15")
+    private BigDecimal currentPrice;
+
+    @Schema(description = "Cambio diario (%)", example = "-0.85")
+    private BigDecimal dailyChangePercent;
+
+    @Schema(description = "Capitalización de mercado (millones)", example = "2800000")
+    private BigDecimal marketCapitalization;
+
+    @Schema(description = "PER anual", example = "28.5")
+    private BigDecimal peAnnual;
+
+    @Schema(description = "Beta", example = "1.2")
+    private BigDecimal beta;
+
+    @Schema(description = "FCF por acción (anual)", example = "6.50")
+    private BigDecimal freeCashFlowPerShare;
+
+    @Schema(description = "Dividend yield (%)", example = "0.55")
+    private BigDecimal dividendYield;
+
+    @Schema(description = "Crecimiento del dividendo 5Y (%)", example = "5.8")
+    private BigDecimal dividendGrowthRate5Y;
+
+    @Schema(description = "Payout ratio sobre FCF (decimal)", example = "0.15")
+    private BigDecimal payoutRatioFcf;
+
+    @Schema(description = "Regla de Chowder (yield + crecimiento del dividendo 5Y)", example = "6.35")
+    private BigDecimal chowderRuleValue;
+
+    @Schema(description = "Crecimiento del FCF usado en la valoración, derivado de los fundamentales (decimal)", example = "0.08")
+    private BigDecimal estimatedFcfGrowthRate;
+
+    @Schema(description = "Tasa de descuento usada en la valoración, CAPM con la beta (decimal)", example = "0.11")
+    private BigDecimal discountRate;
+
+    @Schema(description = "FCF yield (%)", example = "3.78")
+    private BigDecimal fcfYield;
+
+    @Schema(description = "DCF fair value a 5 años", example = "195.40")
+    private BigDecimal dcfFairValue;
+
+    @Schema(description = "Margen de seguridad respecto al DCF (%)", example = "11.90")
+    private BigDecimal marginOfSafety;
+
+    @Schema(description = "TIR estimada a 5 años con salida a P/FCF 15 (%)", example = "9.75")
+    private BigDecimal estimatedIRR;
+
+    @Schema(description = "Precio actual por debajo del DCF fair value", example = "true")
+    private Boolean undervalued;
+}
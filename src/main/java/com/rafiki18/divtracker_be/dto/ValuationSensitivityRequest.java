@@ -0,0 +1,51 @@
+package com.rafiki18.divtracker_be.dto;
+
+import java.math.BigDecimal;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Rangos de una tabla de sensibilidad crecimiento × tasa de descuento. Todos son opcionales")
+public class ValuationSensitivityRequest {
+    
+    @DecimalMin(value = "-0.5", message = "El crecimiento mínimo no puede ser inferior a -50%")
+    @DecimalMax(value = "1.0", message = "El crecimiento mínimo no puede superar 100%")
+    @Schema(description = "Crecimiento anual del FCF mínimo (decimal). Por defecto: el del item - 0.05", example = "0.03")
+    private BigDecimal growthMin;
+    
+    @DecimalMin(value = "-0.5", message = "El crecimiento máximo no puede ser inferior a -50%")
+    @DecimalMax(value = "1.0", message = "El crecimiento máximo no puede superar 100%")
+    @Schema(description = "Crecimiento anual del FCF máximo (decimal). Por defecto: el del item + 0.05", example = "0.13")
+    private BigDecimal growthMax;
+    
+    @Min(value = 2, message = "La tabla necesita al menos 2 valores de crecimiento")
+    @Max(value = 51, message = "La tabla no puede superar 51 valores de crecimiento")
+    @Schema(description = "Valores de crecimiento (filas), por defecto 21", example = "21")
+    private Integer growthSteps;
+    
+    @DecimalMin(value = "0.01", message = "La tasa de descuento mínima debe ser al menos 1%")
+    @DecimalMax(value = "1.0", message = "La tasa de descuento mínima no puede superar 100%")
+    @Schema(description = "Tasa de descuento mínima (decimal). Por defecto: la del item - 0.03 (mínimo 0.01)", example = "0.07")
+    private BigDecimal discountMin;
+    
+    @DecimalMin(value = "0.01", message = "La tasa de descuento máxima debe ser al menos 1%")
+    @DecimalMax(value = "1.0", message = "La tasa de descuento máxima no puede superar 100%")
+    @Schema(description = "Tasa de descuento máxima (decimal). Por defecto: la del item + 0.03", example = "0.13")
+    private BigDecimal discountMax;
+    
+    @Min(value = 2, message = "La tabla necesita al menos 2 tasas de descuento")
+    @Max(value = 51, message = "La tabla no puede superar 51 tasas de descuento")
+    @Schema(description = "Tasas de descuento (columnas), por defecto 21", example = "21")
+    private Integer discountSteps;
+}
@@ -0,0 +1,49 @@
+package com.rafiki18.divtracker_be.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Tabla de sensibilidad de la valoración: filas por crecimiento del FCF, columnas por tasa de descuento")
+public class ValuationSensitivityResponse {
+    
+    @Schema(description = "ID del item del watchlist", example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID id;
+    
+    @Schema(description = "Símbolo del ticker de la empresa", example = "AAPL")
+    private String ticker;
+    
+    @Schema(description = "Precio actual de mercado", example = "172.15")
+    private BigDecimal currentPrice;
+    
+    @Schema(description = "FCF por acción usado en la proyección", example = "6.50")
+    private BigDecimal freeCashFlowPerShare;
+    
+    @Schema(description = "Horizonte de proyección en años", example = "5")
+    private Integer investmentHorizonYears;
+    
+    @Schema(description = "Crecimientos del FCF de cada fila (decimal)")
+    private List<BigDecimal> growthRates;
+    
+    @Schema(description = "Tasas de descuento de cada columna (decimal)")
+    private List<BigDecimal> discountRates;
+    
+    @Schema(description = "DCF fair value por [fila de crecimiento][columna de descuento]; null si no se puede calcular")
+    private List<List<BigDecimal>> dcfFairValue;
+    
+    @Schema(description = "Margen de seguridad (%) por [fila de crecimiento][columna de descuento]")
+    private List<List<BigDecimal>> marginOfSafety;
+    
+    @Schema(description = "TIR estimada (%) por fila de crecimiento; no depende de la tasa de descuento")
+    private List<BigDecimal> estimatedIRR;
+}
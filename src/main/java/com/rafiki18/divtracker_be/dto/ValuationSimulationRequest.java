@@ -0,0 +1,59 @@
+package com.rafiki18.divtracker_be.dto;
+
+import java.math.BigDecimal;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Parámetros de una simulación Monte Carlo del DCF de un item del watchlist. Todos son opcionales")
+public class ValuationSimulationRequest {
+    
+    @Min(value = 1_000, message = "La simulación necesita al menos 1000 caminos")
+    @Max(value = 1_000_000, message = "La simulación no puede superar 1000000 caminos")
+    @Schema(description = "Número de caminos simulados (por defecto 100000)", example = "100000")
+    private Integer paths;
+    
+    @Valid
+    @Schema(description = "Distribución del crecimiento anual del FCF (decimal). Por defecto: media = crecimiento del item, desviación 0.02")
+    private Distribution growthRate;
+    
+    @Valid
+    @Schema(description = "Distribución de la tasa de descuento (decimal). Por defecto: media = tasa del item, desviación 0.01")
+    private Distribution discountRate;
+    
+    @Valid
+    @Schema(description = "Distribución del múltiplo P/FCF terminal. Por defecto: media = P/FCF objetivo del item (o 15), desviación 20% de la media")
+    private Distribution terminalMultiple;
+    
+    @Schema(description = "Semilla del generador aleatorio; la misma semilla y los mismos datos dan el mismo resultado", example = "42")
+    private Long seed;
+    
+    /**
+     * Distribución normal de una variable de la simulación
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Distribución normal (media y desviación típica)")
+    public static class Distribution {
+        
+        @Schema(description = "Media (por defecto la del item)", example = "0.08")
+        private BigDecimal mean;
+        
+        @DecimalMin(value = "0.0", message = "La desviación típica no puede ser negativa")
+        @Schema(description = "Desviación típica", example = "0.02")
+        private BigDecimal stdDev;
+    }
+}
@@ -0,0 +1,61 @@
+package com.rafiki18.divtracker_be.dto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado de una simulación Monte Carlo del DCF: distribución del valor razonable por acción")
+public class ValuationSimulationResponse {
+    
+    @Schema(description = "ID del item del watchlist", example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID id;
+    
+    @Schema(description = "Símbolo del ticker de la empresa", example = "AAPL")
+    private String ticker;
+    
+    @Schema(description = "Precio actual de mercado", example = "172.15")
+    private BigDecimal currentPrice;
+    
+    @Schema(description = "FCF por acción usado en la proyección", example = "6.50")
+    private BigDecimal freeCashFlowPerShare;
+    
+    @Schema(description = "Horizonte de proyección en años", example = "5")
+    private Integer investmentHorizonYears;
+    
+    @Schema(description = "Número de caminos simulados", example = "100000")
+    private Integer paths;
+    
+    @Schema(description = "Distribución usada para el crecimiento del FCF")
+    private ValuationSimulationRequest.Distribution growthRate;
+    
+    @Schema(description = "Distribución usada para la tasa de descuento")
+    private ValuationSimulationRequest.Distribution discountRate;
+    
+    @Schema(description = "Distribución usada para el múltiplo P/FCF terminal")
+    private ValuationSimulationRequest.Distribution terminalMultiple;
+    
+    @Schema(description = "Semilla usada", example = "42")
+    private Long seed;
+    
+    @Schema(description = "Valor razonable medio", example = "185.40")
+    private BigDecimal meanFairValue;
+    
+    @Schema(description = "Desviación típica del valor razonable", example = "32.10")
+    private BigDecimal fairValueStdDev;
+    
+    @Schema(description = "Valor razonable por percentil (p5, p10, p25, p50, p75, p90, p95)")
+    private Map<String, BigDecimal> fairValuePercentiles;
+    
+    @Schema(description = "Probabilidad de que la acción esté infravalorada: caminos con valor razonable mayor que el precio (0-1)", example = "0.6420")
+    private BigDecimal probabilityUndervalued;
+}
@@ -1,7 +1,10 @@
 package com.rafiki18.divtracker_be.mapper;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.springframework.stereotype.Component;
@@ -11,6 +14,10 @@ import com.rafiki18.divtracker_be.dto.WatchlistItemResponse;
 import com.rafiki18.divtracker_be.model.InstrumentFundamentals;
 import com.rafiki18.divtracker_be.model.WatchlistItem;
 import com.rafiki18.divtracker_be.service.FinancialMetricsService;
+import com.rafiki18.divtracker_be.service.ValuationBatch;
+import com.rafiki18.divtracker_be.service.ValuationCache;
+import com.rafiki18.divtracker_be.service.ValuationMetrics;
+import com.rafiki18.divtracker_be.service.ValuationProjection;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +28,7 @@ import lombok.extern.slf4j.Slf4j;
 public class WatchlistMapper {
     
     private final FinancialMetricsService financialMetricsService;
+    private final ValuationCache valuationCache;
     
     /**
      * Convierte un Request DTO a Entity
@@ -120,10 +128,81 @@ public class WatchlistMapper {
      */
     public void enrichWithMarketData(WatchlistItemResponse response, 
                                      InstrumentFundamentals fundamentals) {
-        if (response == null || fundamentals == null) {
+        ValuationCache.Valuation valuation = enrichAndLookUpValuation(response, fundamentals);
+        if (valuation == null) {
             return;
         }
         
+        // Métricas al precio actual: solo se recalculan si el precio ha cambiado
+        BigDecimal currentPrice = fundamentals.getCurrentPrice();
+        ValuationMetrics metrics = valuation.metricsAt(currentPrice,
+                projection -> financialMetricsService.priceValuation(
+                        projection, currentPrice, response.getTargetPrice(), response.getId()));
+        applyMetrics(response, currentPrice, metrics);
+    }
+    
+    /**
+     * Enriquece una página de respuestas; las métricas que no están en caché al
+     * precio actual se calculan juntas en un único {@link ValuationBatch}
+     *
+     * @param fundamentalsByTicker Fundamentals por ticker en mayúsculas (los que falten se omiten)
+     */
+    public void enrichWithMarketData(List<WatchlistItemResponse> responses,
+                                     Map<String, InstrumentFundamentals> fundamentalsByTicker) {
+        ValuationBatch batch = new ValuationBatch(responses.size());
+        // Items con los mismos parámetros comparten valoración y entrada en el batch
+        Map<ValuationCache.Valuation, Integer> batchIndexes = new IdentityHashMap<>();
+        List<WatchlistItemResponse> pending = new ArrayList<>();
+        List<ValuationCache.Valuation> pendingValuations = new ArrayList<>();
+        
+        for (WatchlistItemResponse response : responses) {
+            InstrumentFundamentals fundamentals = response != null && response.getTicker() != null
+                    ? fundamentalsByTicker.get(response.getTicker().toUpperCase()) : null;
+            ValuationCache.Valuation valuation = enrichAndLookUpValuation(response, fundamentals);
+            if (valuation == null) {
+                continue;
+            }
+            
+            BigDecimal currentPrice = fundamentals.getCurrentPrice();
+            ValuationMetrics cached = valuation.pricedMetrics(currentPrice);
+            if (cached != null) {
+                applyMetrics(response, currentPrice, cached);
+                continue;
+            }
+            
+            ValuationProjection projection = valuation.getProjection();
+            batchIndexes.computeIfAbsent(valuation, v -> batch.add(currentPrice, projection.getFcfPerShare(),
+                    projection.getGrowthRate(), projection.getDiscountRate(), projection.getYears(),
+                    response.getTargetPrice(), projection.getExitMultiple(), response.getId()));
+            pending.add(response);
+            pendingValuations.add(valuation);
+        }
+        
+        if (batch.size() == 0) {
+            return;
+        }
+        
+        financialMetricsService.calculateValuations(batch);
+        for (int i = 0; i < pending.size(); i++) {
+            WatchlistItemResponse response = pending.get(i);
+            ValuationCache.Valuation valuation = pendingValuations.get(i);
+            BigDecimal currentPrice = response.getCurrentPrice();
+            ValuationMetrics metrics = batch.metrics(batchIndexes.get(valuation));
+            valuation.setPricedMetrics(currentPrice, metrics);
+            applyMetrics(response, currentPrice, metrics);
+        }
+    }
+    
+    /**
+     * Datos de mercado y métricas que no dependen de la valoración; devuelve la
+     * valoración (en caché o recién proyectada), o null si faltan precio o FCF
+     */
+    private ValuationCache.Valuation enrichAndLookUpValuation(WatchlistItemResponse response,
+                                                              InstrumentFundamentals fundamentals) {
+        if (response == null || fundamentals == null) {
+            return null;
+        }
+        
         BigDecimal currentPrice = fundamentals.getCurrentPrice();
         BigDecimal fcfPerShare = fundamentals.getFcfPerShare();
         
@@ -178,80 +257,7 @@ public class WatchlistMapper {
         
         // Si falta alguno de los dos datos críticos, no podemos calcular métricas de valoración
         if (currentPrice == null || fcfPerShare == null) {
-            return;
-        }
-        
-        // 1. Determine Growth Rate
-        BigDecimal growthRate = response.getEstimatedFcfGrowthRate();
-        if (growthRate == null) {
-            // Try FOCF CAGR first (most relevant)
-            if (fundamentals.getFocfCagr5Y() != null) {
-                growthRate = fundamentals.getFocfCagr5Y().divide(new BigDecimal("100"), 4, java.math.RoundingMode.HALF_UP);
-            } 
-            // Fallback to average of other growth metrics
-            else {
-                BigDecimal sum = BigDecimal.ZERO;
-                int count = 0;
-                
-                if (fundamentals.getEpsGrowth5Y() != null) {
-                    sum = sum.add(fundamentals.getEpsGrowth5Y());
-                    count++;
-                }
-                if (fundamentals.getRevenueGrowth5Y() != null) {
-                    sum = sum.add(fundamentals.getRevenueGrowth5Y());
-                    count++;
-                }
-                if (fundamentals.getDividendGrowthRate5Y() != null) {
-                    sum = sum.add(fundamentals.getDividendGrowthRate5Y());
-                    count++;
-                }
-                
-                if (count > 0) {
-                    growthRate = sum.divide(BigDecimal.valueOf(count), 4, java.math.RoundingMode.HALF_UP)
-                            .divide(new BigDecimal("100"), 4, java.math.RoundingMode.HALF_UP);
-                } else {
-                    growthRate = new BigDecimal("0.05"); // Default 5%
-                }
-            }
-            
-            // Cap growth rate for safety (e.g., max 15%)
-            if (growthRate.compareTo(new BigDecimal("0.15")) > 0) {
-                growthRate = new BigDecimal("0.15");
-            }
-            
-            // Expose the calculated growth rate to the response if it wasn't set
-            response.setEstimatedFcfGrowthRate(growthRate);
-        }
-        
-        // 2. Determine Discount Rate
-        BigDecimal discountRate = response.getDiscountRate();
-        if (discountRate == null) {
-            // Use CAPM if Beta is available
-            // Risk Free Rate (10Y Treasury) ~ 4.4%
-            // Equity Risk Premium ~ 5.5%
-            if (fundamentals.getBeta() != null) {
-                BigDecimal riskFree = new BigDecimal("0.044");
-                BigDecimal marketPremium = new BigDecimal("0.055");
-                discountRate = riskFree.add(fundamentals.getBeta().multiply(marketPremium))
-                        .setScale(4, java.math.RoundingMode.HALF_UP);
-                
-                // Clamp discount rate between 6% and 15%
-                if (discountRate.compareTo(new BigDecimal("0.06")) < 0) {
-                    discountRate = new BigDecimal("0.06");
-                } else if (discountRate.compareTo(new BigDecimal("0.15")) > 0) {
-                    discountRate = new BigDecimal("0.15");
-                }
-            } else {
-                discountRate = new BigDecimal("0.10"); // Default 10%
-            }
-            
-            // Expose the calculated discount rate to the response if it wasn't set
-            response.setDiscountRate(discountRate);
-        }
-        
-        Integer horizon = response.getInvestmentHorizonYears();
-        if (horizon == null) {
-            horizon = 5;
+            return null;
         }
         
         // Calcular P/FCF actual
@@ -278,53 +284,79 @@ public class WatchlistMapper {
             response.setDeviationFromTargetPrice(deviation);
         }
         
-        // ===== MÉTRICAS AVANZADAS =====
-        
-        // FCF Yield
-        BigDecimal fcfYield = financialMetricsService.calculateFcfYield(fcfPerShare, currentPrice);
-        response.setFcfYield(fcfYield);
+        // Tasas derivadas y proyección (independiente del precio), compartidas entre items con los mismos parámetros
+        ValuationCache.Valuation valuation = valuationCache.get(fundamentals,
+                response.getEstimatedFcfGrowthRate(), response.getDiscountRate(),
+                response.getInvestmentHorizonYears(), response.getTargetPfcf(), response.getTargetPrice(),
+                () -> calculateValuation(response, fundamentals, fcfPerShare));
         
-        // DCF (Discounted Cash Flow)
-        log.debug("Calculating DCF for {}: fcf={}, growth={}, discount={}, horizon={}", 
-                response.getTicker(), fcfPerShare, growthRate, discountRate, horizon);
+        // Expose the calculated rates to the response if they weren't set
+        if (response.getEstimatedFcfGrowthRate() == null) {
+            response.setEstimatedFcfGrowthRate(valuation.getGrowthRate());
+        }
+        if (response.getDiscountRate() == null) {
+            response.setDiscountRate(valuation.getDiscountRate());
+        }
         
-        BigDecimal dcfValue = financialMetricsService.calculateDCF(
-                fcfPerShare, growthRate, discountRate, horizon);
-        response.setDcfFairValue(dcfValue);
+        return valuation;
+    }
+    
+    /**
+     * Copia las métricas de valoración al precio actual a la respuesta
+     */
+    private void applyMetrics(WatchlistItemResponse response, BigDecimal currentPrice, ValuationMetrics metrics) {
+        response.setFcfYield(metrics.getFcfYield());
+        response.setDcfFairValue(metrics.getDcfFairValue());
         
         // Margen de seguridad (respecto al DCF)
-        if (dcfValue != null) {
-            BigDecimal marginOfSafety = financialMetricsService.calculateMarginOfSafety(
-                    dcfValue, currentPrice);
-            response.setMarginOfSafety(marginOfSafety);
+        if (metrics.getDcfFairValue() != null) {
+            response.setMarginOfSafety(metrics.getMarginOfSafety());
             
             // GOLDEN RULE: Undervalued if Current Price < DCF Fair Value
-            response.setUndervalued(currentPrice.compareTo(dcfValue) < 0);
+            response.setUndervalued(currentPrice.compareTo(metrics.getDcfFairValue()) < 0);
+        }
+        
+        response.setPaybackPeriod(metrics.getPaybackPeriod());
+        response.setEstimatedROI(metrics.getEstimatedRoi());
+        response.setEstimatedIRR(metrics.getEstimatedIrr());
+    }
+    
+    /**
+     * Tasas de crecimiento y descuento (las del item o derivadas de los fundamentales)
+     * y proyección de la valoración, que no depende del precio
+     */
+    private ValuationCache.Valuation calculateValuation(WatchlistItemResponse response,
+                                                        InstrumentFundamentals fundamentals,
+                                                        BigDecimal fcfPerShare) {
+        // 1. Tasa de crecimiento: la del item o derivada de los fundamentales
+        BigDecimal growthRate = response.getEstimatedFcfGrowthRate();
+        if (growthRate == null) {
+            growthRate = financialMetricsService.estimateGrowthRate(fundamentals);
+        }
+        
+        // 2. Tasa de descuento: la del item o CAPM con la beta
+        BigDecimal discountRate = response.getDiscountRate();
+        if (discountRate == null) {
+            discountRate = financialMetricsService.estimateDiscountRate(fundamentals);
         }
         
-        // Payback Period
-        BigDecimal paybackPeriod = financialMetricsService.calculatePaybackPeriod(
-                currentPrice, fcfPerShare, growthRate);
-        response.setPaybackPeriod(paybackPeriod);
-        
-        // ROI estimado
-        BigDecimal targetForRoi = dcfValue != null ? dcfValue : 
-                (response.getTargetPrice() != null ? response.getTargetPrice() : currentPrice);
-        BigDecimal estimatedRoi = financialMetricsService.calculateEstimatedROI(
-                currentPrice, targetForRoi, fcfPerShare, growthRate, horizon);
-        response.setEstimatedROI(estimatedRoi);
-        
-        // TIR (IRR)
-        try {
-            List<BigDecimal> cashFlows = financialMetricsService.generateProjectedCashFlows(
-                    fcfPerShare, growthRate, horizon, response.getTargetPfcf() != null ? 
-                            response.getTargetPfcf() : new BigDecimal("15"));
-            BigDecimal irr = financialMetricsService.calculateIRR(
-                    currentPrice.negate(), cashFlows);
-            response.setEstimatedIRR(irr);
-        } catch (Exception e) {
-            log.debug("Could not calculate IRR for {}: {}", response.getTicker(), e.getMessage());
+        Integer horizon = response.getInvestmentHorizonYears();
+        if (horizon == null) {
+            horizon = FinancialMetricsService.DEFAULT_HORIZON_YEARS;
         }
+        
+        // ===== MÉTRICAS AVANZADAS =====
+        
+        // Flujos proyectados y DCF; yield, margen de seguridad, payback, ROI y TIR se calculan por precio
+        log.debug("Projecting valuation for {}: fcf={}, growth={}, discount={}, horizon={}", 
+                response.getTicker(), fcfPerShare, growthRate, discountRate, horizon);
+        
+        ValuationProjection projection = financialMetricsService.projectValuation(
+                fcfPerShare, growthRate, discountRate, horizon,
+                response.getTargetPfcf() != null ? response.getTargetPfcf()
+                        : FinancialMetricsService.DEFAULT_EXIT_MULTIPLE);
+        
+        return new ValuationCache.Valuation(growthRate, discountRate, projection);
     }
     
     /**
@@ -0,0 +1,36 @@
+package com.rafiki18.divtracker_be.marketdata;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Finnhub /stock/financials?statement=cf response, only the cash flow lines we use.
+ * Periods are ordered most recent first.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class FinnhubCashFlow {
+
+    private List<Period> financials;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Period {
+        private String period;
+        private BigDecimal operatingCashFlow;
+        private BigDecimal capitalExpenditure;
+    }
+}
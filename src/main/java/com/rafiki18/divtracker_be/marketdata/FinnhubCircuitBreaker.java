@@ -0,0 +1,205 @@
+package com.rafiki18.divtracker_be.marketdata;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Circuit breaker plus concurrency bulkhead for one Finnhub endpoint.
+ *
+ * CLOSED lets calls through until {@code failureThreshold} consecutive
+ * failures open the circuit. OPEN rejects calls immediately until
+ * {@code openDuration} has passed, then HALF_OPEN lets a single probe through:
+ * success closes the circuit, failure opens it again. Independently, at most
+ * {@code maxConcurrentCalls} calls may be in flight; extra callers are
+ * rejected instead of queueing.
+ *
+ * Every permit returned by {@link #tryAcquire()} must be handed back exactly once,
+ * through {@link #release(Permit, boolean)} or {@link #cancel(Permit)}. Only the
+ * probe's outcome moves the circuit out of HALF_OPEN; calls that were already in
+ * flight when the circuit opened are counted but cannot close or reopen it.
+ */
+@Slf4j
+public class FinnhubCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final FinnhubEndpoint endpoint;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final int maxConcurrentCalls;
+    private final Semaphore bulkhead;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    private final AtomicLong successfulCalls = new AtomicLong();
+    private final AtomicLong failedCalls = new AtomicLong();
+    private final AtomicLong rejectedByCircuit = new AtomicLong();
+    private final AtomicLong rejectedByBulkhead = new AtomicLong();
+
+    public FinnhubCircuitBreaker(FinnhubEndpoint endpoint, int failureThreshold, Duration openDuration,
+                                 int maxConcurrentCalls) {
+        this.endpoint = endpoint;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = openDuration.toMillis();
+        this.maxConcurrentCalls = Math.max(1, maxConcurrentCalls);
+        this.bulkhead = new Semaphore(this.maxConcurrentCalls);
+    }
+
+    /**
+     * Ask for permission to call the endpoint. Never blocks.
+     *
+     * @return the permit for this call, or null if the circuit is open or the bulkhead is full
+     */
+    public Permit tryAcquire() {
+        boolean probe = false;
+        synchronized (this) {
+            if (state == State.OPEN) {
+                if (System.currentTimeMillis() - openedAt < openMillis) {
+                    rejectedByCircuit.incrementAndGet();
+                    return null;
+                }
+                state = State.HALF_OPEN;
+                log.info("Finnhub {} circuit half-open, probing", endpoint);
+            }
+            if (state == State.HALF_OPEN) {
+                if (probeInFlight) {
+                    rejectedByCircuit.incrementAndGet();
+                    return null;
+                }
+                probeInFlight = true;
+                probe = true;
+            }
+        }
+
+        if (!bulkhead.tryAcquire()) {
+            if (probe) {
+                synchronized (this) {
+                    probeInFlight = false;
+                }
+            }
+            rejectedByBulkhead.incrementAndGet();
+            return null;
+        }
+        return new Permit(probe);
+    }
+
+    /**
+     * Report the outcome of a permitted call and free its bulkhead slot.
+     * Releasing the same permit twice has no effect.
+     *
+     * @param success false only for upstream failures (timeouts, 5xx, 429),
+     *                not for missing data
+     */
+    public void release(Permit permit, boolean success) {
+        if (!permit.consume()) {
+            return;
+        }
+        bulkhead.release();
+        synchronized (this) {
+            if (success) {
+                successfulCalls.incrementAndGet();
+                if (permit.probe) {
+                    probeInFlight = false;
+                    consecutiveFailures = 0;
+                    state = State.CLOSED;
+                    log.info("Finnhub {} circuit closed", endpoint);
+                } else if (state == State.CLOSED) {
+                    consecutiveFailures = 0;
+                }
+                return;
+            }
+
+            failedCalls.incrementAndGet();
+            if (permit.probe) {
+                probeInFlight = false;
+                consecutiveFailures++;
+                open();
+            } else if (state == State.CLOSED && ++consecutiveFailures >= failureThreshold) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * Free the bulkhead slot of a call that was abandoned before it finished
+     * (e.g. its subscriber cancelled). Neither a success nor a failure: a
+     * cancelled probe just lets the next caller probe instead.
+     */
+    public void cancel(Permit permit) {
+        if (!permit.consume()) {
+            return;
+        }
+        bulkhead.release();
+        if (permit.probe) {
+            synchronized (this) {
+                probeInFlight = false;
+            }
+        }
+    }
+
+    private void open() {
+        log.warn("Finnhub {} circuit opened after {} consecutive failures", endpoint, consecutiveFailures);
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * True while calls are being rejected without trying (OPEN and not yet due for a probe).
+     */
+    public synchronized boolean isOpen() {
+        return state == State.OPEN && System.currentTimeMillis() - openedAt < openMillis;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("state", state);
+        snapshot.put("consecutiveFailures", consecutiveFailures);
+        snapshot.put("openedAt", state == State.CLOSED ? null : Instant.ofEpochMilli(openedAt));
+        snapshot.put("inFlight", maxConcurrentCalls - bulkhead.availablePermits());
+        snapshot.put("maxConcurrentCalls", maxConcurrentCalls);
+        snapshot.put("successfulCalls", successfulCalls.get());
+        snapshot.put("failedCalls", failedCalls.get());
+        snapshot.put("rejectedByCircuit", rejectedByCircuit.get());
+        snapshot.put("rejectedByBulkhead", rejectedByBulkhead.get());
+        return snapshot;
+    }
+
+    /**
+     * Permission for one call, handed back through {@link #release(Permit, boolean)}
+     * or {@link #cancel(Permit)}.
+     */
+    public static final class Permit {
+
+        private final boolean probe;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(boolean probe) {
+            this.probe = probe;
+        }
+
+        /**
+         * True for the single call let through while HALF_OPEN.
+         */
+        public boolean isProbe() {
+            return probe;
+        }
+
+        private boolean consume() {
+            return released.compareAndSet(false, true);
+        }
+    }
+}
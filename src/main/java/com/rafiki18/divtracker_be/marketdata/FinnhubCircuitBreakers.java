@@ -0,0 +1,43 @@
+package com.rafiki18.divtracker_be.marketdata;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import com.rafiki18.divtracker_be.config.properties.FinnhubProperties;
+
+/**
+ * One circuit breaker and bulkhead per Finnhub endpoint, so a degraded
+ * endpoint (e.g. metrics) does not take quotes or search down with it.
+ * State is exposed at {@code /actuator/finnhub}.
+ */
+@Component
+@Endpoint(id = "finnhub")
+public class FinnhubCircuitBreakers {
+
+    private final Map<FinnhubEndpoint, FinnhubCircuitBreaker> breakers = new EnumMap<>(FinnhubEndpoint.class);
+
+    public FinnhubCircuitBreakers(FinnhubProperties properties) {
+        for (FinnhubEndpoint endpoint : FinnhubEndpoint.values()) {
+            breakers.put(endpoint, new FinnhubCircuitBreaker(endpoint,
+                    properties.getCircuitFailureThreshold(),
+                    properties.getCircuitOpenDuration(),
+                    properties.getMaxConcurrentCallsPerEndpoint()));
+        }
+    }
+
+    public FinnhubCircuitBreaker get(FinnhubEndpoint endpoint) {
+        return breakers.get(endpoint);
+    }
+
+    @ReadOperation
+    public Map<String, Object> circuitBreakers() {
+        Map<String, Object> states = new LinkedHashMap<>();
+        breakers.forEach((endpoint, breaker) -> states.put(endpoint.name().toLowerCase(), breaker.snapshot()));
+        return states;
+    }
+}
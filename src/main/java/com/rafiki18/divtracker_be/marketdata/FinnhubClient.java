@@ -6,350 +6,302 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.util.UriBuilder;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import com.rafiki18.divtracker_be.config.properties.FinnhubProperties;
 import com.rafiki18.divtracker_be.dto.TickerSearchResult;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+/**
+ * Finnhub REST client.
+ *
+ * The reactive methods ({@link #quote}, {@link #companyProfile}, ...) are the
+ * primary API: they are lazy, never block, and complete empty when Finnhub is
+ * disabled, the endpoint's circuit is open or the call fails, so callers can
+ * compose several of them and run the requests in parallel. The
+ * {@code fetch*} methods are thin blocking adapters for single-call paths.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class FinnhubClient {
 
     private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration SYMBOL_LIST_TIMEOUT = Duration.ofSeconds(60);
+    private static final int SEARCH_LIMIT = 20;
     private static final ParameterizedTypeReference<Map<String, Object>> MAP_TYPE = new ParameterizedTypeReference<>() {};
 
     private final WebClient finnhubWebClient;
     private final FinnhubProperties properties;
+    private final FinnhubRateBudget rateBudget;
+    private final FinnhubCircuitBreakers circuitBreakers;
 
-    public Optional<BigDecimal> fetchCurrentPrice(String ticker) {
-        return fetchMap(ticker, "quote", builder -> builder
-                .path("/quote")
-                .queryParam("symbol", ticker)
-            .queryParam("token", properties.getApiKey())
-                .build())
-                .flatMap(body -> extractDecimal(body.get("c")));
+    /**
+     * Quote data (price, change, previous close) for a ticker.
+     */
+    public Mono<FinnhubQuote> quote(String ticker) {
+        return call(FinnhubEndpoint.QUOTE, ticker, REQUEST_TIMEOUT, () -> finnhubWebClient.get()
+                .uri(builder -> builder
+                        .path("/quote")
+                        .queryParam("symbol", ticker)
+                        .queryParam("token", properties.getApiKey())
+                        .build())
+                .retrieve()
+                .bodyToMono(FinnhubQuote.class))
+                .doOnNext(q -> log.debug("Finnhub quote for {}: currentPrice={}, change={}, previousClose={}",
+                        ticker, q.getCurrentPrice(), q.getChange(), q.getPreviousClose()))
+                .switchIfEmpty(warnEmpty("quote", ticker));
+    }
+
+    public Mono<BigDecimal> currentPrice(String ticker) {
+        return quote(ticker).mapNotNull(FinnhubQuote::getCurrentPrice);
     }
 
     /**
-     * Fetch cash flow financials from Finnhub.
-     * Returns the most recent quarterly data containing operatingCashFlow and capitalExpenditure.
-     * 
-     * @param ticker Stock ticker symbol
-     * @param frequency "annual" or "quarterly" (defaults to quarterly for most recent data)
-     * @return Map containing cash flow data, or empty if not found
+     * Company profile (name, exchange, currency, shares outstanding).
      */
-    public Optional<Map<String, Object>> fetchCashFlowFinancials(String ticker, String frequency) {
-        Optional<Map<String, Object>> result = fetchMap(ticker, "financials-cf", builder -> builder
-                .path("/stock/financials")
-                .queryParam("symbol", ticker)
-                .queryParam("statement", "cf")
-                .queryParam("freq", frequency)
-                .queryParam("token", properties.getApiKey())
-                .build());
-        
-        if (result.isPresent()) {
-            log.info("Finnhub cash flow financials for {} ({}): {}", ticker, frequency, result.get());
-        } else {
-            log.warn("No cash flow financials returned from Finnhub for {} ({})", ticker, frequency);
-        }
-        
-        return result;
+    public Mono<FinnhubProfile> companyProfile(String ticker) {
+        return call(FinnhubEndpoint.PROFILE, ticker, REQUEST_TIMEOUT, () -> finnhubWebClient.get()
+                .uri(builder -> builder
+                        .path("/stock/profile2")
+                        .queryParam("symbol", ticker)
+                        .queryParam("token", properties.getApiKey())
+                        .build())
+                .retrieve()
+                .bodyToMono(FinnhubProfile.class))
+                .doOnNext(p -> log.debug("Finnhub profile for {}: name={}, exchange={}, currency={}",
+                        ticker, p.getName(), p.getExchange(), p.getCurrency()))
+                .switchIfEmpty(warnEmpty("profile", ticker));
     }
-    
+
     /**
-     * Calculate FCF and FCF per share from cash flow statement.
-     * 
-     * FCF = Operating Cash Flow - Capital Expenditure
-     * FCF per Share = FCF / Shares Outstanding
-     * 
-     * @param ticker Stock ticker symbol
-     * @return Map with "fcf" and "fcfPerShare" keys, or empty if data unavailable
+     * Essential ratios/metrics (PE, beta, D/E ratio, dividends, growth).
+     * Finnhub only offers metric=all; the decoder keeps just the fields declared
+     * in {@link FinnhubMetrics} and skips the rest of the payload.
+     * Completes empty if the response has no "metric" object.
      */
-    public Optional<Map<String, BigDecimal>> calculateFCF(String ticker) {
-        // Fetch annual cash flow data (more stable, eliminates seasonality)
-        Optional<Map<String, Object>> cfData = fetchCashFlowFinancials(ticker, "annual");
-        
-        if (cfData.isEmpty()) {
-            log.debug("No cash flow data available for {}", ticker);
-            return Optional.empty();
-        }
-        
-        // Extract financials array
-        Object financialsObj = cfData.get().get("financials");
-        if (!(financialsObj instanceof List<?> financialsList) || financialsList.isEmpty()) {
-            log.debug("No financials array in cash flow data for {}", ticker);
-            return Optional.empty();
-        }
-        
-        // Get most recent annual data (first element)
-        if (!(financialsList.get(0) instanceof Map<?, ?> latestAnnual)) {
-            log.debug("Invalid financials data format for {}", ticker);
-            return Optional.empty();
-        }
-        
-        // Extract operating cash flow and capex
-        Optional<BigDecimal> operatingCashFlow = extractDecimal(latestAnnual.get("operatingCashFlow"));
-        Optional<BigDecimal> capex = extractDecimal(latestAnnual.get("capitalExpenditure"));
-        
-        if (operatingCashFlow.isEmpty() || capex.isEmpty()) {
-            log.debug("Missing operatingCashFlow or capitalExpenditure for {}", ticker);
-            return Optional.empty();
-        }
-        
-        // Calculate FCF = Operating Cash Flow - Capital Expenditure
-        // Note: capex is usually negative in financial statements
-        BigDecimal fcf = operatingCashFlow.get().add(capex.get());
-        
-        log.info("Calculated FCF for {}: {} - ({}) = {}", 
-                ticker, operatingCashFlow.get(), capex.get(), fcf);
-        
-        // Fetch profile to get shares outstanding
-        Optional<Map<String, Object>> profile = fetchCompanyProfile(ticker);
-        
-        if (profile.isEmpty()) {
-            log.debug("No profile data to calculate FCF per share for {}", ticker);
-            return Optional.of(Map.of("fcf", fcf));
-        }
-        
-        Optional<BigDecimal> sharesOutstanding = extractDecimal(profile.get().get("shareOutstanding"));
-        
-        if (sharesOutstanding.isEmpty() || sharesOutstanding.get().compareTo(BigDecimal.ZERO) <= 0) {
-            log.debug("Invalid or missing shareOutstanding for {}", ticker);
-            return Optional.of(Map.of("fcf", fcf));
-        }
-        
-        // Calculate FCF per share
-        BigDecimal fcfPerShare = fcf.divide(sharesOutstanding.get(), 4, java.math.RoundingMode.HALF_UP);
-        
-        log.info("Calculated FCF per share for {}: {} / {} = {}", 
-                ticker, fcf, sharesOutstanding.get(), fcfPerShare);
-        
-        return Optional.of(Map.of(
-            "fcf", fcf,
-            "fcfPerShare", fcfPerShare
-        ));
+    public Mono<FinnhubMetrics> essentialMetrics(String ticker) {
+        return call(FinnhubEndpoint.METRICS, ticker, REQUEST_TIMEOUT, () -> finnhubWebClient.get()
+                .uri(builder -> builder
+                        .path("/stock/metric")
+                        .queryParam("symbol", ticker)
+                        .queryParam("metric", "all")
+                        .queryParam("token", properties.getApiKey())
+                        .build())
+                .retrieve()
+                .bodyToMono(FinnhubMetrics.Response.class))
+                .mapNotNull(FinnhubMetrics.Response::getMetric)
+                .doOnNext(m -> log.debug("Finnhub essential metrics for {}: peAnnual={}, beta={}, debtToEquity={}",
+                        ticker, m.getPeAnnual(), m.getBeta(), m.getDebtToEquityQuarterly()))
+                .switchIfEmpty(warnEmpty("metrics", ticker));
     }
 
     /**
-     * Fetch complete company profile from Finnhub.
-     * 
-     * @param ticker Stock ticker symbol
-     * @return Map containing profile data, or empty if not found
+     * Cash flow financials. Only operatingCashFlow and capitalExpenditure are
+     * decoded per period; periods are ordered most recent first.
+     *
+     * @param frequency "annual" or "quarterly"
      */
-    public Optional<Map<String, Object>> fetchCompanyProfile(String ticker) {
-        Optional<Map<String, Object>> result = fetchMap(ticker, "profile", builder -> builder
-                .path("/stock/profile2")
-                .queryParam("symbol", ticker)
-                .queryParam("token", properties.getApiKey())
-                .build());
-        
-        if (result.isPresent()) {
-            log.info("Finnhub profile FULL RESPONSE for {}: {}", ticker, result.get());
-            log.debug("Finnhub profile for {}: name={}, exchange={}, currency={}", 
-                    ticker, 
-                    result.get().get("name"),
-                    result.get().get("exchange"),
-                    result.get().get("currency"));
-        } else {
-            log.warn("No profile data returned from Finnhub for {}", ticker);
-        }
-        
-        return result;
+    public Mono<FinnhubCashFlow> cashFlowFinancials(String ticker, String frequency) {
+        return call(FinnhubEndpoint.FINANCIALS, ticker, REQUEST_TIMEOUT, () -> finnhubWebClient.get()
+                .uri(builder -> builder
+                        .path("/stock/financials")
+                        .queryParam("symbol", ticker)
+                        .queryParam("statement", "cf")
+                        .queryParam("freq", frequency)
+                        .queryParam("token", properties.getApiKey())
+                        .build())
+                .retrieve()
+                .bodyToMono(FinnhubCashFlow.class))
+                .doOnNext(cf -> log.debug("Finnhub cash flow financials for {} ({}): {} periods", ticker, frequency,
+                        cf.getFinancials() != null ? cf.getFinancials().size() : 0))
+                .switchIfEmpty(warnEmpty("cash flow financials", ticker));
     }
 
     /**
-     * Fetch essential ratios/metrics for a ticker (PE, beta, D/E ratio).
-     * Only fetches the minimum data needed for valuation analysis.
-     * 
-     * @param ticker Stock ticker symbol
-     * @return Map containing metrics with only the essential ratios
+     * FCF and FCF per share from the latest annual cash flow statement.
+     *
+     * FCF = Operating Cash Flow - Capital Expenditure
+     * FCF per Share = FCF / Shares Outstanding
+     *
+     * Emits a map with "fcf" and, when shares outstanding are known,
+     * "fcfPerShare"; completes empty if the cash flow data is unusable.
      */
-    public Optional<Map<String, Object>> fetchEssentialMetrics(String ticker) {
-        Optional<Map<String, Object>> result = fetchMap(ticker, "metrics", builder -> builder
-                .path("/stock/metric")
-                .queryParam("symbol", ticker)
-                .queryParam("metric", "all")
-                .queryParam("token", properties.getApiKey())
-                .build());
-        
-        if (result.isPresent()) {
-            log.info("Finnhub essential metrics FULL RESPONSE for {}: {}", ticker, result.get());
-            Object metricObj = result.get().get("metric");
-            if (metricObj instanceof Map<?, ?> metrics) {
-                log.info("Finnhub essential metrics parsed for {}: peAnnual={}, beta={}, debtToEquity={}", 
-                        ticker,
-                        metrics.get("peAnnual"),
-                        metrics.get("beta"),
-                        metrics.get("totalDebt/totalEquityQuarterly"));
-            } else {
-                log.warn("Metrics response for {} has no 'metric' map", ticker);
-            }
-        } else {
-            log.warn("No metrics data returned from Finnhub for {}", ticker);
-        }
-        
-        return result;
+    public Mono<Map<String, BigDecimal>> freeCashFlow(String ticker) {
+        return freeCashFlow(ticker, companyProfile(ticker));
     }
-    
+
     /**
-     * @deprecated Use fetchEssentialMetrics() instead. This method fetches too much unnecessary data.
+     * Same as {@link #freeCashFlow(String)}, reusing a profile the caller
+     * already requested (typically a {@code cache()}d {@link #companyProfile}),
+     * so the profile endpoint is not called twice. The profile is only
+     * subscribed once the cash flow data turned out to be usable.
      */
-    @Deprecated(since = "2025-11-23", forRemoval = true)
-    public Optional<Map<String, Object>> fetchAllMetrics(String ticker) {
-        return fetchEssentialMetrics(ticker);
+    public Mono<Map<String, BigDecimal>> freeCashFlow(String ticker, Mono<FinnhubProfile> profile) {
+        // Annual cash flow data is more stable and eliminates seasonality
+        return cashFlowFinancials(ticker, "annual")
+                .flatMap(cashFlow -> {
+                    BigDecimal fcf = latestFcf(ticker, cashFlow);
+                    if (fcf == null) {
+                        return Mono.empty();
+                    }
+                    return profile
+                            .map(p -> fcfWithPerShare(ticker, fcf, p.getShareOutstanding()))
+                            .defaultIfEmpty(Map.of("fcf", fcf));
+                });
     }
 
     /**
-     * Fetch quote data (price, change, etc.) for a ticker.
-     * 
-     * @param ticker Stock ticker symbol
-     * @return Map containing quote data, or empty if not found
+     * Symbol search by query (company name or ticker), top 20 results.
+     * The /search endpoint only returns description, displaySymbol, symbol and
+     * type; exchange, currency and figi stay null.
      */
-    public Optional<Map<String, Object>> fetchQuote(String ticker) {
-        Optional<Map<String, Object>> result = fetchMap(ticker, "quote", builder -> builder
-                .path("/quote")
-                .queryParam("symbol", ticker)
-                .queryParam("token", properties.getApiKey())
-                .build());
-        
-        if (result.isPresent()) {
-            log.info("Finnhub quote FULL RESPONSE for {}: {}", ticker, result.get());
-            log.debug("Finnhub quote for {}: currentPrice={}, change={}, previousClose={}", 
-                    ticker,
-                    result.get().get("c"),
-                    result.get().get("d"),
-                    result.get().get("pc"));
-        } else {
-            log.warn("No quote data returned from Finnhub for {}", ticker);
+    public Flux<TickerSearchResult> search(String query) {
+        if (!StringUtils.hasText(query)) {
+            return Flux.empty();
         }
-        
-        return result;
+        return call(FinnhubEndpoint.SEARCH, query, REQUEST_TIMEOUT, () -> finnhubWebClient.get()
+                .uri(builder -> builder
+                        .path("/search")
+                        .queryParam("q", query.trim())
+                        .queryParam("token", properties.getApiKey())
+                        .build())
+                .retrieve()
+                .bodyToMono(MAP_TYPE))
+                .flatMapMany(response -> response.get("result") instanceof List<?> results
+                        ? Flux.<Object>fromIterable(results)
+                        : Flux.<Object>empty())
+                .filter(Map.class::isInstance)
+                .map(item -> mapSearchResultToTickerSearchResult((Map<?, ?>) item))
+                .filter(result -> result.getSymbol() != null)
+                .take(SEARCH_LIMIT);
     }
 
     /**
-     * Lookup symbols from Finnhub using Symbol Lookup API.
-     * Returns all symbols from US exchanges that match the query.
-     * 
-     * @param query Ticker symbol to look up (e.g., "BAM", "AAPL")
-     * @return List of matching symbols with full details
+     * Full symbol list of an exchange.
+     * The JSON array is decoded element by element, so the tens of thousands of
+     * entries never need to be buffered as a single response body.
+     * Meant for the daily symbol index rebuild, not for per-request lookups.
+     *
+     * @param exchange Exchange code (e.g., "US")
      */
-    public List<TickerSearchResult> lookupSymbol(String query) {
-        if (!isEnabled() || !StringUtils.hasText(query)) {
-            log.debug("Finnhub disabled or empty query, returning empty results");
-            return Collections.emptyList();
-        }
+    public Mono<List<FinnhubSymbol>> symbols(String exchange) {
+        return call(FinnhubEndpoint.SYMBOLS, exchange, SYMBOL_LIST_TIMEOUT, () -> finnhubWebClient.get()
+                .uri(builder -> builder
+                        .path("/stock/symbol")
+                        .queryParam("exchange", exchange)
+                        .queryParam("token", properties.getApiKey())
+                        .build())
+                .retrieve()
+                .bodyToFlux(FinnhubSymbol.class)
+                .filter(symbol -> StringUtils.hasText(symbol.getSymbol()))
+                .collectList());
+    }
 
-        try {
-            // Get all US exchange symbols
-            Object response = finnhubWebClient.get()
-                    .uri(builder -> builder
-                            .path("/stock/symbol")
-                            .queryParam("exchange", "US")
-                            .queryParam("token", properties.getApiKey())
-                            .build())
-                    .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<List<Map<String, Object>>>() {})
-                    .timeout(Duration.ofSeconds(10))
-                    .blockOptional()
-                    .orElse(Collections.emptyList());
-
-            if (!(response instanceof List<?> symbolList)) {
-                log.debug("No symbols returned from Finnhub");
-                return Collections.emptyList();
-            }
+    // Blocking adapters
 
-            String normalizedQuery = query.trim().toUpperCase();
-            
-            return symbolList.stream()
-                    .filter(Map.class::isInstance)
-                    .map(item -> (Map<?, ?>) item)
-                    .filter(item -> {
-                        String symbol = getString(item, "symbol");
-                        return symbol != null && symbol.toUpperCase().startsWith(normalizedQuery);
-                    })
-                    .map(this::mapToTickerSearchResult)
-                    .filter(result -> result.getSymbol() != null)
-                    .limit(20) // Limit to top 20 matches
-                    .collect(Collectors.toList());
-
-        } catch (Exception ex) {
-            log.warn("Finnhub symbol lookup failed for query '{}': {}", query, ex.getMessage());
-            return Collections.emptyList();
-        }
+    public Optional<BigDecimal> fetchCurrentPrice(String ticker) {
+        return currentPrice(ticker).blockOptional();
+    }
+
+    public Optional<FinnhubQuote> fetchQuote(String ticker) {
+        return quote(ticker).blockOptional();
+    }
+
+    public Optional<FinnhubProfile> fetchCompanyProfile(String ticker) {
+        return companyProfile(ticker).blockOptional();
+    }
+
+    public Optional<FinnhubMetrics> fetchEssentialMetrics(String ticker) {
+        return essentialMetrics(ticker).blockOptional();
     }
 
     /**
-     * Search for stock symbols by query (name or ticker).
-     * Uses Finnhub Symbol Search API for fuzzy search by company name.
-     * 
-     * @param query Search term (company name or ticker symbol)
-     * @return List of matching ticker results
+     * @deprecated Use fetchEssentialMetrics() instead. This method fetches too much unnecessary data.
      */
+    @Deprecated(since = "2025-11-23", forRemoval = true)
+    public Optional<FinnhubMetrics> fetchAllMetrics(String ticker) {
+        return fetchEssentialMetrics(ticker);
+    }
+
+    public Optional<FinnhubCashFlow> fetchCashFlowFinancials(String ticker, String frequency) {
+        return cashFlowFinancials(ticker, frequency).blockOptional();
+    }
+
+    /**
+     * @return Map with "fcf" and "fcfPerShare" keys, or empty if data unavailable
+     */
+    public Optional<Map<String, BigDecimal>> calculateFCF(String ticker) {
+        return freeCashFlow(ticker).blockOptional();
+    }
+
     public List<TickerSearchResult> searchSymbols(String query) {
-        if (!isEnabled() || !StringUtils.hasText(query)) {
-            log.debug("Finnhub disabled or empty query, returning empty results");
-            return Collections.emptyList();
-        }
+        return search(query).collectList().blockOptional().orElse(Collections.emptyList());
+    }
 
-        try {
-            Map<String, Object> response = finnhubWebClient.get()
-                    .uri(builder -> builder
-                            .path("/search")
-                            .queryParam("q", query.trim())
-                            .queryParam("token", properties.getApiKey())
-                            .build())
-                    .retrieve()
-                    .bodyToMono(MAP_TYPE)
-                    .timeout(REQUEST_TIMEOUT)
-                    .blockOptional()
-                    .orElse(Collections.emptyMap());
-
-            Object resultObj = response.get("result");
-            if (!(resultObj instanceof List<?> resultList)) {
-                log.debug("No results found for query: {}", query);
-                return Collections.emptyList();
-            }
+    public List<FinnhubSymbol> fetchSymbols(String exchange) {
+        return symbols(exchange).blockOptional().orElse(Collections.emptyList());
+    }
 
-            return resultList.stream()
-                    .filter(Map.class::isInstance)
-                    .map(item -> (Map<?, ?>) item)
-                    .map(this::mapSearchResultToTickerSearchResult)
-                    .filter(result -> result.getSymbol() != null)
-                    .limit(20) // Limit to top 20 results
-                    .collect(Collectors.toList());
-
-        } catch (Exception ex) {
-            log.warn("Finnhub symbol search failed for query '{}': {}", query, ex.getMessage());
-            return Collections.emptyList();
-        }
+    /**
+     * True while the endpoint's circuit is open, i.e. calls fail fast and
+     * callers should serve cached data.
+     */
+    public boolean isCircuitOpen(FinnhubEndpoint endpoint) {
+        return circuitBreakers.get(endpoint).isOpen();
     }
 
     public boolean isEnabled() {
-        return properties.isEnabled() 
+        return properties.isEnabled()
             && StringUtils.hasText(properties.getApiUrl())
             && StringUtils.hasText(properties.getApiKey());
     }
 
-    private TickerSearchResult mapToTickerSearchResult(Map<?, ?> data) {
-        return TickerSearchResult.builder()
-                .symbol(getString(data, "symbol"))
-                .description(getString(data, "description"))
-                .type(getString(data, "type"))
-                .exchange(getString(data, "displaySymbol"))
-                .currency(getString(data, "currency"))
-                .figi(getString(data, "figi"))
-                .build();
+    private BigDecimal latestFcf(String ticker, FinnhubCashFlow cashFlow) {
+        List<FinnhubCashFlow.Period> financials = cashFlow.getFinancials();
+        if (financials == null || financials.isEmpty() || financials.get(0) == null) {
+            log.debug("No financials array in cash flow data for {}", ticker);
+            return null;
+        }
+
+        // Get most recent annual data (first element)
+        FinnhubCashFlow.Period latestAnnual = financials.get(0);
+        BigDecimal operatingCashFlow = latestAnnual.getOperatingCashFlow();
+        BigDecimal capex = latestAnnual.getCapitalExpenditure();
+        if (operatingCashFlow == null || capex == null) {
+            log.debug("Missing operatingCashFlow or capitalExpenditure for {}", ticker);
+            return null;
+        }
+
+        // Note: capex is usually negative in financial statements
+        BigDecimal fcf = operatingCashFlow.add(capex);
+        log.debug("Calculated FCF for {}: {} - ({}) = {}", ticker, operatingCashFlow, capex, fcf);
+        return fcf;
+    }
+
+    private Map<String, BigDecimal> fcfWithPerShare(String ticker, BigDecimal fcf, BigDecimal sharesOutstanding) {
+        if (sharesOutstanding == null || sharesOutstanding.compareTo(BigDecimal.ZERO) <= 0) {
+            log.debug("Invalid or missing shareOutstanding for {}", ticker);
+            return Map.of("fcf", fcf);
+        }
+
+        BigDecimal fcfPerShare = fcf.divide(sharesOutstanding, 4, java.math.RoundingMode.HALF_UP);
+        log.debug("Calculated FCF per share for {}: {} / {} = {}", ticker, fcf, sharesOutstanding, fcfPerShare);
+        return Map.of(
+            "fcf", fcf,
+            "fcfPerShare", fcfPerShare
+        );
     }
 
     /**
@@ -364,7 +316,7 @@ public class FinnhubClient {
                 .type(getString(data, "type"))
                 // The following fields are not returned by /search endpoint according to Swagger
                 // keeping them null is correct as they will be fetched later via profile endpoint
-                .exchange(null) 
+                .exchange(null)
                 .currency(null)
                 .figi(null)
                 .build();
@@ -375,40 +327,60 @@ public class FinnhubClient {
         return value != null ? value.toString() : null;
     }
 
-    private Optional<Map<String, Object>> fetchMap(String ticker, String operation,
-                                                   Function<UriBuilder, java.net.URI> uriFunction) {
-        if (!isEnabled()) {
-            return Optional.empty();
-        }
-        try {
-            return finnhubWebClient.get()
-                    .uri(uriFunction)
-                    .retrieve()
-                    .bodyToMono(MAP_TYPE)
-                    .timeout(REQUEST_TIMEOUT)
-                    .blockOptional();
-        } catch (Exception ex) {
-            if (ex.getMessage() != null && ex.getMessage().contains("403")) {
-                log.warn("Finnhub {} request forbidden for {} (likely plan limit): {}", operation, ticker, ex.getMessage());
-            } else {
-                log.warn("Finnhub {} request failed for {}: {}", operation, ticker, ex.getMessage());
+    /**
+     * Deferred, guarded request: the circuit breaker, bulkhead and rate budget
+     * are checked when the Mono is subscribed, not when it is assembled.
+     * Failures are logged, reported to a {@link FinnhubFailure.Recorder} in the
+     * subscriber context if any, and turned into an empty completion.
+     */
+    private <T> Mono<T> call(FinnhubEndpoint endpoint, String subject, Duration timeout,
+                             Supplier<Mono<T>> request) {
+        return Mono.deferContextual(context -> {
+            if (!isEnabled()) {
+                return Mono.<T>empty();
             }
-            return Optional.empty();
-        }
+            FinnhubCircuitBreaker breaker = circuitBreakers.get(endpoint);
+            FinnhubCircuitBreaker.Permit permit = breaker.tryAcquire();
+            if (permit == null) {
+                log.debug("Finnhub {} circuit open or saturated, skipping request for {}", endpoint, subject);
+                FinnhubFailure.Recorder.report(context, FinnhubFailure.THROTTLED, endpoint + " circuit open");
+                return Mono.<T>empty();
+            }
+            rateBudget.recordCall();
+            // Outcome recorded before the signal reaches the subscriber, so a blocking
+            // caller's next request already sees it; a cancelled call counts as neither
+            return request.get()
+                    .timeout(timeout)
+                    .doOnSuccess(value -> breaker.release(permit, true))
+                    .doOnError(ex -> breaker.release(permit, !isUpstreamFailure(ex)))
+                    .doOnCancel(() -> breaker.cancel(permit))
+                    .onErrorResume(ex -> {
+                        if (ex.getMessage() != null && ex.getMessage().contains("403")) {
+                            log.warn("Finnhub {} request forbidden for {} (likely plan limit): {}",
+                                    endpoint, subject, ex.getMessage());
+                        } else {
+                            log.warn("Finnhub {} request failed for {}: {}", endpoint, subject, ex.getMessage());
+                        }
+                        FinnhubFailure.Recorder.report(context, FinnhubFailure.classify(ex),
+                                endpoint + ": " + ex.getMessage());
+                        return Mono.empty();
+                    });
+        });
     }
 
-    private Optional<BigDecimal> extractDecimal(Object value) {
-        if (value == null) {
-            return Optional.empty();
-        }
-        if (value instanceof Number number) {
-            return Optional.of(BigDecimal.valueOf(number.doubleValue()));
-        }
-        try {
-            return Optional.of(new BigDecimal(value.toString()));
-        } catch (NumberFormatException ex) {
-            log.debug("Unable to parse numeric value from {}", value);
-            return Optional.empty();
+    private static <T> Mono<T> warnEmpty(String what, String ticker) {
+        return Mono.fromRunnable(() -> log.warn("No {} data returned from Finnhub for {}", what, ticker));
+    }
+
+    /**
+     * Timeouts, connection errors, 5xx and 429 count against the circuit;
+     * other 4xx answers mean Finnhub is up but has nothing for this request.
+     */
+    private static boolean isUpstreamFailure(Throwable ex) {
+        if (ex instanceof WebClientResponseException response) {
+            HttpStatusCode status = response.getStatusCode();
+            return status.is5xxServerError() || status.value() == 429;
         }
+        return true;
     }
 }
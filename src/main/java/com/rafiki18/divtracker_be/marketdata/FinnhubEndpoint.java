@@ -0,0 +1,37 @@
+package com.rafiki18.divtracker_be.marketdata;
+
+import java.util.Optional;
+
+/**
+ * Finnhub REST endpoints guarded by their own circuit breaker and bulkhead.
+ */
+public enum FinnhubEndpoint {
+    QUOTE("/quote"),
+    PROFILE("/stock/profile2"),
+    METRICS("/stock/metric"),
+    FINANCIALS("/stock/financials"),
+    SEARCH("/search"),
+    SYMBOLS("/stock/symbol");
+
+    private final String path;
+
+    FinnhubEndpoint(String path) {
+        this.path = path;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Endpoint whose path ends the given request path, if any.
+     */
+    public static Optional<FinnhubEndpoint> forPath(String requestPath) {
+        for (FinnhubEndpoint endpoint : values()) {
+            if (requestPath != null && requestPath.endsWith(endpoint.path)) {
+                return Optional.of(endpoint);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,72 @@
+package com.rafiki18.divtracker_be.marketdata;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Why a Finnhub fetch produced no data, ordered by how long it is worth
+ * waiting before trying again.
+ */
+public enum FinnhubFailure {
+
+    THROTTLED,  // HTTP 429, or rejected locally by an open circuit or full bulkhead
+    TRANSIENT,  // Timeout, connection error or 5xx
+    NO_DATA,    // Finnhub answered, but has nothing for the ticker
+    PLAN_LIMIT; // HTTP 401/403: endpoint or symbol not covered by the API plan
+
+    public static FinnhubFailure classify(Throwable ex) {
+        if (ex instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            if (status == 429) {
+                return THROTTLED;
+            }
+            if (status == 401 || status == 403) {
+                return PLAN_LIMIT;
+            }
+            if (response.getStatusCode().is4xxClientError()) {
+                return NO_DATA;
+            }
+        }
+        return TRANSIENT;
+    }
+
+    /**
+     * Collects the worst failure of the {@link FinnhubClient} calls made under
+     * it. Attach with {@code contextWrite(recorder::attach)}; the client's
+     * reactive methods report to the recorder found in their context.
+     */
+    public static final class Recorder {
+
+        private final AtomicReference<FinnhubFailure> worst = new AtomicReference<>();
+        private final AtomicReference<String> message = new AtomicReference<>();
+
+        public Context attach(Context context) {
+            return context.put(Recorder.class, this);
+        }
+
+        static void report(ContextView context, FinnhubFailure failure, String detail) {
+            context.<Recorder>getOrEmpty(Recorder.class).ifPresent(recorder -> recorder.record(failure, detail));
+        }
+
+        void record(FinnhubFailure failure, String detail) {
+            FinnhubFailure previous = worst.getAndAccumulate(failure,
+                    (current, candidate) -> current == null || candidate.compareTo(current) > 0 ? candidate : current);
+            if (previous == null || failure.compareTo(previous) > 0) {
+                message.set(detail);
+            }
+        }
+
+        public Optional<FinnhubFailure> getFailure() {
+            return Optional.ofNullable(worst.get());
+        }
+
+        public String getMessage() {
+            return message.get();
+        }
+    }
+}
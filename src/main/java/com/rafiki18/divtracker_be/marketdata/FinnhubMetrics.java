@@ -0,0 +1,59 @@
+package com.rafiki18.divtracker_be.marketdata;
+
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ratios we use from the Finnhub /stock/metric?metric=all response.
+ * The response carries hundreds of metrics plus the historical "series";
+ * everything not declared here is skipped by the decoder without being
+ * materialized.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class FinnhubMetrics {
+
+    private BigDecimal peAnnual;
+    private BigDecimal beta;
+
+    @JsonProperty("totalDebt/totalEquityQuarterly")
+    private BigDecimal debtToEquityQuarterly;
+
+    private BigDecimal dividendPerShareAnnual;
+
+    @JsonProperty("currentDividendYieldTTM")
+    private BigDecimal dividendYieldTtm;
+
+    private BigDecimal dividendGrowthRate5Y;
+    private BigDecimal epsGrowth5Y;
+    private BigDecimal revenueGrowth5Y;
+    private BigDecimal focfCagr5Y;
+    private BigDecimal pfcfShareAnnual;
+
+    @JsonProperty("52WeekHigh")
+    private BigDecimal weekHigh52;
+
+    @JsonProperty("52WeekLow")
+    private BigDecimal weekLow52;
+
+    /**
+     * Response envelope: {"metric": {...}, "series": {...}, ...}.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Response {
+        private FinnhubMetrics metric;
+    }
+}
@@ -0,0 +1,322 @@
+package com.rafiki18.divtracker_be.marketdata;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rafiki18.divtracker_be.config.properties.FinnhubCaptureProperties;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sampled capture of Finnhub response payloads for diagnostics.
+ *
+ * A WebClient filter decides per response, before the body is read, whether
+ * to sample it (endpoint and ticker filters, per-minute rate). Sampled bodies
+ * are copied up to a size limit while the client decodes them and handed to a
+ * single writer thread, which appends them as JSON lines to rotating gzip
+ * files. Request threads never wait on disk: when the writer falls behind,
+ * samples are dropped. Disabled, the filter costs one volatile read.
+ */
+@Component
+@Slf4j
+public class FinnhubPayloadCapture {
+
+    private static final long WINDOW_MILLIS = 60_000;
+    private static final String FILE_PREFIX = "finnhub-";
+    private static final String FILE_SUFFIX = ".jsonl.gz";
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final List<String> SUBJECT_PARAMS = List.of("symbol", "q", "exchange");
+
+    private final FinnhubCaptureProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor writer;
+
+    private volatile boolean enabled;
+    private volatile Set<FinnhubEndpoint> endpoints = Set.of();
+    private volatile Set<String> tickers = Set.of();
+    private volatile int samplesPerMinute;
+
+    private long windowStart;
+    private int windowSamples;
+
+    private final AtomicLong sampledCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+
+    // Owned by the writer thread
+    private OutputStream out;
+    private Path currentFile;
+    private long currentFileBytes;
+
+    public FinnhubPayloadCapture(FinnhubCaptureProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "finnhub-capture");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, executor) -> droppedCount.incrementAndGet());
+        update(properties.isEnabled(), properties.getEndpoints(), properties.getTickers(),
+                properties.getSamplesPerMinute());
+    }
+
+    /**
+     * Filter to register on the Finnhub WebClient.
+     */
+    public ExchangeFilterFunction filter() {
+        return (request, next) -> next.exchange(request).map(response -> {
+            if (!enabled) {
+                return response;
+            }
+            Optional<FinnhubEndpoint> endpoint = FinnhubEndpoint.forPath(request.url().getPath());
+            String subject = subjectOf(request.url());
+            if (endpoint.isEmpty() || !shouldSample(endpoint.get(), subject)) {
+                return response;
+            }
+            PayloadBuffer payload = new PayloadBuffer((int) properties.getMaxPayloadSize().toBytes());
+            Sample sample = new Sample(Instant.now(), endpoint.get(), subject, response.statusCode().value(), payload);
+            return response.mutate()
+                    .body(body -> body.doOnNext(payload::append).doOnComplete(() -> submit(sample)))
+                    .build();
+        });
+    }
+
+    /**
+     * Change the capture settings at runtime; null arguments keep the current value.
+     * Empty endpoint or ticker sets capture everything.
+     */
+    public synchronized void update(Boolean enabled, Collection<FinnhubEndpoint> endpoints,
+                                    Collection<String> tickers, Integer samplesPerMinute) {
+        if (endpoints != null) {
+            this.endpoints = Set.copyOf(endpoints);
+        }
+        if (tickers != null) {
+            this.tickers = tickers.stream()
+                    .map(ticker -> ticker.trim().toUpperCase())
+                    .collect(Collectors.toUnmodifiableSet());
+        }
+        if (samplesPerMinute != null) {
+            this.samplesPerMinute = Math.max(0, samplesPerMinute);
+        }
+        if (enabled != null && enabled != this.enabled) {
+            this.enabled = enabled;
+            log.info("Finnhub payload capture {} (endpoints={}, tickers={}, {} samples/min)",
+                    enabled ? "enabled" : "disabled", describe(this.endpoints), describe(this.tickers),
+                    this.samplesPerMinute);
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("endpoints", endpoints);
+        status.put("tickers", tickers);
+        status.put("samplesPerMinute", samplesPerMinute);
+        status.put("maxPayloadBytes", properties.getMaxPayloadSize().toBytes());
+        status.put("directory", properties.getDirectory().toString());
+        status.put("sampled", sampledCount.get());
+        status.put("written", writtenCount.get());
+        status.put("dropped", droppedCount.get());
+        status.put("pending", writer.getQueue().size());
+        return status;
+    }
+
+    /**
+     * Write the pending samples and close the current file.
+     */
+    @PreDestroy
+    public void close() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warn("Finnhub capture writer did not finish, {} samples lost", writer.getQueue().size());
+                writer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeFile();
+    }
+
+    private synchronized boolean shouldSample(FinnhubEndpoint endpoint, String subject) {
+        if (!endpoints.isEmpty() && !endpoints.contains(endpoint)) {
+            return false;
+        }
+        if (!tickers.isEmpty() && (subject == null || !tickers.contains(subject.toUpperCase()))) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if (now - windowStart >= WINDOW_MILLIS) {
+            windowStart = now;
+            windowSamples = 0;
+        }
+        if (windowSamples >= samplesPerMinute) {
+            return false;
+        }
+        windowSamples++;
+        return true;
+    }
+
+    private void submit(Sample sample) {
+        sampledCount.incrementAndGet();
+        writer.execute(() -> write(sample));
+    }
+
+    private void write(Sample sample) {
+        try {
+            byte[] line = objectMapper.writeValueAsBytes(sample.toMap());
+            if (out == null || currentFileBytes >= properties.getMaxFileSize().toBytes()) {
+                rotate();
+            }
+            out.write(line);
+            out.write('\n');
+            currentFileBytes += line.length + 1;
+            writtenCount.incrementAndGet();
+            if (writer.getQueue().isEmpty()) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to write Finnhub capture to {}: {}", currentFile, e.getMessage());
+            droppedCount.incrementAndGet();
+            closeFile();
+        }
+    }
+
+    private void rotate() throws IOException {
+        closeFile();
+        Path directory = properties.getDirectory();
+        Files.createDirectories(directory);
+        currentFile = directory.resolve(FILE_PREFIX + LocalDateTime.now().format(FILE_TIMESTAMP) + FILE_SUFFIX);
+        out = new GZIPOutputStream(Files.newOutputStream(currentFile), 8192, true);
+        currentFileBytes = 0;
+        deleteOldFiles(directory);
+    }
+
+    private void deleteOldFiles(Path directory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing
+                    .filter(path -> path.getFileName().toString().startsWith(FILE_PREFIX))
+                    .filter(path -> path.getFileName().toString().endsWith(FILE_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+        for (int i = 0; i < files.size() - Math.max(1, properties.getMaxFiles()); i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    private void closeFile() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            log.warn("Failed to close Finnhub capture file {}: {}", currentFile, e.getMessage());
+        }
+        out = null;
+    }
+
+    private static String subjectOf(URI url) {
+        Map<String, List<String>> params = UriComponentsBuilder.fromUri(url).build().getQueryParams();
+        return SUBJECT_PARAMS.stream()
+                .map(params::get)
+                .filter(values -> values != null && !values.isEmpty())
+                .map(values -> values.get(0))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static String describe(Set<?> values) {
+        return values.isEmpty() ? "all" : values.toString();
+    }
+
+    /**
+     * First bytes of a response body, copied without consuming the buffers.
+     */
+    private static final class PayloadBuffer {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final int limit;
+        private long totalBytes;
+
+        PayloadBuffer(int limit) {
+            this.limit = limit;
+        }
+
+        void append(DataBuffer buffer) {
+            totalBytes += buffer.readableByteCount();
+            try (DataBuffer.ByteBufferIterator chunks = buffer.readableByteBuffers()) {
+                while (chunks.hasNext() && bytes.size() < limit) {
+                    ByteBuffer chunk = chunks.next();
+                    byte[] copy = new byte[Math.min(chunk.remaining(), limit - bytes.size())];
+                    chunk.get(copy);
+                    bytes.writeBytes(copy);
+                }
+            }
+        }
+    }
+
+    /**
+     * One captured response. The URL is not kept, it carries the API key.
+     */
+    private static final class Sample {
+        private final Instant capturedAt;
+        private final FinnhubEndpoint endpoint;
+        private final String subject;
+        private final int status;
+        private final PayloadBuffer payload;
+
+        Sample(Instant capturedAt, FinnhubEndpoint endpoint, String subject, int status, PayloadBuffer payload) {
+            this.capturedAt = capturedAt;
+            this.endpoint = endpoint;
+            this.subject = subject;
+            this.status = status;
+            this.payload = payload;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("capturedAt", capturedAt.toString());
+            map.put("endpoint", endpoint.name());
+            map.put("subject", subject);
+            map.put("status", status);
+            map.put("bytes", payload.totalBytes);
+            map.put("truncated", payload.totalBytes > payload.bytes.size());
+            map.put("payload", payload.bytes.toString(StandardCharsets.UTF_8));
+            return map;
+        }
+    }
+}
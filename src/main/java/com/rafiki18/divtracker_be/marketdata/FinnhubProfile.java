@@ -0,0 +1,28 @@
+package com.rafiki18.divtracker_be.marketdata;
+
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Finnhub /stock/profile2 response, only the fields we use.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class FinnhubProfile {
+
+    private String name;
+    private String exchange;
+    private String currency;
+    private String finnhubIndustry;
+    private BigDecimal shareOutstanding;
+    private BigDecimal marketCapitalization;
+}
@@ -0,0 +1,38 @@
+package com.rafiki18.divtracker_be.marketdata;
+
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Finnhub /quote response, only the fields we use.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class FinnhubQuote {
+
+    @JsonProperty("c")
+    private BigDecimal currentPrice;
+
+    @JsonProperty("d")
+    private BigDecimal change;
+
+    @JsonProperty("dp")
+    private BigDecimal changePercent;
+
+    @JsonProperty("pc")
+    private BigDecimal previousClose;
+
+    // Epoch seconds of the last trade
+    @JsonProperty("t")
+    private Long timestamp;
+}
@@ -0,0 +1,69 @@
+package com.rafiki18.divtracker_be.marketdata;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.springframework.stereotype.Component;
+
+import com.rafiki18.divtracker_be.config.properties.FinnhubProperties;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Sliding one-minute window of Finnhub REST calls.
+ *
+ * Every upstream call is recorded here, so background jobs can consume
+ * only the budget left over by interactive traffic.
+ */
+@Component
+@RequiredArgsConstructor
+public class FinnhubRateBudget {
+
+    private static final long WINDOW_MILLIS = 60_000;
+
+    private final FinnhubProperties properties;
+    private final Deque<Long> callTimestamps = new ArrayDeque<>();
+
+    /**
+     * Record an upstream call made right now.
+     */
+    public synchronized void recordCall() {
+        long now = System.currentTimeMillis();
+        evictExpired(now);
+        callTimestamps.addLast(now);
+    }
+
+    /**
+     * Number of calls made within the last minute.
+     */
+    public synchronized int callsInLastMinute() {
+        evictExpired(System.currentTimeMillis());
+        return callTimestamps.size();
+    }
+
+    /**
+     * Calls still available in the current window, after keeping {@code reserve}
+     * calls free for interactive requests.
+     */
+    public int remainingCapacity(int reserve) {
+        return Math.max(0, properties.getRateLimitPerMinute() - reserve - callsInLastMinute());
+    }
+
+    /**
+     * Check whether {@code calls} upstream requests fit in the current window
+     * without eating into the interactive reserve.
+     */
+    public boolean hasCapacity(int calls, int reserve) {
+        return remainingCapacity(reserve) >= calls;
+    }
+
+    public int getLimitPerMinute() {
+        return properties.getRateLimitPerMinute();
+    }
+
+    private void evictExpired(long now) {
+        while (!callTimestamps.isEmpty() && now - callTimestamps.peekFirst() >= WINDOW_MILLIS) {
+            callTimestamps.removeFirst();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.rafiki18.divtracker_be.marketdata;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of the Finnhub /stock/symbol?exchange=... list.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class FinnhubSymbol {
+
+    private String symbol;
+    private String displaySymbol;
+    private String description;
+    private String type;
+    private String currency;
+    private String figi;
+}
@@ -1,7 +1,6 @@
 package com.rafiki18.divtracker_be.marketdata;
 
-import java.math.BigDecimal;
-import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -12,7 +11,6 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
@@ -26,11 +24,8 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rafiki18.divtracker_be.config.properties.FinnhubProperties;
-import com.rafiki18.divtracker_be.model.MarketPriceTick;
-import com.rafiki18.divtracker_be.repository.InstrumentFundamentalsRepository;
-import com.rafiki18.divtracker_be.repository.MarketPriceTickRepository;
 import com.rafiki18.divtracker_be.repository.WatchlistItemRepository;
-import com.rafiki18.divtracker_be.service.PushNotificationService;
+import com.rafiki18.divtracker_be.service.PriceIngestionService;
 
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
@@ -39,10 +34,9 @@ import lombok.extern.slf4j.Slf4j;
  * WebSocket client for Finnhub real-time trade data.
  * 
  * Connects to wss://ws.finnhub.io and subscribes to tickers in user watchlists.
- * Processes incoming trade messages and:
- * 1. Saves price ticks to database
- * 2. Updates instrument fundamentals
- * 3. Sends push notifications for price alerts
+ * Each incoming trade message is parsed and handed to {@link PriceIngestionService}
+ * as one batch, which saves the ticks, applies conditional live price updates
+ * and sends (throttled) push notifications.
  * 
  * Features:
  * - Auto-reconnect on connection loss
@@ -67,14 +61,12 @@ public class FinnhubWebSocketClient extends TextWebSocketHandler {
      */
     private static final long NOTIFICATION_THROTTLE_MS = 60_000; // 60 seconds
 
+    private static final String SOURCE = "FINNHUB_WEBSOCKET";
+
     private final FinnhubProperties properties;
     private final WatchlistItemRepository watchlistItemRepository;
-    private final MarketPriceTickRepository marketPriceTickRepository;
-    private final InstrumentFundamentalsRepository instrumentFundamentalsRepository;
+    private final PriceIngestionService priceIngestionService;
     private final ObjectMapper objectMapper;
-    
-    // Optional - may be null if FCM not configured
-    private PushNotificationService pushNotificationService;
 
     private WebSocketSession session;
     private final Set<String> subscribedTickers = ConcurrentHashMap.newKeySet();
@@ -86,21 +78,14 @@ public class FinnhubWebSocketClient extends TextWebSocketHandler {
     public FinnhubWebSocketClient(
             FinnhubProperties properties,
             WatchlistItemRepository watchlistItemRepository,
-            MarketPriceTickRepository marketPriceTickRepository,
-            InstrumentFundamentalsRepository instrumentFundamentalsRepository,
+            PriceIngestionService priceIngestionService,
             ObjectMapper objectMapper) {
         this.properties = properties;
         this.watchlistItemRepository = watchlistItemRepository;
-        this.marketPriceTickRepository = marketPriceTickRepository;
-        this.instrumentFundamentalsRepository = instrumentFundamentalsRepository;
+        this.priceIngestionService = priceIngestionService;
         this.objectMapper = objectMapper;
     }
 
-    @Autowired(required = false)
-    public void setPushNotificationService(PushNotificationService pushNotificationService) {
-        this.pushNotificationService = pushNotificationService;
-    }
-
     /**
      * Start WebSocket connection when application is ready.
      */
@@ -227,74 +212,26 @@ public class FinnhubWebSocketClient extends TextWebSocketHandler {
             return;
         }
         
+        List<PriceTrade> parsed = new ArrayList<>(trades.size());
         for (Map<String, Object> trade : trades) {
-            processTrade(trade);
-        }
-    }
-
-    /**
-     * Process a single trade event.
-     */
-    private void processTrade(Map<String, Object> trade) {
-        try {
-            String symbol = (String) trade.get("s");
-            Object priceObj = trade.get("p");
-            Object timestampObj = trade.get("t");
-            Object volumeObj = trade.get("v");
-
-            if (symbol == null || priceObj == null || timestampObj == null) {
-                log.trace("Incomplete trade data: {}", trade);
-                return;
-            }
-
-            String ticker = symbol.toUpperCase();
-            
-            // Only process if we track this ticker
-            var fundamentalsOpt = instrumentFundamentalsRepository.findByTickerIgnoreCase(ticker);
-            if (fundamentalsOpt.isEmpty()) {
-                log.trace("Ignoring tick for untracked ticker: {}", ticker);
-                return;
+            try {
+                PriceTrade.fromFinnhub(trade, SOURCE).ifPresentOrElse(
+                        parsed::add,
+                        () -> log.trace("Incomplete trade data: {}", trade));
+            } catch (Exception e) {
+                log.error("Error processing trade: {}", trade, e);
             }
+        }
 
-            BigDecimal price = new BigDecimal(priceObj.toString());
-            BigDecimal volume = volumeObj != null ? new BigDecimal(volumeObj.toString()) : null;
-            long timestampMillis = ((Number) timestampObj).longValue();
-            Instant tradeTimestamp = Instant.ofEpochMilli(timestampMillis);
-
-            // 1. Save to market_price_ticks
-            MarketPriceTick tick = new MarketPriceTick();
-            tick.setTicker(ticker);
-            tick.setPrice(price);
-            tick.setVolume(volume);
-            tick.setTradeTimestamp(tradeTimestamp);
-            tick.setSource("FINNHUB_WEBSOCKET");
-            tick.setReceivedAt(Instant.now());
-            
-            marketPriceTickRepository.save(tick);
-
-            // 2. Update instrument_fundamentals
-            var fundamentals = fundamentalsOpt.get();
-            BigDecimal oldPrice = fundamentals.getCurrentPrice();
-            fundamentals.setCurrentPrice(price);
-            
-            // Calculate daily change
-            if (oldPrice != null && oldPrice.compareTo(BigDecimal.ZERO) > 0) {
-                BigDecimal change = price.subtract(oldPrice)
-                    .divide(oldPrice, 4, java.math.RoundingMode.HALF_UP)
-                    .multiply(new BigDecimal("100"));
-                fundamentals.setDailyChangePercent(change);
-            }
-            
-            instrumentFundamentalsRepository.save(fundamentals);
+        if (parsed.isEmpty()) {
+            return;
+        }
 
-            // 3. Send push notifications (throttled to avoid spamming)
-            if (pushNotificationService != null && shouldSendNotification(ticker)) {
-                BigDecimal changePercent = fundamentals.getDailyChangePercent();
-                pushNotificationService.sendPriceUpdateNotifications(ticker, price, oldPrice, changePercent);
-            }
-            
+        // One batch per message; notifications throttled to avoid spamming
+        try {
+            priceIngestionService.ingest(parsed, this::shouldSendNotification);
         } catch (Exception e) {
-            log.error("Error processing trade: {}", trade, e);
+            log.error("Error ingesting {} trades: {}", parsed.size(), e.getMessage(), e);
         }
     }
 
@@ -0,0 +1,36 @@
+package com.rafiki18.divtracker_be.marketdata;
+
+import java.util.Set;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event fired when a refresh actually changed a ticker's fundamentals
+ * (new row or at least one different value).
+ * Lets caches and valuations invalidate only when their inputs changed.
+ */
+public class FundamentalsChangedEvent extends ApplicationEvent {
+
+    private final String ticker;
+    private final Set<String> changedFields;
+    private final long dataVersion;
+
+    public FundamentalsChangedEvent(Object source, String ticker, Set<String> changedFields, long dataVersion) {
+        super(source);
+        this.ticker = ticker;
+        this.changedFields = changedFields;
+        this.dataVersion = dataVersion;
+    }
+
+    public String getTicker() {
+        return ticker;
+    }
+
+    public Set<String> getChangedFields() {
+        return changedFields;
+    }
+
+    public long getDataVersion() {
+        return dataVersion;
+    }
+}
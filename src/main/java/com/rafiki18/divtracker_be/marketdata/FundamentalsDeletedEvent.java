@@ -0,0 +1,23 @@
+package com.rafiki18.divtracker_be.marketdata;
+
+import java.util.Set;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event fired after fundamentals rows were deleted (cleanup of old STALE data).
+ * Lets snapshots and materialized valuations drop or revalue those tickers.
+ */
+public class FundamentalsDeletedEvent extends ApplicationEvent {
+
+    private final Set<String> tickers;
+
+    public FundamentalsDeletedEvent(Object source, Set<String> tickers) {
+        super(source);
+        this.tickers = tickers;
+    }
+
+    public Set<String> getTickers() {
+        return tickers;
+    }
+}
@@ -0,0 +1,51 @@
+package com.rafiki18.divtracker_be.marketdata;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A single trade received from Finnhub (WebSocket or webhook).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceTrade {
+
+    private String ticker;
+    private BigDecimal price;
+    private BigDecimal volume;
+    private Instant tradeAt;
+    private String source;
+
+    /**
+     * Parse a Finnhub trade object: {"s": "AAPL", "p": 150.25, "t": 1234567890123, "v": 100}.
+     *
+     * @return the trade, or empty if symbol, price or timestamp is missing
+     */
+    public static Optional<PriceTrade> fromFinnhub(Map<String, Object> trade, String source) {
+        Object symbol = trade.get("s");
+        Object price = trade.get("p");
+        Object timestamp = trade.get("t");
+        Object volume = trade.get("v");
+
+        if (symbol == null || price == null || timestamp == null) {
+            return Optional.empty();
+        }
+
+        return Optional.of(PriceTrade.builder()
+                .ticker(symbol.toString().toUpperCase())
+                .price(new BigDecimal(price.toString()))
+                .volume(volume != null ? new BigDecimal(volume.toString()) : null)
+                .tradeAt(Instant.ofEpochMilli(Long.parseLong(timestamp.toString())))
+                .source(source)
+                .build());
+    }
+}
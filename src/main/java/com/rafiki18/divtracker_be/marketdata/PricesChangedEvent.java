@@ -0,0 +1,24 @@
+package com.rafiki18.divtracker_be.marketdata;
+
+import java.util.Set;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event fired when the live price of one or more tickers was updated
+ * (accepted trades or a quote newer than the last trade).
+ * Lets materialized valuations follow the price without polling.
+ */
+public class PricesChangedEvent extends ApplicationEvent {
+
+    private final Set<String> tickers;
+
+    public PricesChangedEvent(Object source, Set<String> tickers) {
+        super(source);
+        this.tickers = tickers;
+    }
+
+    public Set<String> getTickers() {
+        return tickers;
+    }
+}
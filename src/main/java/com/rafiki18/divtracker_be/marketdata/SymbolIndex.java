@@ -0,0 +1,260 @@
+package com.rafiki18.divtracker_be.marketdata;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.util.StringUtils;
+
+import com.rafiki18.divtracker_be.dto.TickerSearchResult;
+
+/**
+ * Immutable symbol index backed by a memory-mapped file, sorted by symbol.
+ *
+ * File layout (big endian):
+ * <pre>
+ * int        magic ("DTSI")
+ * int        version
+ * long       builtAt (epoch millis)
+ * int        count
+ * int[count] record offsets, in symbol order
+ * records    6 x (u16 length + UTF-8 bytes):
+ *            symbol, description, type, displaySymbol, currency, figi
+ * </pre>
+ * Prefix lookups binary-search the offsets table and decode only the matching
+ * records; the index itself lives outside the heap.
+ */
+public final class SymbolIndex {
+
+    private static final int MAGIC = 0x44545349;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 20;
+    private static final int FIELDS = 6;
+    private static final int MAX_FIELD_BYTES = 0xFFFF;
+
+    private static final SymbolIndex EMPTY = new SymbolIndex(ByteBuffer.allocate(0), 0, 0L);
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final long builtAt;
+
+    private SymbolIndex(ByteBuffer buffer, int count, long builtAt) {
+        this.buffer = buffer;
+        this.count = count;
+        this.builtAt = builtAt;
+    }
+
+    public static SymbolIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Memory-map an index file written by {@link #write}.
+     */
+    public static SymbolIndex open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not a symbol index file: " + path);
+            }
+            int count = buffer.getInt(16);
+            if (count < 0 || HEADER_BYTES + (long) count * Integer.BYTES > buffer.capacity()) {
+                throw new IOException("Corrupt symbol index file: " + path);
+            }
+            return new SymbolIndex(buffer, count, buffer.getLong(8));
+        }
+    }
+
+    /**
+     * Write an index file. Symbols are upper-cased and deduplicated; the file is
+     * written next to the target and moved into place, so readers never see a
+     * partial file.
+     */
+    public static void write(Path path, Collection<FinnhubSymbol> symbols, Instant builtAt) throws IOException {
+        Map<byte[], FinnhubSymbol> sorted = new TreeMap<>(Arrays::compareUnsigned);
+        for (FinnhubSymbol symbol : symbols) {
+            if (StringUtils.hasText(symbol.getSymbol())) {
+                sorted.putIfAbsent(key(symbol.getSymbol()), symbol);
+            }
+        }
+
+        int[] offsets = new int[sorted.size()];
+        int dataStart = HEADER_BYTES + offsets.length * Integer.BYTES;
+        ByteArrayOutputStream records = new ByteArrayOutputStream(sorted.size() * 64);
+        DataOutputStream out = new DataOutputStream(records);
+        int i = 0;
+        for (Map.Entry<byte[], FinnhubSymbol> entry : sorted.entrySet()) {
+            FinnhubSymbol symbol = entry.getValue();
+            offsets[i++] = dataStart + out.size();
+            writeField(out, entry.getKey());
+            writeField(out, bytes(symbol.getDescription()));
+            writeField(out, bytes(symbol.getType()));
+            writeField(out, bytes(symbol.getDisplaySymbol()));
+            writeField(out, bytes(symbol.getCurrency()));
+            writeField(out, bytes(symbol.getFigi()));
+        }
+
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path tmp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream file = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                file.writeInt(MAGIC);
+                file.writeInt(VERSION);
+                file.writeLong(builtAt.toEpochMilli());
+                file.writeInt(offsets.length);
+                for (int offset : offsets) {
+                    file.writeInt(offset);
+                }
+                records.writeTo(file);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Symbols starting with {@code prefix} (case-insensitive), in symbol order.
+     */
+    public List<TickerSearchResult> findByPrefix(String prefix, int limit) {
+        if (count == 0 || limit <= 0 || !StringUtils.hasText(prefix)) {
+            return List.of();
+        }
+        byte[] key = key(prefix);
+        List<TickerSearchResult> results = new ArrayList<>(Math.min(limit, 32));
+        for (int i = lowerBound(key); i < count && results.size() < limit && startsWith(i, key); i++) {
+            results.add(get(i));
+        }
+        return results;
+    }
+
+    /**
+     * Decode the record at {@code index} (0 to {@link #size()} - 1).
+     * {@code exchange} carries Finnhub's displaySymbol, as the old lookup did.
+     */
+    public TickerSearchResult get(int index) {
+        String[] fields = new String[FIELDS];
+        int position = offset(index);
+        for (int field = 0; field < FIELDS; field++) {
+            int length = buffer.getShort(position) & 0xFFFF;
+            fields[field] = length == 0 ? null : readString(position + 2, length);
+            position += 2 + length;
+        }
+        return TickerSearchResult.builder()
+                .symbol(fields[0])
+                .description(fields[1])
+                .type(fields[2])
+                .exchange(fields[3])
+                .currency(fields[4])
+                .figi(fields[5])
+                .build();
+    }
+
+    public String symbolAt(int index) {
+        int position = offset(index);
+        return readString(position + 2, buffer.getShort(position) & 0xFFFF);
+    }
+
+    public String descriptionAt(int index) {
+        int position = offset(index);
+        position += 2 + (buffer.getShort(position) & 0xFFFF);
+        int length = buffer.getShort(position) & 0xFFFF;
+        return length == 0 ? null : readString(position + 2, length);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public Instant getBuiltAt() {
+        return Instant.ofEpochMilli(builtAt);
+    }
+
+    private int lowerBound(byte[] key) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareSymbol(mid, key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int compareSymbol(int index, byte[] key) {
+        int position = offset(index);
+        int length = buffer.getShort(position) & 0xFFFF;
+        position += 2;
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Integer.compare(buffer.get(position + i) & 0xFF, key[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private boolean startsWith(int index, byte[] key) {
+        int position = offset(index);
+        int length = buffer.getShort(position) & 0xFFFF;
+        if (length < key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (buffer.get(position + 2 + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int offset(int index) {
+        return buffer.getInt(HEADER_BYTES + index * Integer.BYTES);
+    }
+
+    private String readString(int position, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] key(String symbol) {
+        return symbol.trim().toUpperCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+    }
+
+    private static void writeField(DataOutputStream out, byte[] value) throws IOException {
+        int length = Math.min(value.length, MAX_FIELD_BYTES);
+        out.writeShort(length);
+        out.write(value, 0, length);
+    }
+}
@@ -0,0 +1,21 @@
+package com.rafiki18.divtracker_be.marketdata;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event fired when a freshly built symbol index replaces the current one.
+ * Used to rebuild derived structures such as the ticker search index.
+ */
+public class SymbolIndexUpdatedEvent extends ApplicationEvent {
+
+    private final SymbolIndex index;
+
+    public SymbolIndexUpdatedEvent(Object source, SymbolIndex index) {
+        super(source);
+        this.index = index;
+    }
+
+    public SymbolIndex getIndex() {
+        return index;
+    }
+}
@@ -0,0 +1,243 @@
+package com.rafiki18.divtracker_be.marketdata;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.function.ToLongFunction;
+
+import com.rafiki18.divtracker_be.dto.TickerSearchResult;
+
+/**
+ * Fuzzy search over symbol and company description, built on top of a
+ * {@link SymbolIndex}.
+ *
+ * Text is folded to A-Z, 0-9 and a word separator; every word contributes its
+ * trigrams plus a leading-separator trigram marking the word start. Each
+ * trigram maps to a posting list of record numbers stored as delta-encoded
+ * varints. A query scores candidates by the share of its trigrams they
+ * contain, boosts exact and prefix symbol matches, and adds a popularity term
+ * from the number of users watching the ticker.
+ */
+public final class TickerSearchIndex {
+
+    private static final int ALPHABET = 37; // separator, A-Z, 0-9
+    private static final int TRIGRAMS = ALPHABET * ALPHABET * ALPHABET;
+    private static final byte[] NO_POSTINGS = new byte[0];
+
+    // Minimum share of query trigrams a candidate must contain
+    private static final double MIN_OVERLAP = 0.5;
+    private static final double EXACT_SYMBOL_BOOST = 2.0;
+    private static final double SYMBOL_PREFIX_BOOST = 1.0;
+    private static final double DESCRIPTION_PREFIX_BOOST = 0.5;
+    private static final double POPULARITY_WEIGHT = 0.25;
+
+    private static final TickerSearchIndex EMPTY = new TickerSearchIndex(SymbolIndex.empty(), new byte[TRIGRAMS][]);
+
+    private final SymbolIndex symbols;
+    private final byte[][] postings;
+
+    private TickerSearchIndex(SymbolIndex symbols, byte[][] postings) {
+        this.symbols = symbols;
+        this.postings = postings;
+    }
+
+    public static TickerSearchIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Build the trigram postings for every record of {@code symbols}.
+     */
+    public static TickerSearchIndex build(SymbolIndex symbols) {
+        int size = symbols.size();
+        int[] counts = new int[TRIGRAMS];
+        int[][] documentTrigrams = new int[size][];
+        for (int doc = 0; doc < size; doc++) {
+            int[] trigrams = trigrams(symbols.symbolAt(doc) + " " + nullToEmpty(symbols.descriptionAt(doc)));
+            documentTrigrams[doc] = trigrams;
+            for (int trigram : trigrams) {
+                counts[trigram]++;
+            }
+        }
+
+        // Documents are visited in order, so every posting list is ascending
+        int[][] lists = new int[TRIGRAMS][];
+        int[] filled = new int[TRIGRAMS];
+        for (int doc = 0; doc < size; doc++) {
+            for (int trigram : documentTrigrams[doc]) {
+                if (lists[trigram] == null) {
+                    lists[trigram] = new int[counts[trigram]];
+                }
+                lists[trigram][filled[trigram]++] = doc;
+            }
+        }
+
+        byte[][] postings = new byte[TRIGRAMS][];
+        for (int trigram = 0; trigram < TRIGRAMS; trigram++) {
+            if (lists[trigram] != null) {
+                postings[trigram] = encode(lists[trigram]);
+            }
+        }
+        return new TickerSearchIndex(symbols, postings);
+    }
+
+    /**
+     * Best matches for {@code query}, highest score first.
+     *
+     * @param watchers number of users watching a ticker, used as popularity
+     */
+    public List<TickerSearchResult> search(String query, int limit, ToLongFunction<String> watchers) {
+        if (symbols.isEmpty() || limit <= 0 || query == null) {
+            return List.of();
+        }
+        int[] queryTrigrams = trigrams(query);
+        if (queryTrigrams.length == 0) {
+            // Too short for trigrams (one character): plain symbol prefix
+            return symbols.findByPrefix(query, limit);
+        }
+
+        int[] matches = new int[symbols.size()];
+        int[] candidates = new int[64];
+        int candidateCount = 0;
+        for (int trigram : queryTrigrams) {
+            byte[] list = postings[trigram] != null ? postings[trigram] : NO_POSTINGS;
+            int position = 0;
+            int doc = 0;
+            while (position < list.length) {
+                int delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = list[position++];
+                    delta |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                doc += delta;
+                if (matches[doc]++ == 0) {
+                    if (candidateCount == candidates.length) {
+                        candidates = Arrays.copyOf(candidates, candidateCount * 2);
+                    }
+                    candidates[candidateCount++] = doc;
+                }
+            }
+        }
+
+        String normalizedQuery = query.trim().toUpperCase(Locale.ROOT);
+        int minMatches = (int) Math.ceil(queryTrigrams.length * MIN_OVERLAP);
+        PriorityQueue<Scored> best = new PriorityQueue<>(limit + 1, Scored.ORDER);
+        for (int i = 0; i < candidateCount; i++) {
+            int doc = candidates[i];
+            if (matches[doc] < minMatches) {
+                continue;
+            }
+            String symbol = symbols.symbolAt(doc);
+            double score = (double) matches[doc] / queryTrigrams.length;
+            if (symbol.equals(normalizedQuery)) {
+                score += EXACT_SYMBOL_BOOST;
+            } else if (symbol.startsWith(normalizedQuery)) {
+                score += SYMBOL_PREFIX_BOOST;
+            }
+            String description = symbols.descriptionAt(doc);
+            if (description != null && description.toUpperCase(Locale.ROOT).startsWith(normalizedQuery)) {
+                score += DESCRIPTION_PREFIX_BOOST;
+            }
+            score += POPULARITY_WEIGHT * Math.log1p(Math.max(0L, watchers.applyAsLong(symbol)));
+
+            best.add(new Scored(doc, symbol, score));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        List<Scored> ranked = new ArrayList<>(best);
+        ranked.sort(Scored.ORDER.reversed());
+        List<TickerSearchResult> results = new ArrayList<>(ranked.size());
+        for (Scored scored : ranked) {
+            results.add(symbols.get(scored.doc));
+        }
+        return results;
+    }
+
+    public SymbolIndex getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * Unique trigram codes of {@code text}, sorted.
+     */
+    static int[] trigrams(String text) {
+        int[] codes = new int[text.length() + 1];
+        int length = 0;
+        codes[length++] = 0; // leading separator marks the first word start
+        for (int i = 0; i < text.length(); i++) {
+            int code = fold(text.charAt(i));
+            if (code != 0 || codes[length - 1] != 0) {
+                codes[length++] = code;
+            }
+        }
+
+        int[] trigrams = new int[Math.max(0, length - 2)];
+        int count = 0;
+        for (int i = 0; i + 2 < length; i++) {
+            // Only the first position may be a separator: trigrams never span words
+            if (codes[i + 1] != 0 && codes[i + 2] != 0) {
+                trigrams[count++] = (codes[i] * ALPHABET + codes[i + 1]) * ALPHABET + codes[i + 2];
+            }
+        }
+        return Arrays.stream(trigrams, 0, count).sorted().distinct().toArray();
+    }
+
+    private static int fold(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 1;
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 1;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 27;
+        }
+        return 0;
+    }
+
+    private static byte[] encode(int[] docs) {
+        byte[] buffer = new byte[docs.length * 5];
+        int length = 0;
+        int previous = 0;
+        for (int doc : docs) {
+            int delta = doc - previous;
+            previous = doc;
+            while ((delta & ~0x7F) != 0) {
+                buffer[length++] = (byte) ((delta & 0x7F) | 0x80);
+                delta >>>= 7;
+            }
+            buffer[length++] = (byte) delta;
+        }
+        return Arrays.copyOf(buffer, length);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static final class Scored {
+
+        // Lowest first: worse score, then longer symbol, then later symbol
+        static final Comparator<Scored> ORDER = Comparator.comparingDouble((Scored s) -> s.score)
+                .thenComparing(Comparator.comparingInt((Scored s) -> s.symbol.length()).reversed())
+                .thenComparing(Comparator.comparing((Scored s) -> s.symbol).reversed());
+
+        private final int doc;
+        private final String symbol;
+        private final double score;
+
+        Scored(int doc, String symbol, double score) {
+            this.doc = doc;
+            this.symbol = symbol;
+            this.score = score;
+        }
+    }
+}
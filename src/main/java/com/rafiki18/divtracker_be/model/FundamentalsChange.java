@@ -0,0 +1,49 @@
+package com.rafiki18.divtracker_be.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One field-level change of a ticker's fundamentals, written by a refresh.
+ * Rows are append-only.
+ */
+@Entity
+@Table(name = "fundamentals_change_log")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FundamentalsChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 12)
+    private String ticker;
+
+    @Column(nullable = false, length = 40)
+    private String field;
+
+    @Column(name = "old_value", length = 255)
+    private String oldValue;
+
+    @Column(name = "new_value", length = 255)
+    private String newValue;
+
+    @Column(name = "data_version", nullable = false)
+    private long dataVersion;
+
+    @Column(name = "changed_at", nullable = false, updatable = false)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,83 @@
+package com.rafiki18.divtracker_be.model;
+
+import java.time.LocalDateTime;
+
+import com.rafiki18.divtracker_be.marketdata.FinnhubFailure;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pending background refresh of a ticker's fundamentals.
+ * One row per ticker; the row is removed once the refresh succeeds. Failed
+ * fetches stay queued with a per-ticker backoff that depends on the failure.
+ */
+@Entity
+@Table(name = "fundamentals_refresh_queue")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FundamentalsRefreshTask {
+
+    @Id
+    @Column(length = 12)
+    private String ticker;
+
+    @Column(nullable = false)
+    private long priority;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Reason reason;
+
+    @Column(name = "enqueued_at", nullable = false)
+    private LocalDateTime enqueuedAt;
+
+    @Column(name = "last_attempt_at")
+    private LocalDateTime lastAttemptAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "last_failure", length = 16)
+    private FinnhubFailure lastFailure;
+
+    /**
+     * Earliest time the ticker may be fetched again; null when not backing off.
+     */
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    public boolean isBackingOff(LocalDateTime now) {
+        return nextAttemptAt != null && nextAttemptAt.isAfter(now);
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (enqueuedAt == null) {
+            enqueuedAt = LocalDateTime.now();
+        }
+    }
+
+    public enum Reason {
+        MISSING,    // Watched ticker without any fundamentals row
+        PARTIAL,    // Row exists but lacks required fields
+        STALE,      // Last refresh failed and the row was served as fallback
+        EXPIRED,    // Complete row older than the staleness threshold
+        FAILED      // An on-demand fetch failed; retried here with backoff
+    }
+}
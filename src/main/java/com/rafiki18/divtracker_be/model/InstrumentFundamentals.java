@@ -3,14 +3,16 @@ package com.rafiki18.divtracker_be.model;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.DynamicUpdate;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
-import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,9 +21,12 @@ import lombok.NoArgsConstructor;
 /**
  * Entity representing cached fundamental data from Finnhub.
  * Allows working offline and reduces API calls.
+ * Updates only write the changed columns (refreshes are diffed, see
+ * fundamentals_change_log).
  */
 @Entity
 @Table(name = "instrument_fundamentals")
+@DynamicUpdate
 @Data
 @Builder
 @NoArgsConstructor
@@ -42,13 +47,17 @@ public class InstrumentFundamentals {
     @Column(name = "sector", length = 100)
     private String sector;
 
-    // Price data
-    @Column(name = "current_price", precision = 19, scale = 4)
+    // Price data - stored in instrument_prices, combined on read
+    @Transient
     private BigDecimal currentPrice;
 
-    @Column(name = "daily_change_percent", precision = 10, scale = 4)
+    @Transient
     private BigDecimal dailyChangePercent;
 
+    // instrument_prices.version of the applied price, null without a price row
+    @Transient
+    private Long priceVersion;
+
     // Market data
     @Column(name = "market_capitalization", precision = 19, scale = 2)
     private BigDecimal marketCapitalization;
@@ -119,12 +128,18 @@ public class InstrumentFundamentals {
     @Builder.Default
     private DataSource source = DataSource.FINNHUB;
 
+    // Incremented when a refresh changes any value
+    @Column(name = "data_version", nullable = false)
+    private long dataVersion;
+
     @Column(name = "last_updated_at", nullable = false)
     private LocalDateTime lastUpdatedAt;
 
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    // lastUpdatedAt tracks the last successful Finnhub fetch only; it is set
+    // explicitly on refresh and must not move on unrelated updates
     @PrePersist
     protected void onCreate() {
         LocalDateTime now = LocalDateTime.now();
@@ -132,11 +147,6 @@ public class InstrumentFundamentals {
         lastUpdatedAt = now;
     }
 
-    @PreUpdate
-    protected void onUpdate() {
-        lastUpdatedAt = LocalDateTime.now();
-    }
-
     /**
      * Check if data is stale (older than 24 hours).
      */
@@ -146,11 +156,32 @@ public class InstrumentFundamentals {
 
     /**
      * Check if we have minimum required data for valuation.
+     * Requires the live price to have been applied (see {@link #applyPrice}).
      */
     public boolean hasMinimumData() {
         return currentPrice != null && fcfPerShareAnnual != null;
     }
 
+    /**
+     * Combine the live price state into this snapshot.
+     */
+    public InstrumentFundamentals applyPrice(InstrumentPrice price) {
+        if (price != null) {
+            currentPrice = price.getCurrentPrice();
+            dailyChangePercent = price.getDailyChangePercent();
+            priceVersion = price.getVersion();
+        }
+        return this;
+    }
+
+    /**
+     * Stale or missing the minimum data, so worth fetching again.
+     * Requires the live price to have been applied (see {@link #applyPrice}).
+     */
+    public boolean needsRefresh() {
+        return isStale() || !hasMinimumData();
+    }
+
     /**
      * Get FCF per share value.
      */
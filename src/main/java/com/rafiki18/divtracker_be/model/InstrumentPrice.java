@@ -0,0 +1,63 @@
+package com.rafiki18.divtracker_be.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Live price state for a ticker.
+ * Kept apart from {@link InstrumentFundamentals} so that high-frequency trade
+ * updates only touch this narrow row and never affect fundamentals freshness.
+ * Writes go through the conditional statements in
+ * {@link com.rafiki18.divtracker_be.repository.InstrumentPriceRepositoryCustom}.
+ */
+@Entity
+@Table(name = "instrument_prices")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InstrumentPrice {
+
+    @Id
+    @Column(name = "ticker", nullable = false, length = 12)
+    private String ticker;
+
+    @Column(name = "current_price", precision = 19, scale = 4)
+    private BigDecimal currentPrice;
+
+    @Column(name = "daily_change_percent", precision = 10, scale = 4)
+    private BigDecimal dailyChangePercent;
+
+    @Column(name = "previous_close", precision = 19, scale = 4)
+    private BigDecimal previousClose;
+
+    @Column(name = "last_trade_at")
+    private Instant lastTradeAt;
+
+    @Column(name = "source", length = 32, nullable = false)
+    @Builder.Default
+    private String source = "FINNHUB";
+
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = Instant.now();
+    }
+}
@@ -0,0 +1,80 @@
+package com.rafiki18.divtracker_be.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Materialized valuation metrics of one watchlist item at the last known price.
+ * Kept in its own narrow table, indexed per user on the sort keys, so the list
+ * endpoint can sort, filter and paginate on computed metrics in SQL. Rows are
+ * rewritten by {@link com.rafiki18.divtracker_be.service.WatchlistItemValuationService}.
+ */
+@Entity
+@Table(name = "watchlist_item_valuations")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WatchlistItemValuation {
+
+    @Id
+    @Column(name = "item_id", nullable = false)
+    private UUID itemId;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false, length = 12)
+    private String ticker;
+
+    @Column(name = "current_price", precision = 19, scale = 4)
+    private BigDecimal currentPrice;
+
+    @Column(name = "fcf_yield", precision = 19, scale = 4)
+    private BigDecimal fcfYield;
+
+    @Column(name = "dcf_fair_value", precision = 19, scale = 4)
+    private BigDecimal dcfFairValue;
+
+    @Column(name = "margin_of_safety", precision = 19, scale = 4)
+    private BigDecimal marginOfSafety;
+
+    @Column(name = "estimated_irr", precision = 19, scale = 4)
+    private BigDecimal estimatedIrr;
+
+    @Column(name = "estimated_roi", precision = 19, scale = 4)
+    private BigDecimal estimatedRoi;
+
+    @Column(name = "payback_period", precision = 19, scale = 4)
+    private BigDecimal paybackPeriod;
+
+    private Boolean undervalued;
+
+    // Input versions the metrics were computed from
+    @Column(name = "fundamentals_version")
+    private Long fundamentalsVersion;
+
+    @Column(name = "price_version")
+    private Long priceVersion;
+
+    @Column(name = "valued_at", nullable = false)
+    private LocalDateTime valuedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        valuedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,17 @@
+package com.rafiki18.divtracker_be.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.rafiki18.divtracker_be.model.FundamentalsChange;
+
+@Repository
+public interface FundamentalsChangeRepository extends JpaRepository<FundamentalsChange, Long> {
+
+    /**
+     * Change history of a ticker, most recent first.
+     */
+    List<FundamentalsChange> findByTickerOrderByChangedAtDescIdDesc(String ticker);
+}
@@ -0,0 +1,39 @@
+package com.rafiki18.divtracker_be.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.rafiki18.divtracker_be.model.FundamentalsRefreshTask;
+
+@Repository
+public interface FundamentalsRefreshTaskRepository extends JpaRepository<FundamentalsRefreshTask, String> {
+
+    /**
+     * Find tasks ready to run (not backing off after a failure),
+     * highest priority first.
+     */
+    @Query("SELECT t FROM FundamentalsRefreshTask t WHERE " +
+           "t.nextAttemptAt IS NULL OR t.nextAttemptAt <= :now " +
+           "ORDER BY t.priority DESC, t.enqueuedAt ASC")
+    List<FundamentalsRefreshTask> findReadyTasks(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Count tasks ready to run.
+     */
+    @Query("SELECT COUNT(t) FROM FundamentalsRefreshTask t WHERE " +
+           "t.nextAttemptAt IS NULL OR t.nextAttemptAt <= :now")
+    long countReadyTasks(@Param("now") LocalDateTime now);
+
+    /**
+     * Tickers among the given ones that are backing off after a failed fetch.
+     */
+    @Query("SELECT t.ticker FROM FundamentalsRefreshTask t WHERE t.ticker IN :tickers AND t.nextAttemptAt > :now")
+    List<String> findBackingOffTickers(@Param("tickers") Collection<String> tickers, @Param("now") LocalDateTime now);
+}
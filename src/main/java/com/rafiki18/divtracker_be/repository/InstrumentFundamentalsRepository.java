@@ -1,6 +1,7 @@
 package com.rafiki18.divtracker_be.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +21,11 @@ public interface InstrumentFundamentalsRepository extends JpaRepository<Instrume
      */
     Optional<InstrumentFundamentals> findByTickerIgnoreCase(String ticker);
 
+    /**
+     * Find fundamentals for several upper-case tickers in one query.
+     */
+    List<InstrumentFundamentals> findByTickerIn(Collection<String> tickers);
+
     /**
      * Find all fundamentals older than specified date.
      */
@@ -41,6 +47,12 @@ public interface InstrumentFundamentalsRepository extends JpaRepository<Instrume
      */
     boolean existsByTickerIgnoreCase(String ticker);
 
+    /**
+     * Find which of the given (uppercase) tickers are tracked.
+     */
+    @Query("SELECT f.ticker FROM InstrumentFundamentals f WHERE f.ticker IN :tickers")
+    List<String> findTrackedTickers(@Param("tickers") Collection<String> tickers);
+
     /**
      * Find all tickers that need refresh (stale or partial).
      */
@@ -50,6 +62,22 @@ public interface InstrumentFundamentalsRepository extends JpaRepository<Instrume
            "f.dataQuality = 'STALE'")
     List<InstrumentFundamentals> findFundamentalsNeedingRefresh(@Param("cutoffTime") LocalDateTime cutoffTime);
 
+    /**
+     * Find fundamentals due for a background refresh: COMPLETE rows older than
+     * {@code staleCutoff}, and PARTIAL/STALE rows not retried since {@code incompleteCutoff}.
+     */
+    @Query("SELECT f FROM InstrumentFundamentals f WHERE " +
+           "(f.dataQuality = 'COMPLETE' AND f.lastUpdatedAt < :staleCutoff) OR " +
+           "((f.dataQuality IS NULL OR f.dataQuality <> 'COMPLETE') AND f.lastUpdatedAt < :incompleteCutoff)")
+    List<InstrumentFundamentals> findRefreshCandidates(@Param("staleCutoff") LocalDateTime staleCutoff,
+                                                       @Param("incompleteCutoff") LocalDateTime incompleteCutoff);
+
+    /**
+     * Get every ticker that has a fundamentals row.
+     */
+    @Query("SELECT f.ticker FROM InstrumentFundamentals f")
+    List<String> findAllTickers();
+
     /**
      * Count fundamentals by data quality.
      */
@@ -0,0 +1,24 @@
+package com.rafiki18.divtracker_be.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.rafiki18.divtracker_be.model.InstrumentPrice;
+
+@Repository
+public interface InstrumentPriceRepository extends JpaRepository<InstrumentPrice, String>, InstrumentPriceRepositoryCustom {
+
+    /**
+     * Find live prices for several tickers (tickers are stored uppercase).
+     */
+    List<InstrumentPrice> findByTickerIn(Collection<String> tickers);
+
+    /**
+     * Find prices written after the given instant (for incremental copies of the table).
+     */
+    List<InstrumentPrice> findByUpdatedAtAfter(Instant since);
+}
@@ -0,0 +1,48 @@
+package com.rafiki18.divtracker_be.repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import com.rafiki18.divtracker_be.marketdata.PriceTrade;
+
+/**
+ * Single-statement price writes.
+ * Out-of-order updates are rejected by the database (last_trade_at guard),
+ * so concurrent ingestion paths never need to read-modify-write the row.
+ */
+public interface InstrumentPriceRepositoryCustom {
+
+    /**
+     * Apply trades with one batched conditional UPDATE.
+     * A trade only wins if it is newer than the stored last_trade_at.
+     *
+     * @return per-trade update counts (0 = row missing or trade not newer)
+     */
+    int[] applyTrades(List<PriceTrade> trades);
+
+    /**
+     * Insert price rows for trades whose ticker has no row yet.
+     * If another path created the row in the meantime, the trade falls back to
+     * the conditional update.
+     *
+     * @return tickers whose trade was stored
+     */
+    Set<String> insertMissing(List<PriceTrade> trades);
+
+    /**
+     * Find which of the given tickers already have a price row.
+     */
+    Set<String> findExistingTickers(Collection<String> tickers);
+
+    /**
+     * Store a Finnhub quote. The previous close is always updated; the price
+     * only if no newer trade has been ingested.
+     *
+     * @return true if the quote price was applied
+     */
+    boolean applyQuote(String ticker, BigDecimal price, BigDecimal changePercent,
+                       BigDecimal previousClose, Instant quotedAt);
+}
@@ -0,0 +1,138 @@
+package com.rafiki18.divtracker_be.repository;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import com.rafiki18.divtracker_be.marketdata.PriceTrade;
+
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class InstrumentPriceRepositoryImpl implements InstrumentPriceRepositoryCustom {
+
+    // Daily change vs previous close (or last price when no close yet); SET
+    // expressions see the row as it was before the update
+    private static final String APPLY_TRADE_SQL = """
+            UPDATE instrument_prices SET
+                daily_change_percent = CASE
+                    WHEN COALESCE(previous_close, current_price) > 0
+                    THEN ROUND((:price - COALESCE(previous_close, current_price)) * 100
+                               / COALESCE(previous_close, current_price), 4)
+                    ELSE daily_change_percent END,
+                current_price = :price,
+                last_trade_at = :tradeAt,
+                source = :source,
+                version = version + 1,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE ticker = :ticker
+              AND (last_trade_at IS NULL OR last_trade_at < :tradeAt)
+            """;
+
+    // Conditional insert instead of catching duplicate keys, which would abort
+    // the surrounding transaction on PostgreSQL
+    private static final String INSERT_SQL = """
+            INSERT INTO instrument_prices
+                (ticker, current_price, daily_change_percent, previous_close, last_trade_at, source, version, updated_at)
+            SELECT :ticker, :price, :changePercent, :previousClose, :tradeAt, :source, 1, CURRENT_TIMESTAMP
+            WHERE NOT EXISTS (SELECT 1 FROM instrument_prices WHERE ticker = :ticker)
+            """;
+
+    private static final String SET_PREVIOUS_CLOSE_SQL = """
+            UPDATE instrument_prices SET previous_close = :previousClose
+            WHERE ticker = :ticker
+            """;
+
+    private static final String APPLY_QUOTE_SQL = """
+            UPDATE instrument_prices SET
+                current_price = :price,
+                daily_change_percent = :changePercent,
+                last_trade_at = :tradeAt,
+                source = :source,
+                version = version + 1,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE ticker = :ticker
+              AND (last_trade_at IS NULL OR last_trade_at <= :tradeAt)
+            """;
+
+    private static final String QUOTE_SOURCE = "FINNHUB_QUOTE";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] applyTrades(List<PriceTrade> trades) {
+        if (trades.isEmpty()) {
+            return new int[0];
+        }
+        SqlParameterSource[] batch = trades.stream()
+                .map(this::tradeParams)
+                .toArray(SqlParameterSource[]::new);
+        return jdbcTemplate.batchUpdate(APPLY_TRADE_SQL, batch);
+    }
+
+    @Override
+    public Set<String> insertMissing(List<PriceTrade> trades) {
+        Set<String> stored = new HashSet<>();
+        for (PriceTrade trade : trades) {
+            int inserted = jdbcTemplate.update(INSERT_SQL, tradeParams(trade)
+                    .addValue("changePercent", null, Types.NUMERIC)
+                    .addValue("previousClose", null, Types.NUMERIC));
+            // Another ingestion path may have created the row in the meantime
+            if (inserted > 0 || jdbcTemplate.update(APPLY_TRADE_SQL, tradeParams(trade)) > 0) {
+                stored.add(trade.getTicker());
+            }
+        }
+        return stored;
+    }
+
+    @Override
+    public Set<String> findExistingTickers(Collection<String> tickers) {
+        if (tickers.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT ticker FROM instrument_prices WHERE ticker IN (:tickers)",
+                Map.of("tickers", tickers), String.class));
+    }
+
+    @Override
+    public boolean applyQuote(String ticker, BigDecimal price, BigDecimal changePercent,
+                              BigDecimal previousClose, Instant quotedAt) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ticker", ticker)
+                .addValue("price", price)
+                .addValue("changePercent", changePercent, Types.NUMERIC)
+                .addValue("previousClose", previousClose, Types.NUMERIC)
+                .addValue("tradeAt", toOffset(quotedAt))
+                .addValue("source", QUOTE_SOURCE);
+
+        if (jdbcTemplate.update(SET_PREVIOUS_CLOSE_SQL, params) == 0
+                && jdbcTemplate.update(INSERT_SQL, params) > 0) {
+            return true;
+        }
+        return jdbcTemplate.update(APPLY_QUOTE_SQL, params) > 0;
+    }
+
+    private MapSqlParameterSource tradeParams(PriceTrade trade) {
+        return new MapSqlParameterSource()
+                .addValue("ticker", trade.getTicker())
+                .addValue("price", trade.getPrice())
+                .addValue("tradeAt", toOffset(trade.getTradeAt()))
+                .addValue("source", trade.getSource());
+    }
+
+    private OffsetDateTime toOffset(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+}
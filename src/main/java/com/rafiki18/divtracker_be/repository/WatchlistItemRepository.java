@@ -1,8 +1,12 @@
 package com.rafiki18.divtracker_be.repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -11,6 +15,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.rafiki18.divtracker_be.model.InstrumentFundamentals;
+import com.rafiki18.divtracker_be.model.InstrumentPrice;
 import com.rafiki18.divtracker_be.model.WatchlistItem;
 
 @Repository
@@ -20,6 +26,24 @@ public interface WatchlistItemRepository extends JpaRepository<WatchlistItem, UU
      * Encuentra todos los items del watchlist de un usuario con paginación
      */
     Page<WatchlistItem> findAllByUserId(UUID userId, Pageable pageable);
+
+    /**
+     * Items de un usuario junto a su valoración materializada: permite filtrar y
+     * ordenar por métricas calculadas (propiedades "v.*", p. ej. v.marginOfSafety).
+     * Los filtros null no se aplican; los items sin valoración no cumplen ningún filtro.
+     */
+    @Query(value = "select i from WatchlistItem i left join WatchlistItemValuation v on v.itemId = i.id " +
+            "where i.userId = :userId " +
+            "and (:undervalued is null or v.undervalued = :undervalued) " +
+            "and (:minMarginOfSafety is null or v.marginOfSafety >= :minMarginOfSafety)",
+            countQuery = "select count(i) from WatchlistItem i left join WatchlistItemValuation v on v.itemId = i.id " +
+            "where i.userId = :userId " +
+            "and (:undervalued is null or v.undervalued = :undervalued) " +
+            "and (:minMarginOfSafety is null or v.marginOfSafety >= :minMarginOfSafety)")
+    Page<WatchlistItem> findAllByUserIdWithValuation(@Param("userId") UUID userId,
+                                                     @Param("undervalued") Boolean undervalued,
+                                                     @Param("minMarginOfSafety") BigDecimal minMarginOfSafety,
+                                                     Pageable pageable);
     
     /**
      * Encuentra un item específico por userId e id
@@ -42,6 +66,12 @@ public interface WatchlistItemRepository extends JpaRepository<WatchlistItem, UU
     @Query("select distinct upper(w.ticker) from WatchlistItem w")
     List<String> findDistinctTickers();
 
+    /**
+     * Cuenta cuántos items de watchlist siguen cada ticker (normalizado a mayúsculas)
+     */
+    @Query("select upper(w.ticker) as ticker, count(w) as watchers from WatchlistItem w group by upper(w.ticker)")
+    List<TickerWatchers> countWatchersByTicker();
+
     /**
      * Cuenta cuántos usuarios tienen este ticker en sus watchlists
      */
@@ -53,8 +83,90 @@ public interface WatchlistItemRepository extends JpaRepository<WatchlistItem, UU
     @Query("select distinct upper(w.ticker) from WatchlistItem w where w.userId = :userId")
     List<String> findDistinctTickersByUserId(@Param("userId") UUID userId);
 
+    /**
+     * Tickers únicos (en mayúsculas) de varios usuarios en una sola consulta, como pares usuario → ticker
+     */
+    @Query("select distinct w.userId as userId, upper(w.ticker) as ticker from WatchlistItem w " +
+            "where w.userId in :userIds")
+    List<UserTicker> findDistinctTickersByUserIdIn(@Param("userIds") Collection<UUID> userIds);
+
     /**
      * Encuentra todos los items de un usuario sin paginación
      */
     List<WatchlistItem> findByUserId(UUID userId);
+
+    /**
+     * Encuentra los items de varios tickers (los tickers se guardan en mayúsculas)
+     */
+    List<WatchlistItem> findByTickerIn(Collection<String> tickers);
+
+    /**
+     * Recorre los items de un usuario con sus fundamentals y precio en una sola
+     * consulta (fundamentals y precio null si aún no existen). Requiere transacción abierta
+     */
+    @Query("select i as item, f as fundamentals, p as price from WatchlistItem i " +
+            "left join InstrumentFundamentals f on f.ticker = i.ticker " +
+            "left join InstrumentPrice p on p.ticker = i.ticker " +
+            "where i.userId = :userId")
+    Stream<ItemMarketData> streamWithMarketDataByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Versiones de los datos de los que depende cada item de un usuario (item,
+     * fundamentals, precio y valoración materializada), ordenadas por id. Solo lee
+     * columnas escalares: sirve para calcular el ETag del listado sin cargar entidades
+     */
+    @Query("select i.id as id, i.updatedAt as updatedAt, f.dataVersion as fundamentalsVersion, " +
+            "p.version as priceVersion, v.valuedAt as valuedAt from WatchlistItem i " +
+            "left join InstrumentFundamentals f on f.ticker = i.ticker " +
+            "left join InstrumentPrice p on p.ticker = i.ticker " +
+            "left join WatchlistItemValuation v on v.itemId = i.id " +
+            "where i.userId = :userId order by i.id")
+    List<ItemVersions> findVersionsByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Versiones de un item concreto del usuario
+     */
+    @Query("select i.id as id, i.updatedAt as updatedAt, f.dataVersion as fundamentalsVersion, " +
+            "p.version as priceVersion, v.valuedAt as valuedAt from WatchlistItem i " +
+            "left join InstrumentFundamentals f on f.ticker = i.ticker " +
+            "left join InstrumentPrice p on p.ticker = i.ticker " +
+            "left join WatchlistItemValuation v on v.itemId = i.id " +
+            "where i.userId = :userId and i.id = :id")
+    Optional<ItemVersions> findVersionsByUserIdAndId(@Param("userId") UUID userId, @Param("id") UUID id);
+
+    /**
+     * Proyección item → versiones de sus datos (null si aún no existen)
+     */
+    interface ItemVersions {
+        UUID getId();
+        LocalDateTime getUpdatedAt();
+        Long getFundamentalsVersion();
+        Long getPriceVersion();
+        LocalDateTime getValuedAt();
+    }
+
+    /**
+     * Proyección item → fundamentals y precio
+     */
+    interface ItemMarketData {
+        WatchlistItem getItem();
+        InstrumentFundamentals getFundamentals();
+        InstrumentPrice getPrice();
+    }
+
+    /**
+     * Proyección usuario → ticker
+     */
+    interface UserTicker {
+        UUID getUserId();
+        String getTicker();
+    }
+
+    /**
+     * Proyección ticker → número de watchers
+     */
+    interface TickerWatchers {
+        String getTicker();
+        Long getWatchers();
+    }
 }
@@ -0,0 +1,12 @@
+package com.rafiki18.divtracker_be.repository;
+
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.rafiki18.divtracker_be.model.WatchlistItemValuation;
+
+@Repository
+public interface WatchlistItemValuationRepository extends JpaRepository<WatchlistItemValuation, UUID> {
+}
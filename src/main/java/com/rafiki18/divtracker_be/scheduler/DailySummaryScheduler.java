@@ -12,9 +12,10 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * Scheduled job to send daily summary push notifications.
  * Sends a summary of watchlist performance to all registered devices.
+ * Requires both {@code fcm.enabled} and {@code fcm.daily-summary.enabled}.
  */
 @Component
-@ConditionalOnProperty(name = "fcm.enabled", havingValue = "true")
+@ConditionalOnProperty(name = {"fcm.enabled", "fcm.daily-summary.enabled"}, havingValue = "true")
 @RequiredArgsConstructor
 @Slf4j
 public class DailySummaryScheduler {
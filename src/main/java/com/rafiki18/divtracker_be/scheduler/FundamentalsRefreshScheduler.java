@@ -1,120 +1,312 @@
 package com.rafiki18.divtracker_be.scheduler;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import com.rafiki18.divtracker_be.config.properties.FundamentalsRefreshProperties;
+import com.rafiki18.divtracker_be.marketdata.FinnhubFailure;
+import com.rafiki18.divtracker_be.marketdata.FinnhubRateBudget;
+import com.rafiki18.divtracker_be.marketdata.FundamentalsDeletedEvent;
+import com.rafiki18.divtracker_be.model.FundamentalsRefreshTask;
+import com.rafiki18.divtracker_be.model.FundamentalsRefreshTask.Reason;
 import com.rafiki18.divtracker_be.model.InstrumentFundamentals;
+import com.rafiki18.divtracker_be.repository.FundamentalsRefreshTaskRepository;
 import com.rafiki18.divtracker_be.repository.InstrumentFundamentalsRepository;
+import com.rafiki18.divtracker_be.repository.WatchlistItemRepository;
+import com.rafiki18.divtracker_be.repository.WatchlistItemRepository.TickerWatchers;
+import com.rafiki18.divtracker_be.service.FundamentalsRetryService;
 import com.rafiki18.divtracker_be.service.InstrumentFundamentalsService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * Scheduled job to refresh stale fundamentals data.
- * Runs daily to ensure cached data stays reasonably fresh.
+ * Background refresh of fundamentals.
+ *
+ * A planner periodically fills a persistent queue ordered by data quality,
+ * staleness and watcher count; a drainer continuously works through it using
+ * only the Finnhub budget left over by interactive traffic. Failed tickers
+ * wait out their backoff before the drainer picks them up again.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class FundamentalsRefreshScheduler {
-    
+
+    static final int CALLS_PER_REFRESH = InstrumentFundamentalsService.CALLS_PER_FETCH;
+
+    // Priority weights: quality boost dominates, then staleness x watchers
+    private static final long MISSING_BOOST = 3_000_000L;
+    private static final long INCOMPLETE_BOOST = 2_000_000L;
+    private static final long MAX_STALE_HOURS = 720;
+    private static final long MAX_WATCHERS = 100;
+
     private final InstrumentFundamentalsRepository repository;
     private final InstrumentFundamentalsService fundamentalsService;
-    
-    // Rate limiting: max refreshes per batch (Finnhub: 60 calls/minute)
-    private static final int MAX_REFRESHES_PER_RUN = 4;
-    
+    private final FundamentalsRefreshTaskRepository taskRepository;
+    private final WatchlistItemRepository watchlistItemRepository;
+    private final FinnhubRateBudget rateBudget;
+    private final FundamentalsRefreshProperties properties;
+    private final FundamentalsRetryService retryService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final AtomicLong refreshedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private volatile LocalDateTime lastPlannedAt;
+    private volatile LocalDateTime lastRefreshAt;
+
     /**
-     * Refresh stale fundamentals daily at 4 AM.
-     * Prioritizes instruments updated longest ago.
-     * Respects API rate limits by batching.
+     * Manually plan and drain the queue once (admin trigger).
+     * Still bounded by the spare Finnhub budget.
      */
-    @Scheduled(cron = "0 0 4 * * *") // Daily at 4 AM
     public void refreshStaleFundamentals() {
-        log.info("Starting scheduled fundamentals refresh (Daily at 4 AM)");
-        
+        planRefreshQueue();
+        drainRefreshQueue();
+    }
+
+    /**
+     * Rebuild queue priorities every 10 minutes.
+     * Enqueues watched tickers without fundamentals, PARTIAL/STALE rows and
+     * expired COMPLETE rows; drops tasks that are no longer needed, except
+     * failed ones still backing off.
+     */
+    @Scheduled(fixedDelay = 600_000, initialDelay = 30_000)
+    public void scheduledPlan() {
+        if (properties.isEnabled()) {
+            planRefreshQueue();
+        }
+    }
+
+    /**
+     * Drain the queue every 5 seconds within the spare budget.
+     */
+    @Scheduled(fixedDelay = 5_000, initialDelay = 60_000)
+    public void scheduledDrain() {
+        if (properties.isEnabled()) {
+            drainRefreshQueue();
+        }
+    }
+
+    public void planRefreshQueue() {
         try {
-            LocalDateTime threshold = LocalDateTime.now().minusHours(24);
-            List<InstrumentFundamentals> staleData = repository.findFundamentalsNeedingRefresh(threshold);
-            
-            if (staleData.isEmpty()) {
-                log.info("No stale fundamentals found, skipping refresh");
-                return;
+            LocalDateTime now = LocalDateTime.now();
+            Map<String, Long> watchers = watchlistItemRepository.countWatchersByTicker().stream()
+                    .collect(Collectors.toMap(TickerWatchers::getTicker, TickerWatchers::getWatchers, Long::sum));
+
+            Map<String, FundamentalsRefreshTask> existing = taskRepository.findAll().stream()
+                    .collect(Collectors.toMap(FundamentalsRefreshTask::getTicker, Function.identity()));
+            Map<String, FundamentalsRefreshTask> planned = new HashMap<>();
+
+            List<InstrumentFundamentals> candidates = repository.findRefreshCandidates(
+                    now.minus(properties.getStaleAfter()),
+                    now.minus(properties.getIncompleteRetryAfter()));
+            for (InstrumentFundamentals candidate : candidates) {
+                String ticker = candidate.getTicker().toUpperCase();
+                Reason reason = reasonFor(candidate);
+                long hoursStale = candidate.getLastUpdatedAt() != null
+                        ? Duration.between(candidate.getLastUpdatedAt(), now).toHours()
+                        : MAX_STALE_HOURS;
+                planned.put(ticker, plan(existing.get(ticker), ticker, reason,
+                        priority(reason, hoursStale, watchers.getOrDefault(ticker, 0L))));
+            }
+
+            Set<String> knownTickers = new HashSet<>(repository.findAllTickers());
+            for (Map.Entry<String, Long> entry : watchers.entrySet()) {
+                if (!knownTickers.contains(entry.getKey())) {
+                    planned.put(entry.getKey(), plan(existing.get(entry.getKey()), entry.getKey(), Reason.MISSING,
+                            priority(Reason.MISSING, MAX_STALE_HOURS, entry.getValue())));
+                }
+            }
+
+            List<FundamentalsRefreshTask> obsolete = existing.values().stream()
+                    .filter(task -> !planned.containsKey(task.getTicker()))
+                    .filter(task -> !task.isBackingOff(now))
+                    .toList();
+            if (!obsolete.isEmpty()) {
+                taskRepository.deleteAllInBatch(obsolete);
+            }
+            taskRepository.saveAll(planned.values());
+            lastPlannedAt = now;
+
+            log.info("Fundamentals refresh queue planned: {} queued, {} dropped", planned.size(), obsolete.size());
+        } catch (Exception e) {
+            log.error("Error planning fundamentals refresh queue", e);
+        }
+    }
+
+    /**
+     * Refresh queued tickers while the budget allows.
+     *
+     * @return number of tickers refreshed in this cycle
+     */
+    public int drainRefreshQueue() {
+        if (!drainLock.tryLock()) {
+            log.debug("Fundamentals refresh drain already running, skipping");
+            return 0;
+        }
+        try {
+            int reserve = properties.getInteractiveReservePerMinute();
+            if (!rateBudget.hasCapacity(CALLS_PER_REFRESH, reserve)) {
+                return 0;
             }
-            
-            log.info("Found {} stale fundamentals, refreshing up to {}", 
-                staleData.size(), MAX_REFRESHES_PER_RUN);
-            
+
+            List<FundamentalsRefreshTask> tasks = taskRepository.findReadyTasks(
+                    LocalDateTime.now(), PageRequest.of(0, properties.getMaxRefreshesPerCycle()));
+
             int refreshed = 0;
-            int failed = 0;
-            
-            for (InstrumentFundamentals stale : staleData) {
-                if (refreshed >= MAX_REFRESHES_PER_RUN) {
-                    log.info("Reached max refresh limit ({}), will continue in next run", MAX_REFRESHES_PER_RUN);
+            for (FundamentalsRefreshTask task : tasks) {
+                if (!rateBudget.hasCapacity(CALLS_PER_REFRESH, reserve)) {
+                    log.debug("Finnhub budget exhausted, pausing fundamentals refresh");
                     break;
                 }
-                
-                try {
-                    String ticker = stale.getTicker();
-                    log.debug("Refreshing fundamentals for {}", ticker);
-                    fundamentalsService.refreshFundamentals(ticker);
+                if (refreshTask(task)) {
                     refreshed++;
-                    
-                    // Rate limiting: sleep 1 second between calls (60 calls/min max)
-                    if (refreshed < staleData.size() && refreshed < MAX_REFRESHES_PER_RUN) {
-                        Thread.sleep(1000);
-                    }
-                } catch (Exception e) {
-                    log.warn("Failed to refresh fundamentals for {}: {}", 
-                        stale.getTicker(), e.getMessage());
-                    failed++;
                 }
             }
-            
-            log.info("Scheduled refresh completed: {} refreshed, {} failed, {} remaining", 
-                refreshed, failed, Math.max(0, staleData.size() - refreshed - failed));
-                
+            return refreshed;
         } catch (Exception e) {
-            log.error("Error during scheduled fundamentals refresh", e);
+            log.error("Error draining fundamentals refresh queue", e);
+            return 0;
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * Queue backlog, throughput and estimated time to drain.
+     */
+    public Map<String, Object> getQueueStatus() {
+        LocalDateTime now = LocalDateTime.now();
+        long backlog = taskRepository.count();
+        long ready = taskRepository.countReadyTasks(now);
+        int spareCallsPerMinute = Math.max(0,
+                rateBudget.getLimitPerMinute() - properties.getInteractiveReservePerMinute());
+        double refreshesPerMinute = (double) spareCallsPerMinute / CALLS_PER_REFRESH;
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", properties.isEnabled());
+        status.put("backlog", backlog);
+        status.put("ready", ready);
+        status.put("refreshesPerMinute", refreshesPerMinute);
+        status.put("etaMinutes", refreshesPerMinute > 0 ? (long) Math.ceil(backlog / refreshesPerMinute) : null);
+        status.put("finnhubCallsLastMinute", rateBudget.callsInLastMinute());
+        status.put("refreshedSinceStartup", refreshedCount.get());
+        status.put("failedSinceStartup", failedCount.get());
+        status.put("lastPlannedAt", lastPlannedAt);
+        status.put("lastRefreshAt", lastRefreshAt);
+        return status;
+    }
+
+    private boolean refreshTask(FundamentalsRefreshTask task) {
+        String ticker = task.getTicker();
+        try {
+            log.debug("Refreshing fundamentals for {} ({}, priority {})", ticker, task.getReason(), task.getPriority());
+            if (fundamentalsService.refreshFundamentals(ticker).isPresent()) {
+                taskRepository.delete(task);
+                refreshedCount.incrementAndGet();
+                lastRefreshAt = LocalDateTime.now();
+                return true;
+            }
+            // The service already recorded the classified failure and its backoff
+            log.warn("Failed to refresh fundamentals for {}: no data returned from Finnhub", ticker);
+        } catch (Exception e) {
+            log.warn("Failed to refresh fundamentals for {}: {}", ticker, e.getMessage());
+            retryService.recordFailure(ticker, FinnhubFailure.TRANSIENT, e.getMessage());
+        }
+        failedCount.incrementAndGet();
+        return false;
+    }
+
+    private FundamentalsRefreshTask plan(FundamentalsRefreshTask existing, String ticker, Reason reason, long priority) {
+        FundamentalsRefreshTask task = existing != null
+                ? existing
+                : FundamentalsRefreshTask.builder().ticker(ticker).enqueuedAt(LocalDateTime.now()).build();
+        task.setReason(reason);
+        task.setPriority(priority);
+        return task;
+    }
+
+    private Reason reasonFor(InstrumentFundamentals fundamentals) {
+        if (fundamentals.getDataQuality() == InstrumentFundamentals.DataQuality.COMPLETE) {
+            return Reason.EXPIRED;
         }
+        return fundamentals.getDataQuality() == InstrumentFundamentals.DataQuality.STALE
+                ? Reason.STALE
+                : Reason.PARTIAL;
     }
-    
+
+    static long priority(Reason reason, long hoursStale, long watchers) {
+        long boost = switch (reason) {
+            case MISSING -> MISSING_BOOST;
+            case PARTIAL, STALE, FAILED -> INCOMPLETE_BOOST;
+            case EXPIRED -> 0L;
+        };
+        long staleness = Math.max(0, Math.min(hoursStale, MAX_STALE_HOURS));
+        return boost + staleness * (1 + Math.min(watchers, MAX_WATCHERS));
+    }
+
     /**
-     * Clean up very old fundamentals (> 30 days) that are marked STALE.
-     * Runs daily at 3 AM.
+     * Run the cleanup daily at 3 AM when {@code fundamentals.refresh.cleanup-enabled}
+     * is set; it is off by default because it deletes rows.
      */
     @Scheduled(cron = "0 0 3 * * *") // Daily at 3 AM
+    public void scheduledCleanup() {
+        if (properties.isCleanupEnabled()) {
+            cleanupOldFundamentals();
+        }
+    }
+
+    /**
+     * Clean up very old fundamentals (> 30 days) that are marked STALE and
+     * publish a {@link FundamentalsDeletedEvent} with the deleted tickers.
+     */
     public void cleanupOldFundamentals() {
         log.info("Starting cleanup of old fundamentals");
-        
+
+        Set<String> deleted = new HashSet<>();
         try {
             LocalDateTime threshold = LocalDateTime.now().minusDays(30);
             List<InstrumentFundamentals> veryOld = repository.findByLastUpdatedAtBefore(threshold);
-            
+
             if (veryOld.isEmpty()) {
                 log.info("No old fundamentals to clean up");
                 return;
             }
-            
+
             log.info("Found {} fundamentals older than 30 days", veryOld.size());
-            
+
             // Only delete if marked STALE (keep COMPLETE data even if old)
-            int deleted = 0;
             for (InstrumentFundamentals old : veryOld) {
                 if (old.getDataQuality() == InstrumentFundamentals.DataQuality.STALE) {
                     repository.delete(old);
-                    deleted++;
+                    deleted.add(old.getTicker());
                 }
             }
-            
-            log.info("Cleanup completed: {} old STALE records deleted", deleted);
-            
+
+            log.info("Cleanup completed: {} old STALE records deleted", deleted.size());
+
         } catch (Exception e) {
             log.error("Error during fundamentals cleanup", e);
         }
+        // Also after a failure, for the rows deleted before it
+        if (!deleted.isEmpty()) {
+            eventPublisher.publishEvent(new FundamentalsDeletedEvent(this, Set.copyOf(deleted)));
+        }
     }
 }
@@ -0,0 +1,43 @@
+package com.rafiki18.divtracker_be.scheduler;
+
+import java.util.Set;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.rafiki18.divtracker_be.config.properties.ValuationProperties;
+import com.rafiki18.divtracker_be.service.WatchlistItemValuationService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Flushes the tickers whose price or fundamentals changed into the
+ * materialized valuation table. Changes are coalesced between runs, so a
+ * ticker trading many times per second is revalued once per interval.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ItemValuationRefreshScheduler {
+
+    private final WatchlistItemValuationService valuationService;
+    private final ValuationProperties properties;
+
+    @Scheduled(fixedDelayString = "${valuation.item-table-flush-interval-millis:2000}", initialDelay = 10_000)
+    public void flushPendingValuations() {
+        Set<String> tickers = valuationService.drainPending(properties.getItemTableFlushMaxTickers());
+        if (tickers.isEmpty()) {
+            return;
+        }
+        try {
+            int rows = valuationService.revalue(tickers);
+            log.debug("Item valuations refreshed: {} rows for {} tickers, {} still pending",
+                    rows, tickers.size(), valuationService.pendingCount());
+        } catch (Exception e) {
+            // Keep the tickers for the next run
+            log.warn("Error refreshing item valuations for {} tickers: {}", tickers.size(), e.getMessage());
+            valuationService.markPending(tickers);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * {@link ValuationKernel} over a {@link ValuationBatch}: each metric is a
+ * loop over the batch arrays instead of one call per item, and the
+ * projection runs year by year across all items, so the hot loops are plain
+ * element-wise array arithmetic the JIT can unroll and vectorize. Payback
+ * and IRR are iterative per item and stay scalar.
+ *
+ * Batches larger than the chunk size are split into ranges valued in
+ * parallel on the common fork/join pool; ranges never overlap, so tasks
+ * write the metric arrays without coordination. Results are identical to
+ * {@link ValuationKernel} item by item.
+ */
+final class BatchValuationEngine {
+
+    private BatchValuationEngine() {
+    }
+
+    /**
+     * @param batch     Items to value; metrics are written back into it
+     * @param irrGuess  Starting IRR (decimal) per item; NaN for the default
+     * @param chunkSize Items per fork/join task
+     */
+    static void value(ValuationBatch batch, double[] irrGuess, int chunkSize) {
+        int size = batch.size();
+        batch.prepareMetrics();
+        int chunk = Math.max(chunkSize, 1);
+        if (size <= chunk) {
+            valueRange(batch, irrGuess, 0, size);
+        } else {
+            ForkJoinPool.commonPool().invoke(new RangeTask(batch, irrGuess, 0, size, chunk));
+        }
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+        private final ValuationBatch batch;
+        private final double[] irrGuess;
+        private final int from;
+        private final int to;
+        private final int chunk;
+
+        RangeTask(ValuationBatch batch, double[] irrGuess, int from, int to, int chunk) {
+            this.batch = batch;
+            this.irrGuess = irrGuess;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                valueRange(batch, irrGuess, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeTask(batch, irrGuess, from, middle, chunk),
+                    new RangeTask(batch, irrGuess, middle, to, chunk));
+        }
+    }
+
+    private static void valueRange(ValuationBatch batch, double[] irrGuess, int from, int to) {
+        double[] price = batch.price;
+        double[] fcf = batch.fcf;
+        double[] growth = batch.growth;
+        double[] perpetualGrowth = batch.perpetualGrowth;
+        double[] discount = batch.discount;
+        double[] targetPrice = batch.targetPrice;
+        int[] years = batch.years;
+        int count = to - from;
+
+        // FCF yield
+        double[] fcfYield = batch.fcfYield;
+        for (int i = from; i < to; i++) {
+            fcfYield[i] = price[i] > 0 ? fcf[i] / price[i] * 100 : Double.NaN;
+        }
+
+        // Projection, one year at a time across the range: FCF_y = fcf * (1 + g)^y, discounted at (1 + r)^y
+        double[] projected = new double[count];
+        double[] discountPower = new double[count];
+        double[] accumulated = new double[count];
+        double[] presentValue = new double[count];
+        int maxYears = 0;
+        for (int k = 0; k < count; k++) {
+            projected[k] = fcf[from + k];
+            discountPower[k] = 1;
+            maxYears = Math.max(maxYears, years[from + k]);
+        }
+        for (int year = 1; year <= maxYears; year++) {
+            for (int k = 0; k < count; k++) {
+                if (year <= years[from + k]) {
+                    projected[k] *= 1 + growth[from + k];
+                    discountPower[k] *= 1 + discount[from + k];
+                    accumulated[k] += projected[k];
+                    presentValue[k] += projected[k] / discountPower[k];
+                }
+            }
+        }
+
+        // DCF with Gordon growth terminal value, rounded like the stored value
+        double[] dcf = batch.dcf;
+        for (int k = 0; k < count; k++) {
+            int i = from + k;
+            double g = perpetualGrowth[i];
+            if (fcf[i] > 0 && years[i] > 0 && discount[i] > g) {
+                double terminalValue = projected[k] * (1 + g) / (discount[i] - g);
+                dcf[i] = ValuationKernel.round2(presentValue[k] + terminalValue / discountPower[k]);
+            } else {
+                dcf[i] = Double.NaN;
+            }
+        }
+
+        // Margin of safety and ROI against the DCF (target price or price without one)
+        double[] marginOfSafety = batch.marginOfSafety;
+        double[] roi = batch.roi;
+        for (int k = 0; k < count; k++) {
+            int i = from + k;
+            double fairValue = dcf[i];
+            marginOfSafety[i] = fairValue > 0 ? (fairValue - price[i]) / fairValue * 100 : Double.NaN;
+            double roiTarget = !Double.isNaN(fairValue) ? fairValue
+                    : !Double.isNaN(targetPrice[i]) ? targetPrice[i] : price[i];
+            roi[i] = price[i] > 0 && years[i] > 0
+                    ? (roiTarget - price[i] + accumulated[k]) / price[i] * 100 : Double.NaN;
+        }
+
+        // Payback and IRR iterate per item
+        double[] paybackPeriod = batch.paybackPeriod;
+        double[] irr = batch.irr;
+        double[] exitMultiple = batch.exitMultiple;
+        IrrSolver solver = new IrrSolver();
+        for (int i = from; i < to; i++) {
+            double growthFactor = 1 + growth[i];
+            paybackPeriod[i] = fcf[i] > 0 ? ValuationKernel.payback(price[i], fcf[i], growthFactor) : Double.NaN;
+
+            int horizon = years[i];
+            if (price[i] > 0 && horizon > 0) {
+                double[] cashFlows = solver.cashFlows(horizon);
+                double flow = fcf[i];
+                for (int year = 0; year < horizon; year++) {
+                    flow *= growthFactor;
+                    cashFlows[year] = flow;
+                }
+                cashFlows[horizon - 1] += flow * exitMultiple[i];
+                irr[i] = solver.solve(price[i], irrGuess[i]) * 100;
+            } else {
+                irr[i] = Double.NaN;
+            }
+        }
+    }
+}
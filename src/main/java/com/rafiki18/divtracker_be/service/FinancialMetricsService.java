@@ -3,24 +3,248 @@ package com.rafiki18.divtracker_be.service;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.rafiki18.divtracker_be.config.properties.ValuationProperties;
+import com.rafiki18.divtracker_be.model.InstrumentFundamentals;
+
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Service for calculating advanced financial metrics and valuations.
  * Implements DCF, IRR, FCF Yield, Margin of Safety, Payback Period, and ROI calculations.
+ *
+ * The per-metric methods are the BigDecimal reference implementation.
+ * {@link #calculateValuation} computes all of them at once, by default with
+ * the primitive {@link ValuationKernel}; {@code valuation.kernel=REFERENCE}
+ * switches it back to the per-metric methods. It is split into a
+ * price-independent stage ({@link #projectValuation}) and a cheap stage at
+ * the current price ({@link #priceValuation}) that is re-run on price ticks.
+ * IRRs are solved by {@link IrrSolver}, warm-started from the last IRR of
+ * the same position. Many positions are valued at once with
+ * {@link #calculateValuations} over a {@link ValuationBatch}.
  */
 @Service
 @Slf4j
 public class FinancialMetricsService {
 
+    /**
+     * Investment horizon (years) used when an item does not set one.
+     */
+    public static final int DEFAULT_HORIZON_YEARS = 5;
+
+    /**
+     * Exit P/FCF multiple used when an item does not set a target.
+     */
+    public static final BigDecimal DEFAULT_EXIT_MULTIPLE = new BigDecimal("15");
+
     private static final int SCALE = 4;
     private static final RoundingMode ROUNDING = RoundingMode.HALF_UP;
-    private static final int MAX_IRR_ITERATIONS = 100;
-    private static final BigDecimal IRR_TOLERANCE = new BigDecimal("0.0001");
+    private static final int IRR_WARM_STARTS = 10_000;
+
+    private static final BigDecimal ONE_HUNDRED = new BigDecimal("100");
+    private static final BigDecimal DEFAULT_GROWTH_RATE = new BigDecimal("0.05");
+    private static final BigDecimal MAX_GROWTH_RATE = new BigDecimal("0.15");
+    private static final BigDecimal DEFAULT_DISCOUNT_RATE = new BigDecimal("0.10");
+    private static final BigDecimal MIN_DISCOUNT_RATE = new BigDecimal("0.06");
+    private static final BigDecimal MAX_DISCOUNT_RATE = new BigDecimal("0.15");
+    // 10Y Treasury and equity risk premium of the CAPM discount rate
+    private static final BigDecimal RISK_FREE_RATE = new BigDecimal("0.044");
+    private static final BigDecimal EQUITY_RISK_PREMIUM = new BigDecimal("0.055");
+
+    private final ValuationProperties.Kernel kernel;
+    private final int batchChunkSize;
+
+    // Last IRR (decimal) per watchlist item, least recently used evicted first
+    private final Map<UUID, Double> irrWarmStarts = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, Double> eldest) {
+            return size() > IRR_WARM_STARTS;
+        }
+    };
+
+    public FinancialMetricsService() {
+        this(new ValuationProperties());
+    }
+
+    @Autowired
+    public FinancialMetricsService(ValuationProperties properties) {
+        this.kernel = properties.getKernel();
+        this.batchChunkSize = properties.getBatchChunkSize();
+    }
+
+    /**
+     * Calculate FCF yield, DCF, margin of safety, payback, ROI and IRR of one
+     * position together.
+     *
+     * @param currentPrice Current market price
+     * @param fcfPerShare Annual free cash flow per share
+     * @param growthRate Expected annual FCF growth rate (as decimal)
+     * @param discountRate Required rate of return (as decimal)
+     * @param years Projection / investment horizon in years
+     * @param targetPrice Manual target price, the ROI target when there is no DCF value (nullable)
+     * @param exitMultiple P/FCF multiple for the terminal value of the IRR cash flows
+     * @return Metrics; those that cannot be computed are null
+     */
+    public ValuationMetrics calculateValuation(BigDecimal currentPrice, BigDecimal fcfPerShare,
+                                               BigDecimal growthRate, BigDecimal discountRate, int years,
+                                               BigDecimal targetPrice, BigDecimal exitMultiple) {
+        return calculateValuation(currentPrice, fcfPerShare, growthRate, discountRate, years, targetPrice,
+                exitMultiple, null);
+    }
+
+    /**
+     * {@link #calculateValuation} of a watchlist item: the IRR search starts
+     * from the item's previous IRR, which after a price tick is one or two
+     * Newton steps away.
+     *
+     * @param itemId Watchlist item id (nullable, then no warm start)
+     */
+    public ValuationMetrics calculateValuation(BigDecimal currentPrice, BigDecimal fcfPerShare,
+                                               BigDecimal growthRate, BigDecimal discountRate, int years,
+                                               BigDecimal targetPrice, BigDecimal exitMultiple, UUID itemId) {
+        return priceValuation(projectValuation(fcfPerShare, growthRate, discountRate, years, exitMultiple),
+                currentPrice, targetPrice, itemId);
+    }
+
+    /**
+     * Price-independent stage of {@link #calculateValuation}: DCF fair value
+     * and projected cash flows. Keep it and call {@link #priceValuation} when
+     * only the price changed.
+     *
+     * @param fcfPerShare Annual free cash flow per share
+     * @param growthRate Expected annual FCF growth rate (as decimal)
+     * @param discountRate Required rate of return (as decimal)
+     * @param years Projection / investment horizon in years
+     * @param exitMultiple P/FCF multiple for the terminal value of the IRR cash flows
+     */
+    public ValuationProjection projectValuation(BigDecimal fcfPerShare, BigDecimal growthRate,
+                                                BigDecimal discountRate, int years, BigDecimal exitMultiple) {
+        if (kernel == ValuationProperties.Kernel.REFERENCE || fcfPerShare == null || growthRate == null
+                || discountRate == null || exitMultiple == null) {
+            return new ValuationProjection(fcfPerShare, growthRate, discountRate, years, exitMultiple,
+                    calculateDCF(fcfPerShare, growthRate, discountRate, years), null);
+        }
+
+        ValuationKernel.Projection projection = new ValuationKernel.Projection();
+        ValuationKernel.project(fcfPerShare.doubleValue(), growthRate.doubleValue(),
+                perpetualGrowth(growthRate).doubleValue(), discountRate.doubleValue(), years,
+                exitMultiple.doubleValue(), projection);
+        return new ValuationProjection(fcfPerShare, growthRate, discountRate, years, exitMultiple,
+                toDecimal(projection.dcf, 2), projection);
+    }
+
+    /**
+     * Price-dependent stage of {@link #calculateValuation}: FCF yield, margin
+     * of safety, payback, ROI and IRR of a projection at the current price.
+     *
+     * @param projection Result of {@link #projectValuation}
+     * @param currentPrice Current market price
+     * @param targetPrice Manual target price, the ROI target when there is no DCF value (nullable)
+     * @param itemId Watchlist item id for the IRR warm start (nullable)
+     * @return Metrics; those that cannot be computed are null
+     */
+    public ValuationMetrics priceValuation(ValuationProjection projection, BigDecimal currentPrice,
+                                           BigDecimal targetPrice, UUID itemId) {
+        if (projection.kernel == null || currentPrice == null) {
+            return calculateValuationReference(currentPrice, projection.getFcfPerShare(),
+                    projection.getGrowthRate(), projection.getDiscountRate(), projection.getYears(),
+                    targetPrice, projection.getExitMultiple());
+        }
+
+        ValuationKernel.Result result = new ValuationKernel.Result();
+        ValuationKernel.price(projection.kernel, currentPrice.doubleValue(),
+                targetPrice != null ? targetPrice.doubleValue() : Double.NaN, irrWarmStart(itemId), result);
+        if (itemId != null && Double.isFinite(result.irr)) {
+            synchronized (irrWarmStarts) {
+                irrWarmStarts.put(itemId, result.irr / 100);
+            }
+        }
+
+        return ValuationMetrics.builder()
+                .fcfYield(toDecimal(result.fcfYield, 2))
+                .dcfFairValue(projection.getDcfFairValue())
+                .marginOfSafety(toDecimal(result.marginOfSafety, 2))
+                .paybackPeriod(toDecimal(result.paybackPeriod, 1))
+                .estimatedRoi(toDecimal(result.roi, 2))
+                .estimatedIrr(toDecimal(result.irr, 2))
+                .build();
+    }
+
+    /**
+     * {@link #calculateValuation} of every item of a batch, with
+     * {@link BatchValuationEngine} (or item by item with the BigDecimal
+     * reference when {@code valuation.kernel=REFERENCE}). The metrics are
+     * written into the batch and read with {@link ValuationBatch#metrics}.
+     *
+     * @param batch Items to value
+     */
+    public void calculateValuations(ValuationBatch batch) {
+        int size = batch.size();
+        if (kernel == ValuationProperties.Kernel.REFERENCE) {
+            batch.prepareMetrics();
+            for (int i = 0; i < size; i++) {
+                batch.setMetrics(i, calculateValuationReference(BigDecimal.valueOf(batch.price[i]),
+                        BigDecimal.valueOf(batch.fcf[i]), BigDecimal.valueOf(batch.growth[i]),
+                        BigDecimal.valueOf(batch.discount[i]), batch.years[i],
+                        Double.isNaN(batch.targetPrice[i]) ? null : BigDecimal.valueOf(batch.targetPrice[i]),
+                        BigDecimal.valueOf(batch.exitMultiple[i])));
+            }
+            batch.markValued();
+            return;
+        }
+
+        double[] irrGuess = new double[size];
+        for (int i = 0; i < size; i++) {
+            irrGuess[i] = irrWarmStart(batch.itemIds[i]);
+        }
+        BatchValuationEngine.value(batch, irrGuess, batchChunkSize);
+        batch.markValued();
+
+        synchronized (irrWarmStarts) {
+            for (int i = 0; i < size; i++) {
+                if (batch.itemIds[i] != null && Double.isFinite(batch.irr[i])) {
+                    irrWarmStarts.put(batch.itemIds[i], batch.irr[i] / 100);
+                }
+            }
+        }
+        log.debug("Valued batch of {} items", size);
+    }
+
+    /**
+     * {@link #calculateValuation} with the BigDecimal per-metric methods.
+     */
+    ValuationMetrics calculateValuationReference(BigDecimal currentPrice, BigDecimal fcfPerShare,
+                                                 BigDecimal growthRate, BigDecimal discountRate, int years,
+                                                 BigDecimal targetPrice, BigDecimal exitMultiple) {
+        BigDecimal dcfValue = calculateDCF(fcfPerShare, growthRate, discountRate, years);
+        BigDecimal roiTarget = dcfValue != null ? dcfValue : (targetPrice != null ? targetPrice : currentPrice);
+
+        BigDecimal irr = null;
+        try {
+            if (currentPrice != null) {
+                irr = calculateIRR(currentPrice.negate(),
+                        generateProjectedCashFlows(fcfPerShare, growthRate, years, exitMultiple));
+            }
+        } catch (Exception e) {
+            log.debug("Could not calculate IRR: {}", e.getMessage());
+        }
+
+        return ValuationMetrics.builder()
+                .fcfYield(calculateFcfYield(fcfPerShare, currentPrice))
+                .dcfFairValue(dcfValue)
+                .marginOfSafety(dcfValue != null ? calculateMarginOfSafety(dcfValue, currentPrice) : null)
+                .paybackPeriod(calculatePaybackPeriod(currentPrice, fcfPerShare, growthRate))
+                .estimatedRoi(calculateEstimatedROI(currentPrice, roiTarget, fcfPerShare, growthRate, years))
+                .estimatedIrr(irr)
+                .build();
+    }
 
     /**
      * Calculate Free Cash Flow Yield as a percentage.
@@ -70,7 +294,7 @@ public class FinancialMetricsService {
 
         // Relaxed check: Discount rate only needs to be greater than perpetual growth rate
         // We assume perpetual growth is half of the projection growth rate
-        BigDecimal perpetualGrowth = growthRate.divide(BigDecimal.valueOf(2), SCALE, ROUNDING);
+        BigDecimal perpetualGrowth = perpetualGrowth(growthRate);
         
         if (discountRate.compareTo(perpetualGrowth) <= 0) {
             log.debug("Discount rate ({}) must be greater than perpetual growth rate ({})", discountRate, perpetualGrowth);
@@ -246,7 +470,7 @@ public class FinancialMetricsService {
     }
 
     /**
-     * Calculate Internal Rate of Return (IRR) using Newton-Raphson method.
+     * Calculate Internal Rate of Return (IRR) with {@link IrrSolver}.
      * IRR is the discount rate that makes NPV = 0.
      *
      * @param initialInvestment Initial investment (negative value expected)
@@ -264,43 +488,19 @@ public class FinancialMetricsService {
             return null;
         }
 
-        try {
-            // Build complete cash flow series
-            List<BigDecimal> allCashFlows = new ArrayList<>();
-            allCashFlows.add(initialInvestment);
-            allCashFlows.addAll(cashFlows);
-
-            // Initial guess: 10%
-            BigDecimal rate = new BigDecimal("0.10");
-            
-            for (int iteration = 0; iteration < MAX_IRR_ITERATIONS; iteration++) {
-                BigDecimal npv = calculateNPV(allCashFlows, rate);
-                BigDecimal npvDerivative = calculateNPVDerivative(allCashFlows, rate);
-
-                if (npvDerivative.abs().compareTo(BigDecimal.valueOf(0.00001)) < 0) {
-                    log.debug("NPV derivative too small, cannot continue IRR iteration");
-                    return null;
-                }
-
-                BigDecimal newRate = rate.subtract(
-                        npv.divide(npvDerivative, SCALE, ROUNDING));
-
-                if (rate.subtract(newRate).abs().compareTo(IRR_TOLERANCE) < 0) {
-                    BigDecimal irr = newRate.multiply(BigDecimal.valueOf(100))
-                            .setScale(2, ROUNDING);
-                    log.debug("IRR converged after {} iterations: {}%", iteration + 1, irr);
-                    return irr;
-                }
-
-                rate = newRate;
-            }
+        IrrSolver solver = new IrrSolver();
+        double[] flows = solver.cashFlows(cashFlows.size());
+        for (int i = 0; i < cashFlows.size(); i++) {
+            flows[i] = cashFlows.get(i).doubleValue();
+        }
 
-            log.debug("IRR did not converge after {} iterations", MAX_IRR_ITERATIONS);
-            return null;
-        } catch (Exception e) {
-            log.warn("Error calculating IRR: {}", e.getMessage());
-            return null;
+        BigDecimal irr = toDecimal(solver.solve(initialInvestment.negate().doubleValue(), Double.NaN) * 100, 2);
+        if (irr == null) {
+            log.debug("No IRR found after {} iterations", solver.getIterations());
+        } else {
+            log.debug("IRR converged after {} iterations: {}%", solver.getIterations(), irr);
         }
+        return irr;
     }
 
     /**
@@ -331,29 +531,84 @@ public class FinancialMetricsService {
     }
 
     /**
-     * Calculate Net Present Value for given cash flows and discount rate.
+     * Default FCF growth rate of an instrument, for positions that do not set
+     * their own: the 5Y FOCF CAGR, else the average of the EPS, revenue and
+     * dividend 5Y growth rates, else 5%; capped at 15%.
+     *
+     * @param fundamentals Instrument fundamentals (growth rates in percent)
+     * @return Growth rate as decimal
      */
-    private BigDecimal calculateNPV(List<BigDecimal> cashFlows, BigDecimal rate) {
-        BigDecimal npv = BigDecimal.ZERO;
-        for (int i = 0; i < cashFlows.size(); i++) {
-            BigDecimal discountFactor = BigDecimal.ONE.add(rate).pow(i);
-            npv = npv.add(cashFlows.get(i).divide(discountFactor, SCALE, ROUNDING));
+    public BigDecimal estimateGrowthRate(InstrumentFundamentals fundamentals) {
+        BigDecimal growthRate;
+        // Try FOCF CAGR first (most relevant)
+        if (fundamentals.getFocfCagr5Y() != null) {
+            growthRate = fundamentals.getFocfCagr5Y().divide(ONE_HUNDRED, SCALE, ROUNDING);
+        }
+        // Fallback to average of other growth metrics
+        else {
+            BigDecimal sum = BigDecimal.ZERO;
+            int count = 0;
+
+            if (fundamentals.getEpsGrowth5Y() != null) {
+                sum = sum.add(fundamentals.getEpsGrowth5Y());
+                count++;
+            }
+            if (fundamentals.getRevenueGrowth5Y() != null) {
+                sum = sum.add(fundamentals.getRevenueGrowth5Y());
+                count++;
+            }
+            if (fundamentals.getDividendGrowthRate5Y() != null) {
+                sum = sum.add(fundamentals.getDividendGrowthRate5Y());
+                count++;
+            }
+
+            if (count > 0) {
+                growthRate = sum.divide(BigDecimal.valueOf(count), SCALE, ROUNDING)
+                        .divide(ONE_HUNDRED, SCALE, ROUNDING);
+            } else {
+                growthRate = DEFAULT_GROWTH_RATE;
+            }
         }
-        return npv;
+
+        // Cap growth rate for safety
+        return growthRate.min(MAX_GROWTH_RATE);
+    }
+
+    /**
+     * Default discount rate of an instrument, for positions that do not set
+     * their own: CAPM with the beta (risk free 4.4%, equity risk premium 5.5%)
+     * clamped to 6%..15%, else 10%.
+     *
+     * @param fundamentals Instrument fundamentals
+     * @return Discount rate as decimal
+     */
+    public BigDecimal estimateDiscountRate(InstrumentFundamentals fundamentals) {
+        if (fundamentals.getBeta() == null) {
+            return DEFAULT_DISCOUNT_RATE;
+        }
+        BigDecimal discountRate = RISK_FREE_RATE.add(fundamentals.getBeta().multiply(EQUITY_RISK_PREMIUM))
+                .setScale(SCALE, ROUNDING);
+        return discountRate.max(MIN_DISCOUNT_RATE).min(MAX_DISCOUNT_RATE);
     }
 
     /**
-     * Calculate derivative of NPV with respect to discount rate.
-     * Used in Newton-Raphson method for IRR.
+     * Perpetual growth after the projection: half of the projection growth rate.
      */
-    private BigDecimal calculateNPVDerivative(List<BigDecimal> cashFlows, BigDecimal rate) {
-        BigDecimal derivative = BigDecimal.ZERO;
-        for (int i = 1; i < cashFlows.size(); i++) {
-            BigDecimal discountFactor = BigDecimal.ONE.add(rate).pow(i + 1);
-            BigDecimal term = cashFlows.get(i).multiply(BigDecimal.valueOf(-i))
-                    .divide(discountFactor, SCALE, ROUNDING);
-            derivative = derivative.add(term);
-        }
-        return derivative;
+    static BigDecimal perpetualGrowth(BigDecimal growthRate) {
+        return growthRate.divide(BigDecimal.valueOf(2), SCALE, ROUNDING);
+    }
+
+    private double irrWarmStart(UUID itemId) {
+        if (itemId == null) {
+            return Double.NaN;
+        }
+        synchronized (irrWarmStarts) {
+            Double previous = irrWarmStarts.get(itemId);
+            return previous != null ? previous : Double.NaN;
+        }
+    }
+
+    static BigDecimal toDecimal(double value, int scale) {
+        return Double.isFinite(value) ? BigDecimal.valueOf(value).setScale(scale, ROUNDING) : null;
     }
 }
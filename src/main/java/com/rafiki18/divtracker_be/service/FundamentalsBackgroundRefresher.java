@@ -0,0 +1,52 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Refreshes outdated fundamentals off the request thread, so read paths can
+ * serve cached data immediately. A ticker is refreshed by at most one task at
+ * a time; requests for it while that task runs are dropped. Separate bean so
+ * that Spring AOP intercepts {@code @Async}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FundamentalsBackgroundRefresher {
+
+    private final InstrumentFundamentalsService fundamentalsService;
+
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Claim the tickers that are not already being refreshed.
+     * Pass the result to {@link #refreshAsync}, which releases them.
+     */
+    public List<String> claim(Collection<String> tickers) {
+        return tickers.stream().filter(inFlight::add).toList();
+    }
+
+    /**
+     * Refresh claimed tickers within the Finnhub budget; changes are published
+     * as FundamentalsChangedEvent by the fundamentals service.
+     */
+    @Async
+    public void refreshAsync(List<String> tickers) {
+        try {
+            fundamentalsService.getFundamentals(tickers);
+            log.debug("Background refresh of {} outdated tickers done", tickers.size());
+        } catch (Exception e) {
+            log.warn("Background refresh of {} tickers failed: {}", tickers.size(), e.getMessage());
+        } finally {
+            tickers.forEach(inFlight::remove);
+        }
+    }
+}
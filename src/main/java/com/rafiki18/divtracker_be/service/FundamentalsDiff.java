@@ -0,0 +1,133 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.rafiki18.divtracker_be.model.FundamentalsChange;
+import com.rafiki18.divtracker_be.model.InstrumentFundamentals;
+
+/**
+ * Field-by-field comparison of a freshly fetched fundamentals snapshot with the
+ * stored one. Decimals are compared at their column scale, so values that only
+ * differ beyond what the database keeps do not count as changes.
+ */
+final class FundamentalsDiff {
+
+    private static final List<Field> FIELDS = List.of(
+            text("companyName", InstrumentFundamentals::getCompanyName, InstrumentFundamentals::setCompanyName),
+            text("currency", InstrumentFundamentals::getCurrency, InstrumentFundamentals::setCurrency),
+            text("sector", InstrumentFundamentals::getSector, InstrumentFundamentals::setSector),
+            decimal("marketCapitalization", 2, InstrumentFundamentals::getMarketCapitalization, InstrumentFundamentals::setMarketCapitalization),
+            decimal("weekHigh52", 4, InstrumentFundamentals::getWeekHigh52, InstrumentFundamentals::setWeekHigh52),
+            decimal("weekLow52", 4, InstrumentFundamentals::getWeekLow52, InstrumentFundamentals::setWeekLow52),
+            decimal("peAnnual", 4, InstrumentFundamentals::getPeAnnual, InstrumentFundamentals::setPeAnnual),
+            decimal("beta", 4, InstrumentFundamentals::getBeta, InstrumentFundamentals::setBeta),
+            decimal("debtToEquityRatio", 4, InstrumentFundamentals::getDebtToEquityRatio, InstrumentFundamentals::setDebtToEquityRatio),
+            decimal("fcfAnnual", 2, InstrumentFundamentals::getFcfAnnual, InstrumentFundamentals::setFcfAnnual),
+            decimal("fcfPerShareAnnual", 4, InstrumentFundamentals::getFcfPerShareAnnual, InstrumentFundamentals::setFcfPerShareAnnual),
+            decimal("shareOutstanding", 2, InstrumentFundamentals::getShareOutstanding, InstrumentFundamentals::setShareOutstanding),
+            decimal("dividendPerShareAnnual", 4, InstrumentFundamentals::getDividendPerShareAnnual, InstrumentFundamentals::setDividendPerShareAnnual),
+            decimal("dividendYield", 4, InstrumentFundamentals::getDividendYield, InstrumentFundamentals::setDividendYield),
+            decimal("dividendGrowthRate5Y", 4, InstrumentFundamentals::getDividendGrowthRate5Y, InstrumentFundamentals::setDividendGrowthRate5Y),
+            decimal("epsGrowth5Y", 4, InstrumentFundamentals::getEpsGrowth5Y, InstrumentFundamentals::setEpsGrowth5Y),
+            decimal("revenueGrowth5Y", 4, InstrumentFundamentals::getRevenueGrowth5Y, InstrumentFundamentals::setRevenueGrowth5Y),
+            decimal("focfCagr5Y", 4, InstrumentFundamentals::getFocfCagr5Y, InstrumentFundamentals::setFocfCagr5Y),
+            decimal("payoutRatioFcf", 4, InstrumentFundamentals::getPayoutRatioFcf, InstrumentFundamentals::setPayoutRatioFcf),
+            decimal("chowderRuleValue", 4, InstrumentFundamentals::getChowderRuleValue, InstrumentFundamentals::setChowderRuleValue));
+
+    /**
+     * Names of all compared fields.
+     */
+    static final Set<String> FIELD_NAMES = FIELDS.stream()
+            .map(field -> field.name)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private FundamentalsDiff() {
+    }
+
+    /**
+     * Copy every value of {@code fresh} that differs onto {@code target} and
+     * bump its data version if anything changed.
+     *
+     * @return one change log entry per changed field (empty if nothing changed)
+     */
+    static List<FundamentalsChange> apply(InstrumentFundamentals target, InstrumentFundamentals fresh,
+                                          LocalDateTime changedAt) {
+        List<FundamentalsChange> changes = new ArrayList<>();
+        for (Field field : FIELDS) {
+            Object oldValue = field.getter.apply(target);
+            Object newValue = field.normalize(field.getter.apply(fresh));
+            if (!field.same(oldValue, newValue)) {
+                field.setter.accept(target, newValue);
+                changes.add(FundamentalsChange.builder()
+                        .ticker(target.getTicker())
+                        .field(field.name)
+                        .oldValue(asText(oldValue))
+                        .newValue(asText(newValue))
+                        .changedAt(changedAt)
+                        .build());
+            }
+        }
+
+        if (!changes.isEmpty()) {
+            target.setDataVersion(target.getDataVersion() + 1);
+            changes.forEach(change -> change.setDataVersion(target.getDataVersion()));
+        }
+        return changes;
+    }
+
+    private static String asText(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+    }
+
+    private static Field text(String name, Function<InstrumentFundamentals, String> getter,
+                              BiConsumer<InstrumentFundamentals, String> setter) {
+        return new Field(name, -1, getter::apply,
+                (target, value) -> setter.accept(target, (String) value));
+    }
+
+    private static Field decimal(String name, int scale, Function<InstrumentFundamentals, BigDecimal> getter,
+                                 BiConsumer<InstrumentFundamentals, BigDecimal> setter) {
+        return new Field(name, scale, getter::apply,
+                (target, value) -> setter.accept(target, (BigDecimal) value));
+    }
+
+    private static final class Field {
+        private final String name;
+        private final int scale;
+        private final Function<InstrumentFundamentals, Object> getter;
+        private final BiConsumer<InstrumentFundamentals, Object> setter;
+
+        private Field(String name, int scale, Function<InstrumentFundamentals, Object> getter,
+                      BiConsumer<InstrumentFundamentals, Object> setter) {
+            this.name = name;
+            this.scale = scale;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        private Object normalize(Object value) {
+            return scale >= 0 && value instanceof BigDecimal decimal
+                    ? decimal.setScale(scale, RoundingMode.HALF_UP)
+                    : value;
+        }
+
+        private boolean same(Object oldValue, Object newValue) {
+            if (oldValue instanceof BigDecimal a && newValue instanceof BigDecimal b) {
+                return a.compareTo(b) == 0;
+            }
+            return Objects.equals(oldValue, newValue);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.rafiki18.divtracker_be.config.properties.FundamentalsRefreshProperties;
+import com.rafiki18.divtracker_be.marketdata.FinnhubFailure;
+import com.rafiki18.divtracker_be.model.FundamentalsRefreshTask;
+import com.rafiki18.divtracker_be.model.FundamentalsRefreshTask.Reason;
+import com.rafiki18.divtracker_be.repository.FundamentalsRefreshTaskRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Retry bookkeeping for failed fundamentals fetches.
+ *
+ * A failure keeps (or puts) the ticker in the refresh queue with a backoff
+ * that starts at the base delay of its failure class and doubles with every
+ * consecutive failure. While a ticker backs off, on-demand requests serve
+ * cached data and only the background drainer retries it, within the budget.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FundamentalsRetryService {
+
+    private static final int MAX_DOUBLINGS = 6;
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final FundamentalsRefreshTaskRepository taskRepository;
+    private final FundamentalsRefreshProperties properties;
+
+    public boolean isBackingOff(String ticker) {
+        return taskRepository.findById(ticker)
+                .map(task -> task.isBackingOff(LocalDateTime.now()))
+                .orElse(false);
+    }
+
+    /**
+     * Tickers among the given ones that are backing off, in one query.
+     */
+    public Set<String> findBackingOff(Collection<String> tickers) {
+        if (tickers.isEmpty()) {
+            return Set.of();
+        }
+        return Set.copyOf(taskRepository.findBackingOffTickers(tickers, LocalDateTime.now()));
+    }
+
+    /**
+     * Record a failed fetch and schedule the next attempt.
+     */
+    @Transactional
+    public FundamentalsRefreshTask recordFailure(String ticker, FinnhubFailure failure, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        FundamentalsRefreshTask task = taskRepository.findById(ticker)
+                .orElseGet(() -> FundamentalsRefreshTask.builder()
+                        .ticker(ticker)
+                        .reason(Reason.FAILED)
+                        .enqueuedAt(now)
+                        .build());
+        task.setAttempts(task.getAttempts() + 1);
+        task.setLastAttemptAt(now);
+        task.setLastFailure(failure);
+        task.setLastError(error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        task.setNextAttemptAt(now.plus(backoff(failure, task.getAttempts())));
+
+        log.info("Fundamentals fetch for {} failed ({}, attempt {}), next attempt at {}",
+                ticker, failure, task.getAttempts(), task.getNextAttemptAt());
+        return taskRepository.save(task);
+    }
+
+    /**
+     * Clear the retry state once the ticker was fetched successfully.
+     */
+    @Transactional
+    public void recordSuccess(String ticker) {
+        taskRepository.deleteById(ticker);
+    }
+
+    /**
+     * Delay before attempt {@code attempts + 1}: the class base delay doubled
+     * per previous failure, at most {@value #MAX_DOUBLINGS} times.
+     */
+    Duration backoff(FinnhubFailure failure, int attempts) {
+        Duration base = switch (failure) {
+            case THROTTLED -> properties.getThrottledRetryAfter();
+            case TRANSIENT -> properties.getFailedRetryAfter();
+            case NO_DATA -> properties.getNoDataRetryAfter();
+            case PLAN_LIMIT -> properties.getPlanLimitRetryAfter();
+        };
+        int doublings = Math.max(0, Math.min(attempts - 1, MAX_DOUBLINGS));
+        return base.multipliedBy(1L << doublings);
+    }
+}
@@ -1,21 +1,46 @@
 package com.rafiki18.divtracker_be.service;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.rafiki18.divtracker_be.marketdata.FinnhubClient;
+import com.rafiki18.divtracker_be.marketdata.FinnhubEndpoint;
+import com.rafiki18.divtracker_be.marketdata.FinnhubFailure;
+import com.rafiki18.divtracker_be.marketdata.FinnhubMetrics;
+import com.rafiki18.divtracker_be.marketdata.FinnhubProfile;
+import com.rafiki18.divtracker_be.marketdata.FinnhubQuote;
+import com.rafiki18.divtracker_be.marketdata.FinnhubRateBudget;
+import com.rafiki18.divtracker_be.marketdata.FundamentalsChangedEvent;
+import com.rafiki18.divtracker_be.marketdata.PricesChangedEvent;
+import com.rafiki18.divtracker_be.model.FundamentalsChange;
 import com.rafiki18.divtracker_be.model.InstrumentFundamentals;
 import com.rafiki18.divtracker_be.model.InstrumentFundamentals.DataQuality;
 import com.rafiki18.divtracker_be.model.InstrumentFundamentals.DataSource;
+import com.rafiki18.divtracker_be.model.InstrumentPrice;
+import com.rafiki18.divtracker_be.repository.FundamentalsChangeRepository;
 import com.rafiki18.divtracker_be.repository.InstrumentFundamentalsRepository;
+import com.rafiki18.divtracker_be.repository.InstrumentPriceRepository;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * Service for managing instrument fundamentals snapshots.
@@ -27,10 +52,24 @@ import lombok.extern.slf4j.Slf4j;
 public class InstrumentFundamentalsService {
 
     private final InstrumentFundamentalsRepository fundamentalsRepository;
+    private final InstrumentPriceRepository priceRepository;
+    private final FundamentalsChangeRepository changeRepository;
+    private final ApplicationEventPublisher eventPublisher;
     private final FinnhubClient finnhubClient;
+    private final FinnhubRateBudget rateBudget;
+    private final FundamentalsRetryService retryService;
 
     private static final int STALE_HOURS = 24;
 
+    // Upstream calls per fetch: profile (shared with FCF per share), quote, metrics, cash flow
+    public static final int CALLS_PER_FETCH = 4;
+
+    private static final List<FinnhubEndpoint> SNAPSHOT_ENDPOINTS = List.of(
+            FinnhubEndpoint.PROFILE, FinnhubEndpoint.QUOTE, FinnhubEndpoint.METRICS, FinnhubEndpoint.FINANCIALS);
+
+    // Tickers fetched at once by the bulk lookup (each fans out to 4 requests)
+    private static final int BULK_FETCH_CONCURRENCY = 4;
+
     /**
      * Get fundamentals for a ticker, fetching from Finnhub if needed.
      * Strategy:
@@ -52,7 +91,7 @@ public class InstrumentFundamentalsService {
                 .findByTickerIgnoreCase(normalizedTicker);
 
         if (cached.isPresent()) {
-            InstrumentFundamentals fundamentals = cached.get();
+            InstrumentFundamentals fundamentals = withPrice(cached.get());
             
             // If fresh AND has minimum data, return immediately
             if (!fundamentals.isStale() && fundamentals.hasMinimumData()) {
@@ -63,8 +102,12 @@ public class InstrumentFundamentalsService {
             log.debug("Cached fundamentals for {} are stale or incomplete, will try to refresh", normalizedTicker);
         }
 
-        // Try to fetch from Finnhub
-        if (finnhubClient.isEnabled()) {
+        // Try to fetch from Finnhub, unless the ticker is backing off after a failure
+        if (!finnhubClient.isEnabled()) {
+            log.debug("Finnhub is disabled, using cached data");
+        } else if (retryService.isBackingOff(normalizedTicker)) {
+            log.debug("Fundamentals fetch for {} is backing off after a failure, using cached data", normalizedTicker);
+        } else {
             try {
                 Optional<InstrumentFundamentals> fresh = fetchFromFinnhub(normalizedTicker);
                 
@@ -76,8 +119,6 @@ public class InstrumentFundamentalsService {
                 log.warn("Failed to fetch fundamentals from Finnhub for {}: {}", 
                         normalizedTicker, e.getMessage());
             }
-        } else {
-            log.debug("Finnhub is disabled, using cached data");
         }
 
         // Fallback: return stale data if available
@@ -108,30 +149,189 @@ public class InstrumentFundamentalsService {
 
         if (!finnhubClient.isEnabled()) {
             log.warn("Cannot refresh fundamentals: Finnhub is disabled");
-            return fundamentalsRepository.findByTickerIgnoreCase(normalizedTicker);
+            return fundamentalsRepository.findByTickerIgnoreCase(normalizedTicker).map(this::withPrice);
         }
 
         return fetchFromFinnhub(normalizedTicker);
     }
 
+    /**
+     * Get fundamentals for many tickers at once.
+     * Cached rows and live prices are loaded with one IN query each; tickers that
+     * are missing, stale or incomplete are fetched from Finnhub concurrently, as
+     * many as the current rate budget allows. The rest are served from cache
+     * (or left out when never fetched) and picked up by the background refresh.
+     *
+     * @param tickers Stock ticker symbols (any case, duplicates allowed)
+     * @return Fundamentals by upper-case ticker; tickers without data are absent
+     */
+    @Transactional
+    public Map<String, InstrumentFundamentals> getFundamentals(Collection<String> tickers) {
+        Set<String> normalized = normalize(tickers);
+        if (normalized.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, InstrumentFundamentals> result = loadCached(normalized);
+        List<String> outdated = result.values().stream()
+                .filter(InstrumentFundamentals::needsRefresh)
+                .map(InstrumentFundamentals::getTicker)
+                .collect(Collectors.toCollection(ArrayList::new));
+
+        // Missing tickers first, then stale or incomplete ones
+        List<String> toFetch = new ArrayList<>();
+        normalized.stream().filter(ticker -> !result.containsKey(ticker)).forEach(toFetch::add);
+        toFetch.addAll(outdated);
+        if (toFetch.isEmpty()) {
+            return result;
+        }
+
+        if (!finnhubClient.isEnabled()) {
+            log.debug("Finnhub is disabled, using cached data for {} tickers", toFetch.size());
+            toFetch.stream().map(result::get).filter(Objects::nonNull).forEach(this::markStale);
+            return result;
+        }
+
+        // Tickers backing off after a failure are left to the background retry
+        Set<String> backingOff = retryService.findBackingOff(toFetch);
+        if (!backingOff.isEmpty()) {
+            log.debug("Skipping {} tickers backing off after failed fetches", backingOff.size());
+            toFetch.removeIf(backingOff::contains);
+        }
+
+        int affordable = Math.min(toFetch.size(), rateBudget.remainingCapacity(0) / CALLS_PER_FETCH);
+        if (affordable < toFetch.size()) {
+            log.info("Finnhub budget allows {} of {} fundamentals fetches, serving the rest from cache",
+                    affordable, toFetch.size());
+        }
+
+        // Network calls run concurrently; persisting stays on this thread and transaction
+        Map<String, FetchResult> fetched = Flux.fromIterable(toFetch.subList(0, affordable))
+                .flatMap(this::fetchSnapshot, BULK_FETCH_CONCURRENCY)
+                .collectMap(fetch -> fetch.ticker)
+                .blockOptional()
+                .orElse(Map.of());
+        for (String ticker : toFetch.subList(0, affordable)) {
+            Optional<InstrumentFundamentals> fresh = fetched.containsKey(ticker)
+                    ? complete(fetched.get(ticker))
+                    : Optional.empty();
+            if (fresh.isPresent()) {
+                result.put(ticker, fresh.get());
+            } else if (result.containsKey(ticker)) {
+                markStale(result.get(ticker));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Get cached fundamentals for many tickers without calling Finnhub.
+     * Cached rows and live prices are loaded with one IN query each, whatever
+     * the number of tickers. Missing, stale or incomplete tickers are returned
+     * as cached (or left out) for the caller to refresh in the background.
+     *
+     * @param tickers Stock ticker symbols (any case, duplicates allowed)
+     * @return Fundamentals by upper-case ticker; tickers without data are absent
+     */
+    @Transactional(readOnly = true)
+    public Map<String, InstrumentFundamentals> getCachedFundamentals(Collection<String> tickers) {
+        Set<String> normalized = normalize(tickers);
+        return normalized.isEmpty() ? Map.of() : loadCached(normalized);
+    }
+
+    private static Set<String> normalize(Collection<String> tickers) {
+        return tickers.stream()
+                .filter(Objects::nonNull)
+                .map(ticker -> ticker.trim().toUpperCase())
+                .filter(ticker -> !ticker.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private Map<String, InstrumentFundamentals> loadCached(Set<String> tickers) {
+        Map<String, InstrumentPrice> prices = priceRepository.findByTickerIn(tickers).stream()
+                .collect(Collectors.toMap(InstrumentPrice::getTicker, Function.identity()));
+        Map<String, InstrumentFundamentals> result = new LinkedHashMap<>();
+        for (InstrumentFundamentals cached : fundamentalsRepository.findByTickerIn(tickers)) {
+            result.put(cached.getTicker(), cached.applyPrice(prices.get(cached.getTicker())));
+        }
+        return result;
+    }
+
+    private void markStale(InstrumentFundamentals fundamentals) {
+        fundamentals.setDataQuality(DataQuality.STALE);
+        fundamentalsRepository.save(fundamentals);
+    }
+
     /**
      * Fetch complete fundamentals from Finnhub and save to cache.
      */
     private Optional<InstrumentFundamentals> fetchFromFinnhub(String ticker) {
-        log.debug("Fetching fundamentals from Finnhub for {}", ticker);
+        return complete(fetchSnapshot(ticker).block());
+    }
+
+    /**
+     * Save a successful fetch and clear the ticker's retry state, or record
+     * the failure so the ticker backs off.
+     */
+    private Optional<InstrumentFundamentals> complete(FetchResult fetch) {
+        if (fetch.snapshot == null) {
+            retryService.recordFailure(fetch.ticker, fetch.failure, fetch.error);
+            return Optional.empty();
+        }
+        Optional<InstrumentFundamentals> saved = saveSnapshot(fetch.snapshot);
+        if (saved.isPresent()) {
+            retryService.recordSuccess(fetch.ticker);
+        }
+        return saved;
+    }
 
+    /**
+     * Fetch and assemble fundamentals from Finnhub without touching the database.
+     * The four endpoints are requested concurrently; the profile is shared with
+     * the FCF calculation, which needs shares outstanding. Never completes
+     * empty: without a snapshot the result carries the worst upstream failure.
+     */
+    private Mono<FetchResult> fetchSnapshot(String ticker) {
+        FinnhubFailure.Recorder failures = new FinnhubFailure.Recorder();
+        return Mono.defer(() -> {
+            // While any endpoint is failing fast, keep the cached row instead of
+            // overwriting it with a snapshot full of gaps
+            if (SNAPSHOT_ENDPOINTS.stream().anyMatch(finnhubClient::isCircuitOpen)) {
+                log.debug("Finnhub circuit open, serving cached fundamentals for {}", ticker);
+                return Mono.just(FetchResult.failed(ticker, FinnhubFailure.THROTTLED, "Finnhub circuit open"));
+            }
+            log.debug("Fetching fundamentals from Finnhub for {}", ticker);
+
+            Mono<FinnhubProfile> profile = finnhubClient.companyProfile(ticker).cache();
+            return Mono.zip(
+                            optional(profile),
+                            optional(finnhubClient.quote(ticker)),
+                            optional(finnhubClient.essentialMetrics(ticker)),
+                            optional(finnhubClient.freeCashFlow(ticker, profile)))
+                    .map(data -> assemble(ticker, data.getT1(), data.getT2(), data.getT3(), data.getT4())
+                            .map(snapshot -> FetchResult.fetched(ticker, snapshot))
+                            .orElseGet(() -> FetchResult.failed(ticker,
+                                    failures.getFailure().orElse(FinnhubFailure.NO_DATA),
+                                    failures.getMessage() != null ? failures.getMessage() : "No data returned from Finnhub")));
+        }).contextWrite(failures::attach).onErrorResume(e -> {
+            log.error("Failed to fetch fundamentals from Finnhub for {}: {}", ticker, e.getMessage(), e);
+            return Mono.just(FetchResult.failed(ticker, FinnhubFailure.TRANSIENT, e.getMessage()));
+        });
+    }
+
+    private static <T> Mono<Optional<T>> optional(Mono<T> source) {
+        return source.map(Optional::of).defaultIfEmpty(Optional.empty());
+    }
+
+    private Optional<FetchedSnapshot> assemble(String ticker, Optional<FinnhubProfile> profile,
+                                               Optional<FinnhubQuote> quote, Optional<FinnhubMetrics> metrics,
+                                               Optional<Map<String, BigDecimal>> fcfData) {
         try {
-            // Fetch all data
-            Optional<Map<String, Object>> profile = finnhubClient.fetchCompanyProfile(ticker);
-            Optional<Map<String, Object>> quote = finnhubClient.fetchQuote(ticker);
-            Optional<Map<String, Object>> metricsResponse = finnhubClient.fetchEssentialMetrics(ticker);
-            Optional<Map<String, BigDecimal>> fcfData = finnhubClient.calculateFCF(ticker);
-
-            // Extract metrics map
-            Optional<Map<?, ?>> metrics = metricsResponse
-                    .map(m -> m.get("metric"))
-                    .filter(Map.class::isInstance)
-                    .map(m -> (Map<?, ?>) m);
+            if (profile.isEmpty() && quote.isEmpty() && metrics.isEmpty() && fcfData.isEmpty()) {
+                log.warn("No data returned from Finnhub for {}", ticker);
+                return Optional.empty();
+            }
 
             // Build fundamentals entity
             InstrumentFundamentals.InstrumentFundamentalsBuilder builder = InstrumentFundamentals.builder()
@@ -141,18 +341,18 @@ public class InstrumentFundamentalsService {
 
             // Profile data
             profile.ifPresent(p -> {
-                builder.companyName(getString(p, "name"));
-                builder.currency(getString(p, "currency"));
-                builder.sector(getString(p, "finnhubIndustry"));
-                builder.shareOutstanding(getBigDecimal(p, "shareOutstanding"));
-                builder.marketCapitalization(getBigDecimal(p, "marketCapitalization"));
+                builder.companyName(p.getName());
+                builder.currency(p.getCurrency());
+                builder.sector(p.getFinnhubIndustry());
+                builder.shareOutstanding(p.getShareOutstanding());
+                builder.marketCapitalization(p.getMarketCapitalization());
             });
 
             // Quote data - price and daily change
-            BigDecimal currentPrice = quote.map(q -> getBigDecimal(q, "c")).orElse(null);
+            BigDecimal currentPrice = quote.map(FinnhubQuote::getCurrentPrice).orElse(null);
             quote.ifPresent(q -> {
-                builder.currentPrice(getBigDecimal(q, "c"));
-                builder.dailyChangePercent(getBigDecimal(q, "dp"));
+                builder.currentPrice(q.getCurrentPrice());
+                builder.dailyChangePercent(q.getChangePercent());
             });
 
             // Variables for calculation
@@ -164,34 +364,34 @@ public class InstrumentFundamentalsService {
 
             // Metrics data - only essential ratios
             if (metrics.isPresent()) {
-                Map<?, ?> m = metrics.get();
+                FinnhubMetrics m = metrics.get();
                 
                 // Valuation
-                builder.peAnnual(getBigDecimal(m, "peAnnual"));
+                builder.peAnnual(m.getPeAnnual());
                 
                 // Risk
-                builder.beta(getBigDecimal(m, "beta"));
+                builder.beta(m.getBeta());
                 
                 // Debt
-                builder.debtToEquityRatio(getBigDecimal(m, "totalDebt/totalEquityQuarterly"));
+                builder.debtToEquityRatio(m.getDebtToEquityQuarterly());
                 
                 // Dividends
-                dividendPerShare = getBigDecimal(m, "dividendPerShareAnnual");
-                dividendYield = getBigDecimal(m, "currentDividendYieldTTM");
-                dividendGrowth5Y = getBigDecimal(m, "dividendGrowthRate5Y");
+                dividendPerShare = m.getDividendPerShareAnnual();
+                dividendYield = m.getDividendYieldTtm();
+                dividendGrowth5Y = m.getDividendGrowthRate5Y();
 
                 builder.dividendPerShareAnnual(dividendPerShare);
                 builder.dividendYield(dividendYield);
                 builder.dividendGrowthRate5Y(dividendGrowth5Y);
 
                 // Growth
-                builder.epsGrowth5Y(getBigDecimal(m, "epsGrowth5Y"));
-                builder.revenueGrowth5Y(getBigDecimal(m, "revenueGrowth5Y"));
-                builder.focfCagr5Y(getBigDecimal(m, "focfCagr5Y"));
+                builder.epsGrowth5Y(m.getEpsGrowth5Y());
+                builder.revenueGrowth5Y(m.getRevenueGrowth5Y());
+                builder.focfCagr5Y(m.getFocfCagr5Y());
 
                 // 52-week range
-                builder.weekHigh52(getBigDecimal(m, "52WeekHigh"));
-                builder.weekLow52(getBigDecimal(m, "52WeekLow"));
+                builder.weekHigh52(m.getWeekHigh52());
+                builder.weekLow52(m.getWeekLow52());
             }
 
             // FCF data from cash flow statement (annual)
@@ -205,9 +405,9 @@ public class InstrumentFundamentalsService {
 
             // Fallback FCF calculation if explicit FCF data is missing
             if (fcfPerShare == null && metrics.isPresent()) {
-                Map<?, ?> m = metrics.get();
+                FinnhubMetrics m = metrics.get();
                 // Try to calculate from Price / FCF per share ratio (pfcfShareAnnual)
-                BigDecimal pfcfShareAnnual = getBigDecimal(m, "pfcfShareAnnual");
+                BigDecimal pfcfShareAnnual = m.getPfcfShareAnnual();
                 if (currentPrice != null && pfcfShareAnnual != null && pfcfShareAnnual.compareTo(BigDecimal.ZERO) != 0) {
                     try {
                         fcfPerShare = currentPrice.divide(pfcfShareAnnual, 4, java.math.RoundingMode.HALF_UP);
@@ -215,7 +415,7 @@ public class InstrumentFundamentalsService {
                                 ticker, currentPrice, pfcfShareAnnual, fcfPerShare);
                         
                         // Also try to calculate total FCF if shares outstanding is available
-                        BigDecimal shares = profile.map(p -> getBigDecimal(p, "shareOutstanding")).orElse(null);
+                        BigDecimal shares = profile.map(FinnhubProfile::getShareOutstanding).orElse(null);
                         if (shares != null) {
                             fcfAnnual = fcfPerShare.multiply(shares);
                         }
@@ -250,7 +450,7 @@ public class InstrumentFundamentalsService {
             // Determine data quality
             if (fundamentals.hasMinimumData()) {
                 fundamentals.setDataQuality(DataQuality.COMPLETE);
-                log.info("Complete fundamentals for {}: currentPrice={}, fcfPerShareAnnual={}", 
+                log.debug("Complete fundamentals for {}: currentPrice={}, fcfPerShareAnnual={}", 
                         ticker, 
                         fundamentals.getCurrentPrice(),
                         fundamentals.getFcfPerShare());
@@ -262,21 +462,104 @@ public class InstrumentFundamentalsService {
                         fundamentals.getFcfPerShareAnnual());
             }
 
-            // Save to cache
-            InstrumentFundamentals saved = fundamentalsRepository.save(fundamentals);
-            log.info("Cached fundamentals for {} with quality: {}", 
-                    ticker, saved.getDataQuality());
-            log.info("FULL SAVED FUNDAMENTALS for {}: {}", ticker, saved);
+            return Optional.of(new FetchedSnapshot(fundamentals, quote.orElse(null)));
 
-            return Optional.of(saved);
+        } catch (Exception e) {
+            log.error("Failed to assemble fundamentals for {}: {}", ticker, e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
 
+    /**
+     * Save a fetched snapshot to cache (price goes to its own table).
+     */
+    private Optional<InstrumentFundamentals> saveSnapshot(FetchedSnapshot snapshot) {
+        String ticker = snapshot.fundamentals.getTicker();
+        try {
+            if (snapshot.quote != null) {
+                savePriceFromQuote(ticker, snapshot.quote);
+            }
+            InstrumentFundamentals saved = withPrice(saveChanges(snapshot.fundamentals));
+            log.debug("Cached fundamentals for {} with quality: {}", 
+                    ticker, saved.getDataQuality());
+            return Optional.of(saved);
         } catch (Exception e) {
-            log.error("Failed to fetch fundamentals from Finnhub for {}: {}", 
-                    ticker, e.getMessage(), e);
+            log.error("Failed to save fundamentals for {}: {}", ticker, e.getMessage(), e);
             return Optional.empty();
         }
     }
 
+    /**
+     * Persist a fetched snapshot, writing only what changed.
+     * New tickers are inserted; for known tickers the values are diffed against
+     * the stored row, only differing columns are updated and each change is
+     * appended to the change log. Unchanged refreshes only move lastUpdatedAt.
+     */
+    private InstrumentFundamentals saveChanges(InstrumentFundamentals fetched) {
+        String ticker = fetched.getTicker();
+        Optional<InstrumentFundamentals> existing = fundamentalsRepository.findById(ticker);
+
+        if (existing.isEmpty()) {
+            fetched.setDataVersion(1);
+            InstrumentFundamentals created = fundamentalsRepository.save(fetched);
+            eventPublisher.publishEvent(new FundamentalsChangedEvent(
+                    this, ticker, FundamentalsDiff.FIELD_NAMES, created.getDataVersion()));
+            return created;
+        }
+
+        InstrumentFundamentals current = existing.get();
+        List<FundamentalsChange> changes = FundamentalsDiff.apply(current, fetched, fetched.getLastUpdatedAt());
+        current.setDataQuality(fetched.getDataQuality());
+        current.setSource(fetched.getSource());
+        current.setLastUpdatedAt(fetched.getLastUpdatedAt());
+
+        if (changes.isEmpty()) {
+            log.debug("Fundamentals for {} unchanged since last refresh", ticker);
+            return current;
+        }
+
+        changeRepository.saveAll(changes);
+        Set<String> changedFields = changes.stream()
+                .map(FundamentalsChange::getField)
+                .collect(Collectors.toUnmodifiableSet());
+        log.info("Fundamentals for {} changed (version {}): {}", ticker, current.getDataVersion(), changedFields);
+        eventPublisher.publishEvent(new FundamentalsChangedEvent(
+                this, ticker, changedFields, current.getDataVersion()));
+        return current;
+    }
+
+    /**
+     * Combine the live price state into a fundamentals snapshot.
+     */
+    private InstrumentFundamentals withPrice(InstrumentFundamentals fundamentals) {
+        return fundamentals.applyPrice(priceRepository.findById(fundamentals.getTicker()).orElse(null));
+    }
+
+    /**
+     * Store the quote in instrument_prices with single conditional statements.
+     * The previous close is always refreshed; the price only if the quote is not
+     * older than the last trade already ingested.
+     */
+    private void savePriceFromQuote(String ticker, FinnhubQuote quote) {
+        BigDecimal currentPrice = quote.getCurrentPrice();
+        // Finnhub returns c=0 for unknown symbols
+        if (currentPrice == null || currentPrice.compareTo(BigDecimal.ZERO) <= 0) {
+            return;
+        }
+
+        Long quoteTime = quote.getTimestamp();
+        Instant quotedAt = quoteTime != null && quoteTime > 0
+                ? Instant.ofEpochSecond(quoteTime)
+                : Instant.now();
+
+        if (priceRepository.applyQuote(ticker, currentPrice, quote.getChangePercent(),
+                quote.getPreviousClose(), quotedAt)) {
+            eventPublisher.publishEvent(new PricesChangedEvent(this, Set.of(ticker)));
+        } else {
+            log.debug("Quote for {} is older than the last ingested trade, keeping live price", ticker);
+        }
+    }
+
     /**
      * Get current price from cached fundamentals or fetch fresh.
      */
@@ -301,25 +584,41 @@ public class InstrumentFundamentalsService {
                 .map(InstrumentFundamentals::getBeta);
     }
 
-    // Helper methods for safe extraction
-    private String getString(Map<?, ?> map, String key) {
-        Object value = map.get(key);
-        return value != null ? value.toString() : null;
-    }
+    /**
+     * Outcome of one ticker's fetch: a snapshot, or why there is none.
+     */
+    private static final class FetchResult {
+        private final String ticker;
+        private final FetchedSnapshot snapshot;
+        private final FinnhubFailure failure;
+        private final String error;
+
+        private FetchResult(String ticker, FetchedSnapshot snapshot, FinnhubFailure failure, String error) {
+            this.ticker = ticker;
+            this.snapshot = snapshot;
+            this.failure = failure;
+            this.error = error;
+        }
 
-    private BigDecimal getBigDecimal(Map<?, ?> map, String key) {
-        Object value = map.get(key);
-        if (value == null) {
-            return null;
+        static FetchResult fetched(String ticker, FetchedSnapshot snapshot) {
+            return new FetchResult(ticker, snapshot, null, null);
         }
-        if (value instanceof Number number) {
-            return BigDecimal.valueOf(number.doubleValue());
+
+        static FetchResult failed(String ticker, FinnhubFailure failure, String error) {
+            return new FetchResult(ticker, null, failure, error);
         }
-        try {
-            return new BigDecimal(value.toString());
-        } catch (NumberFormatException e) {
-            log.debug("Cannot parse {} as BigDecimal: {}", key, value);
-            return null;
+    }
+
+    /**
+     * Fundamentals assembled from Finnhub plus the quote, not yet saved.
+     */
+    private static final class FetchedSnapshot {
+        private final InstrumentFundamentals fundamentals;
+        private final FinnhubQuote quote;
+
+        private FetchedSnapshot(InstrumentFundamentals fundamentals, FinnhubQuote quote) {
+            this.fundamentals = fundamentals;
+            this.quote = quote;
         }
     }
 }
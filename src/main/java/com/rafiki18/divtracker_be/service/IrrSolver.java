@@ -0,0 +1,191 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.util.Arrays;
+
+/**
+ * Internal rate of return of an investment followed by yearly cash flows.
+ *
+ * NPV and its derivative are evaluated together in one Horner pass over the
+ * cash flows, as a polynomial in 1 / (1 + rate). Newton-Raphson starts from
+ * the given guess, so re-solving a position whose price just ticked from its
+ * previous IRR converges in one or two steps. When Newton misbehaves (flat
+ * derivative, a step below -100%, no convergence) the root is bracketed and
+ * found with Brent's method instead.
+ *
+ * Not thread-safe; the cash flow buffer is reused between solves.
+ */
+final class IrrSolver {
+
+    static final double DEFAULT_GUESS = 0.10;
+
+    private static final int MAX_NEWTON_ITERATIONS = 20;
+    private static final int MAX_BRENT_ITERATIONS = 100;
+    // Newton converges quadratically: after a step below 0.001 points the
+    // remaining error is orders of magnitude below the 0.01% output scale
+    private static final double NEWTON_TOLERANCE = 1e-5;
+    private static final double BRENT_TOLERANCE = 1e-7;
+    private static final double MIN_DERIVATIVE = 1e-10;
+    // Bracket searched by Brent: -99.9% up to 102400%
+    private static final double MIN_RATE = -0.999;
+    private static final double MAX_RATE = 1024;
+
+    private double[] cashFlows = new double[16];
+    private int years;
+    private int iterations;
+
+    // Set by evaluate()
+    private double npv;
+    private double derivative;
+
+    /**
+     * Buffer for the cash flows of years 1 to {@code years}, at index {@code year - 1}.
+     */
+    double[] cashFlows(int years) {
+        if (cashFlows.length < years) {
+            cashFlows = new double[Math.max(years, cashFlows.length * 2)];
+        }
+        Arrays.fill(cashFlows, 0, years, 0);
+        this.years = years;
+        return cashFlows;
+    }
+
+    /**
+     * @param investment Amount invested at year 0 (positive)
+     * @param guess      Starting rate (decimal), NaN for the default
+     * @return IRR as a decimal, NaN when there is none in the bracket
+     */
+    double solve(double investment, double guess) {
+        iterations = 0;
+        if (years == 0 || !(investment > 0)) {
+            return Double.NaN;
+        }
+
+        double rate = Double.isFinite(guess) && guess > MIN_RATE ? guess : DEFAULT_GUESS;
+        for (int i = 0; i < MAX_NEWTON_ITERATIONS; i++) {
+            evaluate(investment, rate);
+            if (!(Math.abs(derivative) >= MIN_DERIVATIVE)) {
+                break;
+            }
+            double newRate = rate - npv / derivative;
+            iterations++;
+            if (!(newRate > MIN_RATE) || !Double.isFinite(newRate)) {
+                break;
+            }
+            if (Math.abs(newRate - rate) < NEWTON_TOLERANCE) {
+                return newRate;
+            }
+            rate = newRate;
+        }
+        return brent(investment);
+    }
+
+    /**
+     * Newton and Brent steps taken by the last {@link #solve}.
+     */
+    int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * NPV(rate) = -investment + sum(CF_y * x^y) with x = 1 / (1 + rate), and
+     * dNPV/drate = -x^2 * dNPV/dx, accumulated together from the last year down.
+     */
+    private void evaluate(double investment, double rate) {
+        double x = 1 / (1 + rate);
+        double value = 0;
+        double slope = 0;
+        for (int year = years; year >= 1; year--) {
+            slope = slope * x + value;
+            value = value * x + cashFlows[year - 1];
+        }
+        slope = slope * x + value;
+        value = value * x;
+        npv = value - investment;
+        derivative = -x * x * slope;
+    }
+
+    private double npvAt(double investment, double rate) {
+        evaluate(investment, rate);
+        return npv;
+    }
+
+    /**
+     * Brent's method on [{@value #MIN_RATE}, b], widening b until NPV changes sign.
+     */
+    private double brent(double investment) {
+        double a = MIN_RATE;
+        double fa = npvAt(investment, a);
+        double b = 1;
+        double fb = npvAt(investment, b);
+        while (fa * fb > 0 && b < MAX_RATE) {
+            b *= 2;
+            fb = npvAt(investment, b);
+        }
+        if (!(fa * fb <= 0)) {
+            return Double.NaN;
+        }
+
+        double c = b;
+        double fc = fb;
+        double d = b - a;
+        double e = d;
+        for (int i = 0; i < MAX_BRENT_ITERATIONS; i++) {
+            iterations++;
+            if (fb * fc > 0) {
+                c = a;
+                fc = fa;
+                d = b - a;
+                e = d;
+            }
+            if (Math.abs(fc) < Math.abs(fb)) {
+                a = b;
+                b = c;
+                c = a;
+                fa = fb;
+                fb = fc;
+                fc = fa;
+            }
+            double tolerance = 2 * Math.ulp(b) + 0.5 * BRENT_TOLERANCE;
+            double mid = 0.5 * (c - b);
+            if (Math.abs(mid) <= tolerance || fb == 0) {
+                return b;
+            }
+            if (Math.abs(e) >= tolerance && Math.abs(fa) > Math.abs(fb)) {
+                // Inverse quadratic interpolation, or secant when only two points differ
+                double s = fb / fa;
+                double p;
+                double q;
+                if (a == c) {
+                    p = 2 * mid * s;
+                    q = 1 - s;
+                } else {
+                    double r = fb / fc;
+                    q = fa / fc;
+                    p = s * (2 * mid * q * (q - r) - (b - a) * (r - 1));
+                    q = (q - 1) * (r - 1) * (s - 1);
+                }
+                if (p > 0) {
+                    q = -q;
+                } else {
+                    p = -p;
+                }
+                if (2 * p < Math.min(3 * mid * q - Math.abs(tolerance * q), Math.abs(e * q))) {
+                    e = d;
+                    d = p / q;
+                } else {
+                    d = mid;
+                    e = d;
+                }
+            } else {
+                // Bisection
+                d = mid;
+                e = d;
+            }
+            a = b;
+            fa = fb;
+            b += Math.abs(d) > tolerance ? d : Math.copySign(tolerance, mid);
+            fb = npvAt(investment, b);
+        }
+        return Double.NaN;
+    }
+}
@@ -1,6 +1,10 @@
 package com.rafiki18.divtracker_be.service;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 import org.springframework.stereotype.Service;
 
@@ -19,6 +23,7 @@ import lombok.extern.slf4j.Slf4j;
 public class MarketDataEnrichmentService {
     
     private final InstrumentFundamentalsService fundamentalsService;
+    private final FundamentalsBackgroundRefresher backgroundRefresher;
     
     /**
      * Enriches a watchlist item response with current market data.
@@ -56,6 +61,44 @@ public class MarketDataEnrichmentService {
         return fundamentalsService.getFundamentals(ticker).orElse(null);
     }
     
+    /**
+     * Get fundamentals snapshots for several tickers with one bulk lookup.
+     *
+     * @param tickers Stock ticker symbols
+     * @return Fundamentals by upper-case ticker; tickers without data are absent
+     */
+    public Map<String, InstrumentFundamentals> getFundamentals(Collection<String> tickers) {
+        return fundamentalsService.getFundamentals(tickers);
+    }
+    
+    /**
+     * Get cached fundamentals for several tickers without waiting for Finnhub.
+     * Missing, stale or incomplete tickers are served as cached (or left out)
+     * and refreshed in the background; list pages cost the same two queries
+     * whatever their size.
+     *
+     * @param tickers Stock ticker symbols
+     * @return Fundamentals by upper-case ticker; tickers without data are absent
+     */
+    public Map<String, InstrumentFundamentals> getCachedFundamentals(Collection<String> tickers) {
+        Map<String, InstrumentFundamentals> cached = fundamentalsService.getCachedFundamentals(tickers);
+        List<String> outdated = tickers.stream()
+                .filter(Objects::nonNull)
+                .map(ticker -> ticker.trim().toUpperCase())
+                .filter(ticker -> !ticker.isEmpty())
+                .distinct()
+                .filter(ticker -> !cached.containsKey(ticker) || cached.get(ticker).needsRefresh())
+                .toList();
+        if (!outdated.isEmpty()) {
+            List<String> claimed = backgroundRefresher.claim(outdated);
+            if (!claimed.isEmpty()) {
+                log.debug("Refreshing {} outdated tickers in the background", claimed.size());
+                backgroundRefresher.refreshAsync(claimed);
+            }
+        }
+        return cached;
+    }
+    
     /**
      * Checks if market data enrichment is available.
      * Returns true even if using cached data.
@@ -0,0 +1,196 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Monte Carlo DCF: fair value per share over many paths, each with its own
+ * growth rate, discount rate and terminal P/FCF multiple drawn from normal
+ * distributions. Every path projects the FCF and discounts it year by year
+ * as {@link FinancialMetricsService#calculateDCF} does; the terminal value
+ * is the last projected FCF times the path's multiple, as in the IRR cash
+ * flows.
+ *
+ * Paths are split into ranges valued in parallel on the common fork/join
+ * pool. Each range draws from its own {@link SplittableRandom}, split from
+ * the seeded root in a fixed order, so the result depends on the seed only
+ * and not on scheduling. Ranges write disjoint slices of one fair value
+ * array and keep their sums in primitive fields.
+ */
+final class MonteCarloDcf {
+
+    static final double[] PERCENTILES = {5, 10, 25, 50, 75, 90, 95};
+
+    // Bounds of the sampled inputs, so a tail draw cannot make a path meaningless
+    static final double MIN_GROWTH = -0.50;
+    static final double MAX_GROWTH = 1.00;
+    static final double MIN_DISCOUNT = 0.01;
+    static final double MIN_MULTIPLE = 0;
+
+    private MonteCarloDcf() {
+    }
+
+    /**
+     * Mean and standard deviation of one sampled input.
+     */
+    static final class Distribution {
+        final double mean;
+        final double stdDev;
+
+        Distribution(double mean, double stdDev) {
+            this.mean = mean;
+            this.stdDev = Math.max(stdDev, 0);
+        }
+    }
+
+    /**
+     * Summary of the simulated fair values.
+     */
+    static final class Result {
+        int paths;
+        double mean;
+        double stdDev;
+        // Fair value at each of PERCENTILES
+        double[] percentiles;
+        // Share of paths whose fair value is above the price (0 to 1)
+        double probabilityUndervalued;
+    }
+
+    /**
+     * @param fcf       Current FCF per share (positive)
+     * @param price     Current price
+     * @param years     Projection years
+     * @param growth    Annual FCF growth during the projection (decimal)
+     * @param discount  Discount rate (decimal)
+     * @param multiple  Terminal P/FCF multiple
+     * @param paths     Number of paths
+     * @param seed      Seed of the root generator
+     * @param chunkSize Paths per fork/join task
+     */
+    static Result simulate(double fcf, double price, int years, Distribution growth, Distribution discount,
+                           Distribution multiple, int paths, long seed, int chunkSize) {
+        double[] fairValues = new double[paths];
+        int chunk = Math.max(chunkSize, 1);
+        PathTask root = new PathTask(fcf, price, Math.max(years, 1), growth, discount, multiple, fairValues,
+                0, paths, chunk, new SplittableRandom(seed));
+        if (paths <= chunk) {
+            root.compute();
+        } else {
+            ForkJoinPool.commonPool().invoke(root);
+        }
+
+        Result result = new Result();
+        result.paths = paths;
+        result.mean = root.sum / paths;
+        result.stdDev = Math.sqrt(Math.max(root.sumOfSquares / paths - result.mean * result.mean, 0));
+        result.probabilityUndervalued = (double) root.undervalued / paths;
+
+        if (paths > chunk) {
+            Arrays.parallelSort(fairValues);
+        } else {
+            Arrays.sort(fairValues);
+        }
+        result.percentiles = new double[PERCENTILES.length];
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            // Nearest rank
+            int rank = (int) Math.ceil(PERCENTILES[i] / 100 * paths);
+            result.percentiles[i] = fairValues[Math.min(Math.max(rank, 1), paths) - 1];
+        }
+        return result;
+    }
+
+    private static final class PathTask extends RecursiveAction {
+        private final double fcf;
+        private final double price;
+        private final int years;
+        private final Distribution growth;
+        private final Distribution discount;
+        private final Distribution multiple;
+        private final double[] fairValues;
+        private final int from;
+        private final int to;
+        private final int chunk;
+        private final SplittableRandom random;
+
+        // Accumulated over [from, to) once computed
+        double sum;
+        double sumOfSquares;
+        long undervalued;
+
+        PathTask(double fcf, double price, int years, Distribution growth, Distribution discount,
+                 Distribution multiple, double[] fairValues, int from, int to, int chunk, SplittableRandom random) {
+            this.fcf = fcf;
+            this.price = price;
+            this.years = years;
+            this.growth = growth;
+            this.discount = discount;
+            this.multiple = multiple;
+            this.fairValues = fairValues;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.random = random;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                simulateRange();
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            PathTask left = new PathTask(fcf, price, years, growth, discount, multiple, fairValues,
+                    from, middle, chunk, random.split());
+            PathTask right = new PathTask(fcf, price, years, growth, discount, multiple, fairValues,
+                    middle, to, chunk, random);
+            invokeAll(left, right);
+            sum = left.sum + right.sum;
+            sumOfSquares = left.sumOfSquares + right.sumOfSquares;
+            undervalued = left.undervalued + right.undervalued;
+        }
+
+        private void simulateRange() {
+            double localSum = 0;
+            double localSquares = 0;
+            long localUndervalued = 0;
+            for (int path = from; path < to; path++) {
+                double growthFactor = 1 + clamp(sample(growth), MIN_GROWTH, MAX_GROWTH);
+                double discountFactor = 1 + Math.max(sample(discount), MIN_DISCOUNT);
+                double exitMultiple = Math.max(sample(multiple), MIN_MULTIPLE);
+
+                // PV of FCF_y = fcf * (1 + g)^y discounted at (1 + r)^y, plus the exit value in the last year
+                double projected = fcf;
+                double discountPower = 1;
+                double presentValue = 0;
+                for (int year = 1; year <= years; year++) {
+                    projected *= growthFactor;
+                    discountPower *= discountFactor;
+                    presentValue += projected / discountPower;
+                }
+                double fairValue = presentValue + projected * exitMultiple / discountPower;
+
+                fairValues[path] = fairValue;
+                localSum += fairValue;
+                localSquares += fairValue * fairValue;
+                if (fairValue > price) {
+                    localUndervalued++;
+                }
+            }
+            sum = localSum;
+            sumOfSquares = localSquares;
+            undervalued = localUndervalued;
+        }
+
+        private double sample(Distribution distribution) {
+            return distribution.stdDev > 0
+                    ? distribution.mean + distribution.stdDev * random.nextGaussian()
+                    : distribution.mean;
+        }
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.min(Math.max(value, min), max);
+    }
+}
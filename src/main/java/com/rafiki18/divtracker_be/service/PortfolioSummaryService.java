@@ -0,0 +1,232 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.rafiki18.divtracker_be.dto.PortfolioSummaryResponse;
+import com.rafiki18.divtracker_be.marketdata.FundamentalsChangedEvent;
+import com.rafiki18.divtracker_be.marketdata.PricesChangedEvent;
+import com.rafiki18.divtracker_be.model.InstrumentFundamentals;
+import com.rafiki18.divtracker_be.model.WatchlistItem;
+import com.rafiki18.divtracker_be.repository.WatchlistItemRepository;
+import com.rafiki18.divtracker_be.repository.WatchlistItemRepository.ItemMarketData;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Portfolio-level aggregates of a user's watchlist.
+ *
+ * Items, fundamentals and prices come from one joined query, streamed into a
+ * {@link ValuationBatch} that is valued in one pass with each item's own
+ * parameters (the same defaults as the list endpoint). Responses are not
+ * built; aggregates are read straight from the batch arrays. Summaries are
+ * cached per user until a price or fundamentals change touches one of the
+ * user's tickers, or the user changes the watchlist.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PortfolioSummaryService {
+
+    static final String UNKNOWN_SECTOR = "Unknown";
+
+    private final WatchlistItemRepository watchlistItemRepository;
+    private final FinancialMetricsService financialMetricsService;
+
+    private final Map<UUID, PortfolioSummaryResponse> summaries = new ConcurrentHashMap<>();
+    private final Map<String, Set<UUID>> usersByTicker = new ConcurrentHashMap<>();
+    // Bumped on every invalidation; a summary computed across one is not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Summary of the user's watchlist, from cache when its inputs are unchanged.
+     */
+    @Transactional(readOnly = true)
+    public PortfolioSummaryResponse summarize(UUID userId) {
+        PortfolioSummaryResponse cached = summaries.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = invalidations.get();
+        Set<String> tickers = new HashSet<>();
+        PortfolioSummaryResponse summary;
+        try (Stream<ItemMarketData> rows = watchlistItemRepository.streamWithMarketDataByUserId(userId)) {
+            summary = compute(rows, tickers);
+        }
+
+        tickers.forEach(ticker -> usersByTicker.computeIfAbsent(ticker, t -> ConcurrentHashMap.newKeySet()).add(userId));
+        if (invalidations.get() == generation) {
+            summaries.put(userId, summary);
+        }
+        log.debug("Computed portfolio summary for user {}: {} items", userId, summary.getTotalItems());
+        return summary;
+    }
+
+    /**
+     * Drop the user's summary (the watchlist itself changed).
+     */
+    public void evict(UUID userId) {
+        invalidations.incrementAndGet();
+        summaries.remove(userId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFundamentalsChanged(FundamentalsChangedEvent event) {
+        evictTicker(event.getTicker());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPricesChanged(PricesChangedEvent event) {
+        event.getTickers().forEach(this::evictTicker);
+    }
+
+    private void evictTicker(String ticker) {
+        Set<UUID> users = usersByTicker.remove(ticker.trim().toUpperCase());
+        if (users != null) {
+            invalidations.incrementAndGet();
+            users.forEach(summaries::remove);
+        }
+    }
+
+    private PortfolioSummaryResponse compute(Stream<ItemMarketData> rows, Set<String> tickers) {
+        ValuationBatch batch = new ValuationBatch(64);
+        List<String> batchSectors = new ArrayList<>();
+        Map<String, SectorTotals> sectors = new LinkedHashMap<>();
+        Totals totals = new Totals();
+
+        rows.forEach(row -> {
+            WatchlistItem item = row.getItem();
+            InstrumentFundamentals fundamentals = row.getFundamentals();
+            if (fundamentals != null) {
+                fundamentals.applyPrice(row.getPrice());
+            }
+            tickers.add(item.getTicker());
+            String sector = fundamentals != null && fundamentals.getSector() != null
+                    ? fundamentals.getSector() : UNKNOWN_SECTOR;
+            sectors.computeIfAbsent(sector, s -> new SectorTotals()).items++;
+            totals.items++;
+            if (fundamentals == null) {
+                return;
+            }
+
+            BigDecimal dividendYield = fundamentals.getDividendYield();
+            if (dividendYield != null) {
+                totals.dividendYieldSum += dividendYield.doubleValue();
+                totals.dividendYieldCount++;
+                BigDecimal marketCap = fundamentals.getMarketCapitalization();
+                if (marketCap != null && marketCap.signum() > 0) {
+                    totals.capWeightedYieldSum += dividendYield.doubleValue() * marketCap.doubleValue();
+                    totals.capSum += marketCap.doubleValue();
+                }
+            }
+
+            BigDecimal price = fundamentals.getCurrentPrice();
+            BigDecimal fcf = fundamentals.getFcfPerShare();
+            if (price == null || fcf == null) {
+                return;
+            }
+            batch.add(price, fcf,
+                    item.getEstimatedFcfGrowthRate() != null
+                            ? item.getEstimatedFcfGrowthRate() : financialMetricsService.estimateGrowthRate(fundamentals),
+                    item.getDiscountRate() != null
+                            ? item.getDiscountRate() : financialMetricsService.estimateDiscountRate(fundamentals),
+                    item.getInvestmentHorizonYears() != null ? item.getInvestmentHorizonYears()
+                            : FinancialMetricsService.DEFAULT_HORIZON_YEARS,
+                    item.getTargetPrice(),
+                    item.getTargetPfcf() != null ? item.getTargetPfcf() : FinancialMetricsService.DEFAULT_EXIT_MULTIPLE,
+                    item.getId());
+            batchSectors.add(sector);
+        });
+
+        if (batch.size() > 0) {
+            financialMetricsService.calculateValuations(batch);
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            SectorTotals sector = sectors.get(batchSectors.get(i));
+            double dcf = batch.dcf[i];
+            double margin = batch.marginOfSafety[i];
+            double irr = batch.irr[i];
+            if (!Double.isNaN(dcf) && batch.price[i] < dcf) {
+                totals.undervalued++;
+                sector.undervalued++;
+            }
+            if (!Double.isNaN(margin)) {
+                totals.marginSum += margin;
+                totals.marginCount++;
+                sector.marginSum += margin;
+                sector.marginCount++;
+            }
+            if (!Double.isNaN(irr)) {
+                totals.irrSum += irr;
+                totals.irrCount++;
+            }
+        }
+
+        List<PortfolioSummaryResponse.SectorBreakdown> breakdown = new ArrayList<>();
+        sectors.forEach((name, sector) -> breakdown.add(PortfolioSummaryResponse.SectorBreakdown.builder()
+                .sector(name)
+                .items(sector.items)
+                .weight(BigDecimal.valueOf(sector.items)
+                        .divide(BigDecimal.valueOf(totals.items), 4, RoundingMode.HALF_UP))
+                .undervaluedCount(sector.undervalued)
+                .averageMarginOfSafety(average(sector.marginSum, sector.marginCount))
+                .build()));
+        breakdown.sort(Comparator.comparing(PortfolioSummaryResponse.SectorBreakdown::getItems).reversed()
+                .thenComparing(PortfolioSummaryResponse.SectorBreakdown::getSector));
+
+        return PortfolioSummaryResponse.builder()
+                .totalItems(totals.items)
+                .valuedItems(batch.size())
+                .undervaluedCount(totals.undervalued)
+                .averageDividendYield(average(totals.dividendYieldSum, totals.dividendYieldCount))
+                .weightedDividendYield(totals.capSum > 0
+                        ? FinancialMetricsService.toDecimal(totals.capWeightedYieldSum / totals.capSum, 2) : null)
+                .averageMarginOfSafety(average(totals.marginSum, totals.marginCount))
+                .averageEstimatedIRR(average(totals.irrSum, totals.irrCount))
+                .sectors(breakdown)
+                .computedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static BigDecimal average(double sum, int count) {
+        return count > 0 ? FinancialMetricsService.toDecimal(sum / count, 2) : null;
+    }
+
+    private static final class Totals {
+        int items;
+        int undervalued;
+        double dividendYieldSum;
+        int dividendYieldCount;
+        double capWeightedYieldSum;
+        double capSum;
+        double marginSum;
+        int marginCount;
+        double irrSum;
+        int irrCount;
+    }
+
+    private static final class SectorTotals {
+        int items;
+        int undervalued;
+        double marginSum;
+        int marginCount;
+    }
+}
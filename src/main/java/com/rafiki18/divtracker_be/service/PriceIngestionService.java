@@ -0,0 +1,147 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.rafiki18.divtracker_be.marketdata.PriceTrade;
+import com.rafiki18.divtracker_be.marketdata.PricesChangedEvent;
+import com.rafiki18.divtracker_be.model.InstrumentPrice;
+import com.rafiki18.divtracker_be.model.MarketPriceTick;
+import com.rafiki18.divtracker_be.repository.InstrumentFundamentalsRepository;
+import com.rafiki18.divtracker_be.repository.InstrumentPriceRepository;
+import com.rafiki18.divtracker_be.repository.MarketPriceTickRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Shared trade ingestion for the WebSocket and webhook paths.
+ *
+ * Per batch: one query to filter tracked tickers, tick history inserts, and a
+ * single batched conditional UPDATE of instrument_prices with the newest trade
+ * per ticker. Stale or out-of-order trades are rejected by the database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PriceIngestionService {
+
+    private final InstrumentFundamentalsRepository instrumentFundamentalsRepository;
+    private final InstrumentPriceRepository instrumentPriceRepository;
+    private final MarketPriceTickRepository marketPriceTickRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Optional dependency - only injected when fcm.enabled=true
+    private PushNotificationService pushNotificationService;
+
+    @Autowired(required = false)
+    public void setPushNotificationService(PushNotificationService pushNotificationService) {
+        this.pushNotificationService = pushNotificationService;
+    }
+
+    /**
+     * Ingest a batch of trades.
+     *
+     * @param trades parsed trades (any order, may contain several per ticker)
+     * @param notifyFilter decides which accepted tickers trigger push notifications
+     * @return tickers whose live price was updated
+     */
+    @Transactional
+    public Set<String> ingest(Collection<PriceTrade> trades, Predicate<String> notifyFilter) {
+        if (trades.isEmpty()) {
+            return Set.of();
+        }
+
+        // Only process tickers we track in our database
+        Set<String> tickers = new HashSet<>();
+        trades.forEach(trade -> tickers.add(trade.getTicker()));
+        Set<String> tracked = new HashSet<>(instrumentFundamentalsRepository.findTrackedTickers(tickers));
+        if (tracked.isEmpty()) {
+            log.trace("Ignoring {} ticks for untracked tickers", trades.size());
+            return Set.of();
+        }
+
+        // 1. Keep every tick as history, coalesce to the newest trade per ticker
+        List<MarketPriceTick> ticks = new ArrayList<>();
+        Map<String, PriceTrade> newest = new LinkedHashMap<>();
+        Instant receivedAt = Instant.now();
+        for (PriceTrade trade : trades) {
+            if (!tracked.contains(trade.getTicker())) {
+                continue;
+            }
+            ticks.add(toTick(trade, receivedAt));
+            newest.merge(trade.getTicker(), trade,
+                    (current, candidate) -> candidate.getTradeAt().isAfter(current.getTradeAt()) ? candidate : current);
+        }
+        marketPriceTickRepository.saveAll(ticks);
+
+        // 2. One conditional UPDATE per ticker, sent as a single batch
+        List<PriceTrade> updates = new ArrayList<>(newest.values());
+        int[] counts = instrumentPriceRepository.applyTrades(updates);
+
+        Set<String> accepted = new HashSet<>();
+        List<PriceTrade> rejected = new ArrayList<>();
+        for (int i = 0; i < updates.size(); i++) {
+            if (i < counts.length && counts[i] > 0) {
+                accepted.add(updates.get(i).getTicker());
+            } else {
+                rejected.add(updates.get(i));
+            }
+        }
+
+        // Rejected = out-of-order trade, or no price row yet for the ticker
+        if (!rejected.isEmpty()) {
+            Set<String> existing = instrumentPriceRepository.findExistingTickers(
+                    rejected.stream().map(PriceTrade::getTicker).toList());
+            List<PriceTrade> missing = rejected.stream()
+                    .filter(trade -> !existing.contains(trade.getTicker()))
+                    .toList();
+            accepted.addAll(instrumentPriceRepository.insertMissing(missing));
+            log.debug("Price batch: {} accepted, {} out-of-order", accepted.size(), rejected.size() - missing.size());
+        }
+
+        if (!accepted.isEmpty()) {
+            eventPublisher.publishEvent(new PricesChangedEvent(this, Set.copyOf(accepted)));
+        }
+
+        // 3. Notify only for prices that actually changed
+        if (pushNotificationService != null && !accepted.isEmpty()) {
+            notifyAccepted(accepted, notifyFilter);
+        }
+        return accepted;
+    }
+
+    private void notifyAccepted(Set<String> accepted, Predicate<String> notifyFilter) {
+        List<String> toNotify = accepted.stream().filter(notifyFilter).toList();
+        if (toNotify.isEmpty()) {
+            return;
+        }
+        for (InstrumentPrice price : instrumentPriceRepository.findByTickerIn(toNotify)) {
+            pushNotificationService.sendPriceUpdateNotifications(
+                    price.getTicker(), price.getCurrentPrice(), null, price.getDailyChangePercent());
+        }
+    }
+
+    private MarketPriceTick toTick(PriceTrade trade, Instant receivedAt) {
+        MarketPriceTick tick = new MarketPriceTick();
+        tick.setTicker(trade.getTicker());
+        tick.setPrice(trade.getPrice());
+        tick.setVolume(trade.getVolume());
+        tick.setTradeTimestamp(trade.getTradeAt());
+        tick.setSource(trade.getSource());
+        tick.setReceivedAt(receivedAt);
+        return tick;
+    }
+}
@@ -3,6 +3,7 @@ package com.rafiki18.divtracker_be.service;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -12,6 +13,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.rafiki18.divtracker_be.dto.PushNotificationDto;
+import com.rafiki18.divtracker_be.model.InstrumentFundamentals;
 import com.rafiki18.divtracker_be.model.UserFcmToken;
 import com.rafiki18.divtracker_be.model.WatchlistItem;
 import com.rafiki18.divtracker_be.repository.WatchlistItemRepository;
@@ -32,6 +34,7 @@ public class PushNotificationService {
     private final FcmTokenService fcmTokenService;
     private final FirebasePushService firebasePushService;
     private final WatchlistItemRepository watchlistItemRepository;
+    private final InstrumentFundamentalsService fundamentalsService;
 
     /**
      * Send price update notifications for a ticker.
@@ -112,26 +115,40 @@ public class PushNotificationService {
 
         log.info("Sending daily summaries to {} users", tokensByUser.size());
 
-        for (var entry : tokensByUser.entrySet()) {
-            UUID userId = entry.getKey();
-            List<UserFcmToken> userTokens = entry.getValue();
+        // Every user's watchlist tickers in one grouped query, then the cached fundamentals
+        // for all of them at once. Stale tickers are left to the refresh queue, so the
+        // summary never spends Finnhub budget
+        Map<UUID, List<String>> tickersByUser = watchlistItemRepository
+                .findDistinctTickersByUserIdIn(tokensByUser.keySet()).stream()
+                .collect(Collectors.groupingBy(WatchlistItemRepository.UserTicker::getUserId,
+                        Collectors.mapping(WatchlistItemRepository.UserTicker::getTicker, Collectors.toList())));
+        Set<String> allTickers = tickersByUser.values().stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toSet());
+        Map<String, InstrumentFundamentals> fundamentals = fundamentalsService.getCachedFundamentals(allTickers);
 
-            // Get user's watchlist tickers
-            List<String> tickers = watchlistItemRepository.findDistinctTickersByUserId(userId);
+        for (var entry : tokensByUser.entrySet()) {
+            List<String> tickers = tickersByUser.getOrDefault(entry.getKey(), List.of());
             
             if (tickers.isEmpty()) {
                 continue;
             }
 
-            // For simplicity, we send a summary with count only
-            // In a real implementation, you'd calculate gainers/losers from fundamentals
-            PushNotificationDto notification = PushNotificationDto.dailySummary(
-                    tickers,
-                    0, // gainers - would need to calculate from fundamentals
-                    0  // losers - would need to calculate from fundamentals
-            );
+            int gainers = 0;
+            int losers = 0;
+            for (String ticker : tickers) {
+                InstrumentFundamentals f = fundamentals.get(ticker.toUpperCase());
+                BigDecimal change = f != null ? f.getDailyChangePercent() : null;
+                if (change != null && change.signum() > 0) {
+                    gainers++;
+                } else if (change != null && change.signum() < 0) {
+                    losers++;
+                }
+            }
+
+            PushNotificationDto notification = PushNotificationDto.dailySummary(tickers, gainers, losers);
             
-            firebasePushService.sendNotificationToMultiple(userTokens, notification);
+            firebasePushService.sendNotificationToMultiple(entry.getValue(), notification);
         }
     }
 }
@@ -0,0 +1,386 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.rafiki18.divtracker_be.config.properties.ValuationProperties;
+import com.rafiki18.divtracker_be.dto.ScreenerRequest;
+import com.rafiki18.divtracker_be.dto.ScreenerResultResponse;
+import com.rafiki18.divtracker_be.marketdata.FundamentalsDeletedEvent;
+import com.rafiki18.divtracker_be.model.InstrumentFundamentals;
+import com.rafiki18.divtracker_be.model.InstrumentPrice;
+import com.rafiki18.divtracker_be.repository.InstrumentFundamentalsRepository;
+import com.rafiki18.divtracker_be.repository.InstrumentPriceRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Screener over every instrument with fundamentals, served from an in-memory
+ * {@link ScreenerSnapshot} instead of a query and a valuation per request.
+ *
+ * The snapshot is loaded on first use. Afterwards, at most once per
+ * {@code valuation.screener-sync-interval-millis}, a request first patches it
+ * with the fundamentals and price rows written since the last sync whose
+ * version moved, and drops the tickers whose fundamentals were deleted
+ * ({@link FundamentalsDeletedEvent}); only those rows are revalued. Every
+ * {@code valuation.screener-reload-interval-millis} the snapshot is reloaded
+ * in full, which also drops rows deleted without an event (e.g. by another
+ * instance). Filters are evaluated over the primitive columns in parallel,
+ * then only the matches up to the end of the requested page are ranked, in a
+ * bounded heap of row indexes.
+ */
+@Service
+@Slf4j
+public class ScreenerService {
+
+    // Re-read rows written shortly before the last sync: their timestamps are
+    // set before commit, so a row can commit after a sync with an older time
+    static final Duration SYNC_OVERLAP = Duration.ofSeconds(60);
+
+    static final String DEFAULT_SORT = "marginOfSafety";
+
+    private final InstrumentFundamentalsRepository fundamentalsRepository;
+    private final InstrumentPriceRepository priceRepository;
+    private final FinancialMetricsService financialMetricsService;
+    private final long syncIntervalNanos;
+    private final long reloadIntervalNanos;
+    private final int chunkSize;
+
+    // Tickers whose fundamentals were deleted since the last sync
+    private final Set<String> removedTickers = ConcurrentHashMap.newKeySet();
+
+    private volatile ScreenerSnapshot snapshot;
+    private volatile long syncedAtNanos;
+    // Guarded by this
+    private long loadedAtNanos;
+    private Instant pricesSyncedAt;
+    private LocalDateTime fundamentalsSyncedAt;
+
+    public ScreenerService(InstrumentFundamentalsRepository fundamentalsRepository,
+                           InstrumentPriceRepository priceRepository,
+                           FinancialMetricsService financialMetricsService,
+                           ValuationProperties properties) {
+        this.fundamentalsRepository = fundamentalsRepository;
+        this.priceRepository = priceRepository;
+        this.financialMetricsService = financialMetricsService;
+        this.syncIntervalNanos = Duration.ofMillis(properties.getScreenerSyncIntervalMillis()).toNanos();
+        this.reloadIntervalNanos = Duration.ofMillis(properties.getScreenerReloadIntervalMillis()).toNanos();
+        this.chunkSize = properties.getScreenerChunkSize();
+    }
+
+    /**
+     * Instruments matching the filters, sorted and paged.
+     *
+     * @param filters  Filters (nullable, then every instrument)
+     * @param pageable Page, size and sort; sortable by the numeric fields of
+     *                 {@link ScreenerResultResponse} and {@code ticker}
+     *                 (default {@value #DEFAULT_SORT} descending). Instruments
+     *                 without the sorted value come last.
+     * @throws IllegalArgumentException if the sort field is unknown
+     */
+    public Page<ScreenerResultResponse> screen(ScreenerRequest filters, Pageable pageable) {
+        ScreenerSnapshot current = snapshot();
+        Sort.Order order = pageable.getSort().stream().findFirst()
+                .orElse(Sort.Order.desc(DEFAULT_SORT));
+        RowComparator comparator = comparator(current, order);
+
+        long start = System.nanoTime();
+        int[] matches = current.select(filter(current, filters != null ? filters : new ScreenerRequest()),
+                chunkSize);
+        int offset = (int) Math.min(pageable.getOffset(), matches.length);
+        int end = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), matches.length);
+        int[] sorted = top(matches, end, comparator);
+
+        List<ScreenerResultResponse> content = new ArrayList<>(end - offset);
+        for (int i = offset; i < end; i++) {
+            content.add(toResponse(current, sorted[i]));
+        }
+        log.debug("Screened {} instruments: {} matches in {} µs", current.size, matches.length,
+                (System.nanoTime() - start) / 1_000);
+        return new PageImpl<>(content, pageable, matches.length);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFundamentalsDeleted(FundamentalsDeletedEvent event) {
+        event.getTickers().forEach(ticker -> removedTickers.add(ticker.toUpperCase()));
+    }
+
+    /**
+     * Current snapshot, loaded or synced first when due.
+     */
+    ScreenerSnapshot snapshot() {
+        ScreenerSnapshot current = snapshot;
+        if (current != null && System.nanoTime() - syncedAtNanos < syncIntervalNanos) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current == null || System.nanoTime() - loadedAtNanos >= reloadIntervalNanos) {
+                current = load();
+            } else if (System.nanoTime() - syncedAtNanos >= syncIntervalNanos) {
+                current = sync(current);
+            }
+            snapshot = current;
+            syncedAtNanos = System.nanoTime();
+            return current;
+        }
+    }
+
+    private ScreenerSnapshot load() {
+        long start = System.nanoTime();
+        Instant syncStart = Instant.now();
+        LocalDateTime fundamentalsSyncStart = LocalDateTime.now();
+        removedTickers.clear();
+        Map<String, InstrumentPrice> prices = priceRepository.findAll().stream()
+                .collect(Collectors.toMap(InstrumentPrice::getTicker, Function.identity()));
+        List<InstrumentFundamentals> fundamentals = fundamentalsRepository.findAll();
+        ScreenerSnapshot loaded = ScreenerSnapshot.build(fundamentals, prices, financialMetricsService);
+        pricesSyncedAt = syncStart;
+        fundamentalsSyncedAt = fundamentalsSyncStart;
+        loadedAtNanos = System.nanoTime();
+        log.info("Loaded screener snapshot of {} instruments in {} ms", loaded.size,
+                (System.nanoTime() - start) / 1_000_000);
+        return loaded;
+    }
+
+    private ScreenerSnapshot sync(ScreenerSnapshot current) {
+        Instant syncStart = Instant.now();
+        LocalDateTime fundamentalsSyncStart = LocalDateTime.now();
+        Set<String> removed = new HashSet<>(removedTickers);
+        removedTickers.removeAll(removed);
+
+        List<InstrumentFundamentals> fundamentals = new ArrayList<>();
+        Set<String> added = new HashSet<>();
+        for (InstrumentFundamentals row : fundamentalsRepository.findRecentlyUpdated(
+                fundamentalsSyncedAt.minus(SYNC_OVERLAP))) {
+            // A deleted ticker that is back again is re-added as a new row
+            if (current.isNewer(row) || removed.contains(row.getTicker())) {
+                fundamentals.add(row);
+                if (current.row(row.getTicker()) < 0 || removed.contains(row.getTicker())) {
+                    added.add(row.getTicker());
+                }
+            }
+        }
+        Map<String, InstrumentPrice> prices = new HashMap<>();
+        for (InstrumentPrice price : priceRepository.findByUpdatedAtAfter(pricesSyncedAt.minus(SYNC_OVERLAP))) {
+            if (current.isNewer(price)) {
+                prices.put(price.getTicker(), price);
+            }
+        }
+        if (!added.isEmpty()) {
+            // New tickers take their price row along
+            priceRepository.findByTickerIn(added).forEach(price -> prices.putIfAbsent(price.getTicker(), price));
+        }
+        pricesSyncedAt = syncStart;
+        fundamentalsSyncedAt = fundamentalsSyncStart;
+
+        removed.removeIf(ticker -> current.row(ticker) < 0);
+        if (fundamentals.isEmpty() && prices.isEmpty() && removed.isEmpty()) {
+            return current;
+        }
+        log.debug("Patching screener snapshot: {} fundamentals, {} prices, {} removed", fundamentals.size(),
+                prices.size(), removed.size());
+        return current.patch(fundamentals, prices, removed, financialMetricsService);
+    }
+
+    private static IntPredicate filter(ScreenerSnapshot s, ScreenerRequest filters) {
+        IntPredicate filter = row -> true;
+        if (Boolean.TRUE.equals(filters.getUndervalued())) {
+            filter = filter.and(row -> s.price[row] < s.dcfFairValue[row]);
+        } else if (Boolean.FALSE.equals(filters.getUndervalued())) {
+            filter = filter.and(row -> s.price[row] >= s.dcfFairValue[row]);
+        }
+        filter = atLeast(filter, s.marginOfSafety, filters.getMinMarginOfSafety());
+        filter = atLeast(filter, s.chowderRuleValue, filters.getMinChowderRuleValue());
+        filter = atMost(filter, s.payoutRatioFcf, filters.getMaxPayoutRatioFcf());
+        filter = atLeast(filter, s.dividendYield, filters.getMinDividendYield());
+        filter = atLeast(filter, s.fcfYield, filters.getMinFcfYield());
+        filter = atLeast(filter, s.estimatedIrr, filters.getMinEstimatedIRR());
+        filter = atMost(filter, s.peAnnual, filters.getMaxPeAnnual());
+        filter = atMost(filter, s.beta, filters.getMaxBeta());
+        filter = atLeast(filter, s.marketCapitalization, filters.getMinMarketCapitalization());
+        if (filters.getSector() != null && !filters.getSector().isBlank()) {
+            String sector = filters.getSector().trim();
+            filter = filter.and(row -> sector.equalsIgnoreCase(s.sector[row]));
+        }
+        return filter;
+    }
+
+    // NaN compares false, so rows without the value never match
+    private static IntPredicate atLeast(IntPredicate filter, double[] column, BigDecimal min) {
+        if (min == null) {
+            return filter;
+        }
+        double bound = min.doubleValue();
+        return filter.and(row -> column[row] >= bound);
+    }
+
+    private static IntPredicate atMost(IntPredicate filter, double[] column, BigDecimal max) {
+        if (max == null) {
+            return filter;
+        }
+        double bound = max.doubleValue();
+        return filter.and(row -> column[row] <= bound);
+    }
+
+    private static RowComparator comparator(ScreenerSnapshot s, Sort.Order order) {
+        RowComparator byTicker = (a, b) -> s.ticker[a].compareTo(s.ticker[b]);
+        if ("ticker".equals(order.getProperty())) {
+            return order.isAscending() ? byTicker : (a, b) -> byTicker.compare(b, a);
+        }
+
+        double[] column = column(s, order.getProperty());
+        boolean ascending = order.isAscending();
+        return (a, b) -> {
+            double x = column[a];
+            double y = column[b];
+            // Missing values last in either direction
+            if (Double.isNaN(x) || Double.isNaN(y)) {
+                int missing = Boolean.compare(Double.isNaN(x), Double.isNaN(y));
+                return missing != 0 ? missing : byTicker.compare(a, b);
+            }
+            int byValue = ascending ? Double.compare(x, y) : Double.compare(y, x);
+            return byValue != 0 ? byValue : byTicker.compare(a, b);
+        };
+    }
+
+    /**
+     * The first {@code limit} rows in comparator order, sorted: a max-heap
+     * keeps the best {@code limit} rows seen so far and is then emptied from
+     * the back, so only a page's worth of rows is ever ordered.
+     */
+    static int[] top(int[] rows, int limit, RowComparator comparator) {
+        int size = Math.min(limit, rows.length);
+        int[] heap = new int[size];
+        if (size == 0) {
+            return heap;
+        }
+        int filled = 0;
+        for (int row : rows) {
+            if (filled < size) {
+                heap[filled] = row;
+                siftUp(heap, filled++, comparator);
+            } else if (comparator.compare(row, heap[0]) < 0) {
+                heap[0] = row;
+                siftDown(heap, size, comparator);
+            }
+        }
+        for (int last = size - 1; last > 0; last--) {
+            int max = heap[0];
+            heap[0] = heap[last];
+            heap[last] = max;
+            siftDown(heap, last, comparator);
+        }
+        return heap;
+    }
+
+    private static void siftUp(int[] heap, int index, RowComparator comparator) {
+        int row = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (comparator.compare(row, heap[parent]) <= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = row;
+    }
+
+    // Restores the heap below the root within heap[0, size)
+    private static void siftDown(int[] heap, int size, RowComparator comparator) {
+        int row = heap[0];
+        int index = 0;
+        int child;
+        while ((child = 2 * index + 1) < size) {
+            if (child + 1 < size && comparator.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (comparator.compare(row, heap[child]) >= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = row;
+    }
+
+    private static double[] column(ScreenerSnapshot s, String property) {
+        return switch (property) {
+            case "currentPrice" -> s.price;
+            case "dailyChangePercent" -> s.dailyChangePercent;
+            case "marketCapitalization" -> s.marketCapitalization;
+            case "peAnnual" -> s.peAnnual;
+            case "beta" -> s.beta;
+            case "freeCashFlowPerShare" -> s.fcfPerShare;
+            case "dividendYield" -> s.dividendYield;
+            case "dividendGrowthRate5Y" -> s.dividendGrowthRate5Y;
+            case "payoutRatioFcf" -> s.payoutRatioFcf;
+            case "chowderRuleValue" -> s.chowderRuleValue;
+            case "estimatedFcfGrowthRate" -> s.growthRate;
+            case "discountRate" -> s.discountRate;
+            case "fcfYield" -> s.fcfYield;
+            case "dcfFairValue" -> s.dcfFairValue;
+            case "marginOfSafety" -> s.marginOfSafety;
+            case "estimatedIRR" -> s.estimatedIrr;
+            default -> throw new IllegalArgumentException("Unknown screener sort field: " + property);
+        };
+    }
+
+    private static ScreenerResultResponse toResponse(ScreenerSnapshot s, int row) {
+        boolean valued = !Double.isNaN(s.dcfFairValue[row]);
+        return ScreenerResultResponse.builder()
+                .ticker(s.ticker[row])
+                .companyName(s.companyName[row])
+                .sector(s.sector[row])
+                .currentPrice(decimal(s.price[row], 4))
+                .dailyChangePercent(decimal(s.dailyChangePercent[row], 4))
+                .marketCapitalization(decimal(s.marketCapitalization[row], 2))
+                .peAnnual(decimal(s.peAnnual[row], 4))
+                .beta(decimal(s.beta[row], 4))
+                .freeCashFlowPerShare(decimal(s.fcfPerShare[row], 4))
+                .dividendYield(decimal(s.dividendYield[row], 4))
+                .dividendGrowthRate5Y(decimal(s.dividendGrowthRate5Y[row], 4))
+                .payoutRatioFcf(decimal(s.payoutRatioFcf[row], 4))
+                .chowderRuleValue(decimal(s.chowderRuleValue[row], 4))
+                .estimatedFcfGrowthRate(decimal(s.growthRate[row], 4))
+                .discountRate(decimal(s.discountRate[row], 4))
+                .fcfYield(decimal(s.fcfYield[row], 2))
+                .dcfFairValue(decimal(s.dcfFairValue[row], 2))
+                .marginOfSafety(decimal(s.marginOfSafety[row], 2))
+                .estimatedIRR(decimal(s.estimatedIrr[row], 2))
+                .undervalued(valued ? s.price[row] < s.dcfFairValue[row] : null)
+                .build();
+    }
+
+    private static BigDecimal decimal(double value, int scale) {
+        return FinancialMetricsService.toDecimal(value, scale);
+    }
+
+    /**
+     * Order of two snapshot rows, without boxing the row indexes.
+     */
+    @FunctionalInterface
+    interface RowComparator {
+        int compare(int a, int b);
+    }
+}
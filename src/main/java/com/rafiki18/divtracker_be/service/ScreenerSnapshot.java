@@ -0,0 +1,338 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntPredicate;
+
+import com.rafiki18.divtracker_be.model.InstrumentFundamentals;
+import com.rafiki18.divtracker_be.model.InstrumentPrice;
+
+/**
+ * Immutable columnar copy of {@code instrument_fundamentals} and
+ * {@code instrument_prices} for the screener: one primitive array per metric,
+ * indexed by row, plus the metrics of a default-parameter valuation of every
+ * row (derived growth and discount rates, default horizon and exit P/FCF of
+ * {@link FinancialMetricsService}). Missing values are NaN.
+ *
+ * Changes never touch a published snapshot: {@link #patch} copies the
+ * arrays without the removed rows, overwrites the changed rows and values
+ * only those rows in one {@link ValuationBatch}, so readers scan a snapshot
+ * without locking.
+ */
+final class ScreenerSnapshot {
+
+    final int size;
+    final String[] ticker;
+    final String[] companyName;
+    final String[] sector;
+    final long[] dataVersion;
+    // -1 when the ticker has no price row
+    final long[] priceVersion;
+
+    final double[] price;
+    final double[] dailyChangePercent;
+    final double[] marketCapitalization;
+    final double[] peAnnual;
+    final double[] beta;
+    final double[] fcfPerShare;
+    final double[] dividendYield;
+    final double[] dividendGrowthRate5Y;
+    final double[] payoutRatioFcf;
+    final double[] chowderRuleValue;
+
+    // Default-parameter valuation
+    final double[] growthRate;
+    final double[] discountRate;
+    final double[] fcfYield;
+    final double[] dcfFairValue;
+    final double[] marginOfSafety;
+    final double[] estimatedIrr;
+
+    private final Map<String, Integer> rows;
+
+    // Carries over the rows of previous listed in kept, in order, as rows 0..kept.length - 1
+    private ScreenerSnapshot(int size, ScreenerSnapshot previous, int[] kept) {
+        this.size = size;
+        ticker = carry(previous != null ? previous.ticker : null, kept, new String[size]);
+        companyName = carry(previous != null ? previous.companyName : null, kept, new String[size]);
+        sector = carry(previous != null ? previous.sector : null, kept, new String[size]);
+        dataVersion = carry(previous != null ? previous.dataVersion : null, kept, new long[size]);
+        priceVersion = carry(previous != null ? previous.priceVersion : null, kept, new long[size]);
+        price = carry(previous != null ? previous.price : null, kept, new double[size]);
+        dailyChangePercent = carry(previous != null ? previous.dailyChangePercent : null, kept, new double[size]);
+        marketCapitalization = carry(previous != null ? previous.marketCapitalization : null, kept, new double[size]);
+        peAnnual = carry(previous != null ? previous.peAnnual : null, kept, new double[size]);
+        beta = carry(previous != null ? previous.beta : null, kept, new double[size]);
+        fcfPerShare = carry(previous != null ? previous.fcfPerShare : null, kept, new double[size]);
+        dividendYield = carry(previous != null ? previous.dividendYield : null, kept, new double[size]);
+        dividendGrowthRate5Y = carry(previous != null ? previous.dividendGrowthRate5Y : null, kept, new double[size]);
+        payoutRatioFcf = carry(previous != null ? previous.payoutRatioFcf : null, kept, new double[size]);
+        chowderRuleValue = carry(previous != null ? previous.chowderRuleValue : null, kept, new double[size]);
+        growthRate = carry(previous != null ? previous.growthRate : null, kept, new double[size]);
+        discountRate = carry(previous != null ? previous.discountRate : null, kept, new double[size]);
+        fcfYield = carry(previous != null ? previous.fcfYield : null, kept, new double[size]);
+        dcfFairValue = carry(previous != null ? previous.dcfFairValue : null, kept, new double[size]);
+        marginOfSafety = carry(previous != null ? previous.marginOfSafety : null, kept, new double[size]);
+        estimatedIrr = carry(previous != null ? previous.estimatedIrr : null, kept, new double[size]);
+        rows = new HashMap<>();
+        for (int i = 0; i < kept.length; i++) {
+            rows.put(ticker[i], i);
+        }
+    }
+
+    static ScreenerSnapshot empty() {
+        return new ScreenerSnapshot(0, null, new int[0]);
+    }
+
+    /**
+     * Snapshot of every row, valued in one batch.
+     *
+     * @param fundamentals All fundamentals rows
+     * @param prices       Price rows by upper-case ticker
+     */
+    static ScreenerSnapshot build(Collection<InstrumentFundamentals> fundamentals,
+                                  Map<String, InstrumentPrice> prices, FinancialMetricsService metrics) {
+        return empty().patch(fundamentals, prices, Set.of(), metrics);
+    }
+
+    /**
+     * New snapshot with the given rows replaced (or appended when the ticker
+     * is new) and revalued, and the removed tickers compacted out; every
+     * other row is carried over as is.
+     *
+     * @param fundamentals Changed fundamentals rows
+     * @param prices       Changed price rows by upper-case ticker; those of
+     *                     tickers without a fundamentals row are ignored
+     * @param removed      Upper-case tickers whose fundamentals row was deleted
+     */
+    ScreenerSnapshot patch(Collection<InstrumentFundamentals> fundamentals, Map<String, InstrumentPrice> prices,
+                           Set<String> removed, FinancialMetricsService metrics) {
+        int[] kept = new int[size];
+        int keptCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (!removed.contains(ticker[i])) {
+                kept[keptCount++] = i;
+            }
+        }
+        kept = Arrays.copyOf(kept, keptCount);
+
+        Set<String> added = new HashSet<>();
+        for (InstrumentFundamentals row : fundamentals) {
+            int index = row(row.getTicker());
+            if (index < 0 || removed.contains(row.getTicker())) {
+                added.add(row.getTicker());
+            }
+        }
+        int nextSize = keptCount + added.size();
+        ScreenerSnapshot next = new ScreenerSnapshot(nextSize, this, kept);
+
+        int[] changed = new int[fundamentals.size() + prices.size()];
+        boolean[] seen = new boolean[next.size];
+        int count = 0;
+        int appended = keptCount;
+        for (InstrumentFundamentals row : fundamentals) {
+            Integer existing = next.rows.get(row.getTicker());
+            int index = existing != null ? existing : appended++;
+            next.rows.put(row.getTicker(), index);
+            next.setFundamentals(index, row, metrics);
+            if (existing == null) {
+                next.setPrice(index, prices.get(row.getTicker()));
+            }
+            if (!seen[index]) {
+                seen[index] = true;
+                changed[count++] = index;
+            }
+        }
+        for (InstrumentPrice row : prices.values()) {
+            Integer index = next.rows.get(row.getTicker());
+            if (index == null) {
+                continue;
+            }
+            next.setPrice(index, row);
+            if (!seen[index]) {
+                seen[index] = true;
+                changed[count++] = index;
+            }
+        }
+
+        next.value(Arrays.copyOf(changed, count), metrics);
+        return next;
+    }
+
+    /**
+     * Row of a ticker, or -1.
+     */
+    int row(String upperCaseTicker) {
+        Integer index = rows.get(upperCaseTicker);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Whether a fundamentals row is missing from this snapshot or differs
+     * from the one it was built with.
+     */
+    boolean isNewer(InstrumentFundamentals fundamentals) {
+        int index = row(fundamentals.getTicker());
+        return index < 0 || dataVersion[index] != fundamentals.getDataVersion();
+    }
+
+    /**
+     * Whether a price row differs from the one this snapshot was built with.
+     */
+    boolean isNewer(InstrumentPrice price) {
+        int index = row(price.getTicker());
+        return index >= 0 && priceVersion[index] != price.getVersion();
+    }
+
+    /**
+     * Rows matching {@code filter}, in row order, evaluated in ranges of
+     * {@code chunkSize} rows on the common fork/join pool.
+     */
+    int[] select(IntPredicate filter, int chunkSize) {
+        boolean[] matches = new boolean[size];
+        int chunk = Math.max(chunkSize, 1);
+        MatchTask task = new MatchTask(filter, matches, 0, size, chunk);
+        if (size <= chunk) {
+            task.compute();
+        } else {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+
+        int[] selected = new int[task.count];
+        int next = 0;
+        for (int i = 0; i < size; i++) {
+            if (matches[i]) {
+                selected[next++] = i;
+            }
+        }
+        return selected;
+    }
+
+    private void setFundamentals(int index, InstrumentFundamentals row, FinancialMetricsService metrics) {
+        ticker[index] = row.getTicker();
+        companyName[index] = row.getCompanyName();
+        sector[index] = row.getSector();
+        dataVersion[index] = row.getDataVersion();
+        marketCapitalization[index] = toDouble(row.getMarketCapitalization());
+        peAnnual[index] = toDouble(row.getPeAnnual());
+        beta[index] = toDouble(row.getBeta());
+        fcfPerShare[index] = toDouble(row.getFcfPerShare());
+        dividendYield[index] = toDouble(row.getDividendYield());
+        dividendGrowthRate5Y[index] = toDouble(row.getDividendGrowthRate5Y());
+        payoutRatioFcf[index] = toDouble(row.getPayoutRatioFcf());
+        chowderRuleValue[index] = toDouble(row.getChowderRuleValue());
+        growthRate[index] = metrics.estimateGrowthRate(row).doubleValue();
+        discountRate[index] = metrics.estimateDiscountRate(row).doubleValue();
+    }
+
+    private void setPrice(int index, InstrumentPrice row) {
+        priceVersion[index] = row != null ? row.getVersion() : -1;
+        price[index] = row != null ? toDouble(row.getCurrentPrice()) : Double.NaN;
+        dailyChangePercent[index] = row != null ? toDouble(row.getDailyChangePercent()) : Double.NaN;
+    }
+
+    /**
+     * Default-parameter valuation of the given rows; rows without a price or
+     * an FCF per share get NaN metrics.
+     */
+    private void value(int[] indexes, FinancialMetricsService metrics) {
+        ValuationBatch batch = new ValuationBatch(indexes.length);
+        int[] batchRows = new int[indexes.length];
+        for (int index : indexes) {
+            if (Double.isNaN(price[index]) || Double.isNaN(fcfPerShare[index])) {
+                fcfYield[index] = Double.NaN;
+                dcfFairValue[index] = Double.NaN;
+                marginOfSafety[index] = Double.NaN;
+                estimatedIrr[index] = Double.NaN;
+                continue;
+            }
+            batchRows[batch.add(BigDecimal.valueOf(price[index]), BigDecimal.valueOf(fcfPerShare[index]),
+                    BigDecimal.valueOf(growthRate[index]), BigDecimal.valueOf(discountRate[index]),
+                    FinancialMetricsService.DEFAULT_HORIZON_YEARS, null,
+                    FinancialMetricsService.DEFAULT_EXIT_MULTIPLE, null)] = index;
+        }
+        if (batch.size() == 0) {
+            return;
+        }
+
+        metrics.calculateValuations(batch);
+        for (int i = 0; i < batch.size(); i++) {
+            int index = batchRows[i];
+            fcfYield[index] = batch.fcfYield[i];
+            dcfFairValue[index] = batch.dcf[i];
+            marginOfSafety[index] = batch.marginOfSafety[i];
+            estimatedIrr[index] = batch.irr[i];
+        }
+    }
+
+    private static String[] carry(String[] source, int[] kept, String[] target) {
+        for (int i = 0; i < kept.length; i++) {
+            target[i] = source[kept[i]];
+        }
+        return target;
+    }
+
+    private static long[] carry(long[] source, int[] kept, long[] target) {
+        for (int i = 0; i < kept.length; i++) {
+            target[i] = source[kept[i]];
+        }
+        return target;
+    }
+
+    private static double[] carry(double[] source, int[] kept, double[] target) {
+        for (int i = 0; i < kept.length; i++) {
+            target[i] = source[kept[i]];
+        }
+        return target;
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+
+    private static final class MatchTask extends RecursiveAction {
+        private final IntPredicate filter;
+        private final boolean[] matches;
+        private final int from;
+        private final int to;
+        private final int chunk;
+
+        // Matches in [from, to) once computed
+        int count;
+
+        MatchTask(IntPredicate filter, boolean[] matches, int from, int to, int chunk) {
+            this.filter = filter;
+            this.matches = matches;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                int local = 0;
+                for (int i = from; i < to; i++) {
+                    if (filter.test(i)) {
+                        matches[i] = true;
+                        local++;
+                    }
+                }
+                count = local;
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            MatchTask left = new MatchTask(filter, matches, from, middle, chunk);
+            MatchTask right = new MatchTask(filter, matches, middle, to, chunk);
+            invokeAll(left, right);
+            count = left.count + right.count;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.rafiki18.divtracker_be.service;
+
+/**
+ * DCF fair value and margin of safety over a grid of growth rates × discount
+ * rates, and IRR per growth rate, for one position.
+ *
+ * No cell runs the year-by-year projection of
+ * {@link FinancialMetricsService#calculateDCF}. Growth powers (1 + g)^n are
+ * tabulated once per row and discount factors 1 / (1 + r) and
+ * 1 / (1 + r)^n once per column. The discounted FCF of a cell is then the
+ * geometric series fcf * q * (1 - q^n) / (1 - q) with q = (1 + g) / (1 + r),
+ * read off those tables in constant time. Results agree with
+ * {@code calculateDCF} to the cent up to rounding of the last digit.
+ *
+ * The IRR does not depend on the discount rate, so it is solved once per
+ * growth rate, each solve warm-started from the previous row's IRR.
+ */
+final class SensitivityGrid {
+
+    // Below this |1 - q| the series is n terms of ~1
+    private static final double UNIT_RATIO = 1e-12;
+
+    private SensitivityGrid() {
+    }
+
+    /**
+     * Metrics of the grid; NaN where they cannot be computed.
+     */
+    static final class Result {
+        // [growth][discount]
+        double[][] dcf;
+        double[][] marginOfSafety;
+        // [growth], in percent
+        double[] irr;
+    }
+
+    /**
+     * @param fcf             Current FCF per share
+     * @param price           Current price
+     * @param years           Projection years
+     * @param exitMultiple    P/FCF multiple of the IRR terminal value
+     * @param growth          Growth rates of the rows (decimal)
+     * @param perpetualGrowth Terminal growth of each row (decimal)
+     * @param discount        Discount rates of the columns (decimal)
+     */
+    static Result compute(double fcf, double price, int years, double exitMultiple, double[] growth,
+                          double[] perpetualGrowth, double[] discount) {
+        int rows = growth.length;
+        int columns = discount.length;
+        Result result = new Result();
+        result.dcf = new double[rows][columns];
+        result.marginOfSafety = new double[rows][columns];
+        result.irr = new double[rows];
+
+        // Discount tables: 1 / (1 + r) and 1 / (1 + r)^n per column
+        double[] inverseDiscount = new double[columns];
+        double[] inverseDiscountPower = new double[columns];
+        for (int i = 0; i < columns; i++) {
+            inverseDiscount[i] = 1 / (1 + discount[i]);
+            double power = 1;
+            for (int year = 0; year < years; year++) {
+                power *= inverseDiscount[i];
+            }
+            inverseDiscountPower[i] = power;
+        }
+
+        IrrSolver solver = new IrrSolver();
+        double irrGuess = Double.NaN;
+        for (int j = 0; j < rows; j++) {
+            double growthFactor = 1 + growth[j];
+            double growthPower = 1;
+            for (int year = 0; year < years; year++) {
+                growthPower *= growthFactor;
+            }
+            double lastFcf = fcf * growthPower;
+            double g = perpetualGrowth[j];
+
+            double[] dcfRow = result.dcf[j];
+            double[] marginRow = result.marginOfSafety[j];
+            for (int i = 0; i < columns; i++) {
+                if (!(fcf > 0 && years > 0 && discount[i] > g)) {
+                    dcfRow[i] = Double.NaN;
+                    marginRow[i] = Double.NaN;
+                    continue;
+                }
+                // sum_{y=1..n} q^y, with q^n read off the row and column tables
+                double q = growthFactor * inverseDiscount[i];
+                double series = Math.abs(1 - q) < UNIT_RATIO
+                        ? years
+                        : q * (1 - growthPower * inverseDiscountPower[i]) / (1 - q);
+                double terminalValue = lastFcf * (1 + g) / (discount[i] - g);
+                double dcf = ValuationKernel.round2(fcf * series + terminalValue * inverseDiscountPower[i]);
+                dcfRow[i] = dcf;
+                marginRow[i] = dcf > 0 ? (dcf - price) / dcf * 100 : Double.NaN;
+            }
+
+            if (price > 0 && years > 0) {
+                double[] cashFlows = solver.cashFlows(years);
+                double flow = fcf;
+                for (int year = 0; year < years; year++) {
+                    flow *= growthFactor;
+                    cashFlows[year] = flow;
+                }
+                cashFlows[years - 1] += flow * exitMultiple;
+                double irr = solver.solve(price, irrGuess);
+                result.irr[j] = irr * 100;
+                if (Double.isFinite(irr)) {
+                    irrGuess = irr;
+                }
+            } else {
+                result.irr[j] = Double.NaN;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,131 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.rafiki18.divtracker_be.config.properties.SymbolIndexProperties;
+import com.rafiki18.divtracker_be.dto.TickerSearchResult;
+import com.rafiki18.divtracker_be.marketdata.FinnhubClient;
+import com.rafiki18.divtracker_be.marketdata.FinnhubSymbol;
+import com.rafiki18.divtracker_be.marketdata.SymbolIndex;
+import com.rafiki18.divtracker_be.marketdata.SymbolIndexUpdatedEvent;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Owns the local symbol index.
+ *
+ * The index file is memory-mapped at startup and rebuilt in the background
+ * from the Finnhub symbol list once it is older than the configured age, so
+ * lookups do not call Finnhub. Without an index file (first start, or a
+ * {@code symbols.index.path} on ephemeral storage) it is built right after
+ * startup; until then lookups fall back to Finnhub.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SymbolIndexService {
+
+    private final FinnhubClient finnhubClient;
+    private final SymbolIndexProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile SymbolIndex index = SymbolIndex.empty();
+
+    @PostConstruct
+    void load() {
+        Path path = properties.getPath();
+        if (!Files.isRegularFile(path)) {
+            log.info("No symbol index at {}, it will be built after startup", path);
+            return;
+        }
+        try {
+            index = SymbolIndex.open(path);
+            log.info("Loaded symbol index: {} symbols built at {}", index.size(), index.getBuiltAt());
+        } catch (IOException e) {
+            log.warn("Could not load symbol index {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Symbols starting with {@code prefix}, in symbol order.
+     */
+    public List<TickerSearchResult> lookup(String prefix, int limit) {
+        return index.findByPrefix(prefix, limit);
+    }
+
+    public SymbolIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Build the index right away when none could be loaded, instead of waiting
+     * for the first scheduled check.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIfMissing() {
+        if (index.isEmpty() && finnhubClient.isEnabled()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Rebuild the index when it is missing or older than the configured age.
+     * Checked hourly; the download itself happens about once a day.
+     */
+    @Scheduled(fixedDelay = 3_600_000, initialDelay = 15_000)
+    public void refreshIfStale() {
+        SymbolIndex current = index;
+        boolean fresh = !current.isEmpty()
+                && current.getBuiltAt().isAfter(Instant.now().minus(properties.getRefreshAfter()));
+        if (fresh || !finnhubClient.isEnabled()) {
+            return;
+        }
+        rebuild();
+    }
+
+    /**
+     * Download the symbol list, write a new index file and swap it in.
+     * The current index keeps serving lookups if anything fails.
+     *
+     * @return true if a new index was installed
+     */
+    public boolean rebuild() {
+        if (!rebuildLock.tryLock()) {
+            log.debug("Symbol index rebuild already running, skipping");
+            return false;
+        }
+        try {
+            List<FinnhubSymbol> symbols = finnhubClient.fetchSymbols(properties.getExchange());
+            if (symbols.isEmpty()) {
+                log.warn("Finnhub returned no symbols for {}, keeping current index", properties.getExchange());
+                return false;
+            }
+            SymbolIndex.write(properties.getPath(), symbols, Instant.now());
+            index = SymbolIndex.open(properties.getPath());
+            log.info("Symbol index rebuilt: {} symbols for exchange {}", index.size(), properties.getExchange());
+            eventPublisher.publishEvent(new SymbolIndexUpdatedEvent(this, index));
+            return true;
+        } catch (IOException e) {
+            log.error("Failed to rebuild symbol index at {}", properties.getPath(), e);
+            return false;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+}
@@ -1,33 +1,69 @@
 package com.rafiki18.divtracker_be.service;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import com.rafiki18.divtracker_be.dto.TickerSearchResult;
 import com.rafiki18.divtracker_be.marketdata.FinnhubClient;
+import com.rafiki18.divtracker_be.marketdata.FinnhubEndpoint;
+import com.rafiki18.divtracker_be.marketdata.SymbolIndex;
+import com.rafiki18.divtracker_be.marketdata.SymbolIndexUpdatedEvent;
+import com.rafiki18.divtracker_be.marketdata.TickerSearchIndex;
+import com.rafiki18.divtracker_be.repository.WatchlistItemRepository;
+import com.rafiki18.divtracker_be.repository.WatchlistItemRepository.TickerWatchers;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Service for searching stock tickers and symbols.
- * Provides flexible search by company name or ticker symbol.
+ * Provides flexible search by company name or ticker symbol, served from
+ * local indexes built from the Finnhub symbol list.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TickerSearchService {
     
+    private static final int LOOKUP_LIMIT = 20;
+    private static final int SEARCH_LIMIT = 20;
+    private static final int FALLBACK_CACHE_SIZE = 1_000;
+    private static final Duration FALLBACK_TTL = Duration.ofHours(24);
+
     private final FinnhubClient finnhubClient;
+    private final SymbolIndexService symbolIndexService;
+    private final WatchlistItemRepository watchlistItemRepository;
+
+    private volatile TickerSearchIndex searchIndex = TickerSearchIndex.empty();
+    private volatile Map<String, Long> watchers = Map.of();
+
+    // Finnhub answers for queries with no local hit, least recently used evicted first
+    private final Map<String, CachedSearch> fallbackCache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedSearch> eldest) {
+            return size() > FALLBACK_CACHE_SIZE;
+        }
+    };
     
     /**
-     * Look up ticker symbols using exact symbol matching.
+     * Look up ticker symbols by symbol prefix.
      * Best for validating and finding variations of a specific ticker (e.g., BAM, BAM.A).
+     * Served from the local symbol index, without calling Finnhub; only while
+     * no index has been built yet are Finnhub search results filtered by prefix.
      *
      * @param query Ticker symbol to look up (e.g., "BAM", "AAPL")
-     * @return List of matching ticker symbols from US exchanges
+     * @return List of matching ticker symbols from US exchanges, limited to 20
      */
     public List<TickerSearchResult> lookupTicker(String query) {
         if (query == null || query.trim().isEmpty()) {
@@ -35,16 +71,14 @@ public class TickerSearchService {
             return Collections.emptyList();
         }
         
-        if (!finnhubClient.isEnabled()) {
-            log.warn("Finnhub is not enabled, ticker lookup unavailable");
-            return Collections.emptyList();
-        }
-        
         String normalizedQuery = query.trim();
         log.debug("Looking up ticker symbols for: {}", normalizedQuery);
         
-        List<TickerSearchResult> results = finnhubClient.lookupSymbol(normalizedQuery);
-        log.info("Found {} ticker symbols for lookup: {}", results.size(), normalizedQuery);
+        if (symbolIndexService.getIndex().isEmpty()) {
+            return lookupFinnhub(normalizedQuery);
+        }
+        List<TickerSearchResult> results = symbolIndexService.lookup(normalizedQuery, LOOKUP_LIMIT);
+        log.debug("Found {} ticker symbols for lookup: {}", results.size(), normalizedQuery);
         
         return results;
     }
@@ -52,8 +86,9 @@ public class TickerSearchService {
     /**
      * Search for tickers by query (company name or symbol).
      * Best for finding companies by name (e.g., "Apple" -> AAPL).
-     * Uses intelligent search: tries symbol lookup first (faster), 
-     * falls back to fuzzy search if no results (better coverage).
+     * Served by the local trigram index, ranked by match quality and by how
+     * many users watch each ticker. Only queries with no local hit go to
+     * Finnhub, and its non-empty answers are cached.
      *
      * @param query Search term (e.g., "Apple", "Microsoft", "TAP")
      * @return List of matching ticker results, limited to 20
@@ -64,28 +99,129 @@ public class TickerSearchService {
             return Collections.emptyList();
         }
         
-        if (!finnhubClient.isEnabled()) {
-            log.warn("Finnhub is not enabled, ticker search unavailable");
-            return Collections.emptyList();
-        }
-        
         String normalizedQuery = query.trim();
         log.debug("Searching tickers for query: {}", normalizedQuery);
         
-        // Use generic search directly (more efficient than downloading all symbols)
-        List<TickerSearchResult> results = finnhubClient.searchSymbols(normalizedQuery);
-        
-        log.info("Found {} ticker results for query: {}", results.size(), normalizedQuery);
+        Map<String, Long> popularity = watchers;
+        List<TickerSearchResult> results = searchIndex().search(normalizedQuery, SEARCH_LIMIT,
+                ticker -> popularity.getOrDefault(ticker, 0L));
+        if (!results.isEmpty()) {
+            log.debug("Found {} local ticker results for query: {}", results.size(), normalizedQuery);
+            return results;
+        }
         
-        return results;
+        if (!finnhubClient.isEnabled()) {
+            log.warn("Finnhub is not enabled, no local results for: {}", normalizedQuery);
+            return Collections.emptyList();
+        }
+        return searchFinnhub(normalizedQuery);
     }
     
     /**
      * Check if ticker search is available.
      *
-     * @return true if Finnhub is enabled
+     * @return true if Finnhub is enabled or a local symbol index is loaded
      */
     public boolean isAvailable() {
-        return finnhubClient.isEnabled();
+        return finnhubClient.isEnabled() || !symbolIndexService.getIndex().isEmpty();
+    }
+
+    /**
+     * Build the search index and load watcher counts once the application is up,
+     * so the first search does not pay for it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        refreshPopularity();
+        searchIndex();
+    }
+
+    @EventListener
+    public void onSymbolIndexUpdated(SymbolIndexUpdatedEvent event) {
+        searchIndex();
+    }
+
+    /**
+     * Reload how many users watch each ticker (popularity ranking).
+     */
+    @Scheduled(fixedDelay = 600_000, initialDelay = 600_000)
+    public void refreshPopularity() {
+        try {
+            watchers = watchlistItemRepository.countWatchersByTicker().stream()
+                    .collect(Collectors.toMap(TickerWatchers::getTicker, TickerWatchers::getWatchers, Long::sum));
+        } catch (Exception e) {
+            log.warn("Could not load watcher counts for ticker search: {}", e.getMessage());
+        }
+    }
+
+    private TickerSearchIndex searchIndex() {
+        SymbolIndex symbols = symbolIndexService.getIndex();
+        TickerSearchIndex current = searchIndex;
+        if (current.getSymbols() == symbols) {
+            return current;
+        }
+        synchronized (this) {
+            if (searchIndex.getSymbols() != symbols) {
+                long start = System.currentTimeMillis();
+                searchIndex = TickerSearchIndex.build(symbols);
+                log.info("Ticker search index built: {} symbols in {} ms",
+                        symbols.size(), System.currentTimeMillis() - start);
+            }
+            return searchIndex;
+        }
+    }
+
+    // No local index yet (first start or failed download)
+    private List<TickerSearchResult> lookupFinnhub(String query) {
+        if (!finnhubClient.isEnabled()) {
+            log.warn("Finnhub is not enabled and no symbol index is loaded, lookup unavailable for: {}", query);
+            return Collections.emptyList();
+        }
+        String prefix = query.toUpperCase(Locale.ROOT);
+        List<TickerSearchResult> results = searchFinnhub(query).stream()
+                .filter(result -> result.getSymbol().toUpperCase(Locale.ROOT).startsWith(prefix))
+                .limit(LOOKUP_LIMIT)
+                .toList();
+        log.debug("Symbol index not loaded, found {} Finnhub ticker symbols for lookup: {}", results.size(), query);
+        return results;
+    }
+
+    private List<TickerSearchResult> searchFinnhub(String query) {
+        String key = query.toUpperCase(Locale.ROOT);
+        Instant now = Instant.now();
+        boolean circuitOpen = finnhubClient.isCircuitOpen(FinnhubEndpoint.SEARCH);
+        synchronized (fallbackCache) {
+            CachedSearch cached = fallbackCache.get(key);
+            // While Finnhub search is failing fast, expired answers beat none
+            if (cached != null && (circuitOpen || cached.expiresAt.isAfter(now))) {
+                log.debug("Serving cached Finnhub results for query: {}", query);
+                return cached.results;
+            }
+        }
+        if (circuitOpen) {
+            return Collections.emptyList();
+        }
+        
+        List<TickerSearchResult> results = List.copyOf(finnhubClient.searchSymbols(query));
+        log.info("Found {} Finnhub ticker results for query: {}", results.size(), query);
+        if (results.isEmpty()) {
+            // The client turns upstream errors into empty results, so an empty answer
+            // may be a failed call rather than no match: never cache it
+            return results;
+        }
+        synchronized (fallbackCache) {
+            fallbackCache.put(key, new CachedSearch(results, now.plus(FALLBACK_TTL)));
+        }
+        return results;
+    }
+
+    private static final class CachedSearch {
+        private final List<TickerSearchResult> results;
+        private final Instant expiresAt;
+
+        CachedSearch(List<TickerSearchResult> results, Instant expiresAt) {
+            this.results = results;
+            this.expiresAt = expiresAt;
+        }
     }
 }
@@ -0,0 +1,159 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Inputs and metrics of many valuations, one primitive array per field
+ * (structure of arrays), valued together by
+ * {@link FinancialMetricsService#calculateValuations}. Add the items, value
+ * the batch, then read each item's metrics by the index {@link #add} returned.
+ *
+ * Not thread-safe; meant to be filled and read by one caller.
+ */
+public final class ValuationBatch {
+
+    // Inputs, indexed by item; NaN target price when there is none
+    double[] price;
+    double[] fcf;
+    double[] growth;
+    double[] perpetualGrowth;
+    double[] discount;
+    double[] exitMultiple;
+    double[] targetPrice;
+    int[] years;
+    UUID[] itemIds;
+
+    // Metrics, NaN when they cannot be computed; sized on valuation
+    double[] fcfYield = new double[0];
+    double[] dcf = new double[0];
+    double[] marginOfSafety = new double[0];
+    double[] paybackPeriod = new double[0];
+    double[] roi = new double[0];
+    double[] irr = new double[0];
+
+    private int size;
+    private boolean valued;
+
+    public ValuationBatch(int capacity) {
+        int initial = Math.max(capacity, 1);
+        price = new double[initial];
+        fcf = new double[initial];
+        growth = new double[initial];
+        perpetualGrowth = new double[initial];
+        discount = new double[initial];
+        exitMultiple = new double[initial];
+        targetPrice = new double[initial];
+        years = new int[initial];
+        itemIds = new UUID[initial];
+    }
+
+    /**
+     * Add one valuation with the same inputs as
+     * {@link FinancialMetricsService#calculateValuation}; only the target
+     * price and item id may be null.
+     *
+     * @param currentPrice Current market price
+     * @param fcfPerShare Annual free cash flow per share
+     * @param growthRate Expected annual FCF growth rate (as decimal)
+     * @param discountRate Required rate of return (as decimal)
+     * @param horizon Projection / investment horizon in years
+     * @param manualTargetPrice Manual target price, the ROI target when there is no DCF value (nullable)
+     * @param multiple P/FCF multiple for the terminal value of the IRR cash flows
+     * @param itemId Watchlist item id for the IRR warm start (nullable)
+     * @return Index of the item in the batch
+     */
+    public int add(BigDecimal currentPrice, BigDecimal fcfPerShare, BigDecimal growthRate,
+                   BigDecimal discountRate, int horizon, BigDecimal manualTargetPrice, BigDecimal multiple,
+                   UUID itemId) {
+        if (size == price.length) {
+            grow();
+        }
+        int index = size++;
+        price[index] = currentPrice.doubleValue();
+        fcf[index] = fcfPerShare.doubleValue();
+        growth[index] = growthRate.doubleValue();
+        perpetualGrowth[index] = FinancialMetricsService.perpetualGrowth(growthRate).doubleValue();
+        discount[index] = discountRate.doubleValue();
+        exitMultiple[index] = multiple.doubleValue();
+        targetPrice[index] = manualTargetPrice != null ? manualTargetPrice.doubleValue() : Double.NaN;
+        years[index] = horizon;
+        itemIds[index] = itemId;
+        valued = false;
+        return index;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Metrics of one item, at the scales of {@link FinancialMetricsService#calculateValuation}.
+     *
+     * @throws IllegalStateException if the batch changed since it was last valued
+     */
+    public ValuationMetrics metrics(int index) {
+        if (!valued) {
+            throw new IllegalStateException("Batch has not been valued");
+        }
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return ValuationMetrics.builder()
+                .fcfYield(FinancialMetricsService.toDecimal(fcfYield[index], 2))
+                .dcfFairValue(FinancialMetricsService.toDecimal(dcf[index], 2))
+                .marginOfSafety(FinancialMetricsService.toDecimal(marginOfSafety[index], 2))
+                .paybackPeriod(FinancialMetricsService.toDecimal(paybackPeriod[index], 1))
+                .estimatedRoi(FinancialMetricsService.toDecimal(roi[index], 2))
+                .estimatedIrr(FinancialMetricsService.toDecimal(irr[index], 2))
+                .build();
+    }
+
+    /**
+     * Size the metric arrays for the current items.
+     */
+    void prepareMetrics() {
+        if (fcfYield.length < size) {
+            fcfYield = new double[size];
+            dcf = new double[size];
+            marginOfSafety = new double[size];
+            paybackPeriod = new double[size];
+            roi = new double[size];
+            irr = new double[size];
+        }
+    }
+
+    /**
+     * Store metrics computed elsewhere (the BigDecimal reference).
+     */
+    void setMetrics(int index, ValuationMetrics metrics) {
+        fcfYield[index] = toDouble(metrics.getFcfYield());
+        dcf[index] = toDouble(metrics.getDcfFairValue());
+        marginOfSafety[index] = toDouble(metrics.getMarginOfSafety());
+        paybackPeriod[index] = toDouble(metrics.getPaybackPeriod());
+        roi[index] = toDouble(metrics.getEstimatedRoi());
+        irr[index] = toDouble(metrics.getEstimatedIrr());
+    }
+
+    void markValued() {
+        valued = true;
+    }
+
+    private void grow() {
+        int capacity = price.length * 2;
+        price = Arrays.copyOf(price, capacity);
+        fcf = Arrays.copyOf(fcf, capacity);
+        growth = Arrays.copyOf(growth, capacity);
+        perpetualGrowth = Arrays.copyOf(perpetualGrowth, capacity);
+        discount = Arrays.copyOf(discount, capacity);
+        exitMultiple = Arrays.copyOf(exitMultiple, capacity);
+        targetPrice = Arrays.copyOf(targetPrice, capacity);
+        years = Arrays.copyOf(years, capacity);
+        itemIds = Arrays.copyOf(itemIds, capacity);
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+}
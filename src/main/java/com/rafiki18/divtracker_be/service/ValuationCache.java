@@ -0,0 +1,241 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.rafiki18.divtracker_be.config.properties.ValuationProperties;
+import com.rafiki18.divtracker_be.marketdata.FundamentalsChangedEvent;
+import com.rafiki18.divtracker_be.model.InstrumentFundamentals;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded cache of watchlist valuations: the derived growth and discount
+ * rates, the price-independent {@link ValuationProjection} and the metrics
+ * at the last price seen. Keyed by the item parameters only, so every user
+ * watching a ticker with the same parameters shares an entry.
+ *
+ * Entries are grouped per ticker under the fundamentals data version they
+ * were computed from. A lookup with another version drops the ticker's group,
+ * and a {@link FundamentalsChangedEvent} drops it right away, so a valuation
+ * is never served for fundamentals other than its own. A price change keeps
+ * the entry: only the priced metrics are recalculated
+ * ({@link Valuation#metricsAt}). Tickers are evicted least recently used first.
+ */
+@Component
+@Slf4j
+public class ValuationCache {
+
+    private final boolean enabled;
+    private final int maxEntriesPerTicker;
+
+    // Least recently used evicted first
+    private final Map<String, TickerValuations> tickers;
+
+    public ValuationCache(ValuationProperties properties) {
+        this.enabled = properties.isCacheEnabled();
+        this.maxEntriesPerTicker = Math.max(1, properties.getCacheMaxEntriesPerTicker());
+        int maxTickers = Math.max(1, properties.getCacheMaxTickers());
+        this.tickers = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TickerValuations> eldest) {
+                return size() > maxTickers;
+            }
+        };
+    }
+
+    /**
+     * Cached valuation of a ticker for the given item parameters, calculated
+     * and stored on a miss.
+     *
+     * @param fundamentals Snapshot the valuation is based on (ticker and data version)
+     * @param growthRate   Item FCF growth rate (nullable, then derived from the fundamentals)
+     * @param discountRate Item discount rate (nullable, then derived from the fundamentals)
+     * @param horizon      Item investment horizon (nullable)
+     * @param targetPfcf   Item target P/FCF (nullable)
+     * @param targetPrice  Item target price (nullable)
+     * @param calculation  Price-independent valuation of the snapshot with these parameters
+     */
+    public Valuation get(InstrumentFundamentals fundamentals, BigDecimal growthRate, BigDecimal discountRate,
+                         Integer horizon, BigDecimal targetPfcf, BigDecimal targetPrice,
+                         Supplier<Valuation> calculation) {
+        String ticker = fundamentals.getTicker();
+        if (!enabled || ticker == null) {
+            return calculation.get();
+        }
+
+        long dataVersion = fundamentals.getDataVersion();
+        Parameters parameters = new Parameters(growthRate, discountRate, horizon, targetPfcf, targetPrice);
+        synchronized (tickers) {
+            TickerValuations cached = tickers.get(ticker);
+            if (cached != null && cached.dataVersion == dataVersion) {
+                Valuation valuation = cached.valuations.get(parameters);
+                if (valuation != null) {
+                    return valuation;
+                }
+            }
+        }
+
+        Valuation valuation = calculation.get();
+        synchronized (tickers) {
+            TickerValuations cached = tickers.get(ticker);
+            if (cached == null || cached.dataVersion != dataVersion) {
+                // Fundamentals moved on: the ticker's previous valuations are dropped
+                cached = new TickerValuations(dataVersion, maxEntriesPerTicker);
+                tickers.put(ticker, cached);
+            }
+            cached.valuations.put(parameters, valuation);
+        }
+        return valuation;
+    }
+
+    /**
+     * Drop the cached valuations of a ticker.
+     */
+    public void invalidate(String ticker) {
+        synchronized (tickers) {
+            tickers.remove(ticker.toUpperCase());
+        }
+    }
+
+    @EventListener
+    public void onFundamentalsChanged(FundamentalsChangedEvent event) {
+        log.debug("Fundamentals for {} changed (version {}), dropping cached valuations",
+                event.getTicker(), event.getDataVersion());
+        invalidate(event.getTicker());
+    }
+
+    /**
+     * Derived rates and price-independent stage of one valuation, with the
+     * metrics at the last price it was priced at.
+     */
+    public static final class Valuation {
+        @Getter
+        private final BigDecimal growthRate;
+        @Getter
+        private final BigDecimal discountRate;
+        @Getter
+        private final ValuationProjection projection;
+
+        private volatile Priced priced;
+
+        public Valuation(BigDecimal growthRate, BigDecimal discountRate, ValuationProjection projection) {
+            this.growthRate = growthRate;
+            this.discountRate = discountRate;
+            this.projection = projection;
+        }
+
+        /**
+         * Metrics at the given price, priced with {@code pricing} unless that
+         * was already the last price.
+         */
+        public ValuationMetrics metricsAt(BigDecimal price, Function<ValuationProjection, ValuationMetrics> pricing) {
+            ValuationMetrics metrics = pricedMetrics(price);
+            if (metrics == null) {
+                metrics = pricing.apply(projection);
+                setPricedMetrics(price, metrics);
+            }
+            return metrics;
+        }
+
+        /**
+         * Metrics at the given price if that was the last price, otherwise null.
+         */
+        public ValuationMetrics pricedMetrics(BigDecimal price) {
+            Priced last = priced;
+            return last != null && sameValue(last.price, price) ? last.metrics : null;
+        }
+
+        /**
+         * Remember metrics priced elsewhere, e.g. in a {@link ValuationBatch}.
+         */
+        public void setPricedMetrics(BigDecimal price, ValuationMetrics metrics) {
+            priced = new Priced(price, metrics);
+        }
+    }
+
+    private static final class Priced {
+        private final BigDecimal price;
+        private final ValuationMetrics metrics;
+
+        Priced(BigDecimal price, ValuationMetrics metrics) {
+            this.price = price;
+            this.metrics = metrics;
+        }
+    }
+
+    /**
+     * Valuations of one ticker, all computed from the same fundamentals version.
+     */
+    private static final class TickerValuations {
+        private final long dataVersion;
+        private final Map<Parameters, Valuation> valuations;
+
+        TickerValuations(long dataVersion, int maxEntries) {
+            this.dataVersion = dataVersion;
+            this.valuations = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Parameters, Valuation> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+    }
+
+    /**
+     * Item parameters of a valuation; decimals compare by value, so 0.1 and 0.10 share an entry.
+     */
+    private static final class Parameters {
+        private final BigDecimal growthRate;
+        private final BigDecimal discountRate;
+        private final Integer horizon;
+        private final BigDecimal targetPfcf;
+        private final BigDecimal targetPrice;
+
+        Parameters(BigDecimal growthRate, BigDecimal discountRate, Integer horizon,
+                   BigDecimal targetPfcf, BigDecimal targetPrice) {
+            this.growthRate = normalize(growthRate);
+            this.discountRate = normalize(discountRate);
+            this.horizon = horizon;
+            this.targetPfcf = normalize(targetPfcf);
+            this.targetPrice = normalize(targetPrice);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Parameters)) {
+                return false;
+            }
+            Parameters that = (Parameters) other;
+            return Objects.equals(growthRate, that.growthRate)
+                    && Objects.equals(discountRate, that.discountRate)
+                    && Objects.equals(horizon, that.horizon)
+                    && Objects.equals(targetPfcf, that.targetPfcf)
+                    && Objects.equals(targetPrice, that.targetPrice);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(growthRate, discountRate, horizon, targetPfcf, targetPrice);
+        }
+    }
+
+    private static BigDecimal normalize(BigDecimal value) {
+        return value != null ? value.stripTrailingZeros() : null;
+    }
+
+    private static boolean sameValue(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+}
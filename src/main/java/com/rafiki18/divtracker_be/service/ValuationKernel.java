@@ -0,0 +1,153 @@
+package com.rafiki18.divtracker_be.service;
+
+/**
+ * Primitive {@code double} implementation of the valuation metrics of
+ * {@link FinancialMetricsService}, in two stages:
+ * <ul>
+ *   <li>{@link #project}: everything that does not depend on the price, i.e.
+ *       the projected cash flows and the DCF fair value, computed once per
+ *       set of inputs;</li>
+ *   <li>{@link #price}: FCF yield, margin of safety, payback, ROI and IRR at
+ *       a given price, cheap enough to re-run on every price tick.</li>
+ * </ul>
+ *
+ * Follows the BigDecimal reference step by step (same guards, same payback
+ * interpolation, same {@link IrrSolver}), so results agree with it to the
+ * output scale up to rounding of the last digit. Metrics that cannot be
+ * computed are {@code NaN}.
+ */
+final class ValuationKernel {
+
+    static final int MAX_PAYBACK_YEARS = 50;
+
+    private ValuationKernel() {
+    }
+
+    /**
+     * Price-independent stage of one valuation; read-only once projected.
+     */
+    static final class Projection {
+        double fcf;
+        double growthFactor;
+        int years;
+        // Sum of the projected FCF over the horizon
+        double accumulated;
+        double dcf;
+        // IRR cash flows of years 1..years, the exit value included in the last one
+        double[] cashFlows = new double[0];
+    }
+
+    /**
+     * Metrics of one valuation at a price; reusable across calls.
+     */
+    static final class Result {
+        double fcfYield;
+        double dcf;
+        double marginOfSafety;
+        double paybackPeriod;
+        double roi;
+        double irr;
+        int irrIterations;
+
+        final IrrSolver irrSolver = new IrrSolver();
+    }
+
+    /**
+     * @param fcf             Current FCF per share
+     * @param growth          Annual FCF growth during the projection (decimal)
+     * @param perpetualGrowth Growth after the projection, for the terminal value (decimal)
+     * @param discount        Discount rate (decimal)
+     * @param years           Projection years
+     * @param exitMultiple    P/FCF multiple of the IRR terminal value
+     */
+    static void project(double fcf, double growth, double perpetualGrowth, double discount, int years,
+                        double exitMultiple, Projection out) {
+        double growthFactor = 1 + growth;
+        double discountFactor = 1 + discount;
+        int horizon = Math.max(years, 0);
+        if (out.cashFlows.length < horizon) {
+            out.cashFlows = new double[horizon];
+        }
+
+        // Projection: FCF_y = fcf * (1 + g)^y, discounted at (1 + r)^y
+        double projected = fcf;
+        double accumulated = 0;
+        double presentValue = 0;
+        double discountPower = 1;
+        for (int year = 1; year <= horizon; year++) {
+            projected *= growthFactor;
+            discountPower *= discountFactor;
+            accumulated += projected;
+            presentValue += projected / discountPower;
+            out.cashFlows[year - 1] = projected;
+        }
+        if (horizon > 0) {
+            out.cashFlows[horizon - 1] += projected * exitMultiple;
+        }
+
+        // DCF with Gordon growth terminal value; rounded like the stored value
+        // because margin of safety and ROI are derived from the rounded figure
+        if (fcf > 0 && horizon > 0 && discount > perpetualGrowth) {
+            double terminalValue = projected * (1 + perpetualGrowth) / (discount - perpetualGrowth);
+            out.dcf = round2(presentValue + terminalValue / discountPower);
+        } else {
+            out.dcf = Double.NaN;
+        }
+
+        out.fcf = fcf;
+        out.growthFactor = growthFactor;
+        out.years = horizon;
+        out.accumulated = accumulated;
+    }
+
+    /**
+     * @param projection  Price-independent stage
+     * @param price       Current price
+     * @param targetPrice ROI target when there is no DCF value; NaN to use the price
+     * @param irrGuess    Starting IRR (decimal), e.g. the previous one of the position; NaN for the default
+     */
+    static void price(Projection projection, double price, double targetPrice, double irrGuess, Result out) {
+        double fcf = projection.fcf;
+        int years = projection.years;
+
+        out.fcfYield = price > 0 ? fcf / price * 100 : Double.NaN;
+        out.dcf = projection.dcf;
+        out.marginOfSafety = out.dcf > 0 ? (out.dcf - price) / out.dcf * 100 : Double.NaN;
+
+        double roiTarget = !Double.isNaN(out.dcf) ? out.dcf : !Double.isNaN(targetPrice) ? targetPrice : price;
+        out.roi = price > 0 && years > 0 ? (roiTarget - price + projection.accumulated) / price * 100 : Double.NaN;
+
+        out.paybackPeriod = fcf > 0 ? payback(price, fcf, projection.growthFactor) : Double.NaN;
+        if (price > 0 && years > 0) {
+            System.arraycopy(projection.cashFlows, 0, out.irrSolver.cashFlows(years), 0, years);
+            out.irr = out.irrSolver.solve(price, irrGuess) * 100;
+            out.irrIterations = out.irrSolver.getIterations();
+        } else {
+            out.irr = Double.NaN;
+            out.irrIterations = 0;
+        }
+    }
+
+    /**
+     * Years of growing FCF needed to add up to the price, interpolated
+     * within the last year.
+     */
+    static double payback(double price, double fcf, double growthFactor) {
+        double cumulative = 0;
+        double yearly = fcf;
+        int years = 0;
+        while (cumulative < price && years < MAX_PAYBACK_YEARS) {
+            years++;
+            yearly *= growthFactor;
+            cumulative += yearly;
+        }
+        if (years >= MAX_PAYBACK_YEARS) {
+            return Double.NaN;
+        }
+        return years - 1 + (price - (cumulative - yearly)) / yearly;
+    }
+
+    static double round2(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
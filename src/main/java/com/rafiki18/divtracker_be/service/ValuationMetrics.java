@@ -0,0 +1,22 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.math.BigDecimal;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Valuation metrics of one position, at the scales exposed by the API.
+ * Metrics that cannot be computed from the inputs are null.
+ */
+@Getter
+@Builder
+public class ValuationMetrics {
+
+    private final BigDecimal fcfYield;
+    private final BigDecimal dcfFairValue;
+    private final BigDecimal marginOfSafety;
+    private final BigDecimal paybackPeriod;
+    private final BigDecimal estimatedRoi;
+    private final BigDecimal estimatedIrr;
+}
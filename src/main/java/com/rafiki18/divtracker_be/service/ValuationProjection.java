@@ -0,0 +1,42 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.math.BigDecimal;
+
+import lombok.Getter;
+
+/**
+ * Price-independent stage of a valuation, from
+ * {@link FinancialMetricsService#projectValuation}: the inputs, the DCF fair
+ * value and the projected cash flows. Immutable, so it can be cached and shared
+ * and priced again with {@link FinancialMetricsService#priceValuation} on
+ * every price change.
+ */
+public final class ValuationProjection {
+
+    @Getter
+    private final BigDecimal fcfPerShare;
+    @Getter
+    private final BigDecimal growthRate;
+    @Getter
+    private final BigDecimal discountRate;
+    @Getter
+    private final int years;
+    @Getter
+    private final BigDecimal exitMultiple;
+    @Getter
+    private final BigDecimal dcfFairValue;
+
+    // Null when priced with the BigDecimal reference
+    final ValuationKernel.Projection kernel;
+
+    ValuationProjection(BigDecimal fcfPerShare, BigDecimal growthRate, BigDecimal discountRate, int years,
+                        BigDecimal exitMultiple, BigDecimal dcfFairValue, ValuationKernel.Projection kernel) {
+        this.fcfPerShare = fcfPerShare;
+        this.growthRate = growthRate;
+        this.discountRate = discountRate;
+        this.years = years;
+        this.exitMultiple = exitMultiple;
+        this.dcfFairValue = dcfFairValue;
+        this.kernel = kernel;
+    }
+}
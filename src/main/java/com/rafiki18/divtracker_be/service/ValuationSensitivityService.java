@@ -0,0 +1,134 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import com.rafiki18.divtracker_be.dto.ValuationSensitivityRequest;
+import com.rafiki18.divtracker_be.dto.ValuationSensitivityResponse;
+import com.rafiki18.divtracker_be.dto.WatchlistItemResponse;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sensitivity of a watchlist item's valuation to its growth and discount
+ * rate assumptions, computed as one {@link SensitivityGrid} instead of a
+ * {@link FinancialMetricsService#calculateDCF} call per cell. Ranges default
+ * to the item's own (or derived) rates ± {@value #GROWTH_SPREAD} growth and
+ * ± {@value #DISCOUNT_SPREAD} discount, on 21 × 21 cells.
+ */
+@Service
+@Slf4j
+public class ValuationSensitivityService {
+
+    static final int DEFAULT_STEPS = 21;
+    static final int MAX_STEPS = 51;
+    static final double GROWTH_SPREAD = 0.05;
+    static final double DISCOUNT_SPREAD = 0.03;
+
+    private static final BigDecimal MIN_DISCOUNT = new BigDecimal("0.01");
+    private static final int RATE_SCALE = 4;
+
+    /**
+     * Sensitivity grid of an enriched watchlist item.
+     *
+     * @param item    Item enriched with market data (current price, FCF and the derived rates)
+     * @param request Ranges and steps (nullable, then all defaults)
+     * @throws IllegalArgumentException if the item has no price or FCF, or a range is invalid
+     */
+    public ValuationSensitivityResponse sensitivity(WatchlistItemResponse item, ValuationSensitivityRequest request) {
+        ValuationSensitivityRequest ranges = request != null ? request : new ValuationSensitivityRequest();
+        BigDecimal price = item.getCurrentPrice();
+        BigDecimal fcf = item.getFreeCashFlowPerShare();
+        if (price == null || fcf == null) {
+            throw new IllegalArgumentException(
+                    "Not enough market data for the sensitivity of " + item.getTicker()
+                            + ": a current price and an FCF per share are required");
+        }
+
+        BigDecimal growth = item.getEstimatedFcfGrowthRate() != null
+                ? item.getEstimatedFcfGrowthRate() : new BigDecimal("0.05");
+        BigDecimal discount = item.getDiscountRate() != null ? item.getDiscountRate() : new BigDecimal("0.10");
+        BigDecimal growthSpread = BigDecimal.valueOf(GROWTH_SPREAD);
+        BigDecimal discountSpread = BigDecimal.valueOf(DISCOUNT_SPREAD);
+
+        List<BigDecimal> growthRates = steps(
+                ranges.getGrowthMin() != null ? ranges.getGrowthMin() : growth.subtract(growthSpread),
+                ranges.getGrowthMax() != null ? ranges.getGrowthMax() : growth.add(growthSpread),
+                ranges.getGrowthSteps(), "growth");
+        List<BigDecimal> discountRates = steps(
+                ranges.getDiscountMin() != null ? ranges.getDiscountMin()
+                        : discount.subtract(discountSpread).max(MIN_DISCOUNT),
+                ranges.getDiscountMax() != null ? ranges.getDiscountMax() : discount.add(discountSpread),
+                ranges.getDiscountSteps(), "discount");
+
+        int years = item.getInvestmentHorizonYears() != null ? item.getInvestmentHorizonYears()
+                : FinancialMetricsService.DEFAULT_HORIZON_YEARS;
+        BigDecimal exitMultiple = item.getTargetPfcf() != null ? item.getTargetPfcf()
+                : FinancialMetricsService.DEFAULT_EXIT_MULTIPLE;
+
+        double[] growthValues = new double[growthRates.size()];
+        double[] perpetualGrowth = new double[growthRates.size()];
+        for (int j = 0; j < growthValues.length; j++) {
+            growthValues[j] = growthRates.get(j).doubleValue();
+            perpetualGrowth[j] = FinancialMetricsService.perpetualGrowth(growthRates.get(j)).doubleValue();
+        }
+        double[] discountValues = discountRates.stream().mapToDouble(BigDecimal::doubleValue).toArray();
+
+        SensitivityGrid.Result grid = SensitivityGrid.compute(fcf.doubleValue(), price.doubleValue(), years,
+                exitMultiple.doubleValue(), growthValues, perpetualGrowth, discountValues);
+        log.debug("Sensitivity grid for {}: {} x {}", item.getTicker(), growthValues.length, discountValues.length);
+
+        List<List<BigDecimal>> dcf = new ArrayList<>(growthValues.length);
+        List<List<BigDecimal>> marginOfSafety = new ArrayList<>(growthValues.length);
+        List<BigDecimal> irr = new ArrayList<>(growthValues.length);
+        for (int j = 0; j < growthValues.length; j++) {
+            dcf.add(toDecimals(grid.dcf[j]));
+            marginOfSafety.add(toDecimals(grid.marginOfSafety[j]));
+            irr.add(FinancialMetricsService.toDecimal(grid.irr[j], 2));
+        }
+
+        return ValuationSensitivityResponse.builder()
+                .id(item.getId())
+                .ticker(item.getTicker())
+                .currentPrice(price)
+                .freeCashFlowPerShare(fcf)
+                .investmentHorizonYears(years)
+                .growthRates(growthRates)
+                .discountRates(discountRates)
+                .dcfFairValue(dcf)
+                .marginOfSafety(marginOfSafety)
+                .estimatedIRR(irr)
+                .build();
+    }
+
+    /**
+     * Evenly spaced values from {@code min} to {@code max}, both included, at the rate scale.
+     */
+    private static List<BigDecimal> steps(BigDecimal min, BigDecimal max, Integer count, String name) {
+        int steps = count != null ? count : DEFAULT_STEPS;
+        if (steps < 2 || steps > MAX_STEPS) {
+            throw new IllegalArgumentException("Sensitivity " + name + " steps must be between 2 and " + MAX_STEPS);
+        }
+        if (min.compareTo(max) >= 0) {
+            throw new IllegalArgumentException("Sensitivity " + name + " range must have min below max");
+        }
+        BigDecimal step = max.subtract(min).divide(BigDecimal.valueOf(steps - 1L), 8, RoundingMode.HALF_UP);
+        List<BigDecimal> values = new ArrayList<>(steps);
+        for (int i = 0; i < steps; i++) {
+            values.add(min.add(step.multiply(BigDecimal.valueOf(i))).setScale(RATE_SCALE, RoundingMode.HALF_UP));
+        }
+        return values;
+    }
+
+    private static List<BigDecimal> toDecimals(double[] values) {
+        List<BigDecimal> decimals = new ArrayList<>(values.length);
+        for (double value : values) {
+            decimals.add(FinancialMetricsService.toDecimal(value, 2));
+        }
+        return decimals;
+    }
+}
@@ -0,0 +1,221 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.stereotype.Service;
+
+import com.rafiki18.divtracker_be.config.properties.ValuationProperties;
+import com.rafiki18.divtracker_be.dto.ValuationSimulationRequest;
+import com.rafiki18.divtracker_be.dto.ValuationSimulationResponse;
+import com.rafiki18.divtracker_be.dto.WatchlistItemResponse;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Monte Carlo DCF of a watchlist item with {@link MonteCarloDcf}: growth,
+ * discount rate and terminal multiple are drawn per path around the item's
+ * own (or derived) values, and the fair values are summarised as
+ * percentiles and the probability of the price being below them.
+ *
+ * Results are kept per input set (FCF, price, horizon, distributions,
+ * paths and seed) in a bounded LRU map, so repeating a request, or another
+ * user simulating the same ticker with the same inputs, is served without
+ * re-simulating. A price or FCF change is a different input set.
+ */
+@Service
+@Slf4j
+public class ValuationSimulationService {
+
+    static final long DEFAULT_SEED = 42L;
+    static final BigDecimal DEFAULT_GROWTH_STD_DEV = new BigDecimal("0.02");
+    static final BigDecimal DEFAULT_DISCOUNT_STD_DEV = new BigDecimal("0.01");
+    // Of the mean multiple
+    static final BigDecimal DEFAULT_MULTIPLE_STD_DEV_RATIO = new BigDecimal("0.20");
+
+    private final int defaultPaths;
+    private final int maxPaths;
+    private final int chunkSize;
+
+    // Least recently used evicted first
+    private final Map<Inputs, MonteCarloDcf.Result> results;
+
+    public ValuationSimulationService(ValuationProperties properties) {
+        this.defaultPaths = properties.getSimulationDefaultPaths();
+        this.maxPaths = properties.getSimulationMaxPaths();
+        this.chunkSize = properties.getSimulationChunkSize();
+        int maxEntries = Math.max(1, properties.getSimulationCacheMaxEntries());
+        this.results = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Inputs, MonteCarloDcf.Result> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Simulate the DCF of an enriched watchlist item.
+     *
+     * @param item    Item enriched with market data (current price, FCF and the derived rates)
+     * @param request Simulation parameters (nullable, then all defaults)
+     * @throws IllegalArgumentException if the item has no price or no positive FCF, or asks for too many paths
+     */
+    public ValuationSimulationResponse simulate(WatchlistItemResponse item, ValuationSimulationRequest request) {
+        ValuationSimulationRequest parameters = request != null ? request : new ValuationSimulationRequest();
+        BigDecimal price = item.getCurrentPrice();
+        BigDecimal fcf = item.getFreeCashFlowPerShare();
+        if (price == null || fcf == null || fcf.signum() <= 0) {
+            throw new IllegalArgumentException(
+                    "Not enough market data to simulate the valuation of " + item.getTicker()
+                            + ": a current price and a positive FCF per share are required");
+        }
+
+        int paths = parameters.getPaths() != null ? parameters.getPaths() : defaultPaths;
+        if (paths < 1 || paths > maxPaths) {
+            throw new IllegalArgumentException("Simulation paths must be between 1 and " + maxPaths);
+        }
+        int years = item.getInvestmentHorizonYears() != null ? item.getInvestmentHorizonYears()
+                : FinancialMetricsService.DEFAULT_HORIZON_YEARS;
+        long seed = parameters.getSeed() != null ? parameters.getSeed() : DEFAULT_SEED;
+
+        BigDecimal growthMean = item.getEstimatedFcfGrowthRate() != null
+                ? item.getEstimatedFcfGrowthRate() : new BigDecimal("0.05");
+        BigDecimal discountMean = item.getDiscountRate() != null ? item.getDiscountRate() : new BigDecimal("0.10");
+        BigDecimal multipleMean = item.getTargetPfcf() != null ? item.getTargetPfcf()
+                : FinancialMetricsService.DEFAULT_EXIT_MULTIPLE;
+        ValuationSimulationRequest.Distribution growth = resolve(parameters.getGrowthRate(), growthMean,
+                DEFAULT_GROWTH_STD_DEV);
+        ValuationSimulationRequest.Distribution discount = resolve(parameters.getDiscountRate(), discountMean,
+                DEFAULT_DISCOUNT_STD_DEV);
+        ValuationSimulationRequest.Distribution multiple = resolve(parameters.getTerminalMultiple(), multipleMean,
+                null);
+        if (multiple.getStdDev() == null) {
+            multiple.setStdDev(multiple.getMean().multiply(DEFAULT_MULTIPLE_STD_DEV_RATIO).abs()
+                    .setScale(4, RoundingMode.HALF_UP));
+        }
+
+        Inputs inputs = new Inputs(fcf.doubleValue(), price.doubleValue(), years,
+                growth.getMean().doubleValue(), growth.getStdDev().doubleValue(),
+                discount.getMean().doubleValue(), discount.getStdDev().doubleValue(),
+                multiple.getMean().doubleValue(), multiple.getStdDev().doubleValue(), paths, seed);
+        MonteCarloDcf.Result result = result(inputs);
+
+        Map<String, BigDecimal> percentiles = new LinkedHashMap<>();
+        for (int i = 0; i < MonteCarloDcf.PERCENTILES.length; i++) {
+            percentiles.put("p" + (int) MonteCarloDcf.PERCENTILES[i],
+                    FinancialMetricsService.toDecimal(result.percentiles[i], 2));
+        }
+
+        return ValuationSimulationResponse.builder()
+                .id(item.getId())
+                .ticker(item.getTicker())
+                .currentPrice(price)
+                .freeCashFlowPerShare(fcf)
+                .investmentHorizonYears(years)
+                .paths(paths)
+                .growthRate(growth)
+                .discountRate(discount)
+                .terminalMultiple(multiple)
+                .seed(seed)
+                .meanFairValue(FinancialMetricsService.toDecimal(result.mean, 2))
+                .fairValueStdDev(FinancialMetricsService.toDecimal(result.stdDev, 2))
+                .fairValuePercentiles(percentiles)
+                .probabilityUndervalued(FinancialMetricsService.toDecimal(result.probabilityUndervalued, 4))
+                .build();
+    }
+
+    private MonteCarloDcf.Result result(Inputs inputs) {
+        synchronized (results) {
+            MonteCarloDcf.Result cached = results.get(inputs);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        long start = System.nanoTime();
+        MonteCarloDcf.Result result = MonteCarloDcf.simulate(inputs.fcf, inputs.price, inputs.years,
+                new MonteCarloDcf.Distribution(inputs.growthMean, inputs.growthStdDev),
+                new MonteCarloDcf.Distribution(inputs.discountMean, inputs.discountStdDev),
+                new MonteCarloDcf.Distribution(inputs.multipleMean, inputs.multipleStdDev),
+                inputs.paths, inputs.seed, chunkSize);
+        log.debug("Simulated {} DCF paths in {} ms", inputs.paths, (System.nanoTime() - start) / 1_000_000);
+
+        synchronized (results) {
+            results.put(inputs, result);
+        }
+        return result;
+    }
+
+    /**
+     * Requested distribution with the item's mean and the default deviation filled in.
+     */
+    private static ValuationSimulationRequest.Distribution resolve(ValuationSimulationRequest.Distribution requested,
+                                                                   BigDecimal defaultMean, BigDecimal defaultStdDev) {
+        BigDecimal mean = requested != null && requested.getMean() != null ? requested.getMean() : defaultMean;
+        BigDecimal stdDev = requested != null && requested.getStdDev() != null ? requested.getStdDev() : defaultStdDev;
+        return new ValuationSimulationRequest.Distribution(mean, stdDev);
+    }
+
+    /**
+     * Everything a simulation result depends on.
+     */
+    private static final class Inputs {
+        final double fcf;
+        final double price;
+        final int years;
+        final double growthMean;
+        final double growthStdDev;
+        final double discountMean;
+        final double discountStdDev;
+        final double multipleMean;
+        final double multipleStdDev;
+        final int paths;
+        final long seed;
+
+        Inputs(double fcf, double price, int years, double growthMean, double growthStdDev, double discountMean,
+               double discountStdDev, double multipleMean, double multipleStdDev, int paths, long seed) {
+            this.fcf = fcf;
+            this.price = price;
+            this.years = years;
+            this.growthMean = growthMean;
+            this.growthStdDev = growthStdDev;
+            this.discountMean = discountMean;
+            this.discountStdDev = discountStdDev;
+            this.multipleMean = multipleMean;
+            this.multipleStdDev = multipleStdDev;
+            this.paths = paths;
+            this.seed = seed;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Inputs)) {
+                return false;
+            }
+            Inputs that = (Inputs) other;
+            return Double.compare(fcf, that.fcf) == 0
+                    && Double.compare(price, that.price) == 0
+                    && years == that.years
+                    && Double.compare(growthMean, that.growthMean) == 0
+                    && Double.compare(growthStdDev, that.growthStdDev) == 0
+                    && Double.compare(discountMean, that.discountMean) == 0
+                    && Double.compare(discountStdDev, that.discountStdDev) == 0
+                    && Double.compare(multipleMean, that.multipleMean) == 0
+                    && Double.compare(multipleStdDev, that.multipleStdDev) == 0
+                    && paths == that.paths
+                    && seed == that.seed;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fcf, price, years, growthMean, growthStdDev, discountMean, discountStdDev,
+                    multipleMean, multipleStdDev, paths, seed);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.rafiki18.divtracker_be.dto.WatchlistItemResponse;
+import com.rafiki18.divtracker_be.mapper.WatchlistMapper;
+import com.rafiki18.divtracker_be.marketdata.FundamentalsChangedEvent;
+import com.rafiki18.divtracker_be.marketdata.FundamentalsDeletedEvent;
+import com.rafiki18.divtracker_be.marketdata.PricesChangedEvent;
+import com.rafiki18.divtracker_be.model.InstrumentFundamentals;
+import com.rafiki18.divtracker_be.model.InstrumentPrice;
+import com.rafiki18.divtracker_be.model.WatchlistItem;
+import com.rafiki18.divtracker_be.model.WatchlistItemValuation;
+import com.rafiki18.divtracker_be.repository.InstrumentFundamentalsRepository;
+import com.rafiki18.divtracker_be.repository.InstrumentPriceRepository;
+import com.rafiki18.divtracker_be.repository.WatchlistItemRepository;
+import com.rafiki18.divtracker_be.repository.WatchlistItemValuationRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains the materialized valuation table (one row per watchlist item).
+ *
+ * Rows are written right away when an item is created or updated. Price and
+ * fundamentals changes (including deleted fundamentals, which leave the
+ * metrics NULL) only mark their ticker as pending; the scheduler
+ * revalues pending tickers in batches from cached data (no Finnhub calls),
+ * so a burst of trades for a ticker costs one revaluation of its items.
+ * Not to be confused with {@link WatchlistValuationService}, which enriches a
+ * single response with live Finnhub data.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WatchlistItemValuationService {
+
+    private final WatchlistItemValuationRepository valuationRepository;
+    private final WatchlistItemRepository watchlistItemRepository;
+    private final InstrumentFundamentalsRepository fundamentalsRepository;
+    private final InstrumentPriceRepository priceRepository;
+    private final WatchlistMapper watchlistMapper;
+
+    private final Set<String> pendingTickers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Store the metrics of an item that was just enriched (create/update path).
+     *
+     * @param fundamentals snapshot the response was enriched with, may be null
+     */
+    @Transactional
+    public void store(WatchlistItem item, WatchlistItemResponse response, InstrumentFundamentals fundamentals) {
+        WatchlistItemValuation row = valuationRepository.findById(item.getId()).orElse(null);
+        valuationRepository.save(toRow(row, item, response, fundamentals));
+    }
+
+    /**
+     * Revalue every item of the given tickers from the cached fundamentals and
+     * live prices, and rewrite their rows.
+     *
+     * @return number of rows written
+     */
+    @Transactional
+    public int revalue(Collection<String> tickers) {
+        if (tickers.isEmpty()) {
+            return 0;
+        }
+        List<WatchlistItem> items = watchlistItemRepository.findByTickerIn(tickers);
+        if (items.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, InstrumentPrice> prices = priceRepository.findByTickerIn(tickers).stream()
+                .collect(Collectors.toMap(InstrumentPrice::getTicker, Function.identity()));
+        Map<String, InstrumentFundamentals> fundamentals = new HashMap<>();
+        for (InstrumentFundamentals cached : fundamentalsRepository.findByTickerIn(tickers)) {
+            fundamentals.put(cached.getTicker(), cached.applyPrice(prices.get(cached.getTicker())));
+        }
+
+        List<WatchlistItemResponse> responses = items.stream().map(watchlistMapper::toResponse).toList();
+        watchlistMapper.enrichWithMarketData(responses, fundamentals);
+
+        Map<UUID, WatchlistItemValuation> existing = valuationRepository
+                .findAllById(items.stream().map(WatchlistItem::getId).toList()).stream()
+                .collect(Collectors.toMap(WatchlistItemValuation::getItemId, Function.identity()));
+        List<WatchlistItemValuation> rows = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            WatchlistItem item = items.get(i);
+            rows.add(toRow(existing.get(item.getId()), item, responses.get(i), fundamentals.get(item.getTicker())));
+        }
+        valuationRepository.saveAll(rows);
+        log.debug("Revalued {} watchlist items for {} tickers", rows.size(), tickers.size());
+        return rows.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFundamentalsChanged(FundamentalsChangedEvent event) {
+        markPending(List.of(event.getTicker()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFundamentalsDeleted(FundamentalsDeletedEvent event) {
+        markPending(event.getTickers());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPricesChanged(PricesChangedEvent event) {
+        markPending(event.getTickers());
+    }
+
+    /**
+     * Revalue everything once on startup: backfills items created before the
+     * table existed and catches up with changes made while the app was down.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        markPending(watchlistItemRepository.findDistinctTickers());
+    }
+
+    public void markPending(Collection<String> tickers) {
+        tickers.stream()
+                .filter(Objects::nonNull)
+                .map(ticker -> ticker.trim().toUpperCase())
+                .forEach(pendingTickers::add);
+    }
+
+    /**
+     * Take up to {@code max} pending tickers off the set.
+     */
+    public Set<String> drainPending(int max) {
+        Set<String> drained = new LinkedHashSet<>();
+        Iterator<String> iterator = pendingTickers.iterator();
+        while (iterator.hasNext() && drained.size() < max) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+        return drained;
+    }
+
+    public int pendingCount() {
+        return pendingTickers.size();
+    }
+
+    private WatchlistItemValuation toRow(WatchlistItemValuation row, WatchlistItem item,
+                                         WatchlistItemResponse response, InstrumentFundamentals fundamentals) {
+        if (row == null) {
+            row = WatchlistItemValuation.builder().itemId(item.getId()).build();
+        }
+        row.setUserId(item.getUserId());
+        row.setTicker(item.getTicker());
+        row.setCurrentPrice(response.getCurrentPrice());
+        row.setFcfYield(response.getFcfYield());
+        row.setDcfFairValue(response.getDcfFairValue());
+        row.setMarginOfSafety(response.getMarginOfSafety());
+        row.setEstimatedIrr(response.getEstimatedIRR());
+        row.setEstimatedRoi(response.getEstimatedROI());
+        row.setPaybackPeriod(response.getPaybackPeriod());
+        row.setUndervalued(response.getUndervalued());
+        row.setFundamentalsVersion(fundamentals != null ? fundamentals.getDataVersion() : null);
+        row.setPriceVersion(fundamentals != null ? fundamentals.getPriceVersion() : null);
+        return row;
+    }
+}
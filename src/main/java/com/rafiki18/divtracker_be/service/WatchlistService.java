@@ -1,14 +1,28 @@
 package com.rafiki18.divtracker_be.service;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.rafiki18.divtracker_be.dto.ValuationSensitivityRequest;
+import com.rafiki18.divtracker_be.dto.ValuationSensitivityResponse;
+import com.rafiki18.divtracker_be.dto.ValuationSimulationRequest;
+import com.rafiki18.divtracker_be.dto.ValuationSimulationResponse;
 import com.rafiki18.divtracker_be.dto.WatchlistItemRequest;
 import com.rafiki18.divtracker_be.dto.WatchlistItemResponse;
 import com.rafiki18.divtracker_be.exception.DuplicateTickerException;
@@ -16,6 +30,7 @@ import com.rafiki18.divtracker_be.exception.WatchlistItemNotFoundException;
 import com.rafiki18.divtracker_be.mapper.WatchlistMapper;
 import com.rafiki18.divtracker_be.marketdata.TickerAddedEvent;
 import com.rafiki18.divtracker_be.marketdata.TickerRemovedEvent;
+import com.rafiki18.divtracker_be.model.InstrumentFundamentals;
 import com.rafiki18.divtracker_be.model.WatchlistItem;
 import com.rafiki18.divtracker_be.repository.WatchlistItemRepository;
 
@@ -27,23 +42,97 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class WatchlistService {
     
+    // Campos calculados de la respuesta → propiedad de la valoración materializada
+    private static final Map<String, String> VALUATION_SORT_PROPERTIES = Map.of(
+            "currentPrice", "v.currentPrice",
+            "fcfYield", "v.fcfYield",
+            "dcfFairValue", "v.dcfFairValue",
+            "marginOfSafety", "v.marginOfSafety",
+            "estimatedIRR", "v.estimatedIrr",
+            "estimatedROI", "v.estimatedRoi",
+            "paybackPeriod", "v.paybackPeriod",
+            "undervalued", "v.undervalued");
+    
     private final WatchlistItemRepository watchlistItemRepository;
     private final WatchlistMapper watchlistMapper;
     private final MarketDataEnrichmentService marketDataEnrichmentService;
+    private final ValuationSimulationService valuationSimulationService;
+    private final ValuationSensitivityService valuationSensitivityService;
     private final ApplicationEventPublisher eventPublisher;
+    private final WatchlistItemValuationService itemValuationService;
+    private final PortfolioSummaryService portfolioSummaryService;
     
     /**
      * Lista todos los items del watchlist de un usuario con paginación
      */
     @Transactional(readOnly = true)
     public Page<WatchlistItemResponse> list(UUID userId, Pageable pageable) {
+        return list(userId, null, null, pageable);
+    }
+    
+    /**
+     * Lista los items del watchlist de un usuario con paginación, filtrando y
+     * ordenando en SQL por las métricas de la tabla de valoraciones materializada
+     *
+     * @param undervalued solo infravaloradas (true) o solo no infravaloradas (false); null no filtra
+     * @param minMarginOfSafety margen de seguridad mínimo (%); null no filtra
+     */
+    @Transactional(readOnly = true)
+    public Page<WatchlistItemResponse> list(UUID userId, Boolean undervalued, BigDecimal minMarginOfSafety,
+                                            Pageable pageable) {
         log.debug("Listing watchlist items for user: {}", userId);
-        Page<WatchlistItem> items = watchlistItemRepository.findAllByUserId(userId, pageable);
-        return items.map(item -> {
-            WatchlistItemResponse response = watchlistMapper.toResponse(item);
-            enrichWithMarketData(response);
-            return response;
-        });
+        Pageable valuationPageable = toValuationSort(pageable);
+        Page<WatchlistItem> items = undervalued == null && minMarginOfSafety == null && valuationPageable == null
+                ? watchlistItemRepository.findAllByUserId(userId, pageable)
+                : watchlistItemRepository.findAllByUserIdWithValuation(userId, undervalued, minMarginOfSafety,
+                        valuationPageable != null ? valuationPageable : pageable);
+        
+        // Una consulta de fundamentals y otra de precios para toda la página, sin esperar a
+        // Finnhub: los tickers desactualizados se refrescan en segundo plano
+        Map<String, InstrumentFundamentals> fundamentals = marketDataEnrichmentService.getCachedFundamentals(
+                items.map(WatchlistItem::getTicker).getContent());
+        List<WatchlistItemResponse> responses = items.getContent().stream()
+                .map(watchlistMapper::toResponse)
+                .toList();
+        
+        // Métricas de valoración de toda la página en un solo batch
+        watchlistMapper.enrichWithMarketData(responses, fundamentals);
+        return new PageImpl<>(responses, pageable, items.getTotalElements());
+    }
+    
+    /**
+     * ETag fuerte del listado: hash de los parámetros de la página y de las versiones
+     * de todos los items del usuario (updatedAt, fundamentals, precio y valoración).
+     * Una sola consulta de columnas escalares, sin enriquecer ni valorar, para poder
+     * responder 304 antes de construir la página
+     */
+    @Transactional(readOnly = true)
+    public String listETag(UUID userId, Boolean undervalued, BigDecimal minMarginOfSafety, Pageable pageable) {
+        StringBuilder key = new StringBuilder("list|").append(userId)
+                .append('|').append(pageable.getPageNumber())
+                .append('|').append(pageable.getPageSize())
+                .append('|').append(pageable.getSort())
+                .append('|').append(undervalued)
+                .append('|').append(minMarginOfSafety != null ? minMarginOfSafety.stripTrailingZeros().toPlainString() : null);
+        watchlistItemRepository.findVersionsByUserId(userId).forEach(versions -> appendVersions(key, versions));
+        return strongETag(key);
+    }
+    
+    /**
+     * ETag fuerte del detalle de un item, con las mismas versiones que el listado
+     *
+     * @throws WatchlistItemNotFoundException si el item no existe o es de otro usuario
+     */
+    @Transactional(readOnly = true)
+    public String itemETag(UUID userId, UUID id) {
+        WatchlistItemRepository.ItemVersions versions = watchlistItemRepository.findVersionsByUserIdAndId(userId, id)
+                .orElseThrow(() -> {
+                    log.warn("Watchlist item {} not found for user {}", id, userId);
+                    return new WatchlistItemNotFoundException(userId, id);
+                });
+        StringBuilder key = new StringBuilder("item|").append(userId);
+        appendVersions(key, versions);
+        return strongETag(key);
     }
     
     /**
@@ -155,6 +244,7 @@ public class WatchlistService {
         // Crear y guardar el item
         WatchlistItem item = watchlistMapper.toEntity(request, userId);
         WatchlistItem savedItem = watchlistItemRepository.save(item);
+        portfolioSummaryService.evict(userId);
         
         log.info("Created watchlist item {} for user {}", savedItem.getId(), userId);
         
@@ -166,8 +256,7 @@ public class WatchlistService {
             eventPublisher.publishEvent(new TickerAddedEvent(this, ticker));
         }
         
-        WatchlistItemResponse response = watchlistMapper.toResponse(savedItem);
-        enrichWithMarketData(response);
+        WatchlistItemResponse response = enrichAndStoreValuation(savedItem);
         log.info("FULL WATCHLIST ITEM RESPONSE for create {}: {}", normalizedTicker, response);
         return response;
     }
@@ -202,11 +291,10 @@ public class WatchlistService {
         
         // Guardar
         WatchlistItem updatedItem = watchlistItemRepository.save(item);
+        portfolioSummaryService.evict(userId);
         
         log.info("Updated watchlist item {} for user {}", id, userId);
-        WatchlistItemResponse response = watchlistMapper.toResponse(updatedItem);
-        enrichWithMarketData(response);
-        return response;
+        return enrichAndStoreValuation(updatedItem);
     }
     
     /**
@@ -226,6 +314,7 @@ public class WatchlistService {
         String ticker = item.getTicker().toUpperCase();
         
         watchlistItemRepository.delete(item);
+        portfolioSummaryService.evict(userId);
         log.info("Deleted watchlist item {} for user {}", id, userId);
         
         // Check if no users are tracking this ticker anymore
@@ -255,6 +344,73 @@ public class WatchlistService {
         return response;
     }
     
+    /**
+     * Simulación Monte Carlo del DCF de un item, con sus parámetros (o los derivados
+     * de los fundamentals) como media de las distribuciones
+     */
+    @Transactional(readOnly = true)
+    public ValuationSimulationResponse simulate(UUID userId, UUID id, ValuationSimulationRequest request) {
+        log.debug("Simulating valuation of watchlist item {} for user: {}", id, userId);
+        
+        WatchlistItem item = watchlistItemRepository.findByUserIdAndId(userId, id)
+                .orElseThrow(() -> {
+                    log.warn("Watchlist item {} not found for user {}", id, userId);
+                    return new WatchlistItemNotFoundException(userId, id);
+                });
+        
+        WatchlistItemResponse response = watchlistMapper.toResponse(item);
+        enrichWithMarketData(response);
+        return valuationSimulationService.simulate(response, request);
+    }
+    
+    /**
+     * Tabla de sensibilidad del DCF, margen de seguridad y TIR de un item a su
+     * crecimiento y tasa de descuento, sin modificar el item
+     */
+    @Transactional(readOnly = true)
+    public ValuationSensitivityResponse sensitivity(UUID userId, UUID id, ValuationSensitivityRequest request) {
+        log.debug("Computing valuation sensitivity of watchlist item {} for user: {}", id, userId);
+        
+        WatchlistItem item = watchlistItemRepository.findByUserIdAndId(userId, id)
+                .orElseThrow(() -> {
+                    log.warn("Watchlist item {} not found for user {}", id, userId);
+                    return new WatchlistItemNotFoundException(userId, id);
+                });
+        
+        WatchlistItemResponse response = watchlistMapper.toResponse(item);
+        enrichWithMarketData(response);
+        return valuationSensitivityService.sensitivity(response, request);
+    }
+    
+    /**
+     * Ordenamiento por campos calculados → propiedades de la valoración materializada
+     * (nulos al final); null si la página no ordena por ningún campo calculado
+     */
+    private Pageable toValuationSort(Pageable pageable) {
+        if (pageable.getSort().stream().noneMatch(order -> VALUATION_SORT_PROPERTIES.containsKey(order.getProperty()))) {
+            return null;
+        }
+        Sort sort = Sort.by(pageable.getSort().stream()
+                .map(order -> {
+                    String property = VALUATION_SORT_PROPERTIES.get(order.getProperty());
+                    return property != null ? order.withProperty(property).nullsLast() : order;
+                })
+                .collect(Collectors.toList()));
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+    
+    /**
+     * Enriquece un item recién creado o modificado y guarda su fila en la tabla
+     * de valoraciones materializada
+     */
+    private WatchlistItemResponse enrichAndStoreValuation(WatchlistItem item) {
+        WatchlistItemResponse response = watchlistMapper.toResponse(item);
+        InstrumentFundamentals fundamentals = marketDataEnrichmentService.getFundamentals(item.getTicker());
+        enrichWithMarketData(response, fundamentals);
+        itemValuationService.store(item, response, fundamentals);
+        return response;
+    }
+    
     /**
      * Enriquece la respuesta con datos de mercado y métricas financieras calculadas.
      */
@@ -263,8 +419,13 @@ public class WatchlistService {
             return;
         }
         
-        var fundamentals = marketDataEnrichmentService.getFundamentals(response.getTicker());
-        
+        enrichWithMarketData(response, marketDataEnrichmentService.getFundamentals(response.getTicker()));
+    }
+    
+    /**
+     * Enriquece la respuesta con fundamentals ya cargados (puede ser null).
+     */
+    private void enrichWithMarketData(WatchlistItemResponse response, InstrumentFundamentals fundamentals) {
         log.info("Enriching response for {}: fundamentals found={}", 
                 response.getTicker(), fundamentals != null);
 
@@ -272,4 +433,25 @@ public class WatchlistService {
             watchlistMapper.enrichWithMarketData(response, fundamentals);
         }
     }
+    
+    private static void appendVersions(StringBuilder key, WatchlistItemRepository.ItemVersions versions) {
+        key.append('|').append(versions.getId())
+                .append(',').append(versions.getUpdatedAt())
+                .append(',').append(versions.getFundamentalsVersion())
+                .append(',').append(versions.getPriceVersion())
+                .append(',').append(versions.getValuedAt());
+    }
+    
+    /**
+     * SHA-256 de la clave, truncado a 128 bits y entre comillas
+     */
+    private static String strongETag(CharSequence key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(key.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
@@ -12,6 +12,8 @@ import com.rafiki18.divtracker_be.marketdata.FinnhubClient;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
 @Service
 @RequiredArgsConstructor
@@ -29,9 +31,13 @@ public class WatchlistValuationService {
 
         String ticker = response.getTicker();
 
-        Optional<BigDecimal> currentPrice = finnhubClient.fetchCurrentPrice(ticker);
-        Optional<BigDecimal> fcfPerShare = finnhubClient.calculateFCF(ticker)
-                .map(fcfData -> fcfData.get("fcfPerShare"));
+        // Quote and cash flow requests run concurrently; one blocking wait for both
+        Tuple2<Optional<BigDecimal>, Optional<BigDecimal>> data = Mono.zip(
+                        optional(finnhubClient.currentPrice(ticker)),
+                        optional(finnhubClient.freeCashFlow(ticker).mapNotNull(fcfData -> fcfData.get("fcfPerShare"))))
+                .block();
+        Optional<BigDecimal> currentPrice = data.getT1();
+        Optional<BigDecimal> fcfPerShare = data.getT2();
 
         currentPrice.ifPresent(response::setCurrentPrice);
         fcfPerShare.ifPresent(response::setFreeCashFlowPerShare);
@@ -65,4 +71,8 @@ public class WatchlistValuationService {
 
         return response;
     }
+
+    private static <T> Mono<Optional<T>> optional(Mono<T> source) {
+        return source.map(Optional::of).defaultIfEmpty(Optional.empty());
+    }
 }
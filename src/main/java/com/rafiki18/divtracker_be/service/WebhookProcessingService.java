@@ -1,18 +1,15 @@
 package com.rafiki18.divtracker_be.service;
 
-import java.math.BigDecimal;
-import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.rafiki18.divtracker_be.model.MarketPriceTick;
-import com.rafiki18.divtracker_be.repository.InstrumentFundamentalsRepository;
-import com.rafiki18.divtracker_be.repository.MarketPriceTickRepository;
+import com.rafiki18.divtracker_be.marketdata.PriceTrade;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,17 +23,9 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class WebhookProcessingService {
 
-    private final MarketPriceTickRepository marketPriceTickRepository;
-    private final InstrumentFundamentalsRepository instrumentFundamentalsRepository;
-    
-    // Optional dependency - only injected when fcm.enabled=true
-    private PushNotificationService pushNotificationService;
-    
-    @Autowired(required = false)
-    public void setPushNotificationService(PushNotificationService pushNotificationService) {
-        this.pushNotificationService = pushNotificationService;
-        log.info("Push notification service enabled");
-    }
+    private static final String SOURCE = "FINNHUB_WEBHOOK";
+
+    private final PriceIngestionService priceIngestionService;
 
     /**
      * Processes the webhook payload asynchronously.
@@ -55,9 +44,10 @@ public class WebhookProcessingService {
 
     /**
      * Processes trade events from Finnhub webhook.
-     * For each trade:
+     * The whole payload is ingested as one batch:
      * 1. Saves to market_price_ticks table (historical record)
-     * 2. Updates currentPrice in instrument_fundamentals (for real-time display)
+     * 2. Updates the live price in instrument_prices with a conditional UPDATE
+     *    (older trades than the stored one are rejected)
      */
     @SuppressWarnings("unchecked")
     @Transactional
@@ -75,77 +65,22 @@ public class WebhookProcessingService {
             return;
         }
 
+        List<PriceTrade> trades = new ArrayList<>();
         for (Map<String, Object> trade : data) {
-            processSingleTrade(trade);
-        }
-    }
-
-    /**
-     * Process a single trade event.
-     * Only processes tickers that exist in our instrument_fundamentals table.
-     * This avoids storing data for tickers we don't track.
-     */
-    private void processSingleTrade(Map<String, Object> trade) {
-        try {
-            String symbol = (String) trade.get("s");
-            Object priceObj = trade.get("p");
-            Object timestampObj = trade.get("t");
-            Object volumeObj = trade.get("v");
-
-            if (symbol == null || priceObj == null || timestampObj == null) {
-                log.warn("Incomplete trade data: {}", trade);
-                return;
+            try {
+                PriceTrade.fromFinnhub(trade, SOURCE).ifPresentOrElse(
+                        trades::add,
+                        () -> log.warn("Incomplete trade data: {}", trade));
+            } catch (Exception e) {
+                log.error("Error processing trade data: {}", trade, e);
             }
+        }
 
-            String ticker = symbol.toUpperCase();
-            
-            // Only process tickers we track in our database
-            var fundamentalsOpt = instrumentFundamentalsRepository.findByTickerIgnoreCase(ticker);
-            if (fundamentalsOpt.isEmpty()) {
-                log.trace("Ignoring tick for untracked ticker: {}", ticker);
-                return;
-            }
-
-            BigDecimal price = new BigDecimal(priceObj.toString());
-            BigDecimal volume = volumeObj != null ? new BigDecimal(volumeObj.toString()) : null;
-            Instant tradeTimestamp = Instant.ofEpochMilli(Long.parseLong(timestampObj.toString()));
-
-            // 1. Save to market_price_ticks for historical record
-            MarketPriceTick tick = new MarketPriceTick();
-            tick.setTicker(ticker);
-            tick.setPrice(price);
-            tick.setVolume(volume);
-            tick.setTradeTimestamp(tradeTimestamp);
-            tick.setSource("FINNHUB_WEBHOOK");
-            tick.setReceivedAt(Instant.now());
-            
-            marketPriceTickRepository.save(tick);
-            log.debug("Saved price tick for {}: ${}", ticker, price);
-
-            // 2. Update currentPrice in instrument_fundamentals
-            var fundamentals = fundamentalsOpt.get();
-            BigDecimal oldPrice = fundamentals.getCurrentPrice();
-            fundamentals.setCurrentPrice(price);
-            
-            // Calculate daily change if we have old price
-            if (oldPrice != null && oldPrice.compareTo(BigDecimal.ZERO) > 0) {
-                BigDecimal change = price.subtract(oldPrice)
-                    .divide(oldPrice, 4, java.math.RoundingMode.HALF_UP)
-                    .multiply(new BigDecimal("100"));
-                fundamentals.setDailyChangePercent(change);
-            }
-            
-            instrumentFundamentalsRepository.save(fundamentals);
-            log.debug("Updated price for {}: {} -> {}", ticker, oldPrice, price);
-            
-            // 3. Send push notifications if enabled
-            if (pushNotificationService != null) {
-                BigDecimal changePercent = fundamentals.getDailyChangePercent();
-                pushNotificationService.sendPriceUpdateNotifications(ticker, price, oldPrice, changePercent);
-            }
-            
-        } catch (Exception e) {
-            log.error("Error processing trade data: {}", trade, e);
+        if (trades.isEmpty()) {
+            return;
         }
+
+        Set<String> updated = priceIngestionService.ingest(trades, ticker -> true);
+        log.debug("Webhook updated prices for {}", updated);
     }
 }
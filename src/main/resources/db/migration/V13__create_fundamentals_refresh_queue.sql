@@ -0,0 +1,22 @@
+-- V13: Persistent queue for the background fundamentals refresh
+-- Lets the refresher resume where it left off after a restart instead of
+-- recomputing everything from a daily cron
+
+CREATE TABLE fundamentals_refresh_queue (
+    ticker VARCHAR(12) PRIMARY KEY,
+    priority BIGINT NOT NULL DEFAULT 0,
+    reason VARCHAR(16) NOT NULL,
+    enqueued_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_attempt_at TIMESTAMP,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(500)
+);
+
+-- Drain order: highest priority first, oldest first on ties
+CREATE INDEX idx_refresh_queue_priority ON fundamentals_refresh_queue(priority DESC, enqueued_at);
+
+COMMENT ON TABLE fundamentals_refresh_queue IS 'Pending fundamentals refreshes, drained with the spare Finnhub budget';
+COMMENT ON COLUMN fundamentals_refresh_queue.priority IS 'Higher first: data quality boost plus staleness weighted by watcher count';
+COMMENT ON COLUMN fundamentals_refresh_queue.reason IS 'Why the ticker was enqueued: MISSING, PARTIAL, STALE or EXPIRED';
+COMMENT ON COLUMN fundamentals_refresh_queue.last_attempt_at IS 'Last failed attempt, used to back off before retrying';
+COMMENT ON COLUMN fundamentals_refresh_queue.attempts IS 'Number of failed attempts since the ticker was enqueued';
@@ -0,0 +1,31 @@
+-- V14: Move live price state out of instrument_fundamentals
+-- Every trade used to rewrite the wide fundamentals row and bump last_updated_at,
+-- making stale fundamentals look fresh. Prices now live in a narrow table whose
+-- only index is the primary key, so tick updates qualify as HOT updates.
+
+CREATE TABLE instrument_prices (
+    ticker VARCHAR(12) PRIMARY KEY,
+    current_price DECIMAL(19, 4),
+    daily_change_percent DECIMAL(10, 4),
+    previous_close DECIMAL(19, 4),
+    last_trade_at TIMESTAMPTZ,
+    source VARCHAR(32) NOT NULL DEFAULT 'FINNHUB',
+    version BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP
+) WITH (fillfactor = 70);
+
+-- Carry over the last known prices
+INSERT INTO instrument_prices (ticker, current_price, daily_change_percent, updated_at)
+SELECT ticker, current_price, daily_change_percent, last_updated_at
+FROM instrument_fundamentals
+WHERE current_price IS NOT NULL;
+
+ALTER TABLE instrument_fundamentals
+DROP COLUMN current_price,
+DROP COLUMN daily_change_percent;
+
+COMMENT ON TABLE instrument_prices IS 'Live price state per ticker, updated by trade ingestion and quotes';
+COMMENT ON COLUMN instrument_prices.daily_change_percent IS 'Change vs previous close (or vs last known price when no close is available)';
+COMMENT ON COLUMN instrument_prices.previous_close IS 'Previous session close from the Finnhub quote';
+COMMENT ON COLUMN instrument_prices.last_trade_at IS 'Timestamp of the trade or quote that set current_price';
+COMMENT ON COLUMN instrument_prices.version IS 'Incremented on every price change';
@@ -0,0 +1,26 @@
+-- V15: Change-only fundamentals refreshes
+-- Refreshes used to rewrite the whole row even when Finnhub returned the same
+-- values. Now only changed columns are written and each change is appended here;
+-- data_version lets caches tell whether their inputs changed.
+
+ALTER TABLE instrument_fundamentals
+ADD COLUMN data_version BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE fundamentals_change_log (
+    id BIGSERIAL PRIMARY KEY,
+    ticker VARCHAR(12) NOT NULL,
+    field VARCHAR(40) NOT NULL,
+    old_value VARCHAR(255),
+    new_value VARCHAR(255),
+    data_version BIGINT NOT NULL,
+    changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_fundamentals_change_log_ticker ON fundamentals_change_log(ticker, changed_at DESC);
+
+COMMENT ON TABLE fundamentals_change_log IS 'Append-only field-level history of fundamentals refreshes';
+COMMENT ON COLUMN fundamentals_change_log.field IS 'Entity field name that changed';
+COMMENT ON COLUMN fundamentals_change_log.old_value IS 'Previous value as text, NULL if it was missing';
+COMMENT ON COLUMN fundamentals_change_log.new_value IS 'New value as text, NULL if Finnhub no longer reports it';
+COMMENT ON COLUMN fundamentals_change_log.data_version IS 'instrument_fundamentals.data_version after the change';
+COMMENT ON COLUMN instrument_fundamentals.data_version IS 'Incremented whenever a refresh changes any fundamentals value';
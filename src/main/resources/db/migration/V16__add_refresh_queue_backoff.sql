@@ -0,0 +1,19 @@
+-- V16: Per-ticker backoff for failed fundamentals fetches
+-- Failed fetches (background or on-demand) stay queued with an exponential
+-- backoff that depends on the failure class; on-demand fetches are skipped
+-- while a ticker is backing off instead of hammering a failing upstream.
+
+ALTER TABLE fundamentals_refresh_queue
+ADD COLUMN last_failure VARCHAR(16),
+ADD COLUMN next_attempt_at TIMESTAMP;
+
+-- Tasks that already failed keep the previous flat 15 minute delay
+UPDATE fundamentals_refresh_queue
+SET next_attempt_at = last_attempt_at + INTERVAL '15 minutes'
+WHERE last_attempt_at IS NOT NULL;
+
+CREATE INDEX idx_refresh_queue_next_attempt ON fundamentals_refresh_queue(next_attempt_at);
+
+COMMENT ON COLUMN fundamentals_refresh_queue.reason IS 'Why the ticker was enqueued: MISSING, PARTIAL, STALE, EXPIRED or FAILED';
+COMMENT ON COLUMN fundamentals_refresh_queue.last_failure IS 'Class of the last failure: THROTTLED, TRANSIENT, NO_DATA or PLAN_LIMIT';
+COMMENT ON COLUMN fundamentals_refresh_queue.next_attempt_at IS 'Earliest retry; base delay of the failure class doubled per attempt';
@@ -0,0 +1,34 @@
+-- V17: Materialized valuation per watchlist item
+-- Valuation metrics used to exist only in memory, so the list endpoint could
+-- not sort, filter or paginate on them in SQL. Each item now has one row with
+-- its metrics at the last known price, rewritten when the item parameters,
+-- the ticker's fundamentals or its live price change.
+
+CREATE TABLE watchlist_item_valuations (
+    item_id UUID PRIMARY KEY REFERENCES watchlist_items(id) ON DELETE CASCADE,
+    user_id UUID NOT NULL,
+    ticker VARCHAR(12) NOT NULL,
+    current_price DECIMAL(19, 4),
+    fcf_yield DECIMAL(19, 4),
+    dcf_fair_value DECIMAL(19, 4),
+    margin_of_safety DECIMAL(19, 4),
+    estimated_irr DECIMAL(19, 4),
+    estimated_roi DECIMAL(19, 4),
+    payback_period DECIMAL(19, 4),
+    undervalued BOOLEAN,
+    fundamentals_version BIGINT,
+    price_version BIGINT,
+    valued_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Per-user sort keys of the list endpoint, and the ticker for incremental updates
+CREATE INDEX idx_item_valuations_user_margin ON watchlist_item_valuations(user_id, margin_of_safety);
+CREATE INDEX idx_item_valuations_user_dcf ON watchlist_item_valuations(user_id, dcf_fair_value);
+CREATE INDEX idx_item_valuations_user_irr ON watchlist_item_valuations(user_id, estimated_irr);
+CREATE INDEX idx_item_valuations_user_fcf_yield ON watchlist_item_valuations(user_id, fcf_yield);
+CREATE INDEX idx_item_valuations_ticker ON watchlist_item_valuations(ticker);
+
+COMMENT ON TABLE watchlist_item_valuations IS 'Valuation metrics per watchlist item at the last known price; missing rows are backfilled on startup';
+COMMENT ON COLUMN watchlist_item_valuations.margin_of_safety IS 'Margin of safety vs the DCF fair value (%), NULL without price or FCF';
+COMMENT ON COLUMN watchlist_item_valuations.fundamentals_version IS 'instrument_fundamentals.data_version the row was computed from';
+COMMENT ON COLUMN watchlist_item_valuations.price_version IS 'instrument_prices.version the row was computed from';
@@ -11,8 +11,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -83,6 +85,57 @@ class AdminControllerIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("Refresh Queue Status Endpoint Tests")
+    class RefreshQueueStatusTests {
+
+        @Test
+        @DisplayName("Should return 401 without authentication")
+        void shouldReturnUnauthorizedWithoutAuth() throws Exception {
+            mockMvc.perform(get("/api/v1/admin/refresh-queue"))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        @Test
+        @DisplayName("Should return backlog and ETA with valid authentication")
+        void shouldReturnQueueStatusWithValidAuth() throws Exception {
+            mockMvc.perform(get("/api/v1/admin/refresh-queue")
+                            .header("Authorization", "Bearer " + validToken))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.backlog").isNumber())
+                    .andExpect(jsonPath("$.ready").isNumber())
+                    .andExpect(jsonPath("$.refreshesPerMinute").value(10.0));
+        }
+    }
+
+    @Nested
+    @DisplayName("Finnhub Payload Capture Endpoint Tests")
+    class PayloadCaptureTests {
+
+        @Test
+        @DisplayName("Should return 401 without authentication")
+        void shouldReturnUnauthorizedWithoutAuth() throws Exception {
+            mockMvc.perform(get("/api/v1/admin/finnhub-capture"))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        @Test
+        @DisplayName("Should update capture filters with valid authentication")
+        void shouldUpdateCaptureSettings() throws Exception {
+            mockMvc.perform(post("/api/v1/admin/finnhub-capture")
+                            .param("enabled", "false")
+                            .param("endpoints", "METRICS")
+                            .param("tickers", "aapl")
+                            .param("samplesPerMinute", "5")
+                            .header("Authorization", "Bearer " + validToken))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.enabled").value(false))
+                    .andExpect(jsonPath("$.endpoints[0]").value("METRICS"))
+                    .andExpect(jsonPath("$.tickers[0]").value("AAPL"))
+                    .andExpect(jsonPath("$.samplesPerMinute").value(5));
+        }
+    }
+
     @Nested
     @DisplayName("Cleanup Old Fundamentals Endpoint Tests")
     class CleanupOldFundamentalsTests {
@@ -21,8 +21,10 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.rafiki18.divtracker_be.model.InstrumentFundamentals;
+import com.rafiki18.divtracker_be.model.InstrumentPrice;
 import com.rafiki18.divtracker_be.model.MarketPriceTick;
 import com.rafiki18.divtracker_be.repository.InstrumentFundamentalsRepository;
+import com.rafiki18.divtracker_be.repository.InstrumentPriceRepository;
 import com.rafiki18.divtracker_be.repository.MarketPriceTickRepository;
 
 @SpringBootTest
@@ -43,6 +45,9 @@ class FinnhubWebhookControllerIntegrationTest {
     @Autowired
     private InstrumentFundamentalsRepository instrumentFundamentalsRepository;
 
+    @Autowired
+    private InstrumentPriceRepository instrumentPriceRepository;
+
     @Value("${finnhub.webhook-secret}")
     private String webhookSecret;
 
@@ -52,12 +57,14 @@ class FinnhubWebhookControllerIntegrationTest {
     @BeforeEach
     void setUp() {
         marketPriceTickRepository.deleteAll();
+        instrumentPriceRepository.deleteAll();
         instrumentFundamentalsRepository.deleteAll();
     }
 
     @AfterEach
     void tearDown() {
         marketPriceTickRepository.deleteAll();
+        instrumentPriceRepository.deleteAll();
         instrumentFundamentalsRepository.deleteAll();
     }
 
@@ -153,7 +160,7 @@ class FinnhubWebhookControllerIntegrationTest {
                     .andExpect(status().isOk());
 
             // Give async processing time to complete
-            Thread.sleep(100);
+            waitForAsyncProcessing(1);
 
             List<MarketPriceTick> ticks = marketPriceTickRepository.findAll();
             assertThat(ticks).hasSize(1);
@@ -193,7 +200,7 @@ class FinnhubWebhookControllerIntegrationTest {
                     .andExpect(status().isOk());
 
             // Give async processing time to complete
-            Thread.sleep(100);
+            waitForAsyncProcessing(3);
 
             List<MarketPriceTick> ticks = marketPriceTickRepository.findAll();
             assertThat(ticks).hasSize(3);
@@ -225,7 +232,7 @@ class FinnhubWebhookControllerIntegrationTest {
                     .andExpect(status().isOk());
 
             // Give async processing time to complete
-            Thread.sleep(100);
+            waitForAsyncProcessing(1);
 
             // Only AAPL should be saved
             List<MarketPriceTick> ticks = marketPriceTickRepository.findAll();
@@ -248,7 +255,7 @@ class FinnhubWebhookControllerIntegrationTest {
                     .content(payload))
                     .andExpect(status().isOk());
 
-            Thread.sleep(100);
+            waitForAsyncProcessing(1);
 
             List<MarketPriceTick> ticks = marketPriceTickRepository.findAll();
             assertThat(ticks).hasSize(1);
@@ -275,7 +282,7 @@ class FinnhubWebhookControllerIntegrationTest {
                     .content(payload))
                     .andExpect(status().isOk());
 
-            Thread.sleep(100);
+            waitForAsyncProcessing(1);
 
             List<MarketPriceTick> ticks = marketPriceTickRepository.findAll();
             assertThat(ticks).hasSize(1);
@@ -327,7 +334,7 @@ class FinnhubWebhookControllerIntegrationTest {
                     .content(payload))
                     .andExpect(status().isOk());
 
-            Thread.sleep(100);
+            waitForAsyncProcessing(1);
 
             // Only the complete MSFT trade should be saved (AAPL missing price, second missing symbol)
             List<MarketPriceTick> ticks = marketPriceTickRepository.findAll();
@@ -347,10 +354,12 @@ class FinnhubWebhookControllerIntegrationTest {
             InstrumentFundamentals fundamentals = InstrumentFundamentals.builder()
                     .ticker("AAPL")
                     .companyName("Apple Inc")
-                    .currentPrice(new BigDecimal("170.00"))
                     .currency("USD")
                     .build();
             instrumentFundamentalsRepository.save(fundamentals);
+            savePrice("AAPL", new BigDecimal("170.00"));
+            var fundamentalsUpdatedAt = instrumentFundamentalsRepository.findByTickerIgnoreCase("AAPL")
+                    .orElseThrow().getLastUpdatedAt();
 
             // Send webhook with new price
             String payload = createTradePayload("AAPL", 175.50, 1732285432000L, 1000);
@@ -365,9 +374,13 @@ class FinnhubWebhookControllerIntegrationTest {
             waitForAsyncProcessing(1);
             Thread.sleep(200); // Extra time for DB update
 
-            // Verify price was updated
-            InstrumentFundamentals updated = instrumentFundamentalsRepository.findByTickerIgnoreCase("AAPL").orElseThrow();
+            // Verify live price was updated
+            InstrumentPrice updated = instrumentPriceRepository.findById("AAPL").orElseThrow();
             assertThat(updated.getCurrentPrice()).isEqualByComparingTo(new BigDecimal("175.50"));
+
+            // Ticks must not make fundamentals look fresh
+            assertThat(instrumentFundamentalsRepository.findByTickerIgnoreCase("AAPL").orElseThrow().getLastUpdatedAt())
+                    .isEqualTo(fundamentalsUpdatedAt);
         }
 
         @Test
@@ -377,10 +390,10 @@ class FinnhubWebhookControllerIntegrationTest {
             InstrumentFundamentals fundamentals = InstrumentFundamentals.builder()
                     .ticker("AAPL")
                     .companyName("Apple Inc")
-                    .currentPrice(new BigDecimal("100.00"))
                     .currency("USD")
                     .build();
             instrumentFundamentalsRepository.save(fundamentals);
+            savePrice("AAPL", new BigDecimal("100.00"));
 
             // Send webhook with 10% higher price
             String payload = createTradePayload("AAPL", 110.00, 1732285432000L, 1000);
@@ -395,11 +408,39 @@ class FinnhubWebhookControllerIntegrationTest {
             waitForAsyncProcessing(1);
             Thread.sleep(200); // Extra time for DB update
 
-            InstrumentFundamentals updated = instrumentFundamentalsRepository.findByTickerIgnoreCase("AAPL").orElseThrow();
+            InstrumentPrice updated = instrumentPriceRepository.findById("AAPL").orElseThrow();
             // Change should be (110 - 100) / 100 * 100 = 10%
             assertThat(updated.getDailyChangePercent()).isEqualByComparingTo(new BigDecimal("10.0000"));
         }
 
+        @Test
+        @DisplayName("Should keep the newer price when an older trade arrives later")
+        void shouldRejectOutOfOrderTrade() throws Exception {
+            createFundamentalsForTicker("AAPL");
+
+            mockMvc.perform(post(WEBHOOK_ENDPOINT)
+                    .header(SECRET_HEADER, webhookSecret)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(createTradePayload("AAPL", 175.50, 1732285433000L, 1000)))
+                    .andExpect(status().isOk());
+            waitForAsyncProcessing(1);
+
+            // Older trade delivered after the newer one
+            mockMvc.perform(post(WEBHOOK_ENDPOINT)
+                    .header(SECRET_HEADER, webhookSecret)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(createTradePayload("AAPL", 170.00, 1732285432000L, 1000)))
+                    .andExpect(status().isOk());
+            waitForAsyncProcessing(2);
+            Thread.sleep(200); // Extra time for DB update
+
+            // Both ticks are kept as history, the live price is not rolled back
+            InstrumentPrice price = instrumentPriceRepository.findById("AAPL").orElseThrow();
+            assertThat(price.getCurrentPrice()).isEqualByComparingTo(new BigDecimal("175.50"));
+            assertThat(price.getLastTradeAt().toEpochMilli()).isEqualTo(1732285433000L);
+            assertThat(price.getVersion()).isEqualTo(1L);
+        }
+
         @Test
         @DisplayName("Should ignore ticks for untracked tickers (not in fundamentals)")
         void shouldIgnoreTicksForUntrackedTickers() throws Exception {
@@ -427,10 +468,10 @@ class FinnhubWebhookControllerIntegrationTest {
             InstrumentFundamentals fundamentals = InstrumentFundamentals.builder()
                     .ticker("AAPL")
                     .companyName("Apple Inc")
-                    .currentPrice(new BigDecimal("170.00"))
                     .currency("USD")
                     .build();
             instrumentFundamentalsRepository.save(fundamentals);
+            savePrice("AAPL", new BigDecimal("170.00"));
 
             // Send webhook with lowercase ticker
             String payload = createTradePayload("aapl", 175.50, 1732285432000L, 1000);
@@ -445,8 +486,8 @@ class FinnhubWebhookControllerIntegrationTest {
             waitForAsyncProcessing(1);
             Thread.sleep(200); // Extra time for DB update
 
-            // Should still update the fundamentals
-            InstrumentFundamentals updated = instrumentFundamentalsRepository.findByTickerIgnoreCase("AAPL").orElseThrow();
+            // Should still update the live price
+            InstrumentPrice updated = instrumentPriceRepository.findById("AAPL").orElseThrow();
             assertThat(updated.getCurrentPrice()).isEqualByComparingTo(new BigDecimal("175.50"));
         }
     }
@@ -517,6 +558,13 @@ class FinnhubWebhookControllerIntegrationTest {
             """, symbol, price, timestamp, volume);
     }
 
+    private void savePrice(String ticker, BigDecimal price) {
+        instrumentPriceRepository.save(InstrumentPrice.builder()
+                .ticker(ticker)
+                .currentPrice(price)
+                .build());
+    }
+
     /**
      * Helper method to create instrument fundamentals for a ticker.
      * This is needed because only tracked tickers (with fundamentals) get price ticks saved.
@@ -525,9 +573,9 @@ class FinnhubWebhookControllerIntegrationTest {
         InstrumentFundamentals fundamentals = InstrumentFundamentals.builder()
                 .ticker(ticker)
                 .companyName(ticker + " Company")
-                .currentPrice(new BigDecimal("100.00"))
                 .currency("USD")
                 .build();
         instrumentFundamentalsRepository.save(fundamentals);
+        savePrice(ticker, new BigDecimal("100.00"));
     }
 }
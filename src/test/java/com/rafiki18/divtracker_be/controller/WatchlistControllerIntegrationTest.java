@@ -5,6 +5,7 @@ import java.util.UUID;
 
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.not;
@@ -14,6 +15,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
@@ -22,6 +24,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -383,4 +386,78 @@ class WatchlistControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content", hasSize(10)));
     }
+    
+    @Test
+    @DisplayName("GET /api/v1/watchlist - Debe devolver 304 con If-None-Match mientras el watchlist no cambie")
+    void testListWatchlistItems_ConditionalGet() throws Exception {
+        // Arrange
+        watchlistItemRepository.save(WatchlistItem.builder()
+                .userId(testUserId)
+                .ticker("AAPL")
+                .targetPrice(new BigDecimal("150.00"))
+                .build());
+        
+        String eTag = mockMvc.perform(get("/api/v1/watchlist")
+                .header("Authorization", "Bearer " + testUserToken))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        
+        // Act & Assert - Sin cambios
+        mockMvc.perform(get("/api/v1/watchlist")
+                .header("Authorization", "Bearer " + testUserToken)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+        
+        // Act & Assert - Otra página no comparte ETag
+        mockMvc.perform(get("/api/v1/watchlist")
+                .header("Authorization", "Bearer " + testUserToken)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .param("size", "5"))
+                .andExpect(status().isOk());
+        
+        // Act & Assert - Nuevo item
+        watchlistItemRepository.save(WatchlistItem.builder()
+                .userId(testUserId)
+                .ticker("MSFT")
+                .targetPrice(new BigDecimal("300.00"))
+                .build());
+        mockMvc.perform(get("/api/v1/watchlist")
+                .header("Authorization", "Bearer " + testUserToken)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(equalTo(eTag))))
+                .andExpect(jsonPath("$.content", hasSize(2)));
+    }
+    
+    @Test
+    @DisplayName("GET /api/v1/watchlist/{id} - Debe devolver 304 con If-None-Match si el item no cambió")
+    void testGetWatchlistItemById_ConditionalGet() throws Exception {
+        // Arrange
+        WatchlistItem savedItem = watchlistItemRepository.save(WatchlistItem.builder()
+                .userId(testUserId)
+                .ticker("AAPL")
+                .targetPrice(new BigDecimal("150.00"))
+                .build());
+        
+        String eTag = mockMvc.perform(get("/api/v1/watchlist/" + savedItem.getId())
+                .header("Authorization", "Bearer " + testUserToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/watchlist/" + savedItem.getId())
+                .header("Authorization", "Bearer " + testUserToken)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        
+        // Act & Assert - El ETag no sirve para el item de otro usuario
+        mockMvc.perform(get("/api/v1/watchlist/" + savedItem.getId())
+                .header("Authorization", "Bearer " + otherUserToken)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotFound());
+    }
 }
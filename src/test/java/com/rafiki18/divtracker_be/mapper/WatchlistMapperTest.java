@@ -1,26 +1,38 @@
 package com.rafiki18.divtracker_be.mapper;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import static org.mockito.Mockito.when;
+import org.mockito.Spy;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.rafiki18.divtracker_be.config.properties.ValuationProperties;
 import com.rafiki18.divtracker_be.dto.WatchlistItemResponse;
 import com.rafiki18.divtracker_be.model.InstrumentFundamentals;
 import com.rafiki18.divtracker_be.service.FinancialMetricsService;
+import com.rafiki18.divtracker_be.service.ValuationCache;
+import com.rafiki18.divtracker_be.service.ValuationMetrics;
 
 @ExtendWith(MockitoExtension.class)
 class WatchlistMapperTest {
 
-    @Mock
-    private FinancialMetricsService financialMetricsService;
+    @Spy
+    private FinancialMetricsService financialMetricsService = new FinancialMetricsService();
+
+    @Spy
+    private ValuationCache valuationCache = new ValuationCache(new ValuationProperties());
 
     @InjectMocks
     private WatchlistMapper mapper;
@@ -48,8 +60,9 @@ class WatchlistMapperTest {
         // Arrange
         BigDecimal dcfValue = new BigDecimal("120.00"); // Higher than current price (100)
         
-        when(financialMetricsService.calculateDCF(any(), any(), any(), any()))
-                .thenReturn(dcfValue);
+        doReturn(ValuationMetrics.builder().dcfFairValue(dcfValue).build())
+                .when(financialMetricsService)
+                .priceValuation(any(), any(), any(), any());
         
         // Act
         mapper.enrichWithMarketData(response, fundamentals);
@@ -64,8 +77,9 @@ class WatchlistMapperTest {
         // Arrange
         BigDecimal dcfValue = new BigDecimal("80.00"); // Lower than current price (100)
         
-        when(financialMetricsService.calculateDCF(any(), any(), any(), any()))
-                .thenReturn(dcfValue);
+        doReturn(ValuationMetrics.builder().dcfFairValue(dcfValue).build())
+                .when(financialMetricsService)
+                .priceValuation(any(), any(), any(), any());
         
         // Act
         mapper.enrichWithMarketData(response, fundamentals);
@@ -145,4 +159,88 @@ class WatchlistMapperTest {
         // Assert
         assertThat(response.getDividendGrowthRate5Y()).isEqualTo(new BigDecimal("8.50"));
     }
+
+    @Test
+    void testEnrichWithMarketData_CalculatesValuationMetrics() {
+        // Act: price=100, FCF=10, beta 1.2 -> discount 11%, default growth 5%, 5 years
+        mapper.enrichWithMarketData(response, fundamentals);
+
+        // Assert
+        assertThat(response.getFcfYield()).isEqualByComparingTo("10.00");
+        assertThat(response.getDcfFairValue()).isNotNull();
+        assertThat(response.getMarginOfSafety()).isNotNull();
+        assertThat(response.getPaybackPeriod()).isNotNull();
+        assertThat(response.getEstimatedROI()).isNotNull();
+        assertThat(response.getEstimatedIRR()).isNotNull();
+    }
+
+    @Test
+    void testEnrichWithMarketData_ReusesCachedValuation() {
+        // Another user's item with the same parameters on the same snapshot
+        WatchlistItemResponse other = WatchlistItemResponse.builder()
+                .ticker("AAPL")
+                .targetPfcf(new BigDecimal("15.00"))
+                .build();
+
+        mapper.enrichWithMarketData(response, fundamentals);
+        mapper.enrichWithMarketData(other, fundamentals);
+
+        verify(financialMetricsService, times(1))
+                .projectValuation(any(), any(), any(), anyInt(), any());
+        verify(financialMetricsService, times(1))
+                .priceValuation(any(), any(), any(), any());
+        assertThat(other.getEstimatedIRR()).isEqualTo(response.getEstimatedIRR());
+        assertThat(other.getDiscountRate()).isEqualTo(response.getDiscountRate());
+        assertThat(other.getEstimatedFcfGrowthRate()).isEqualTo(response.getEstimatedFcfGrowthRate());
+    }
+
+    @Test
+    void testEnrichWithMarketData_RepricesProjectionAfterPriceChange() {
+        mapper.enrichWithMarketData(response, fundamentals);
+        BigDecimal yieldBefore = response.getFcfYield();
+
+        fundamentals.setCurrentPrice(new BigDecimal("125.00"));
+        WatchlistItemResponse reread = WatchlistItemResponse.builder()
+                .ticker("AAPL")
+                .targetPfcf(new BigDecimal("15.0"))
+                .build();
+        mapper.enrichWithMarketData(reread, fundamentals);
+
+        verify(financialMetricsService, times(1))
+                .projectValuation(any(), any(), any(), anyInt(), any());
+        verify(financialMetricsService, times(2))
+                .priceValuation(any(), any(), any(), any());
+        assertThat(yieldBefore).isEqualByComparingTo("10.00");
+        assertThat(reread.getFcfYield()).isEqualByComparingTo("8.00");
+    }
+
+    @Test
+    void testEnrichWithMarketData_ValuesPageInOneBatch() {
+        WatchlistItemResponse other = WatchlistItemResponse.builder()
+                .ticker("msft")
+                .targetPfcf(new BigDecimal("20"))
+                .build();
+        WatchlistItemResponse single = WatchlistItemResponse.builder()
+                .ticker("AAPL")
+                .targetPfcf(new BigDecimal("15.0"))
+                .build();
+        InstrumentFundamentals msft = InstrumentFundamentals.builder()
+                .ticker("MSFT")
+                .currentPrice(new BigDecimal("400.00"))
+                .fcfPerShareAnnual(new BigDecimal("9.50"))
+                .build();
+
+        mapper.enrichWithMarketData(List.of(response, other), Map.of("AAPL", fundamentals, "MSFT", msft));
+
+        verify(financialMetricsService, times(1)).calculateValuations(any());
+        verify(financialMetricsService, never()).priceValuation(any(), any(), any(), any());
+        assertThat(response.getFcfYield()).isEqualByComparingTo("10.00");
+        assertThat(other.getCurrentPrice()).isEqualByComparingTo("400.00");
+        assertThat(other.getEstimatedIRR()).isNotNull();
+
+        // Same response as the single-item path on an empty cache
+        ValuationCache fresh = new ValuationCache(new ValuationProperties());
+        new WatchlistMapper(new FinancialMetricsService(), fresh).enrichWithMarketData(single, fundamentals);
+        assertThat(response).usingRecursiveComparison().isEqualTo(single);
+    }
 }
@@ -0,0 +1,149 @@
+package com.rafiki18.divtracker_be.marketdata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.rafiki18.divtracker_be.marketdata.FinnhubCircuitBreaker.Permit;
+import com.rafiki18.divtracker_be.marketdata.FinnhubCircuitBreaker.State;
+
+@DisplayName("FinnhubCircuitBreaker Tests")
+class FinnhubCircuitBreakerTest {
+
+    @Test
+    @DisplayName("should open after consecutive failures and reject calls")
+    void shouldOpenAfterConsecutiveFailures() {
+        FinnhubCircuitBreaker breaker = new FinnhubCircuitBreaker(FinnhubEndpoint.QUOTE, 3, Duration.ofMinutes(1), 4);
+
+        for (int i = 0; i < 3; i++) {
+            Permit permit = breaker.tryAcquire();
+            assertThat(permit).isNotNull();
+            breaker.release(permit, false);
+        }
+
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        assertThat(breaker.isOpen()).isTrue();
+        assertThat(breaker.tryAcquire()).isNull();
+        assertThat(breaker.snapshot()).containsEntry("rejectedByCircuit", 1L);
+    }
+
+    @Test
+    @DisplayName("should reset the failure count on success")
+    void shouldResetOnSuccess() {
+        FinnhubCircuitBreaker breaker = new FinnhubCircuitBreaker(FinnhubEndpoint.QUOTE, 2, Duration.ofMinutes(1), 4);
+
+        breaker.release(breaker.tryAcquire(), false);
+        breaker.release(breaker.tryAcquire(), true);
+        breaker.release(breaker.tryAcquire(), false);
+
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("should let a single probe through when half-open")
+    void shouldProbeWhenHalfOpen() {
+        FinnhubCircuitBreaker breaker = new FinnhubCircuitBreaker(FinnhubEndpoint.METRICS, 1, Duration.ZERO, 4);
+        breaker.release(breaker.tryAcquire(), false);
+
+        Permit probe = breaker.tryAcquire();
+        assertThat(probe).isNotNull();
+        assertThat(probe.isProbe()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isNull();
+
+        breaker.release(probe, true);
+
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(breaker.tryAcquire()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("should reopen when the probe fails")
+    void shouldReopenWhenProbeFails() {
+        FinnhubCircuitBreaker breaker = new FinnhubCircuitBreaker(FinnhubEndpoint.METRICS, 1, Duration.ZERO, 4);
+        breaker.release(breaker.tryAcquire(), false);
+
+        Permit probe = breaker.tryAcquire();
+        assertThat(probe).isNotNull();
+        breaker.release(probe, false);
+
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    @DisplayName("should not let an ordinary call finishing while half-open start a second probe")
+    void shouldKeepSingleProbeWhenOrdinaryCallFinishes() {
+        FinnhubCircuitBreaker breaker = new FinnhubCircuitBreaker(FinnhubEndpoint.QUOTE, 1, Duration.ZERO, 4);
+        Permit ordinary = breaker.tryAcquire();
+        breaker.release(breaker.tryAcquire(), false);
+
+        Permit probe = breaker.tryAcquire();
+        assertThat(probe.isProbe()).isTrue();
+
+        breaker.release(ordinary, true);
+
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isNull();
+
+        breaker.release(probe, false);
+
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    @DisplayName("should not close an open circuit on a late success from before it opened")
+    void shouldIgnoreLateSuccessWhileOpen() {
+        FinnhubCircuitBreaker breaker = new FinnhubCircuitBreaker(FinnhubEndpoint.QUOTE, 1, Duration.ofMinutes(1), 4);
+        Permit slow = breaker.tryAcquire();
+        breaker.release(breaker.tryAcquire(), false);
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+
+        breaker.release(slow, true);
+
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        assertThat(breaker.isOpen()).isTrue();
+        assertThat(breaker.tryAcquire()).isNull();
+        assertThat(breaker.snapshot())
+                .containsEntry("successfulCalls", 1L)
+                .containsEntry("inFlight", 0);
+    }
+
+    @Test
+    @DisplayName("should treat a cancelled probe as neutral and release each permit once")
+    void shouldTreatCancelAsNeutral() {
+        FinnhubCircuitBreaker breaker = new FinnhubCircuitBreaker(FinnhubEndpoint.METRICS, 1, Duration.ZERO, 1);
+        breaker.release(breaker.tryAcquire(), false);
+
+        Permit probe = breaker.tryAcquire();
+        breaker.cancel(probe);
+        breaker.release(probe, true);
+
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.snapshot())
+                .containsEntry("successfulCalls", 0L)
+                .containsEntry("failedCalls", 1L)
+                .containsEntry("inFlight", 0);
+        assertThat(breaker.tryAcquire().isProbe()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should reject calls beyond the bulkhead limit without blocking")
+    void shouldRejectWhenBulkheadFull() {
+        FinnhubCircuitBreaker breaker = new FinnhubCircuitBreaker(FinnhubEndpoint.SEARCH, 5, Duration.ofMinutes(1), 2);
+
+        Permit first = breaker.tryAcquire();
+        assertThat(first).isNotNull();
+        assertThat(breaker.tryAcquire()).isNotNull();
+        assertThat(breaker.tryAcquire()).isNull();
+
+        breaker.release(first, true);
+
+        assertThat(breaker.tryAcquire()).isNotNull();
+        assertThat(breaker.snapshot())
+                .containsEntry("inFlight", 2)
+                .containsEntry("rejectedByBulkhead", 1L);
+    }
+}
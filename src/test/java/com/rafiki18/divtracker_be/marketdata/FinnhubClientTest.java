@@ -1,7 +1,6 @@
 package com.rafiki18.divtracker_be.marketdata;
 
 import java.math.BigDecimal;
-import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -16,6 +15,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
 import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.ParameterizedTypeReference;
@@ -24,6 +26,7 @@ import org.springframework.web.reactive.function.client.WebClient;
 import com.rafiki18.divtracker_be.config.properties.FinnhubProperties;
 import com.rafiki18.divtracker_be.dto.TickerSearchResult;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @ExtendWith(MockitoExtension.class)
@@ -50,7 +53,8 @@ class FinnhubClientTest {
         properties = new FinnhubProperties();
         properties.setApiUrl("https://finnhub.io/api/v1");
         properties.setApiKey("test-api-key");
-        finnhubClient = new FinnhubClient(webClient, properties);
+        finnhubClient = new FinnhubClient(webClient, properties, new FinnhubRateBudget(properties),
+                new FinnhubCircuitBreakers(properties));
     }
 
     @SuppressWarnings("unchecked")
@@ -107,9 +111,8 @@ class FinnhubClientTest {
         @DisplayName("should return current price when API returns valid data")
         void shouldReturnCurrentPrice() {
             setupWebClientMock();
-            Map<String, Object> response = Map.of("c", 150.25, "d", 1.5, "pc", 148.75);
-            when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class)))
-                    .thenReturn(Mono.just(response));
+            when(responseSpec.bodyToMono(FinnhubQuote.class))
+                    .thenReturn(Mono.just(quote("150.25")));
 
             Optional<BigDecimal> result = finnhubClient.fetchCurrentPrice("AAPL");
 
@@ -121,9 +124,8 @@ class FinnhubClientTest {
         @DisplayName("should return empty when API returns null price")
         void shouldReturnEmptyWhenNullPrice() {
             setupWebClientMock();
-            Map<String, Object> response = Map.of("d", 1.5, "pc", 148.75);
-            when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class)))
-                    .thenReturn(Mono.just(response));
+            when(responseSpec.bodyToMono(FinnhubQuote.class))
+                    .thenReturn(Mono.just(quote(null)));
 
             Optional<BigDecimal> result = finnhubClient.fetchCurrentPrice("AAPL");
 
@@ -144,7 +146,7 @@ class FinnhubClientTest {
         @DisplayName("should return empty when API call fails")
         void shouldReturnEmptyOnApiError() {
             setupWebClientMock();
-            when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class)))
+            when(responseSpec.bodyToMono(FinnhubQuote.class))
                     .thenReturn(Mono.error(new RuntimeException("API Error")));
 
             Optional<BigDecimal> result = finnhubClient.fetchCurrentPrice("AAPL");
@@ -156,7 +158,7 @@ class FinnhubClientTest {
         @DisplayName("should handle 403 forbidden error gracefully")
         void shouldHandle403Error() {
             setupWebClientMock();
-            when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class)))
+            when(responseSpec.bodyToMono(FinnhubQuote.class))
                     .thenReturn(Mono.error(new RuntimeException("403 Forbidden - Plan limit reached")));
 
             Optional<BigDecimal> result = finnhubClient.fetchCurrentPrice("AAPL");
@@ -173,23 +175,21 @@ class FinnhubClientTest {
         @DisplayName("should return quote data when API returns valid data")
         void shouldReturnQuoteData() {
             setupWebClientMock();
-            Map<String, Object> response = Map.of(
-                    "c", 150.25,
-                    "d", 1.5,
-                    "dp", 1.01,
-                    "h", 152.0,
-                    "l", 149.0,
-                    "o", 149.5,
-                    "pc", 148.75
-            );
-            when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class)))
+            FinnhubQuote response = FinnhubQuote.builder()
+                    .currentPrice(new BigDecimal("150.25"))
+                    .change(new BigDecimal("1.5"))
+                    .changePercent(new BigDecimal("1.01"))
+                    .previousClose(new BigDecimal("148.75"))
+                    .timestamp(1732285432L)
+                    .build();
+            when(responseSpec.bodyToMono(FinnhubQuote.class))
                     .thenReturn(Mono.just(response));
 
-            Optional<Map<String, Object>> result = finnhubClient.fetchQuote("AAPL");
+            Optional<FinnhubQuote> result = finnhubClient.fetchQuote("AAPL");
 
             assertThat(result).isPresent();
-            assertThat(result.get()).containsKey("c");
-            assertThat(result.get().get("c")).isEqualTo(150.25);
+            assertThat(result.get().getCurrentPrice()).isEqualByComparingTo("150.25");
+            assertThat(result.get().getPreviousClose()).isEqualByComparingTo("148.75");
         }
 
         @Test
@@ -197,7 +197,7 @@ class FinnhubClientTest {
         void shouldReturnEmptyWhenDisabled() {
             properties.setApiKey(null);
             
-            Optional<Map<String, Object>> result = finnhubClient.fetchQuote("AAPL");
+            Optional<FinnhubQuote> result = finnhubClient.fetchQuote("AAPL");
 
             assertThat(result).isEmpty();
         }
@@ -211,31 +211,31 @@ class FinnhubClientTest {
         @DisplayName("should return company profile when API returns valid data")
         void shouldReturnCompanyProfile() {
             setupWebClientMock();
-            Map<String, Object> response = Map.of(
-                    "name", "Apple Inc",
-                    "exchange", "NASDAQ",
-                    "currency", "USD",
-                    "shareOutstanding", 15800000000.0,
-                    "marketCapitalization", 2500000000000.0
-            );
-            when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class)))
+            FinnhubProfile response = FinnhubProfile.builder()
+                    .name("Apple Inc")
+                    .exchange("NASDAQ")
+                    .currency("USD")
+                    .shareOutstanding(new BigDecimal("15800000000"))
+                    .marketCapitalization(new BigDecimal("2500000000000"))
+                    .build();
+            when(responseSpec.bodyToMono(FinnhubProfile.class))
                     .thenReturn(Mono.just(response));
 
-            Optional<Map<String, Object>> result = finnhubClient.fetchCompanyProfile("AAPL");
+            Optional<FinnhubProfile> result = finnhubClient.fetchCompanyProfile("AAPL");
 
             assertThat(result).isPresent();
-            assertThat(result.get().get("name")).isEqualTo("Apple Inc");
-            assertThat(result.get().get("exchange")).isEqualTo("NASDAQ");
+            assertThat(result.get().getName()).isEqualTo("Apple Inc");
+            assertThat(result.get().getExchange()).isEqualTo("NASDAQ");
         }
 
         @Test
         @DisplayName("should return empty when no profile data")
         void shouldReturnEmptyWhenNoProfile() {
             setupWebClientMock();
-            when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class)))
+            when(responseSpec.bodyToMono(FinnhubProfile.class))
                     .thenReturn(Mono.empty());
 
-            Optional<Map<String, Object>> result = finnhubClient.fetchCompanyProfile("INVALID");
+            Optional<FinnhubProfile> result = finnhubClient.fetchCompanyProfile("INVALID");
 
             assertThat(result).isEmpty();
         }
@@ -249,33 +249,30 @@ class FinnhubClientTest {
         @DisplayName("should return metrics when API returns valid data")
         void shouldReturnMetrics() {
             setupWebClientMock();
-            Map<String, Object> metrics = Map.of(
-                    "peAnnual", 28.5,
-                    "beta", 1.2,
-                    "totalDebt/totalEquityQuarterly", 0.5
-            );
-            Map<String, Object> response = Map.of("metric", metrics);
-            when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class)))
-                    .thenReturn(Mono.just(response));
+            FinnhubMetrics metrics = FinnhubMetrics.builder()
+                    .peAnnual(new BigDecimal("28.5"))
+                    .beta(new BigDecimal("1.2"))
+                    .debtToEquityQuarterly(new BigDecimal("0.5"))
+                    .build();
+            when(responseSpec.bodyToMono(FinnhubMetrics.Response.class))
+                    .thenReturn(Mono.just(new FinnhubMetrics.Response(metrics)));
 
-            Optional<Map<String, Object>> result = finnhubClient.fetchEssentialMetrics("AAPL");
+            Optional<FinnhubMetrics> result = finnhubClient.fetchEssentialMetrics("AAPL");
 
             assertThat(result).isPresent();
-            assertThat(result.get()).containsKey("metric");
+            assertThat(result.get().getPeAnnual()).isEqualByComparingTo("28.5");
         }
 
         @Test
-        @DisplayName("should handle response without metric map")
+        @DisplayName("should return empty when response has no metric object")
         void shouldHandleNoMetricMap() {
             setupWebClientMock();
-            Map<String, Object> response = Map.of("status", "ok");
-            when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class)))
-                    .thenReturn(Mono.just(response));
+            when(responseSpec.bodyToMono(FinnhubMetrics.Response.class))
+                    .thenReturn(Mono.just(new FinnhubMetrics.Response(null)));
 
-            Optional<Map<String, Object>> result = finnhubClient.fetchEssentialMetrics("AAPL");
+            Optional<FinnhubMetrics> result = finnhubClient.fetchEssentialMetrics("AAPL");
 
-            assertThat(result).isPresent();
-            assertThat(result.get()).doesNotContainKey("metric");
+            assertThat(result).isEmpty();
         }
     }
 
@@ -287,21 +284,13 @@ class FinnhubClientTest {
         @DisplayName("should return cash flow data when API returns valid data")
         void shouldReturnCashFlowData() {
             setupWebClientMock();
-            Map<String, Object> financials = Map.of(
-                    "operatingCashFlow", 100000000.0,
-                    "capitalExpenditure", -20000000.0
-            );
-            Map<String, Object> response = Map.of(
-                    "financials", List.of(financials),
-                    "symbol", "AAPL"
-            );
-            when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class)))
-                    .thenReturn(Mono.just(response));
+            when(responseSpec.bodyToMono(FinnhubCashFlow.class))
+                    .thenReturn(Mono.just(cashFlow("100000000", "-20000000")));
 
-            Optional<Map<String, Object>> result = finnhubClient.fetchCashFlowFinancials("AAPL", "annual");
+            Optional<FinnhubCashFlow> result = finnhubClient.fetchCashFlowFinancials("AAPL", "annual");
 
             assertThat(result).isPresent();
-            assertThat(result.get()).containsKey("financials");
+            assertThat(result.get().getFinancials()).hasSize(1);
         }
 
         @Test
@@ -309,7 +298,7 @@ class FinnhubClientTest {
         void shouldReturnEmptyWhenDisabled() {
             properties.setApiKey(null);
             
-            Optional<Map<String, Object>> result = finnhubClient.fetchCashFlowFinancials("AAPL", "annual");
+            Optional<FinnhubCashFlow> result = finnhubClient.fetchCashFlowFinancials("AAPL", "annual");
 
             assertThat(result).isEmpty();
         }
@@ -323,20 +312,10 @@ class FinnhubClientTest {
         @DisplayName("should calculate FCF and FCF per share correctly")
         void shouldCalculateFCFAndFCFPerShare() {
             setupWebClientMock();
-            
-            // Cash flow response
-            Map<String, Object> financials = Map.of(
-                    "operatingCashFlow", 100000000.0,
-                    "capitalExpenditure", -20000000.0
-            );
-            Map<String, Object> cfResponse = Map.of("financials", List.of(financials));
-            
-            // Profile response
-            Map<String, Object> profileResponse = Map.of("shareOutstanding", 1000000.0);
-            
-            when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class)))
-                    .thenReturn(Mono.just(cfResponse))
-                    .thenReturn(Mono.just(profileResponse));
+            when(responseSpec.bodyToMono(FinnhubCashFlow.class))
+                    .thenReturn(Mono.just(cashFlow("100000000", "-20000000")));
+            when(responseSpec.bodyToMono(FinnhubProfile.class))
+                    .thenReturn(Mono.just(FinnhubProfile.builder().shareOutstanding(new BigDecimal("1000000")).build()));
 
             Optional<Map<String, BigDecimal>> result = finnhubClient.calculateFCF("AAPL");
 
@@ -353,15 +332,9 @@ class FinnhubClientTest {
         @DisplayName("should return FCF only when profile not available")
         void shouldReturnFCFOnlyWhenNoProfile() {
             setupWebClientMock();
-            
-            Map<String, Object> financials = Map.of(
-                    "operatingCashFlow", 100000000.0,
-                    "capitalExpenditure", -20000000.0
-            );
-            Map<String, Object> cfResponse = Map.of("financials", List.of(financials));
-            
-            when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class)))
-                    .thenReturn(Mono.just(cfResponse))
+            when(responseSpec.bodyToMono(FinnhubCashFlow.class))
+                    .thenReturn(Mono.just(cashFlow("100000000", "-20000000")));
+            when(responseSpec.bodyToMono(FinnhubProfile.class))
                     .thenReturn(Mono.empty());
 
             Optional<Map<String, BigDecimal>> result = finnhubClient.calculateFCF("AAPL");
@@ -375,7 +348,7 @@ class FinnhubClientTest {
         @DisplayName("should return empty when no cash flow data")
         void shouldReturnEmptyWhenNoCashFlowData() {
             setupWebClientMock();
-            when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class)))
+            when(responseSpec.bodyToMono(FinnhubCashFlow.class))
                     .thenReturn(Mono.empty());
 
             Optional<Map<String, BigDecimal>> result = finnhubClient.calculateFCF("AAPL");
@@ -387,9 +360,8 @@ class FinnhubClientTest {
         @DisplayName("should return empty when financials array is empty")
         void shouldReturnEmptyWhenFinancialsEmpty() {
             setupWebClientMock();
-            Map<String, Object> cfResponse = Map.of("financials", Collections.emptyList());
-            when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class)))
-                    .thenReturn(Mono.just(cfResponse));
+            when(responseSpec.bodyToMono(FinnhubCashFlow.class))
+                    .thenReturn(Mono.just(new FinnhubCashFlow(Collections.emptyList())));
 
             Optional<Map<String, BigDecimal>> result = finnhubClient.calculateFCF("AAPL");
 
@@ -400,10 +372,8 @@ class FinnhubClientTest {
         @DisplayName("should return empty when missing operatingCashFlow")
         void shouldReturnEmptyWhenMissingOperatingCashFlow() {
             setupWebClientMock();
-            Map<String, Object> financials = Map.of("capitalExpenditure", -20000000.0);
-            Map<String, Object> cfResponse = Map.of("financials", List.of(financials));
-            when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class)))
-                    .thenReturn(Mono.just(cfResponse));
+            when(responseSpec.bodyToMono(FinnhubCashFlow.class))
+                    .thenReturn(Mono.just(cashFlow(null, "-20000000")));
 
             Optional<Map<String, BigDecimal>> result = finnhubClient.calculateFCF("AAPL");
 
@@ -414,10 +384,8 @@ class FinnhubClientTest {
         @DisplayName("should return empty when missing capitalExpenditure")
         void shouldReturnEmptyWhenMissingCapex() {
             setupWebClientMock();
-            Map<String, Object> financials = Map.of("operatingCashFlow", 100000000.0);
-            Map<String, Object> cfResponse = Map.of("financials", List.of(financials));
-            when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class)))
-                    .thenReturn(Mono.just(cfResponse));
+            when(responseSpec.bodyToMono(FinnhubCashFlow.class))
+                    .thenReturn(Mono.just(cashFlow("100000000", null)));
 
             Optional<Map<String, BigDecimal>> result = finnhubClient.calculateFCF("AAPL");
 
@@ -428,17 +396,10 @@ class FinnhubClientTest {
         @DisplayName("should return FCF only when shares outstanding is zero")
         void shouldReturnFCFOnlyWhenSharesZero() {
             setupWebClientMock();
-            
-            Map<String, Object> financials = Map.of(
-                    "operatingCashFlow", 100000000.0,
-                    "capitalExpenditure", -20000000.0
-            );
-            Map<String, Object> cfResponse = Map.of("financials", List.of(financials));
-            Map<String, Object> profileResponse = Map.of("shareOutstanding", 0.0);
-            
-            when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class)))
-                    .thenReturn(Mono.just(cfResponse))
-                    .thenReturn(Mono.just(profileResponse));
+            when(responseSpec.bodyToMono(FinnhubCashFlow.class))
+                    .thenReturn(Mono.just(cashFlow("100000000", "-20000000")));
+            when(responseSpec.bodyToMono(FinnhubProfile.class))
+                    .thenReturn(Mono.just(FinnhubProfile.builder().shareOutstanding(BigDecimal.ZERO).build()));
 
             Optional<Map<String, BigDecimal>> result = finnhubClient.calculateFCF("AAPL");
 
@@ -458,70 +419,140 @@ class FinnhubClientTest {
         }
     }
 
+    private static FinnhubQuote quote(String currentPrice) {
+        return FinnhubQuote.builder()
+                .currentPrice(currentPrice != null ? new BigDecimal(currentPrice) : null)
+                .change(new BigDecimal("1.5"))
+                .previousClose(new BigDecimal("148.75"))
+                .build();
+    }
+
+    private static FinnhubCashFlow cashFlow(String operatingCashFlow, String capex) {
+        return new FinnhubCashFlow(List.of(FinnhubCashFlow.Period.builder()
+                .period("2024-09-28")
+                .operatingCashFlow(operatingCashFlow != null ? new BigDecimal(operatingCashFlow) : null)
+                .capitalExpenditure(capex != null ? new BigDecimal(capex) : null)
+                .build()));
+    }
+
     @Nested
-    @DisplayName("lookupSymbol() Tests")
-    class LookupSymbolTests {
+    @DisplayName("Reactive API Tests")
+    class ReactiveApiTests {
 
         @Test
-        @SuppressWarnings("unchecked")
-        @DisplayName("should return matching symbols")
-        void shouldReturnMatchingSymbols() {
-            when(webClient.get()).thenReturn((WebClient.RequestHeadersUriSpec) requestHeadersUriSpec);
-            when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersSpec);
-            when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-            
-            List<Map<String, Object>> symbolList = List.of(
-                    Map.of("symbol", "AAPL", "description", "Apple Inc", "type", "Common Stock", "displaySymbol", "AAPL"),
-                    Map.of("symbol", "AAPLX", "description", "Apple ETF", "type", "ETF", "displaySymbol", "AAPLX"),
-                    Map.of("symbol", "MSFT", "description", "Microsoft Corp", "type", "Common Stock", "displaySymbol", "MSFT")
-            );
-            when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class)))
-                    .thenReturn(Mono.just(symbolList).timeout(Duration.ofSeconds(10)));
+        @DisplayName("should not call Finnhub until subscribed")
+        void shouldBeLazy() {
+            setupWebClientMock();
+            when(responseSpec.bodyToMono(FinnhubQuote.class)).thenReturn(Mono.just(quote("150.25")));
 
-            List<TickerSearchResult> results = finnhubClient.lookupSymbol("AAPL");
+            Mono<FinnhubQuote> quote = finnhubClient.quote("AAPL");
+            verify(webClient, never()).get();
 
-            assertThat(results).hasSize(2);
-            assertThat(results.get(0).getSymbol()).isEqualTo("AAPL");
-            assertThat(results.get(1).getSymbol()).isEqualTo("AAPLX");
+            assertThat(quote.block().getCurrentPrice()).isEqualByComparingTo("150.25");
+            verify(webClient, times(1)).get();
         }
 
         @Test
-        @DisplayName("should return empty list when disabled")
-        void shouldReturnEmptyWhenDisabled() {
-            properties.setApiKey(null);
-            
-            List<TickerSearchResult> results = finnhubClient.lookupSymbol("AAPL");
+        @DisplayName("should reuse the caller's profile for FCF per share")
+        void shouldReuseProfileForFcf() {
+            setupWebClientMock();
+            when(responseSpec.bodyToMono(FinnhubCashFlow.class))
+                    .thenReturn(Mono.just(cashFlow("100000000", "-20000000")));
+            Mono<FinnhubProfile> profile = Mono.just(
+                    FinnhubProfile.builder().shareOutstanding(new BigDecimal("1000000")).build());
 
-            assertThat(results).isEmpty();
+            Map<String, BigDecimal> result = finnhubClient.freeCashFlow("AAPL", profile).block();
+
+            assertThat(result.get("fcfPerShare")).isEqualByComparingTo("80");
+            verify(responseSpec, never()).bodyToMono(FinnhubProfile.class);
         }
 
         @Test
-        @DisplayName("should return empty list when query is empty")
-        void shouldReturnEmptyWhenQueryEmpty() {
-            List<TickerSearchResult> results = finnhubClient.lookupSymbol("");
+        @DisplayName("should complete empty instead of erroring")
+        void shouldCompleteEmptyOnError() {
+            setupWebClientMock();
+            when(responseSpec.bodyToMono(FinnhubProfile.class))
+                    .thenReturn(Mono.error(new RuntimeException("Connection reset")));
 
-            assertThat(results).isEmpty();
+            assertThat(finnhubClient.companyProfile("AAPL").blockOptional()).isEmpty();
         }
+    }
+
+    @Nested
+    @DisplayName("Circuit breaker Tests")
+    class CircuitBreakerTests {
 
         @Test
-        @DisplayName("should return empty list when query is null")
-        void shouldReturnEmptyWhenQueryNull() {
-            List<TickerSearchResult> results = finnhubClient.lookupSymbol(null);
+        @DisplayName("should fail fast once an endpoint circuit opens")
+        void shouldFailFastWhenCircuitOpen() {
+            setupWebClientMock();
+            when(responseSpec.bodyToMono(FinnhubQuote.class))
+                    .thenReturn(Mono.error(new RuntimeException("Connection reset")));
+
+            for (int i = 0; i < properties.getCircuitFailureThreshold(); i++) {
+                assertThat(finnhubClient.fetchQuote("AAPL")).isEmpty();
+            }
+
+            assertThat(finnhubClient.isCircuitOpen(FinnhubEndpoint.QUOTE)).isTrue();
+            assertThat(finnhubClient.fetchQuote("AAPL")).isEmpty();
+            verify(webClient, times(properties.getCircuitFailureThreshold())).get();
+        }
+
+        @Test
+        @DisplayName("should keep other endpoints closed")
+        void shouldIsolateEndpoints() {
+            setupWebClientMock();
+            when(responseSpec.bodyToMono(FinnhubQuote.class))
+                    .thenReturn(Mono.error(new RuntimeException("Connection reset")));
+            when(responseSpec.bodyToMono(FinnhubProfile.class))
+                    .thenReturn(Mono.just(FinnhubProfile.builder().name("Apple Inc").build()));
+
+            for (int i = 0; i < properties.getCircuitFailureThreshold(); i++) {
+                finnhubClient.fetchQuote("AAPL");
+            }
+
+            assertThat(finnhubClient.isCircuitOpen(FinnhubEndpoint.QUOTE)).isTrue();
+            assertThat(finnhubClient.isCircuitOpen(FinnhubEndpoint.PROFILE)).isFalse();
+            assertThat(finnhubClient.fetchCompanyProfile("AAPL")).isPresent();
+        }
+    }
+
+    @Nested
+    @DisplayName("fetchSymbols() Tests")
+    class FetchSymbolsTests {
+
+        @Test
+        @DisplayName("should return all listed symbols, skipping entries without symbol")
+        void shouldReturnSymbols() {
+            setupWebClientMock();
+            when(responseSpec.bodyToFlux(FinnhubSymbol.class)).thenReturn(Flux.just(
+                    FinnhubSymbol.builder().symbol("AAPL").description("Apple Inc").type("Common Stock").build(),
+                    FinnhubSymbol.builder().symbol("MSFT").description("Microsoft Corp").type("Common Stock").build(),
+                    FinnhubSymbol.builder().description("No symbol").build()));
+
+            List<FinnhubSymbol> results = finnhubClient.fetchSymbols("US");
+
+            assertThat(results).extracting(FinnhubSymbol::getSymbol).containsExactly("AAPL", "MSFT");
+        }
+
+        @Test
+        @DisplayName("should return empty list when disabled")
+        void shouldReturnEmptyWhenDisabled() {
+            properties.setApiKey(null);
+            
+            List<FinnhubSymbol> results = finnhubClient.fetchSymbols("US");
 
             assertThat(results).isEmpty();
         }
 
         @Test
-        @SuppressWarnings("unchecked")
         @DisplayName("should handle API error gracefully")
         void shouldHandleApiError() {
-            when(webClient.get()).thenReturn((WebClient.RequestHeadersUriSpec) requestHeadersUriSpec);
-            when(requestHeadersUriSpec.uri(any(Function.class))).thenReturn(requestHeadersSpec);
-            when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-            when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class)))
-                    .thenReturn(Mono.error(new RuntimeException("Network error")));
+            setupWebClientMock();
+            when(responseSpec.bodyToFlux(FinnhubSymbol.class))
+                    .thenReturn(Flux.error(new RuntimeException("Network error")));
 
-            List<TickerSearchResult> results = finnhubClient.lookupSymbol("AAPL");
+            List<FinnhubSymbol> results = finnhubClient.fetchSymbols("US");
 
             assertThat(results).isEmpty();
         }
@@ -634,37 +665,4 @@ class FinnhubClientTest {
             assertThat(results).hasSize(20);
         }
     }
-
-    @Nested
-    @DisplayName("extractDecimal() Edge Cases")
-    class ExtractDecimalTests {
-
-        @Test
-        @DisplayName("should handle string numeric values")
-        void shouldHandleStringNumericValues() {
-            setupWebClientMock();
-            Map<String, Object> response = Map.of("c", "150.25");
-            when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class)))
-                    .thenReturn(Mono.just(response));
-
-            Optional<BigDecimal> result = finnhubClient.fetchCurrentPrice("AAPL");
-
-            assertThat(result).isPresent();
-            assertThat(result.get()).isEqualByComparingTo(new BigDecimal("150.25"));
-        }
-
-        @Test
-        @DisplayName("should handle integer values")
-        void shouldHandleIntegerValues() {
-            setupWebClientMock();
-            Map<String, Object> response = Map.of("c", 150);
-            when(responseSpec.bodyToMono(any(ParameterizedTypeReference.class)))
-                    .thenReturn(Mono.just(response));
-
-            Optional<BigDecimal> result = finnhubClient.fetchCurrentPrice("AAPL");
-
-            assertThat(result).isPresent();
-            assertThat(result.get()).isEqualByComparingTo(new BigDecimal("150"));
-        }
-    }
 }
@@ -0,0 +1,110 @@
+package com.rafiki18.divtracker_be.marketdata;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Generic Map decoding vs typed DTO decoding of the Finnhub payloads used by
+ * one fundamentals refresh (metric=all, profile2, quote, cash flow financials).
+ *
+ * Payloads live in src/test/resources/finnhub. Run from the IDE or with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.rafiki18.divtracker_be.marketdata.FinnhubDecodingBenchmark
+ * </pre>
+ * Use {@code -prof gc} (via the Options below) to compare allocation per refresh.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FinnhubDecodingBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private ObjectMapper objectMapper;
+    private byte[] metrics;
+    private byte[] profile;
+    private byte[] quote;
+    private byte[] cashFlow;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Same setting the Spring Boot ObjectMapper uses for WebClient decoding
+        objectMapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        metrics = load("metric-all.json");
+        profile = load("profile2.json");
+        quote = load("quote.json");
+        cashFlow = load("financials-cf.json");
+    }
+
+    @Benchmark
+    public Object[] genericMaps() throws IOException {
+        return new Object[] {
+                objectMapper.readValue(metrics, MAP_TYPE),
+                objectMapper.readValue(profile, MAP_TYPE),
+                objectMapper.readValue(quote, MAP_TYPE),
+                objectMapper.readValue(cashFlow, MAP_TYPE)
+        };
+    }
+
+    @Benchmark
+    public Object[] typedDtos() throws IOException {
+        return new Object[] {
+                objectMapper.readValue(metrics, FinnhubMetrics.Response.class),
+                objectMapper.readValue(profile, FinnhubProfile.class),
+                objectMapper.readValue(quote, FinnhubQuote.class),
+                objectMapper.readValue(cashFlow, FinnhubCashFlow.class)
+        };
+    }
+
+    @Benchmark
+    public Object metricsGenericMap() throws IOException {
+        return objectMapper.readValue(metrics, MAP_TYPE);
+    }
+
+    @Benchmark
+    public Object metricsTyped() throws IOException {
+        return objectMapper.readValue(metrics, FinnhubMetrics.Response.class);
+    }
+
+    static byte[] load(String name) throws IOException {
+        try (InputStream in = FinnhubDecodingBenchmark.class.getResourceAsStream("/finnhub/" + name)) {
+            if (in == null) {
+                throw new IOException("Missing recorded payload: " + name);
+            }
+            return in.readAllBytes();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(FinnhubDecodingBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
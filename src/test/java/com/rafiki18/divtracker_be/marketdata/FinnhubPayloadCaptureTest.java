@@ -0,0 +1,168 @@
+package com.rafiki18.divtracker_be.marketdata;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rafiki18.divtracker_be.config.properties.FinnhubCaptureProperties;
+import com.rafiki18.divtracker_be.config.properties.FinnhubProperties;
+
+@DisplayName("FinnhubPayloadCapture Tests")
+class FinnhubPayloadCaptureTest {
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private FinnhubStandInServer finnhub;
+    private FinnhubCaptureProperties captureProperties;
+
+    @BeforeEach
+    void setUp() {
+        finnhub = new FinnhubStandInServer().seed(42).start();
+        captureProperties = new FinnhubCaptureProperties();
+        captureProperties.setDirectory(directory);
+        captureProperties.setEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        finnhub.close();
+    }
+
+    @Test
+    @DisplayName("should write sampled payloads without the API key")
+    void shouldWriteSampledPayloads() throws IOException {
+        FinnhubPayloadCapture capture = new FinnhubPayloadCapture(captureProperties, objectMapper);
+        FinnhubClient client = client(capture);
+
+        assertThat(client.fetchQuote("KO")).isPresent();
+        assertThat(client.fetchCompanyProfile("KO")).isPresent();
+        capture.close();
+
+        List<JsonNode> samples = readSamples();
+        assertThat(samples).extracting(sample -> sample.get("endpoint").asText())
+                .containsExactlyInAnyOrder("QUOTE", "PROFILE");
+        assertThat(samples).allSatisfy(sample -> {
+            assertThat(sample.get("subject").asText()).isEqualTo("KO");
+            assertThat(sample.get("status").asInt()).isEqualTo(200);
+            assertThat(sample.get("truncated").asBoolean()).isFalse();
+        });
+        assertThat(samples.toString()).doesNotContain("stand-in-key");
+    }
+
+    @Test
+    @DisplayName("should only sample matching endpoints and tickers")
+    void shouldFilterByEndpointAndTicker() throws IOException {
+        FinnhubPayloadCapture capture = new FinnhubPayloadCapture(captureProperties, objectMapper);
+        capture.update(null, Set.of(FinnhubEndpoint.QUOTE), Set.of("aapl"), null);
+        FinnhubClient client = client(capture);
+
+        client.fetchQuote("KO");
+        client.fetchQuote("AAPL");
+        client.fetchCompanyProfile("AAPL");
+        capture.close();
+
+        List<JsonNode> samples = readSamples();
+        assertThat(samples).hasSize(1);
+        assertThat(samples.get(0).get("endpoint").asText()).isEqualTo("QUOTE");
+        assertThat(samples.get(0).get("subject").asText()).isEqualTo("AAPL");
+    }
+
+    @Test
+    @DisplayName("should stop sampling once the per-minute rate is used up")
+    void shouldLimitSampleRate() throws IOException {
+        captureProperties.setSamplesPerMinute(2);
+        FinnhubPayloadCapture capture = new FinnhubPayloadCapture(captureProperties, objectMapper);
+        FinnhubClient client = client(capture);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(client.fetchQuote("KO")).isPresent();
+        }
+        capture.close();
+
+        assertThat(readSamples()).hasSize(2);
+        assertThat(capture.getStatus()).containsEntry("sampled", 2L);
+    }
+
+    @Test
+    @DisplayName("should truncate payloads above the size limit")
+    void shouldTruncateLargePayloads() throws IOException {
+        captureProperties.setMaxPayloadSize(DataSize.ofBytes(16));
+        FinnhubPayloadCapture capture = new FinnhubPayloadCapture(captureProperties, objectMapper);
+        FinnhubClient client = client(capture);
+
+        assertThat(client.fetchCompanyProfile("KO")).isPresent();
+        capture.close();
+
+        JsonNode sample = readSamples().get(0);
+        assertThat(sample.get("truncated").asBoolean()).isTrue();
+        assertThat(sample.get("payload").asText()).hasSize(16);
+        assertThat(sample.get("bytes").asLong()).isGreaterThan(16);
+    }
+
+    @Test
+    @DisplayName("should not touch the disk while disabled")
+    void shouldNotCaptureWhenDisabled() throws IOException {
+        captureProperties.setEnabled(false);
+        FinnhubPayloadCapture capture = new FinnhubPayloadCapture(captureProperties, objectMapper);
+        FinnhubClient client = client(capture);
+
+        assertThat(client.fetchQuote("KO")).isPresent();
+        capture.close();
+
+        assertThat(captureFiles()).isEmpty();
+    }
+
+    private FinnhubClient client(FinnhubPayloadCapture capture) {
+        FinnhubProperties properties = new FinnhubProperties();
+        properties.setApiUrl(finnhub.getApiUrl());
+        properties.setApiKey("stand-in-key");
+        WebClient webClient = WebClient.builder()
+                .baseUrl(properties.getApiUrl())
+                .filter(capture.filter())
+                .build();
+        return new FinnhubClient(webClient, properties, new FinnhubRateBudget(properties),
+                new FinnhubCircuitBreakers(properties));
+    }
+
+    private List<Path> captureFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".jsonl.gz")).sorted().toList();
+        }
+    }
+
+    private List<JsonNode> readSamples() throws IOException {
+        List<JsonNode> samples = new ArrayList<>();
+        for (Path file : captureFiles()) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    samples.add(objectMapper.readTree(line));
+                }
+            }
+        }
+        return samples;
+    }
+}
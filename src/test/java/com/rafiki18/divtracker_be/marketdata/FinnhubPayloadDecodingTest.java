@@ -0,0 +1,71 @@
+package com.rafiki18.divtracker_be.marketdata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@DisplayName("Finnhub payload decoding Tests")
+class FinnhubPayloadDecodingTest {
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    @Test
+    @DisplayName("should decode only the used ratios from metric=all")
+    void shouldDecodeMetrics() throws IOException {
+        FinnhubMetrics metrics = objectMapper.readValue(
+                FinnhubDecodingBenchmark.load("metric-all.json"), FinnhubMetrics.Response.class).getMetric();
+
+        assertThat(metrics.getPeAnnual()).isEqualByComparingTo("27.41");
+        assertThat(metrics.getBeta()).isEqualByComparingTo("0.58");
+        assertThat(metrics.getDebtToEquityQuarterly()).isEqualByComparingTo("1.62");
+        assertThat(metrics.getDividendYieldTtm()).isEqualByComparingTo("3.1");
+        assertThat(metrics.getEpsGrowth5Y()).isEqualByComparingTo("6.35");
+        assertThat(metrics.getFocfCagr5Y()).isEqualByComparingTo("3.44");
+        assertThat(metrics.getWeekHigh52()).isEqualByComparingTo("73.53");
+        assertThat(metrics.getWeekLow52()).isEqualByComparingTo("60.62");
+    }
+
+    @Test
+    @DisplayName("should decode profile, quote and latest cash flow period")
+    void shouldDecodeProfileQuoteAndCashFlow() throws IOException {
+        FinnhubProfile profile = objectMapper.readValue(
+                FinnhubDecodingBenchmark.load("profile2.json"), FinnhubProfile.class);
+        FinnhubQuote quote = objectMapper.readValue(
+                FinnhubDecodingBenchmark.load("quote.json"), FinnhubQuote.class);
+        FinnhubCashFlow cashFlow = objectMapper.readValue(
+                FinnhubDecodingBenchmark.load("financials-cf.json"), FinnhubCashFlow.class);
+
+        assertThat(profile.getName()).isEqualTo("Coca-Cola Co");
+        assertThat(profile.getShareOutstanding()).isEqualByComparingTo("4301.8");
+        assertThat(quote.getCurrentPrice()).isEqualByComparingTo("68.29");
+        assertThat(quote.getChangePercent()).isEqualByComparingTo("0.604");
+        assertThat(quote.getTimestamp()).isEqualTo(1760558400L);
+        assertThat(cashFlow.getFinancials()).hasSize(25);
+        assertThat(cashFlow.getFinancials().get(0).getOperatingCashFlow()).isEqualByComparingTo("6805.0");
+        assertThat(cashFlow.getFinancials().get(0).getCapitalExpenditure()).isEqualByComparingTo("-2064.0");
+    }
+
+    @Test
+    @DisplayName("should decode string and integer quote prices")
+    void shouldDecodeStringAndIntegerQuotePrices() throws IOException {
+        FinnhubQuote fromString = objectMapper.readValue("{\"c\":\"150.25\",\"dp\":\"-0.5\"}", FinnhubQuote.class);
+        FinnhubQuote fromInteger = objectMapper.readValue("{\"c\":150,\"t\":1760558400}", FinnhubQuote.class);
+
+        assertThat(fromString.getCurrentPrice()).isEqualByComparingTo("150.25");
+        assertThat(fromString.getChangePercent()).isEqualByComparingTo("-0.5");
+        assertThat(fromInteger.getCurrentPrice()).isEqualByComparingTo("150");
+        assertThat(fromInteger.getTimestamp()).isEqualTo(1760558400L);
+    }
+}
@@ -0,0 +1,389 @@
+package com.rafiki18.divtracker_be.marketdata;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Publisher;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.http.websocket.WebsocketInbound;
+import reactor.netty.http.websocket.WebsocketOutbound;
+
+/**
+ * Embedded stand-in for the Finnhub REST API and trade WebSocket, so load
+ * tests and benchmarks can run the real {@link FinnhubClient} and
+ * {@link FinnhubWebSocketClient} offline.
+ *
+ * REST endpoints answer with the recorded payloads in
+ * src/test/resources/finnhub for any symbol. Latency, error rate, 429
+ * throttling and the streaming symbol limit can be changed while the server
+ * runs. The WebSocket at {@code /ws} accepts Finnhub subscribe/unsubscribe
+ * messages and pushes random-walk trades for the subscribed symbols.
+ *
+ * <pre>
+ * try (FinnhubStandInServer finnhub = new FinnhubStandInServer()
+ *         .latency(Latency.logNormal(Duration.ofMillis(40), 0.5))
+ *         .errorRate(0.02)
+ *         .rateLimitPerMinute(60)
+ *         .start()) {
+ *     properties.setApiUrl(finnhub.getApiUrl());
+ *     properties.setWebsocketUrl(finnhub.getWebsocketUrl());
+ *     ...
+ * }
+ * </pre>
+ */
+public class FinnhubStandInServer implements AutoCloseable {
+
+    static final String WEBSOCKET_PATH = "/ws";
+
+    private static final Map<String, String> RECORDINGS = Map.of(
+            "/quote", "quote.json",
+            "/stock/profile2", "profile2.json",
+            "/stock/metric", "metric-all.json",
+            "/stock/financials", "financials-cf.json",
+            "/search", "search.json",
+            "/stock/symbol", "stock-symbol.json");
+
+    private static final String LIMIT_REACHED = "{\"error\":\"API limit reached. Please try again later. Remaining Limit: 0\"}";
+    private static final String SERVER_ERROR = "{\"error\":\"Internal server error\"}";
+    private static final String NO_TOKEN = "{\"error\":\"Please use an API key.\"}";
+    private static final String TOO_MANY_SYMBOLS = "{\"type\":\"error\",\"msg\":\"Subscribing to too many symbols\"}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, String> bodies = new ConcurrentHashMap<>();
+    private final Set<String> listedSymbols = new HashSet<>();
+    private final Map<String, AtomicLong> requests = new ConcurrentHashMap<>();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicLong tradesSent = new AtomicLong();
+    private final Map<String, Double> prices = new ConcurrentHashMap<>();
+    private final Set<Sinks.Empty<Void>> streams = ConcurrentHashMap.newKeySet();
+
+    private volatile Random random = new Random();
+    private volatile Latency latency = Latency.none();
+    private volatile double errorRate;
+    private volatile int rateLimitPerMinute = Integer.MAX_VALUE;
+    private volatile int streamSymbolLimit = 50;
+    private volatile boolean listedOnly;
+    private volatile Duration tradeInterval = Duration.ofMillis(100);
+
+    private long windowStart;
+    private int windowCalls;
+    private DisposableServer server;
+
+    public FinnhubStandInServer() {
+        RECORDINGS.forEach((path, file) -> bodies.put(path, load(file)));
+        try {
+            List<Map<String, Object>> symbols = objectMapper.readValue(bodies.get("/stock/symbol"),
+                    new TypeReference<List<Map<String, Object>>>() {});
+            symbols.forEach(symbol -> listedSymbols.add(String.valueOf(symbol.get("symbol"))));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public FinnhubStandInServer start() {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle(this::handle)
+                .bindNow();
+        return this;
+    }
+
+    @Override
+    public void close() {
+        disconnectStreams();
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    public String getApiUrl() {
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    public String getWebsocketUrl() {
+        return "ws://127.0.0.1:" + server.port() + WEBSOCKET_PATH;
+    }
+
+    // Behaviour, adjustable while running
+
+    public FinnhubStandInServer latency(Latency latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Share of REST calls answered with HTTP 500, between 0 and 1.
+     */
+    public FinnhubStandInServer errorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    /**
+     * Calls per fixed one-minute window before answering HTTP 429.
+     */
+    public FinnhubStandInServer rateLimitPerMinute(int rateLimitPerMinute) {
+        synchronized (this) {
+            this.rateLimitPerMinute = rateLimitPerMinute;
+            windowCalls = 0;
+        }
+        return this;
+    }
+
+    /**
+     * Maximum symbols per WebSocket connection (50 on the free plan).
+     */
+    public FinnhubStandInServer streamSymbolLimit(int streamSymbolLimit) {
+        this.streamSymbolLimit = streamSymbolLimit;
+        return this;
+    }
+
+    /**
+     * Answer {@code {}} for symbols missing from stock-symbol.json, like
+     * Finnhub does for unknown tickers. Off by default so any ticker works.
+     */
+    public FinnhubStandInServer listedOnly(boolean listedOnly) {
+        this.listedOnly = listedOnly;
+        return this;
+    }
+
+    public FinnhubStandInServer tradeInterval(Duration tradeInterval) {
+        this.tradeInterval = tradeInterval;
+        return this;
+    }
+
+    /**
+     * Seed latency, error and price draws for reproducible runs.
+     */
+    public FinnhubStandInServer seed(long seed) {
+        this.random = new Random(seed);
+        return this;
+    }
+
+    /**
+     * Replace the recorded body of a REST path, e.g. "/quote".
+     */
+    public FinnhubStandInServer respond(String path, String body) {
+        bodies.put(path, body);
+        return this;
+    }
+
+    /**
+     * Close every open WebSocket connection, to exercise reconnects.
+     */
+    public void disconnectStreams() {
+        List<Sinks.Empty<Void>> open = new ArrayList<>(streams);
+        open.forEach(Sinks.Empty::tryEmitEmpty);
+    }
+
+    // Counters
+
+    public long getRequestCount(String path) {
+        AtomicLong count = requests.get(path);
+        return count != null ? count.get() : 0;
+    }
+
+    public long getThrottledCount() {
+        return throttled.get();
+    }
+
+    public long getInjectedErrorCount() {
+        return injectedErrors.get();
+    }
+
+    public long getTradesSent() {
+        return tradesSent.get();
+    }
+
+    public int getOpenStreams() {
+        return streams.size();
+    }
+
+    private Publisher<Void> handle(HttpServerRequest request, HttpServerResponse response) {
+        String path = request.fullPath();
+        if (WEBSOCKET_PATH.equals(path)) {
+            return response.sendWebsocket(this::stream);
+        }
+
+        requests.computeIfAbsent(path, key -> new AtomicLong()).incrementAndGet();
+        Map<String, List<String>> params = new QueryStringDecoder(request.uri()).parameters();
+        return Mono.delay(latency.next(random))
+                .then(Mono.defer(() -> Mono.from(respond(path, params, response))));
+    }
+
+    private Publisher<Void> respond(String path, Map<String, List<String>> params, HttpServerResponse response) {
+        if (!params.containsKey("token")) {
+            return send(response, HttpResponseStatus.UNAUTHORIZED, NO_TOKEN);
+        }
+        if (!tryAcquire()) {
+            throttled.incrementAndGet();
+            return send(response, HttpResponseStatus.TOO_MANY_REQUESTS, LIMIT_REACHED);
+        }
+        if (errorRate > 0 && random.nextDouble() < errorRate) {
+            injectedErrors.incrementAndGet();
+            return send(response, HttpResponseStatus.INTERNAL_SERVER_ERROR, SERVER_ERROR);
+        }
+
+        String body = bodies.get(path);
+        if (body == null) {
+            return send(response, HttpResponseStatus.NOT_FOUND, "{\"error\":\"Not found\"}");
+        }
+        List<String> symbol = params.get("symbol");
+        if (listedOnly && symbol != null && !listedSymbols.contains(symbol.get(0).toUpperCase(Locale.ROOT))) {
+            body = "{}";
+        }
+        return send(response, HttpResponseStatus.OK, body);
+    }
+
+    private static Publisher<Void> send(HttpServerResponse response, HttpResponseStatus status, String body) {
+        return response.status(status)
+                .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                .sendString(Mono.just(body));
+    }
+
+    private synchronized boolean tryAcquire() {
+        long now = System.nanoTime();
+        if (windowCalls == 0 || now - windowStart >= Duration.ofMinutes(1).toNanos()) {
+            windowStart = now;
+            windowCalls = 0;
+        }
+        if (windowCalls >= rateLimitPerMinute) {
+            return false;
+        }
+        windowCalls++;
+        return true;
+    }
+
+    private Publisher<Void> stream(WebsocketInbound inbound, WebsocketOutbound outbound) {
+        Set<String> subscribed = ConcurrentHashMap.newKeySet();
+        Sinks.Many<String> replies = Sinks.many().unicast().onBackpressureBuffer();
+        Sinks.Empty<Void> closed = Sinks.empty();
+        streams.add(closed);
+
+        Mono<Void> received = inbound.receive().asString()
+                .doOnNext(message -> onStreamMessage(message, subscribed, replies))
+                .doFinally(signal -> closed.tryEmitEmpty())
+                .then();
+
+        Flux<String> trades = Flux.interval(tradeInterval)
+                .filter(tick -> !subscribed.isEmpty())
+                .map(tick -> tradeMessage(subscribed));
+        Flux<String> outgoing = Flux.merge(replies.asFlux(), trades)
+                .takeUntilOther(closed.asMono());
+
+        Mono<Void> sent = Mono.from(outbound.sendString(outgoing))
+                .then(Mono.defer(() -> Mono.from(outbound.sendClose())))
+                .onErrorResume(e -> Mono.empty());
+        return Mono.when(received, sent)
+                .doFinally(signal -> streams.remove(closed));
+    }
+
+    private void onStreamMessage(String message, Set<String> subscribed, Sinks.Many<String> replies) {
+        Map<String, Object> request;
+        try {
+            request = objectMapper.readValue(message, new TypeReference<Map<String, Object>>() {});
+        } catch (IOException e) {
+            return;
+        }
+        Object symbol = request.get("symbol");
+        if (symbol == null) {
+            return;
+        }
+        String ticker = symbol.toString().toUpperCase(Locale.ROOT);
+        if ("subscribe".equals(request.get("type"))) {
+            if (!subscribed.contains(ticker) && subscribed.size() >= streamSymbolLimit) {
+                replies.tryEmitNext(TOO_MANY_SYMBOLS);
+                return;
+            }
+            subscribed.add(ticker);
+        } else if ("unsubscribe".equals(request.get("type"))) {
+            subscribed.remove(ticker);
+        }
+    }
+
+    private String tradeMessage(Set<String> subscribed) {
+        long now = System.currentTimeMillis();
+        StringBuilder json = new StringBuilder("{\"type\":\"trade\",\"data\":[");
+        boolean first = true;
+        for (String ticker : subscribed) {
+            double price = prices.compute(ticker, (key, last) ->
+                    Math.max(0.01, (last != null ? last : 100.0) * (1 + random.nextGaussian() * 0.001)));
+            if (!first) {
+                json.append(',');
+            }
+            json.append(String.format(Locale.ROOT, "{\"s\":\"%s\",\"p\":%.4f,\"t\":%d,\"v\":%d,\"c\":[\"1\"]}",
+                    ticker, price, now, 1 + random.nextInt(500)));
+            first = false;
+            tradesSent.incrementAndGet();
+        }
+        return json.append("]}").toString();
+    }
+
+    private static String load(String file) {
+        try (InputStream in = FinnhubStandInServer.class.getResourceAsStream("/finnhub/" + file)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing recorded Finnhub payload: " + file);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Response delay model for REST calls.
+     */
+    @FunctionalInterface
+    public interface Latency {
+
+        Duration next(Random random);
+
+        static Latency none() {
+            return random -> Duration.ZERO;
+        }
+
+        static Latency fixed(Duration delay) {
+            return random -> delay;
+        }
+
+        static Latency uniform(Duration min, Duration max) {
+            long span = max.toNanos() - min.toNanos();
+            return random -> min.plusNanos(span > 0 ? (long) (random.nextDouble() * span) : 0);
+        }
+
+        /**
+         * Long-tailed delays around a median; with sigma 0.5 the p99 is
+         * about 3.2x the median.
+         */
+        static Latency logNormal(Duration median, double sigma) {
+            return random -> Duration.ofNanos((long) (median.toNanos() * Math.exp(sigma * random.nextGaussian())));
+        }
+    }
+}
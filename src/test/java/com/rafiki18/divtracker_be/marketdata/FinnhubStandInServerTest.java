@@ -0,0 +1,135 @@
+package com.rafiki18.divtracker_be.marketdata;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rafiki18.divtracker_be.config.properties.FinnhubProperties;
+import com.rafiki18.divtracker_be.dto.TickerSearchResult;
+import com.rafiki18.divtracker_be.repository.WatchlistItemRepository;
+import com.rafiki18.divtracker_be.service.PriceIngestionService;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Finnhub stand-in server Tests")
+class FinnhubStandInServerTest {
+
+    @Mock
+    private WatchlistItemRepository watchlistItemRepository;
+
+    @Mock
+    private PriceIngestionService priceIngestionService;
+
+    private FinnhubStandInServer finnhub;
+    private FinnhubProperties properties;
+    private FinnhubClient client;
+
+    @BeforeEach
+    void setUp() {
+        finnhub = new FinnhubStandInServer().seed(42).start();
+        properties = new FinnhubProperties();
+        properties.setApiUrl(finnhub.getApiUrl());
+        properties.setWebsocketUrl(finnhub.getWebsocketUrl());
+        properties.setApiKey("stand-in");
+        WebClient webClient = WebClient.builder()
+                .baseUrl(properties.getApiUrl())
+                .exchangeStrategies(ExchangeStrategies.builder()
+                        .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(2 * 1024 * 1024))
+                        .build())
+                .build();
+        client = new FinnhubClient(webClient, properties, new FinnhubRateBudget(properties),
+                new FinnhubCircuitBreakers(properties));
+    }
+
+    @AfterEach
+    void tearDown() {
+        finnhub.close();
+    }
+
+    @Test
+    @DisplayName("should serve recorded payloads to the real client")
+    void shouldServeRecordedPayloads() {
+        assertThat(client.fetchCurrentPrice("KO")).contains(new BigDecimal("68.29"));
+        assertThat(client.fetchCompanyProfile("KO")).map(FinnhubProfile::getName).contains("Coca-Cola Co");
+        assertThat(client.fetchEssentialMetrics("KO")).isPresent();
+
+        Optional<Map<String, BigDecimal>> fcf = client.calculateFCF("KO");
+        assertThat(fcf).isPresent();
+        assertThat(fcf.get()).containsKey("fcfPerShare");
+
+        List<TickerSearchResult> search = client.searchSymbols("apple");
+        assertThat(search).extracting(TickerSearchResult::getSymbol).contains("AAPL");
+        assertThat(client.fetchSymbols("US")).hasSize(10);
+        assertThat(finnhub.getRequestCount("/stock/profile2")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should open the client circuit on injected server errors")
+    void shouldOpenCircuitOnInjectedErrors() {
+        finnhub.errorRate(1.0);
+
+        for (int i = 0; i < properties.getCircuitFailureThreshold() + 3; i++) {
+            assertThat(client.fetchQuote("KO")).isEmpty();
+        }
+
+        assertThat(client.isCircuitOpen(FinnhubEndpoint.QUOTE)).isTrue();
+        assertThat(finnhub.getRequestCount("/quote")).isEqualTo(properties.getCircuitFailureThreshold());
+        assertThat(finnhub.getInjectedErrorCount()).isEqualTo(properties.getCircuitFailureThreshold());
+    }
+
+    @Test
+    @DisplayName("should answer 429 once the per-minute limit is used up")
+    void shouldThrottle() {
+        finnhub.rateLimitPerMinute(2);
+
+        assertThat(client.fetchQuote("KO")).isPresent();
+        assertThat(client.fetchQuote("KO")).isPresent();
+        assertThat(client.fetchQuote("KO")).isEmpty();
+
+        assertThat(finnhub.getThrottledCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should stream trades to the real WebSocket client within the symbol limit")
+    @SuppressWarnings("unchecked")
+    void shouldStreamTrades() {
+        finnhub.streamSymbolLimit(1);
+        when(watchlistItemRepository.findDistinctTickers()).thenReturn(List.of("AAPL", "KO"));
+        FinnhubWebSocketClient webSocketClient = new FinnhubWebSocketClient(
+                properties, watchlistItemRepository, priceIngestionService, new ObjectMapper());
+        try {
+            webSocketClient.connect();
+
+            ArgumentCaptor<Collection<PriceTrade>> trades = ArgumentCaptor.forClass(Collection.class);
+            verify(priceIngestionService, timeout(5_000).atLeastOnce()).ingest(trades.capture(), any());
+            Set<String> tickers = trades.getAllValues().stream()
+                    .flatMap(Collection::stream)
+                    .map(PriceTrade::getTicker)
+                    .collect(Collectors.toSet());
+            assertThat(tickers).containsExactly("AAPL");
+        } finally {
+            webSocketClient.shutdown();
+        }
+    }
+}
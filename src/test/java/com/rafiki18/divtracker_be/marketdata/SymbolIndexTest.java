@@ -0,0 +1,122 @@
+package com.rafiki18.divtracker_be.marketdata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.rafiki18.divtracker_be.dto.TickerSearchResult;
+
+@DisplayName("SymbolIndex Tests")
+class SymbolIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static final List<FinnhubSymbol> SYMBOLS = List.of(
+            symbol("MSFT", "MICROSOFT CORP"),
+            symbol("AAPL", "APPLE INC"),
+            symbol("BAM.A", "BROOKFIELD ASSET MGMT-A"),
+            symbol("AAPLX", "APPLE ETF"),
+            symbol("BAM", "BROOKFIELD ASSET MGMT"),
+            symbol("AA", "ALCOA CORP"),
+            symbol("aapl", "DUPLICATE"),
+            FinnhubSymbol.builder().description("NO SYMBOL").build());
+
+    @Test
+    @DisplayName("should return prefix matches in symbol order")
+    void shouldReturnPrefixMatchesInOrder() throws IOException {
+        SymbolIndex index = writeAndOpen(SYMBOLS);
+
+        assertThat(index.findByPrefix("AAP", 20))
+                .extracting(TickerSearchResult::getSymbol)
+                .containsExactly("AAPL", "AAPLX");
+        assertThat(index.findByPrefix("bam", 20))
+                .extracting(TickerSearchResult::getSymbol)
+                .containsExactly("BAM", "BAM.A");
+    }
+
+    @Test
+    @DisplayName("should deduplicate symbols and skip entries without symbol")
+    void shouldDeduplicate() throws IOException {
+        SymbolIndex index = writeAndOpen(SYMBOLS);
+
+        assertThat(index.size()).isEqualTo(6);
+        assertThat(index.findByPrefix("AAPL", 1)).singleElement()
+                .satisfies(result -> assertThat(result.getDescription()).isEqualTo("APPLE INC"));
+    }
+
+    @Test
+    @DisplayName("should decode all fields and keep null values")
+    void shouldDecodeAllFields() throws IOException {
+        SymbolIndex index = writeAndOpen(List.of(FinnhubSymbol.builder()
+                .symbol("KO").displaySymbol("KO").description("COCA-COLA CO").type("Common Stock")
+                .currency("USD").build()));
+
+        TickerSearchResult result = index.get(0);
+
+        assertThat(result.getSymbol()).isEqualTo("KO");
+        assertThat(result.getExchange()).isEqualTo("KO");
+        assertThat(result.getDescription()).isEqualTo("COCA-COLA CO");
+        assertThat(result.getType()).isEqualTo("Common Stock");
+        assertThat(result.getCurrency()).isEqualTo("USD");
+        assertThat(result.getFigi()).isNull();
+        assertThat(index.symbolAt(0)).isEqualTo("KO");
+        assertThat(index.descriptionAt(0)).isEqualTo("COCA-COLA CO");
+    }
+
+    @Test
+    @DisplayName("should honour limit and return empty for misses")
+    void shouldHonourLimitAndMisses() throws IOException {
+        SymbolIndex index = writeAndOpen(SYMBOLS);
+
+        assertThat(index.findByPrefix("A", 2)).extracting(TickerSearchResult::getSymbol)
+                .containsExactly("AA", "AAPL");
+        assertThat(index.findByPrefix("ZZZ", 20)).isEmpty();
+        assertThat(index.findByPrefix(" ", 20)).isEmpty();
+        assertThat(SymbolIndex.empty().findByPrefix("AAPL", 20)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should replace an existing file and keep build time")
+    void shouldReplaceExistingFile() throws IOException {
+        Path path = tempDir.resolve("symbols.idx");
+        SymbolIndex.write(path, SYMBOLS, Instant.ofEpochMilli(1_000));
+        Instant builtAt = Instant.ofEpochMilli(2_000);
+        SymbolIndex.write(path, List.of(symbol("KO", "COCA-COLA CO")), builtAt);
+
+        SymbolIndex index = SymbolIndex.open(path);
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.getBuiltAt()).isEqualTo(builtAt);
+        try (var files = Files.list(tempDir)) {
+            assertThat(files).containsExactly(path);
+        }
+    }
+
+    @Test
+    @DisplayName("should reject files that are not symbol indexes")
+    void shouldRejectForeignFiles() throws IOException {
+        Path path = Files.writeString(tempDir.resolve("other.idx"), "not an index file at all");
+
+        assertThatThrownBy(() -> SymbolIndex.open(path)).isInstanceOf(IOException.class);
+    }
+
+    private SymbolIndex writeAndOpen(List<FinnhubSymbol> symbols) throws IOException {
+        Path path = tempDir.resolve("symbols.idx");
+        SymbolIndex.write(path, symbols, Instant.now());
+        return SymbolIndex.open(path);
+    }
+
+    private static FinnhubSymbol symbol(String symbol, String description) {
+        return FinnhubSymbol.builder().symbol(symbol).displaySymbol(symbol).description(description).build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.rafiki18.divtracker_be.marketdata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.rafiki18.divtracker_be.dto.TickerSearchResult;
+
+@DisplayName("TickerSearchIndex Tests")
+class TickerSearchIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TickerSearchIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path path = tempDir.resolve("symbols.idx");
+        SymbolIndex.write(path, List.of(
+                symbol("AAPL", "APPLE INC"),
+                symbol("AAPLX", "APPLE ETF"),
+                symbol("MSFT", "MICROSOFT CORP"),
+                symbol("BAM", "BROOKFIELD ASSET MGMT"),
+                symbol("BN", "BROOKFIELD CORP"),
+                symbol("TAP", "MOLSON COORS BEVERAGE CO-B"),
+                symbol("KO", "COCA-COLA CO")), Instant.now());
+        index = TickerSearchIndex.build(SymbolIndex.open(path));
+    }
+
+    @Test
+    @DisplayName("should find companies by name")
+    void shouldFindByName() {
+        assertThat(symbols(index.search("apple", 20, ticker -> 0L)))
+                .containsExactly("AAPL", "AAPLX");
+        assertThat(symbols(index.search("molson coors", 20, ticker -> 0L)))
+                .containsExactly("TAP");
+    }
+
+    @Test
+    @DisplayName("should tolerate typos")
+    void shouldTolerateTypos() {
+        assertThat(symbols(index.search("microsft", 20, ticker -> 0L)))
+                .containsExactly("MSFT");
+    }
+
+    @Test
+    @DisplayName("should rank exact symbol match first")
+    void shouldRankExactSymbolFirst() {
+        assertThat(symbols(index.search("tap", 20, ticker -> 0L)))
+                .first().isEqualTo("TAP");
+        assertThat(symbols(index.search("KO", 20, ticker -> 0L)))
+                .first().isEqualTo("KO");
+    }
+
+    @Test
+    @DisplayName("should break ties by number of watchers")
+    void shouldRankByPopularity() {
+        assertThat(symbols(index.search("brookfield", 20, ticker -> 0L)))
+                .containsExactly("BN", "BAM");
+
+        Map<String, Long> watchers = Map.of("BAM", 12L);
+        assertThat(symbols(index.search("brookfield", 20, ticker -> watchers.getOrDefault(ticker, 0L))))
+                .containsExactly("BAM", "BN");
+    }
+
+    @Test
+    @DisplayName("should fall back to symbol prefix for single characters")
+    void shouldUsePrefixForSingleCharacter() {
+        assertThat(symbols(index.search("a", 20, ticker -> 0L)))
+                .containsExactly("AAPL", "AAPLX");
+    }
+
+    @Test
+    @DisplayName("should return empty for misses, limit and empty index")
+    void shouldHandleMissesAndLimits() {
+        assertThat(index.search("zzzz", 20, ticker -> 0L)).isEmpty();
+        assertThat(index.search("apple", 1, ticker -> 0L)).hasSize(1);
+        assertThat(TickerSearchIndex.empty().search("apple", 20, ticker -> 0L)).isEmpty();
+    }
+
+    private static List<String> symbols(List<TickerSearchResult> results) {
+        return results.stream().map(TickerSearchResult::getSymbol).toList();
+    }
+
+    private static FinnhubSymbol symbol(String symbol, String description) {
+        return FinnhubSymbol.builder().symbol(symbol).displaySymbol(symbol).description(description).build();
+    }
+}
@@ -1,26 +1,43 @@
 package com.rafiki18.divtracker_be.scheduler;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+
+import com.rafiki18.divtracker_be.config.properties.FinnhubProperties;
+import com.rafiki18.divtracker_be.config.properties.FundamentalsRefreshProperties;
+import com.rafiki18.divtracker_be.marketdata.FinnhubFailure;
+import com.rafiki18.divtracker_be.marketdata.FinnhubRateBudget;
+import com.rafiki18.divtracker_be.marketdata.FundamentalsDeletedEvent;
+import com.rafiki18.divtracker_be.model.FundamentalsRefreshTask;
 import com.rafiki18.divtracker_be.model.InstrumentFundamentals;
+import com.rafiki18.divtracker_be.repository.FundamentalsRefreshTaskRepository;
 import com.rafiki18.divtracker_be.repository.InstrumentFundamentalsRepository;
+import com.rafiki18.divtracker_be.repository.WatchlistItemRepository;
+import com.rafiki18.divtracker_be.repository.WatchlistItemRepository.TickerWatchers;
+import com.rafiki18.divtracker_be.service.FundamentalsRetryService;
 import com.rafiki18.divtracker_be.service.InstrumentFundamentalsService;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,7 +50,23 @@ class FundamentalsRefreshSchedulerTest {
     @Mock
     private InstrumentFundamentalsService fundamentalsService;
 
-    @InjectMocks
+    @Mock
+    private FundamentalsRefreshTaskRepository taskRepository;
+
+    @Mock
+    private WatchlistItemRepository watchlistItemRepository;
+
+    @Mock
+    private FundamentalsRetryService retryService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Captor
+    private ArgumentCaptor<Collection<FundamentalsRefreshTask>> taskCaptor;
+
+    private FundamentalsRefreshProperties properties;
+    private FinnhubRateBudget rateBudget;
     private FundamentalsRefreshScheduler scheduler;
 
     private InstrumentFundamentals staleFundamentals1;
@@ -42,6 +75,14 @@ class FundamentalsRefreshSchedulerTest {
 
     @BeforeEach
     void setUp() {
+        FinnhubProperties finnhubProperties = new FinnhubProperties();
+        finnhubProperties.setRateLimitPerMinute(60);
+        rateBudget = new FinnhubRateBudget(finnhubProperties);
+        properties = new FundamentalsRefreshProperties();
+        properties.setInteractiveReservePerMinute(20);
+        scheduler = new FundamentalsRefreshScheduler(repository, fundamentalsService, taskRepository,
+                watchlistItemRepository, rateBudget, properties, retryService, eventPublisher);
+
         staleFundamentals1 = InstrumentFundamentals.builder()
                 .ticker("AAPL")
                 .companyName("Apple Inc.")
@@ -65,99 +106,256 @@ class FundamentalsRefreshSchedulerTest {
     }
 
     @Test
-    @DisplayName("Should skip refresh when no stale fundamentals found")
+    @DisplayName("Should not enqueue anything when no fundamentals need refresh")
     void shouldSkipRefreshWhenNoStaleData() {
         // Given
-        when(repository.findFundamentalsNeedingRefresh(any(LocalDateTime.class)))
+        when(repository.findRefreshCandidates(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+        when(taskRepository.findReadyTasks(any(LocalDateTime.class), any(Pageable.class)))
                 .thenReturn(Collections.emptyList());
 
         // When
         scheduler.refreshStaleFundamentals();
 
         // Then
-        verify(repository).findFundamentalsNeedingRefresh(any(LocalDateTime.class));
+        verify(taskRepository).saveAll(taskCaptor.capture());
+        assertThat(taskCaptor.getValue()).isEmpty();
         verify(fundamentalsService, never()).refreshFundamentals(anyString());
     }
 
     @Test
-    @DisplayName("Should refresh stale fundamentals")
+    @DisplayName("Should enqueue stale, partial and missing tickers with priorities")
+    void shouldPlanQueueByQualityStalenessAndWatchers() {
+        // Given
+        InstrumentFundamentals expired = InstrumentFundamentals.builder()
+                .ticker("KO")
+                .dataQuality(InstrumentFundamentals.DataQuality.COMPLETE)
+                .lastUpdatedAt(LocalDateTime.now().minusHours(48))
+                .build();
+        when(repository.findRefreshCandidates(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(staleFundamentals1, expired));
+        when(repository.findAllTickers()).thenReturn(List.of("AAPL", "KO"));
+        when(watchlistItemRepository.countWatchersByTicker())
+                .thenReturn(List.of(watchers("AAPL", 3), watchers("KO", 10), watchers("NEW", 1)));
+
+        // When
+        scheduler.planRefreshQueue();
+
+        // Then
+        verify(taskRepository).saveAll(taskCaptor.capture());
+        Map<String, FundamentalsRefreshTask> tasks = new java.util.HashMap<>();
+        taskCaptor.getValue().forEach(task -> tasks.put(task.getTicker(), task));
+
+        assertThat(tasks).containsOnlyKeys("AAPL", "KO", "NEW");
+        assertThat(tasks.get("NEW").getReason()).isEqualTo(FundamentalsRefreshTask.Reason.MISSING);
+        assertThat(tasks.get("AAPL").getReason()).isEqualTo(FundamentalsRefreshTask.Reason.STALE);
+        assertThat(tasks.get("KO").getReason()).isEqualTo(FundamentalsRefreshTask.Reason.EXPIRED);
+        assertThat(tasks.get("NEW").getPriority()).isGreaterThan(tasks.get("AAPL").getPriority());
+        assertThat(tasks.get("AAPL").getPriority()).isGreaterThan(tasks.get("KO").getPriority());
+    }
+
+    @Test
+    @DisplayName("Should rank more watched and older tickers first")
+    void shouldWeightPriorityByWatchersAndStaleness() {
+        long fewWatchers = FundamentalsRefreshScheduler.priority(FundamentalsRefreshTask.Reason.EXPIRED, 48, 1);
+        long manyWatchers = FundamentalsRefreshScheduler.priority(FundamentalsRefreshTask.Reason.EXPIRED, 48, 20);
+        long older = FundamentalsRefreshScheduler.priority(FundamentalsRefreshTask.Reason.EXPIRED, 200, 1);
+        long partial = FundamentalsRefreshScheduler.priority(FundamentalsRefreshTask.Reason.PARTIAL, 7, 0);
+
+        assertThat(manyWatchers).isGreaterThan(fewWatchers);
+        assertThat(older).isGreaterThan(fewWatchers);
+        assertThat(partial).isGreaterThan(manyWatchers);
+    }
+
+    @Test
+    @DisplayName("Should drop queued tasks that no longer need refresh")
+    void shouldDropObsoleteTasks() {
+        // Given
+        FundamentalsRefreshTask obsolete = task("GONE");
+        when(taskRepository.findAll()).thenReturn(List.of(obsolete));
+        when(repository.findRefreshCandidates(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+
+        // When
+        scheduler.planRefreshQueue();
+
+        // Then
+        verify(taskRepository).deleteAllInBatch(List.of(obsolete));
+    }
+
+    @Test
+    @DisplayName("Should refresh queued tickers and remove them from the queue")
     void shouldRefreshStaleFundamentals() {
         // Given
-        List<InstrumentFundamentals> staleList = List.of(staleFundamentals1, staleFundamentals2);
-        when(repository.findFundamentalsNeedingRefresh(any(LocalDateTime.class)))
-                .thenReturn(staleList);
+        FundamentalsRefreshTask aapl = task("AAPL");
+        FundamentalsRefreshTask msft = task("MSFT");
+        when(taskRepository.findReadyTasks(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(aapl, msft));
         when(fundamentalsService.refreshFundamentals(anyString()))
                 .thenReturn(Optional.of(staleFundamentals1));
 
         // When
-        scheduler.refreshStaleFundamentals();
+        int refreshed = scheduler.drainRefreshQueue();
 
         // Then
-        verify(repository).findFundamentalsNeedingRefresh(any(LocalDateTime.class));
+        assertThat(refreshed).isEqualTo(2);
         verify(fundamentalsService).refreshFundamentals("AAPL");
         verify(fundamentalsService).refreshFundamentals("MSFT");
+        verify(taskRepository).delete(aapl);
+        verify(taskRepository).delete(msft);
     }
 
     @Test
-    @DisplayName("Should respect max refresh limit per batch")
-    void shouldRespectMaxRefreshLimit() {
-        // Given - create 10 stale fundamentals (more than MAX_REFRESHES_PER_RUN = 4)
-        List<InstrumentFundamentals> largeStalelist = new java.util.ArrayList<>();
-        for (int i = 1; i <= 10; i++) {
-            largeStalelist.add(InstrumentFundamentals.builder()
-                    .ticker("TICK" + i)
-                    .dataQuality(InstrumentFundamentals.DataQuality.STALE)
-                    .lastUpdatedAt(LocalDateTime.now().minusHours(30))
-                    .build());
+    @DisplayName("Should use the spare budget instead of a fixed cap")
+    void shouldRefreshUntilBudgetIsExhausted() {
+        // Given - 60 calls/min, 20 reserved, 4 calls per refresh => 10 refreshes
+        properties.setMaxRefreshesPerCycle(20);
+        List<FundamentalsRefreshTask> tasks = new java.util.ArrayList<>();
+        for (int i = 1; i <= 12; i++) {
+            tasks.add(task("TICK" + i));
         }
-        
-        when(repository.findFundamentalsNeedingRefresh(any(LocalDateTime.class)))
-                .thenReturn(largeStalelist);
-        when(fundamentalsService.refreshFundamentals(anyString()))
-                .thenReturn(Optional.of(staleFundamentals1));
+        when(taskRepository.findReadyTasks(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(tasks);
+        doAnswer(invocation -> {
+            for (int i = 0; i < FundamentalsRefreshScheduler.CALLS_PER_REFRESH; i++) {
+                rateBudget.recordCall();
+            }
+            return Optional.of(staleFundamentals1);
+        }).when(fundamentalsService).refreshFundamentals(anyString());
 
         // When
-        scheduler.refreshStaleFundamentals();
+        scheduler.drainRefreshQueue();
+
+        // Then
+        verify(fundamentalsService, times(10)).refreshFundamentals(anyString());
+    }
+
+    @Test
+    @DisplayName("Should not refresh when interactive traffic used the budget")
+    void shouldSkipDrainWhenBudgetExhausted() {
+        // Given
+        for (int i = 0; i < 40; i++) {
+            rateBudget.recordCall();
+        }
+
+        // When
+        scheduler.drainRefreshQueue();
 
-        // Then - should only refresh 4 (MAX_REFRESHES_PER_RUN)
-        verify(fundamentalsService, times(4)).refreshFundamentals(anyString());
+        // Then
+        verify(taskRepository, never()).findReadyTasks(any(LocalDateTime.class), any(Pageable.class));
+        verify(fundamentalsService, never()).refreshFundamentals(anyString());
     }
 
     @Test
-    @DisplayName("Should continue on individual refresh failure")
+    @DisplayName("Should record failures and continue with the next task")
     void shouldContinueOnRefreshFailure() {
         // Given
-        List<InstrumentFundamentals> staleList = List.of(staleFundamentals1, staleFundamentals2);
-        when(repository.findFundamentalsNeedingRefresh(any(LocalDateTime.class)))
-                .thenReturn(staleList);
-        
-        // First refresh fails
+        FundamentalsRefreshTask aapl = task("AAPL");
+        FundamentalsRefreshTask msft = task("MSFT");
+        when(taskRepository.findReadyTasks(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(aapl, msft));
         when(fundamentalsService.refreshFundamentals("AAPL"))
                 .thenThrow(new RuntimeException("API Error"));
-        
-        // Second refresh succeeds
         when(fundamentalsService.refreshFundamentals("MSFT"))
                 .thenReturn(Optional.of(staleFundamentals2));
 
         // When
-        scheduler.refreshStaleFundamentals();
+        scheduler.drainRefreshQueue();
 
-        // Then - should attempt both despite first failure
-        verify(fundamentalsService).refreshFundamentals("AAPL");
-        verify(fundamentalsService).refreshFundamentals("MSFT");
+        // Then - failed task stays queued with backoff data
+        verify(retryService).recordFailure("AAPL", FinnhubFailure.TRANSIENT, "API Error");
+        verify(taskRepository, never()).delete(aapl);
+        verify(taskRepository).delete(msft);
     }
 
     @Test
-    @DisplayName("Should not throw exception when scheduler fails")
+    @DisplayName("Should keep failed tasks that are still backing off")
+    void shouldKeepBackingOffTasks() {
+        // Given
+        FundamentalsRefreshTask failed = task("FAIL");
+        failed.setReason(FundamentalsRefreshTask.Reason.FAILED);
+        failed.setNextAttemptAt(LocalDateTime.now().plusHours(1));
+        when(taskRepository.findAll()).thenReturn(List.of(failed));
+        when(repository.findRefreshCandidates(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+
+        // When
+        scheduler.planRefreshQueue();
+
+        // Then
+        verify(taskRepository, never()).deleteAllInBatch(any());
+    }
+
+    @Test
+    @DisplayName("Should not throw exception when planning fails")
     void shouldHandleSchedulerException() {
         // Given
-        when(repository.findFundamentalsNeedingRefresh(any(LocalDateTime.class)))
+        when(watchlistItemRepository.countWatchersByTicker())
                 .thenThrow(new RuntimeException("Database error"));
 
         // When/Then - should not throw
-        scheduler.refreshStaleFundamentals();
-        
-        verify(repository).findFundamentalsNeedingRefresh(any(LocalDateTime.class));
+        scheduler.planRefreshQueue();
+
+        verify(taskRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Should report backlog and ETA")
+    void shouldReportQueueStatus() {
+        // Given - 40 spare calls/min => 10 refreshes/min
+        when(taskRepository.count()).thenReturn(80L);
+        when(taskRepository.countReadyTasks(any(LocalDateTime.class))).thenReturn(75L);
+
+        // When
+        Map<String, Object> status = scheduler.getQueueStatus();
+
+        // Then
+        assertThat(status)
+                .containsEntry("backlog", 80L)
+                .containsEntry("ready", 75L)
+                .containsEntry("refreshesPerMinute", 10.0)
+                .containsEntry("etaMinutes", 8L);
+    }
+
+    private FundamentalsRefreshTask task(String ticker) {
+        return FundamentalsRefreshTask.builder()
+                .ticker(ticker)
+                .reason(FundamentalsRefreshTask.Reason.STALE)
+                .enqueuedAt(LocalDateTime.now().minusMinutes(5))
+                .build();
+    }
+
+    private TickerWatchers watchers(String ticker, long count) {
+        return new TickerWatchers() {
+            @Override
+            public String getTicker() {
+                return ticker;
+            }
+
+            @Override
+            public Long getWatchers() {
+                return count;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Should not run the nightly cleanup unless enabled")
+    void shouldSkipScheduledCleanupByDefault() {
+        // When
+        scheduler.scheduledCleanup();
+
+        // Then
+        verify(repository, never()).findByLastUpdatedAtBefore(any(LocalDateTime.class));
+
+        // When enabled
+        properties.setCleanupEnabled(true);
+        when(repository.findByLastUpdatedAtBefore(any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+        scheduler.scheduledCleanup();
+
+        // Then
+        verify(repository).findByLastUpdatedAtBefore(any(LocalDateTime.class));
     }
 
     @Test
@@ -173,6 +371,7 @@ class FundamentalsRefreshSchedulerTest {
         // Then
         verify(repository).findByLastUpdatedAtBefore(any(LocalDateTime.class));
         verify(repository, never()).delete(any());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -189,6 +388,9 @@ class FundamentalsRefreshSchedulerTest {
         // Then
         verify(repository).findByLastUpdatedAtBefore(any(LocalDateTime.class));
         verify(repository).delete(veryOldStaleFundamentals);
+        ArgumentCaptor<FundamentalsDeletedEvent> event = ArgumentCaptor.forClass(FundamentalsDeletedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getTickers()).containsExactly("OLD");
     }
 
     @Test
@@ -238,6 +440,7 @@ class FundamentalsRefreshSchedulerTest {
 
         // Then - should keep PARTIAL data
         verify(repository, never()).delete(oldPartialFundamentals);
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -0,0 +1,94 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.rafiki18.divtracker_be.config.properties.ValuationProperties;
+
+@DisplayName("Batch Valuation Engine Tests")
+class BatchValuationEngineTest {
+
+    @Test
+    @DisplayName("Random batch split across fork/join tasks - same metrics as one valuation per item")
+    void testMatchesSingleValuations() {
+        FinancialMetricsService service = service(ValuationProperties.Kernel.DOUBLE, 16);
+        assertMatchesSingleValuations(service, 1_000);
+    }
+
+    @Test
+    @DisplayName("Small batch on the calling thread - same metrics as one valuation per item")
+    void testSmallBatch() {
+        FinancialMetricsService service = service(ValuationProperties.Kernel.DOUBLE, 256);
+        assertMatchesSingleValuations(service, 40);
+    }
+
+    @Test
+    @DisplayName("Reference mode - values each item with the BigDecimal methods")
+    void testReferenceMode() {
+        FinancialMetricsService service = service(ValuationProperties.Kernel.REFERENCE, 256);
+        assertMatchesSingleValuations(service, 40);
+    }
+
+    @Test
+    @DisplayName("Metrics are unavailable until the batch is valued again")
+    void testMetricsRequireValuation() {
+        FinancialMetricsService service = new FinancialMetricsService();
+        ValuationBatch batch = new ValuationBatch(1);
+        batch.add(new BigDecimal("100"), new BigDecimal("10"), new BigDecimal("0.05"), new BigDecimal("0.11"),
+                5, null, new BigDecimal("15"), null);
+        service.calculateValuations(batch);
+
+        assertThat(batch.metrics(0).getDcfFairValue()).isEqualByComparingTo("133.79");
+        assertThat(batch.metrics(0).getEstimatedIrr()).isEqualByComparingTo("22.97");
+
+        batch.add(new BigDecimal("80"), new BigDecimal("4"), new BigDecimal("0.15"), new BigDecimal("0.07"),
+                5, new BigDecimal("90"), new BigDecimal("15"), null);
+        assertThatThrownBy(() -> batch.metrics(0)).isInstanceOf(IllegalStateException.class);
+
+        service.calculateValuations(batch);
+        assertThat(batch.metrics(1).getDcfFairValue()).isNull();
+        assertThat(batch.metrics(1).getEstimatedRoi()).isEqualByComparingTo("51.27");
+    }
+
+    private static void assertMatchesSingleValuations(FinancialMetricsService service, int size) {
+        Random random = new Random(7);
+        ValuationBatch batch = new ValuationBatch(8);
+        List<ValuationMetrics> expected = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            BigDecimal price = BigDecimal.valueOf(1_000 + random.nextInt(49_000), 2);
+            BigDecimal fcf = price.multiply(BigDecimal.valueOf(250 + random.nextInt(1_000), 4))
+                    .setScale(4, RoundingMode.HALF_UP);
+            BigDecimal growth = BigDecimal.valueOf(random.nextInt(1_700) - 200, 4);
+            BigDecimal discount = BigDecimal.valueOf(600 + random.nextInt(900), 4);
+            // Mixed horizons, so items drop out of the year loop at different points
+            int years = 1 + random.nextInt(15);
+            BigDecimal target = random.nextBoolean() ? BigDecimal.valueOf(random.nextInt(50_000), 2) : null;
+            BigDecimal multiple = BigDecimal.valueOf(8 + random.nextInt(23));
+
+            assertThat(batch.add(price, fcf, growth, discount, years, target, multiple, null)).isEqualTo(i);
+            expected.add(service.calculateValuation(price, fcf, growth, discount, years, target, multiple));
+        }
+
+        service.calculateValuations(batch);
+
+        assertThat(batch.size()).isEqualTo(size);
+        for (int i = 0; i < size; i++) {
+            assertThat(batch.metrics(i)).as("item %d", i).usingRecursiveComparison().isEqualTo(expected.get(i));
+        }
+    }
+
+    private static FinancialMetricsService service(ValuationProperties.Kernel kernel, int chunkSize) {
+        ValuationProperties properties = new ValuationProperties();
+        properties.setKernel(kernel);
+        properties.setBatchChunkSize(chunkSize);
+        return new FinancialMetricsService(properties);
+    }
+}
\ No newline at end of file
@@ -230,6 +230,19 @@ class FinancialMetricsServiceTest {
         assertNull(service.calculateIRR(initialInvestment, cashFlows));
     }
 
+    @Test
+    @DisplayName("Calculate IRR - Negative IRR")
+    void testCalculateIRR_NegativeIrr() {
+        BigDecimal initialInvestment = new BigDecimal("-100.00");
+        List<BigDecimal> cashFlows = List.of(
+                new BigDecimal("10.00"),
+                new BigDecimal("40.00")
+        );
+
+        // -100 + 10/(1+r) + 40/(1+r)^2 = 0  =>  1 + r = (10 + sqrt(16100)) / 200
+        assertEquals(new BigDecimal("-31.56"), service.calculateIRR(initialInvestment, cashFlows));
+    }
+
     @Test
     @DisplayName("Calculate IRR - Empty cash flows should return null")
     void testCalculateIRR_EmptyCashFlows() {
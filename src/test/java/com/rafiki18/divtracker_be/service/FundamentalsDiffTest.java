@@ -0,0 +1,86 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.rafiki18.divtracker_be.model.FundamentalsChange;
+import com.rafiki18.divtracker_be.model.InstrumentFundamentals;
+
+@DisplayName("FundamentalsDiff Tests")
+class FundamentalsDiffTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 15, 12, 0);
+
+    private InstrumentFundamentals stored() {
+        return InstrumentFundamentals.builder()
+                .ticker("KO")
+                .companyName("Coca-Cola Co")
+                .currency("USD")
+                .peAnnual(new BigDecimal("24.1234"))
+                .fcfPerShareAnnual(new BigDecimal("2.2500"))
+                .marketCapitalization(new BigDecimal("260000.00"))
+                .dataVersion(3)
+                .build();
+    }
+
+    private InstrumentFundamentals fetched() {
+        return InstrumentFundamentals.builder()
+                .ticker("KO")
+                .companyName("Coca-Cola Co")
+                .currency("USD")
+                .peAnnual(new BigDecimal("24.1234"))
+                .fcfPerShareAnnual(new BigDecimal("2.25"))
+                .marketCapitalization(new BigDecimal("260000"))
+                .build();
+    }
+
+    @Test
+    @DisplayName("should report no changes when values are equal at column scale")
+    void apply_sameValues_noChanges() {
+        InstrumentFundamentals target = stored();
+        InstrumentFundamentals fresh = fetched();
+        // Extra precision beyond the column scale is not a change
+        fresh.setPeAnnual(new BigDecimal("24.123449"));
+
+        List<FundamentalsChange> changes = FundamentalsDiff.apply(target, fresh, NOW);
+
+        assertThat(changes).isEmpty();
+        assertThat(target.getDataVersion()).isEqualTo(3);
+        assertThat(target.getPeAnnual()).isEqualByComparingTo("24.1234");
+    }
+
+    @Test
+    @DisplayName("should copy changed values and log one entry per field")
+    void apply_changedValues_loggedAndApplied() {
+        InstrumentFundamentals target = stored();
+        InstrumentFundamentals fresh = fetched();
+        fresh.setFcfPerShareAnnual(new BigDecimal("2.40"));
+        fresh.setBeta(new BigDecimal("0.61"));
+        fresh.setCompanyName(null);
+
+        List<FundamentalsChange> changes = FundamentalsDiff.apply(target, fresh, NOW);
+
+        assertThat(changes)
+                .extracting(FundamentalsChange::getField, FundamentalsChange::getOldValue, FundamentalsChange::getNewValue)
+                .containsExactlyInAnyOrder(
+                        tuple("companyName", "Coca-Cola Co", null),
+                        tuple("fcfPerShareAnnual", "2.2500", "2.4000"),
+                        tuple("beta", null, "0.6100"));
+        assertThat(changes).allSatisfy(change -> {
+            assertThat(change.getTicker()).isEqualTo("KO");
+            assertThat(change.getDataVersion()).isEqualTo(4);
+            assertThat(change.getChangedAt()).isEqualTo(NOW);
+        });
+
+        assertThat(target.getDataVersion()).isEqualTo(4);
+        assertThat(target.getFcfPerShareAnnual()).isEqualByComparingTo("2.40");
+        assertThat(target.getBeta()).isEqualByComparingTo("0.61");
+        assertThat(target.getCompanyName()).isNull();
+    }
+}
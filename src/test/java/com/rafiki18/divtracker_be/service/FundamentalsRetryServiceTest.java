@@ -0,0 +1,93 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.rafiki18.divtracker_be.config.properties.FundamentalsRefreshProperties;
+import com.rafiki18.divtracker_be.marketdata.FinnhubFailure;
+import com.rafiki18.divtracker_be.model.FundamentalsRefreshTask;
+import com.rafiki18.divtracker_be.repository.FundamentalsRefreshTaskRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FundamentalsRetryService Tests")
+class FundamentalsRetryServiceTest {
+
+    @Mock
+    private FundamentalsRefreshTaskRepository taskRepository;
+
+    private FundamentalsRefreshProperties properties;
+    private FundamentalsRetryService retryService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new FundamentalsRefreshProperties();
+        retryService = new FundamentalsRetryService(taskRepository, properties);
+    }
+
+    @Test
+    @DisplayName("Should double the delay per failure up to the cap")
+    void shouldDoubleBackoffUpToCap() {
+        Duration base = properties.getFailedRetryAfter();
+
+        assertThat(retryService.backoff(FinnhubFailure.TRANSIENT, 1)).isEqualTo(base);
+        assertThat(retryService.backoff(FinnhubFailure.TRANSIENT, 2)).isEqualTo(base.multipliedBy(2));
+        assertThat(retryService.backoff(FinnhubFailure.TRANSIENT, 4)).isEqualTo(base.multipliedBy(8));
+        assertThat(retryService.backoff(FinnhubFailure.TRANSIENT, 50)).isEqualTo(base.multipliedBy(64));
+    }
+
+    @Test
+    @DisplayName("Should wait longer for permanent failures than for throttling")
+    void shouldUseBaseDelayPerFailureClass() {
+        assertThat(retryService.backoff(FinnhubFailure.THROTTLED, 1))
+                .isLessThan(retryService.backoff(FinnhubFailure.TRANSIENT, 1));
+        assertThat(retryService.backoff(FinnhubFailure.PLAN_LIMIT, 1))
+                .isEqualTo(properties.getPlanLimitRetryAfter())
+                .isGreaterThan(retryService.backoff(FinnhubFailure.NO_DATA, 1));
+    }
+
+    @Test
+    @DisplayName("Should queue a FAILED task with its next attempt on first failure")
+    void shouldQueueFailedTask() {
+        when(taskRepository.findById("KO")).thenReturn(Optional.empty());
+        when(taskRepository.save(any(FundamentalsRefreshTask.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        FundamentalsRefreshTask task = retryService.recordFailure("KO", FinnhubFailure.PLAN_LIMIT, "403 Forbidden");
+
+        assertThat(task.getReason()).isEqualTo(FundamentalsRefreshTask.Reason.FAILED);
+        assertThat(task.getAttempts()).isEqualTo(1);
+        assertThat(task.getLastFailure()).isEqualTo(FinnhubFailure.PLAN_LIMIT);
+        assertThat(task.getLastError()).isEqualTo("403 Forbidden");
+        assertThat(task.getNextAttemptAt()).isAfter(LocalDateTime.now().plusHours(23));
+        assertThat(task.isBackingOff(LocalDateTime.now())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should increase the backoff of an already queued task")
+    void shouldIncreaseBackoffOfQueuedTask() {
+        FundamentalsRefreshTask queued = FundamentalsRefreshTask.builder()
+                .ticker("KO")
+                .reason(FundamentalsRefreshTask.Reason.STALE)
+                .attempts(2)
+                .build();
+        when(taskRepository.findById("KO")).thenReturn(Optional.of(queued));
+        when(taskRepository.save(any(FundamentalsRefreshTask.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        FundamentalsRefreshTask task = retryService.recordFailure("KO", FinnhubFailure.TRANSIENT, "timeout");
+
+        assertThat(task.getReason()).isEqualTo(FundamentalsRefreshTask.Reason.STALE);
+        assertThat(task.getAttempts()).isEqualTo(3);
+        assertThat(task.getNextAttemptAt())
+                .isAfter(LocalDateTime.now().plus(properties.getFailedRetryAfter().multipliedBy(4)).minusSeconds(5));
+    }
+}
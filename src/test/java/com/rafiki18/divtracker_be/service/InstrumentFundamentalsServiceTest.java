@@ -0,0 +1,184 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.rafiki18.divtracker_be.marketdata.FinnhubClient;
+import com.rafiki18.divtracker_be.marketdata.FinnhubFailure;
+import com.rafiki18.divtracker_be.marketdata.FinnhubProfile;
+import com.rafiki18.divtracker_be.marketdata.FinnhubQuote;
+import com.rafiki18.divtracker_be.marketdata.FinnhubRateBudget;
+import com.rafiki18.divtracker_be.model.InstrumentFundamentals;
+import com.rafiki18.divtracker_be.model.InstrumentPrice;
+import com.rafiki18.divtracker_be.repository.FundamentalsChangeRepository;
+import com.rafiki18.divtracker_be.repository.InstrumentFundamentalsRepository;
+import com.rafiki18.divtracker_be.repository.InstrumentPriceRepository;
+
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InstrumentFundamentalsService Tests")
+class InstrumentFundamentalsServiceTest {
+
+    @Mock
+    private InstrumentFundamentalsRepository fundamentalsRepository;
+
+    @Mock
+    private InstrumentPriceRepository priceRepository;
+
+    @Mock
+    private FundamentalsChangeRepository changeRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private FinnhubClient finnhubClient;
+
+    @Mock
+    private FinnhubRateBudget rateBudget;
+
+    @Mock
+    private FundamentalsRetryService retryService;
+
+    @InjectMocks
+    private InstrumentFundamentalsService service;
+
+    private InstrumentFundamentals cached(String ticker) {
+        return InstrumentFundamentals.builder()
+                .ticker(ticker)
+                .fcfPerShareAnnual(new BigDecimal("5.00"))
+                .lastUpdatedAt(LocalDateTime.now().minusHours(1))
+                .build();
+    }
+
+    private InstrumentPrice price(String ticker, String value) {
+        return InstrumentPrice.builder().ticker(ticker).currentPrice(new BigDecimal(value)).build();
+    }
+
+    @Test
+    @DisplayName("getFundamentals(Collection) should serve fresh rows with one query and no Finnhub calls")
+    void getFundamentals_bulk_freshRowsFromCache() {
+        when(fundamentalsRepository.findByTickerIn(anyCollection()))
+                .thenReturn(List.of(cached("AAPL"), cached("MSFT")));
+        when(priceRepository.findByTickerIn(anyCollection()))
+                .thenReturn(List.of(price("AAPL", "175.00"), price("MSFT", "380.00")));
+
+        Map<String, InstrumentFundamentals> result = service.getFundamentals(List.of("aapl", " MSFT ", "AAPL"));
+
+        assertThat(result).containsOnlyKeys("AAPL", "MSFT");
+        assertThat(result.get("AAPL").getCurrentPrice()).isEqualByComparingTo("175.00");
+        verify(fundamentalsRepository, never()).findByTickerIgnoreCase(anyString());
+        verify(finnhubClient, never()).companyProfile(anyString());
+    }
+
+    @Test
+    @DisplayName("getFundamentals(Collection) should fetch missing tickers when the budget allows")
+    void getFundamentals_bulk_fetchesMissing() {
+        when(fundamentalsRepository.findByTickerIn(anyCollection())).thenReturn(List.of(cached("AAPL")));
+        when(priceRepository.findByTickerIn(anyCollection())).thenReturn(List.of(price("AAPL", "175.00")));
+        when(finnhubClient.isEnabled()).thenReturn(true);
+        when(rateBudget.remainingCapacity(0)).thenReturn(60);
+        when(finnhubClient.companyProfile("KO"))
+                .thenReturn(Mono.just(FinnhubProfile.builder().name("Coca-Cola Co").build()));
+        when(finnhubClient.quote("KO")).thenReturn(Mono.just(FinnhubQuote.builder()
+                .currentPrice(new BigDecimal("62.50"))
+                .changePercent(new BigDecimal("0.5"))
+                .build()));
+        when(finnhubClient.essentialMetrics("KO")).thenReturn(Mono.empty());
+        when(finnhubClient.freeCashFlow(eq("KO"), any())).thenReturn(Mono.empty());
+        when(fundamentalsRepository.findById("KO")).thenReturn(Optional.empty());
+        when(fundamentalsRepository.save(any(InstrumentFundamentals.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Map<String, InstrumentFundamentals> result = service.getFundamentals(List.of("AAPL", "KO"));
+
+        assertThat(result).containsOnlyKeys("AAPL", "KO");
+        assertThat(result.get("KO").getCompanyName()).isEqualTo("Coca-Cola Co");
+        verify(finnhubClient, never()).companyProfile("AAPL");
+    }
+
+    @Test
+    @DisplayName("getFundamentals(Collection) should not fetch when the rate budget is exhausted")
+    void getFundamentals_bulk_budgetExhausted() {
+        InstrumentFundamentals stale = cached("AAPL");
+        stale.setLastUpdatedAt(LocalDateTime.now().minusDays(2));
+        when(fundamentalsRepository.findByTickerIn(anyCollection())).thenReturn(List.of(stale));
+        when(priceRepository.findByTickerIn(anyCollection())).thenReturn(List.of());
+        when(finnhubClient.isEnabled()).thenReturn(true);
+        when(rateBudget.remainingCapacity(0)).thenReturn(3);
+
+        Map<String, InstrumentFundamentals> result = service.getFundamentals(List.of("AAPL", "KO"));
+
+        // Stale row is still served, unknown ticker is left to the background refresh
+        assertThat(result).containsOnlyKeys("AAPL");
+        verify(finnhubClient, never()).companyProfile(anyString());
+        verify(fundamentalsRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("getFundamentals(Collection) should not fetch tickers that are backing off")
+    void getFundamentals_bulk_skipsBackingOff() {
+        when(fundamentalsRepository.findByTickerIn(anyCollection())).thenReturn(List.of());
+        when(priceRepository.findByTickerIn(anyCollection())).thenReturn(List.of());
+        when(finnhubClient.isEnabled()).thenReturn(true);
+        when(retryService.findBackingOff(anyCollection())).thenReturn(Set.of("KO"));
+        when(rateBudget.remainingCapacity(0)).thenReturn(60);
+
+        Map<String, InstrumentFundamentals> result = service.getFundamentals(List.of("KO"));
+
+        assertThat(result).isEmpty();
+        verify(finnhubClient, never()).companyProfile(anyString());
+    }
+
+    @Test
+    @DisplayName("getFundamentals should serve the cached row while the ticker is backing off")
+    void getFundamentals_backingOffServesCache() {
+        InstrumentFundamentals stale = cached("KO");
+        stale.setLastUpdatedAt(LocalDateTime.now().minusDays(2));
+        when(fundamentalsRepository.findByTickerIgnoreCase("KO")).thenReturn(Optional.of(stale));
+        when(finnhubClient.isEnabled()).thenReturn(true);
+        when(retryService.isBackingOff("KO")).thenReturn(true);
+        when(fundamentalsRepository.save(any(InstrumentFundamentals.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Optional<InstrumentFundamentals> result = service.getFundamentals("KO");
+
+        assertThat(result).isPresent();
+        verify(finnhubClient, never()).companyProfile(anyString());
+    }
+
+    @Test
+    @DisplayName("refreshFundamentals should record a failure when Finnhub returns nothing")
+    void refreshFundamentals_recordsFailure() {
+        when(finnhubClient.isEnabled()).thenReturn(true);
+        when(finnhubClient.companyProfile("ZZZ")).thenReturn(Mono.empty());
+        when(finnhubClient.quote("ZZZ")).thenReturn(Mono.empty());
+        when(finnhubClient.essentialMetrics("ZZZ")).thenReturn(Mono.empty());
+        when(finnhubClient.freeCashFlow(eq("ZZZ"), any())).thenReturn(Mono.empty());
+
+        Optional<InstrumentFundamentals> result = service.refreshFundamentals("zzz");
+
+        assertThat(result).isEmpty();
+        verify(retryService).recordFailure(eq("ZZZ"), eq(FinnhubFailure.NO_DATA), anyString());
+        verify(fundamentalsRepository, never()).save(any());
+    }
+}
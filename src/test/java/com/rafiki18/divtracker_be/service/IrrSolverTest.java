@@ -0,0 +1,96 @@
+package com.rafiki18.divtracker_be.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("IRR Solver Tests")
+class IrrSolverTest {
+
+    private final IrrSolver solver = new IrrSolver();
+
+    @Test
+    @DisplayName("Single period - IRR is the simple return")
+    void testSinglePeriod() {
+        solver.cashFlows(1)[0] = 110;
+
+        assertThat(solver.solve(100, Double.NaN)).isCloseTo(0.10, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("Annuity with terminal value - NPV at the IRR is zero")
+    void testNpvAtIrrIsZero() {
+        double[] cashFlows = cashFlows(10, 12, 14, 16, 120);
+
+        double irr = solver.solve(100, Double.NaN);
+
+        double npv = -100;
+        for (int year = 1; year <= cashFlows.length; year++) {
+            npv += cashFlows[year - 1] / Math.pow(1 + irr, year);
+        }
+        assertThat(npv).isCloseTo(0, within(1e-5));
+    }
+
+    @Test
+    @DisplayName("Warm start - converges in at most 2 steps after a price tick")
+    void testWarmStart() {
+        fillPosition(100, 2.5, 0.08, 10, 18);
+        double irr = solver.solve(100, Double.NaN);
+        int coldIterations = solver.getIterations();
+
+        fillPosition(100, 2.5, 0.08, 10, 18);
+        double ticked = solver.solve(100.40, irr);
+
+        assertThat(solver.getIterations()).isLessThanOrEqualTo(2).isLessThan(coldIterations);
+        assertThat(ticked).isLessThan(irr);
+    }
+
+    @Test
+    @DisplayName("Newton overshoot - falls back to the bracketed search")
+    void testOvershootFallsBackToBrent() {
+        // Price 500 for 1/year and a 15x exit: IRR around -49%
+        fillPosition(500, 1, 0, 5, 15);
+
+        double irr = solver.solve(500, Double.NaN);
+
+        assertThat(irr * 100).isCloseTo(-49.17, within(0.005));
+    }
+
+    @Test
+    @DisplayName("Far-off warm start - falls back to the bracketed search")
+    void testFarOffGuess() {
+        cashFlows(10, 12, 14, 16, 120);
+        double expected = solver.solve(100, Double.NaN);
+
+        // NPV is flat out there and the Newton step lands below -100%
+        double irr = solver.solve(100, 100_000);
+
+        assertThat(irr).isCloseTo(expected, within(1e-6));
+    }
+
+    @Test
+    @DisplayName("No sign change - no IRR")
+    void testNoRoot() {
+        cashFlows(-5, -5, -5);
+
+        assertThat(solver.solve(100, Double.NaN)).isNaN();
+        assertThat(solver.solve(0, Double.NaN)).isNaN();
+    }
+
+    private double[] cashFlows(double... values) {
+        double[] cashFlows = solver.cashFlows(values.length);
+        System.arraycopy(values, 0, cashFlows, 0, values.length);
+        return cashFlows;
+    }
+
+    private void fillPosition(double price, double fcf, double growth, int years, double exitMultiple) {
+        double[] cashFlows = solver.cashFlows(years);
+        double projected = fcf;
+        for (int year = 1; year <= years; year++) {
+            projected *= 1 + growth;
+            cashFlows[year - 1] = projected;
+        }
+        cashFlows[years - 1] += projected * exitMultiple;
+    }
+}
@@ -2,6 +2,8 @@ package com.rafiki18.divtracker_be.service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -9,9 +11,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -25,6 +29,9 @@ class MarketDataEnrichmentServiceTest {
     @Mock
     private InstrumentFundamentalsService fundamentalsService;
 
+    @Mock
+    private FundamentalsBackgroundRefresher backgroundRefresher;
+
     @InjectMocks
     private MarketDataEnrichmentService enrichmentService;
 
@@ -240,4 +247,43 @@ class MarketDataEnrichmentServiceTest {
         verify(fundamentalsService).getFundamentals("AAPL");
         verify(fundamentalsService).getFundamentals("AaPl");
     }
+
+    @Test
+    @DisplayName("Should serve cached fundamentals and refresh outdated tickers in the background")
+    void shouldRefreshOutdatedTickersInBackground() {
+        // Given: AAPL fresh, KO stale, MSFT never fetched
+        InstrumentFundamentals stale = InstrumentFundamentals.builder()
+                .ticker("KO")
+                .currentPrice(new BigDecimal("62.00"))
+                .fcfPerShareAnnual(new BigDecimal("2.60"))
+                .lastUpdatedAt(LocalDateTime.now().minusDays(2))
+                .build();
+        List<String> tickers = List.of("AAPL", "ko", "MSFT", "AAPL");
+        when(fundamentalsService.getCachedFundamentals(tickers))
+                .thenReturn(Map.of("AAPL", completeFundamentals, "KO", stale));
+        when(backgroundRefresher.claim(List.of("KO", "MSFT"))).thenReturn(List.of("MSFT"));
+
+        // When
+        Map<String, InstrumentFundamentals> result = enrichmentService.getCachedFundamentals(tickers);
+
+        // Then: no blocking fetch, only the unclaimed ticker is submitted
+        assertThat(result).containsOnlyKeys("AAPL", "KO");
+        verify(backgroundRefresher).refreshAsync(List.of("MSFT"));
+        verify(fundamentalsService, never()).getFundamentals(anyString());
+    }
+
+    @Test
+    @DisplayName("Should not schedule a refresh when every ticker is fresh")
+    void shouldNotRefreshFreshTickers() {
+        // Given
+        when(fundamentalsService.getCachedFundamentals(List.of("AAPL")))
+                .thenReturn(Map.of("AAPL", completeFundamentals));
+
+        // When
+        enrichmentService.getCachedFundamentals(List.of("AAPL"));
+
+        // Then
+        verify(backgroundRefresher, never()).claim(any());
+        verify(backgroundRefresher, never()).refreshAsync(any());
+    }
 }
@@ -0,0 +1,61 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * One Monte Carlo DCF simulation of 100k paths over a 10 year horizon,
+ * split across the common fork/join pool (default chunk size) and on a
+ * single task (chunk size equal to the paths), to see what the parallel
+ * split buys on the machine at hand.
+ *
+ * Run from the IDE or with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.rafiki18.divtracker_be.service.MonteCarloDcfBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MonteCarloDcfBenchmark {
+
+    private static final int PATHS = 100_000;
+
+    private static final MonteCarloDcf.Distribution GROWTH = new MonteCarloDcf.Distribution(0.07, 0.02);
+    private static final MonteCarloDcf.Distribution DISCOUNT = new MonteCarloDcf.Distribution(0.09, 0.01);
+    private static final MonteCarloDcf.Distribution MULTIPLE = new MonteCarloDcf.Distribution(18, 3.6);
+
+    @Param({"8192", "100000"})
+    public int chunkSize;
+
+    @Benchmark
+    public MonteCarloDcf.Result simulate() {
+        return MonteCarloDcf.simulate(6.5, 170, 10, GROWTH, DISCOUNT, MULTIPLE, PATHS, 42, chunkSize);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MonteCarloDcfBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,77 @@
+package com.rafiki18.divtracker_be.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Monte Carlo DCF Tests")
+class MonteCarloDcfTest {
+
+    private static final MonteCarloDcf.Distribution GROWTH = new MonteCarloDcf.Distribution(0.05, 0.02);
+    private static final MonteCarloDcf.Distribution DISCOUNT = new MonteCarloDcf.Distribution(0.10, 0.01);
+    private static final MonteCarloDcf.Distribution MULTIPLE = new MonteCarloDcf.Distribution(15, 3);
+
+    @Test
+    @DisplayName("No variance - every path is the deterministic exit-multiple DCF")
+    void testNoVariance() {
+        MonteCarloDcf.Result result = MonteCarloDcf.simulate(10, 100, 5,
+                new MonteCarloDcf.Distribution(0.05, 0), new MonteCarloDcf.Distribution(0.10, 0),
+                new MonteCarloDcf.Distribution(15, 0), 10_000, 1, 1_000);
+
+        double expected = 0;
+        double projected = 10;
+        for (int year = 1; year <= 5; year++) {
+            projected *= 1.05;
+            expected += projected / Math.pow(1.10, year);
+        }
+        expected += projected * 15 / Math.pow(1.10, 5);
+
+        assertThat(result.mean).isCloseTo(expected, within(1e-9));
+        assertThat(result.stdDev).isCloseTo(0, within(1e-6));
+        assertThat(result.percentiles).usingComparatorWithPrecision(1e-9).containsOnly(expected);
+        assertThat(result.probabilityUndervalued).isEqualTo(expected > 100 ? 1.0 : 0.0);
+    }
+
+    @Test
+    @DisplayName("Same seed - same result however the paths are scheduled")
+    void testDeterministicBySeed() {
+        MonteCarloDcf.Result first = MonteCarloDcf.simulate(6.5, 170, 7, GROWTH, DISCOUNT, MULTIPLE, 50_000, 7, 1_024);
+        MonteCarloDcf.Result second = MonteCarloDcf.simulate(6.5, 170, 7, GROWTH, DISCOUNT, MULTIPLE, 50_000, 7, 1_024);
+        MonteCarloDcf.Result otherSeed = MonteCarloDcf.simulate(6.5, 170, 7, GROWTH, DISCOUNT, MULTIPLE, 50_000, 8,
+                1_024);
+
+        assertThat(second.percentiles).containsExactly(first.percentiles);
+        assertThat(second.mean).isEqualTo(first.mean);
+        assertThat(second.probabilityUndervalued).isEqualTo(first.probabilityUndervalued);
+        assertThat(otherSeed.percentiles).isNotEqualTo(first.percentiles);
+    }
+
+    @Test
+    @DisplayName("Parallel and single-task runs agree statistically")
+    void testParallelMatchesSequential() {
+        MonteCarloDcf.Result parallel = MonteCarloDcf.simulate(6.5, 170, 7, GROWTH, DISCOUNT, MULTIPLE, 200_000, 3,
+                4_096);
+        MonteCarloDcf.Result sequential = MonteCarloDcf.simulate(6.5, 170, 7, GROWTH, DISCOUNT, MULTIPLE, 200_000, 3,
+                200_000);
+
+        assertThat(parallel.paths).isEqualTo(200_000);
+        assertThat(parallel.mean).isCloseTo(sequential.mean, within(sequential.stdDev * 0.02));
+        assertThat(parallel.percentiles[3]).isCloseTo(sequential.percentiles[3], within(sequential.stdDev * 0.02));
+        assertThat(parallel.probabilityUndervalued).isCloseTo(sequential.probabilityUndervalued, within(0.01));
+    }
+
+    @Test
+    @DisplayName("Percentiles are ordered and bracket the median")
+    void testPercentilesOrdered() {
+        MonteCarloDcf.Result result = MonteCarloDcf.simulate(6.5, 170, 7, GROWTH, DISCOUNT, MULTIPLE, 20_000, 11,
+                2_048);
+
+        for (int i = 1; i < result.percentiles.length; i++) {
+            assertThat(result.percentiles[i]).isGreaterThanOrEqualTo(result.percentiles[i - 1]);
+        }
+        assertThat(result.percentiles[0]).isLessThan(result.mean);
+        assertThat(result.percentiles[6]).isGreaterThan(result.mean);
+        assertThat(result.probabilityUndervalued).isBetween(0.0, 1.0);
+    }
+}
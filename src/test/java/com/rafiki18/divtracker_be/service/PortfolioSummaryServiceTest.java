@@ -0,0 +1,164 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.rafiki18.divtracker_be.dto.PortfolioSummaryResponse;
+import com.rafiki18.divtracker_be.marketdata.FundamentalsChangedEvent;
+import com.rafiki18.divtracker_be.marketdata.PricesChangedEvent;
+import com.rafiki18.divtracker_be.model.InstrumentFundamentals;
+import com.rafiki18.divtracker_be.model.InstrumentPrice;
+import com.rafiki18.divtracker_be.model.WatchlistItem;
+import com.rafiki18.divtracker_be.repository.WatchlistItemRepository;
+import com.rafiki18.divtracker_be.repository.WatchlistItemRepository.ItemMarketData;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PortfolioSummaryService Tests")
+class PortfolioSummaryServiceTest {
+
+    @Mock
+    private WatchlistItemRepository watchlistItemRepository;
+
+    private final FinancialMetricsService financialMetricsService = new FinancialMetricsService();
+
+    private PortfolioSummaryService service;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        service = new PortfolioSummaryService(watchlistItemRepository, financialMetricsService);
+        when(watchlistItemRepository.streamWithMarketDataByUserId(userId)).thenAnswer(invocation -> Stream.of(
+                row("KO", new BigDecimal("0.06"), "Consumer Staples", "3.00", "260000", "62.00", "2.60", "0.60"),
+                row("MSFT", null, "Technology", "0.80", "3000000", "410.00", "10.20", "0.90"),
+                row("ABBV", null, "Healthcare", "3.80", "300000", "160.00", "10.00", "0.55"),
+                new Row(WatchlistItem.builder().id(UUID.randomUUID()).userId(userId).ticker("NEWCO").build(),
+                        null, null)));
+    }
+
+    @Test
+    @DisplayName("Aggregates yields, valuation metrics and sectors with each item's parameters")
+    void testSummary() {
+        PortfolioSummaryResponse summary = service.summarize(userId);
+
+        assertThat(summary.getTotalItems()).isEqualTo(4);
+        assertThat(summary.getValuedItems()).isEqualTo(3);
+        assertThat(summary.getAverageDividendYield()).isEqualByComparingTo("2.53");
+        // (3.00 x 260000 + 0.80 x 3000000 + 3.80 x 300000) / 3560000
+        assertThat(summary.getWeightedDividendYield()).isEqualByComparingTo("1.21");
+
+        List<ValuationMetrics> expected = List.of(
+                expected("KO", new BigDecimal("0.06"), "62.00", "2.60", "0.60"),
+                expected("MSFT", null, "410.00", "10.20", "0.90"),
+                expected("ABBV", null, "160.00", "10.00", "0.55"));
+        double expectedMargin = expected.stream()
+                .mapToDouble(metrics -> metrics.getMarginOfSafety().doubleValue()).average().orElseThrow();
+        long expectedUndervalued = Stream.of(0, 1, 2)
+                .filter(i -> new BigDecimal(List.of("62.00", "410.00", "160.00").get(i))
+                        .compareTo(expected.get(i).getDcfFairValue()) < 0)
+                .count();
+        assertThat(summary.getAverageMarginOfSafety().doubleValue()).isCloseTo(expectedMargin, within(0.01));
+        assertThat(summary.getUndervaluedCount()).isEqualTo((int) expectedUndervalued);
+
+        assertThat(summary.getSectors()).extracting(PortfolioSummaryResponse.SectorBreakdown::getSector)
+                .containsExactly("Consumer Staples", "Healthcare", "Technology", PortfolioSummaryService.UNKNOWN_SECTOR);
+        assertThat(summary.getSectors()).allSatisfy(sector -> {
+            assertThat(sector.getItems()).isEqualTo(1);
+            assertThat(sector.getWeight()).isEqualByComparingTo("0.25");
+        });
+        assertThat(summary.getSectors().get(0).getAverageMarginOfSafety())
+                .isEqualByComparingTo(expected.get(0).getMarginOfSafety());
+        assertThat(summary.getSectors().get(3).getAverageMarginOfSafety()).isNull();
+    }
+
+    @Test
+    @DisplayName("Cached per user until a change touches one of the user's tickers or the watchlist")
+    void testCacheInvalidation() {
+        PortfolioSummaryResponse first = service.summarize(userId);
+        assertThat(service.summarize(userId)).isSameAs(first);
+
+        // Tickers the user does not follow
+        service.onPricesChanged(new PricesChangedEvent(this, Set.of("XOM")));
+        service.onFundamentalsChanged(new FundamentalsChangedEvent(this, "PEP", Set.of("beta"), 2));
+        assertThat(service.summarize(userId)).isSameAs(first);
+        verify(watchlistItemRepository, times(1)).streamWithMarketDataByUserId(userId);
+
+        service.onPricesChanged(new PricesChangedEvent(this, Set.of("KO", "XOM")));
+        PortfolioSummaryResponse afterPrice = service.summarize(userId);
+        assertThat(afterPrice).isNotSameAs(first);
+
+        service.onFundamentalsChanged(new FundamentalsChangedEvent(this, "msft", Set.of("beta"), 2));
+        PortfolioSummaryResponse afterFundamentals = service.summarize(userId);
+        assertThat(afterFundamentals).isNotSameAs(afterPrice);
+
+        service.evict(userId);
+        assertThat(service.summarize(userId)).isNotSameAs(afterFundamentals);
+        verify(watchlistItemRepository, times(4)).streamWithMarketDataByUserId(userId);
+    }
+
+    private ValuationMetrics expected(String ticker, BigDecimal growthRate, String price, String fcf, String beta) {
+        InstrumentFundamentals fundamentals = fundamentals(ticker, null, "0", null, fcf, beta);
+        return financialMetricsService.calculateValuation(new BigDecimal(price), new BigDecimal(fcf),
+                growthRate != null ? growthRate : financialMetricsService.estimateGrowthRate(fundamentals),
+                financialMetricsService.estimateDiscountRate(fundamentals), 5, null, new BigDecimal("15"));
+    }
+
+    private Row row(String ticker, BigDecimal growthRate, String sector, String dividendYield, String marketCap,
+                    String price, String fcf, String beta) {
+        WatchlistItem item = WatchlistItem.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .ticker(ticker)
+                .estimatedFcfGrowthRate(growthRate)
+                .build();
+        return new Row(item, fundamentals(ticker, sector, dividendYield, marketCap, fcf, beta),
+                InstrumentPrice.builder().ticker(ticker).currentPrice(new BigDecimal(price)).version(1).build());
+    }
+
+    private static InstrumentFundamentals fundamentals(String ticker, String sector, String dividendYield,
+                                                       String marketCap, String fcf, String beta) {
+        return InstrumentFundamentals.builder()
+                .ticker(ticker)
+                .sector(sector)
+                .dividendYield(new BigDecimal(dividendYield))
+                .dividendGrowthRate5Y(new BigDecimal("5.00"))
+                .marketCapitalization(marketCap != null ? new BigDecimal(marketCap) : null)
+                .fcfPerShareAnnual(new BigDecimal(fcf))
+                .beta(new BigDecimal(beta))
+                .build();
+    }
+
+    private record Row(WatchlistItem item, InstrumentFundamentals fundamentals, InstrumentPrice price)
+            implements ItemMarketData {
+
+        @Override
+        public WatchlistItem getItem() {
+            return item;
+        }
+
+        @Override
+        public InstrumentFundamentals getFundamentals() {
+            return fundamentals;
+        }
+
+        @Override
+        public InstrumentPrice getPrice() {
+            return price;
+        }
+    }
+}
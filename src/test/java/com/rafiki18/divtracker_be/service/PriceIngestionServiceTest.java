@@ -0,0 +1,145 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.rafiki18.divtracker_be.marketdata.PriceTrade;
+import com.rafiki18.divtracker_be.marketdata.PricesChangedEvent;
+import com.rafiki18.divtracker_be.model.MarketPriceTick;
+import com.rafiki18.divtracker_be.repository.InstrumentFundamentalsRepository;
+import com.rafiki18.divtracker_be.repository.InstrumentPriceRepository;
+import com.rafiki18.divtracker_be.repository.MarketPriceTickRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceIngestionService Tests")
+class PriceIngestionServiceTest {
+
+    @Mock
+    private InstrumentFundamentalsRepository instrumentFundamentalsRepository;
+
+    @Mock
+    private InstrumentPriceRepository instrumentPriceRepository;
+
+    @Mock
+    private MarketPriceTickRepository marketPriceTickRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private PriceIngestionService priceIngestionService;
+
+    @Captor
+    private ArgumentCaptor<List<MarketPriceTick>> ticksCaptor;
+
+    @Captor
+    private ArgumentCaptor<List<PriceTrade>> tradesCaptor;
+
+    private static final Instant NOW = Instant.parse("2026-01-15T15:00:00Z");
+
+    private PriceTrade trade(String ticker, String price, Instant tradeAt) {
+        return PriceTrade.builder()
+                .ticker(ticker)
+                .price(new BigDecimal(price))
+                .tradeAt(tradeAt)
+                .source("FINNHUB_WEBHOOK")
+                .build();
+    }
+
+    @Test
+    @DisplayName("should ignore trades for untracked tickers")
+    void ingest_untrackedTickers_ignored() {
+        when(instrumentFundamentalsRepository.findTrackedTickers(anyCollection())).thenReturn(List.of());
+
+        Set<String> updated = priceIngestionService.ingest(
+                List.of(trade("UNKNOWN", "100.00", NOW)), ticker -> true);
+
+        assertThat(updated).isEmpty();
+        verify(marketPriceTickRepository, never()).saveAll(any());
+        verify(instrumentPriceRepository, never()).applyTrades(any());
+    }
+
+    @Test
+    @DisplayName("should keep every tick but update each price once with the newest trade")
+    void ingest_severalTradesPerTicker_coalescesToNewest() {
+        when(instrumentFundamentalsRepository.findTrackedTickers(anyCollection())).thenReturn(List.of("AAPL", "MSFT"));
+        when(instrumentPriceRepository.applyTrades(anyList())).thenReturn(new int[] {1, 1});
+
+        Set<String> updated = priceIngestionService.ingest(List.of(
+                trade("AAPL", "175.00", NOW),
+                trade("AAPL", "176.00", NOW.plusSeconds(2)),
+                trade("AAPL", "174.00", NOW.plusSeconds(1)),
+                trade("MSFT", "385.00", NOW),
+                trade("IGNORED", "1.00", NOW)), ticker -> true);
+
+        verify(marketPriceTickRepository).saveAll(ticksCaptor.capture());
+        assertThat(ticksCaptor.getValue()).hasSize(4)
+                .allSatisfy(tick -> assertThat(tick.getReceivedAt()).isNotNull());
+
+        verify(instrumentPriceRepository).applyTrades(tradesCaptor.capture());
+        assertThat(tradesCaptor.getValue())
+                .extracting(PriceTrade::getTicker, PriceTrade::getPrice)
+                .containsExactly(
+                        tuple("AAPL", new BigDecimal("176.00")),
+                        tuple("MSFT", new BigDecimal("385.00")));
+        assertThat(updated).containsExactlyInAnyOrder("AAPL", "MSFT");
+        verify(instrumentPriceRepository, never()).insertMissing(any());
+
+        ArgumentCaptor<PricesChangedEvent> event = ArgumentCaptor.forClass(PricesChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getTickers()).containsExactlyInAnyOrder("AAPL", "MSFT");
+    }
+
+    @Test
+    @DisplayName("should insert a price row when the ticker has none yet")
+    void ingest_missingPriceRow_inserts() {
+        when(instrumentFundamentalsRepository.findTrackedTickers(anyCollection())).thenReturn(List.of("PEP"));
+        when(instrumentPriceRepository.applyTrades(anyList())).thenReturn(new int[] {0});
+        when(instrumentPriceRepository.findExistingTickers(anyCollection())).thenReturn(Set.of());
+        when(instrumentPriceRepository.insertMissing(anyList())).thenReturn(Set.of("PEP"));
+
+        Set<String> updated = priceIngestionService.ingest(
+                List.of(trade("PEP", "170.00", NOW)), ticker -> true);
+
+        verify(instrumentPriceRepository).insertMissing(tradesCaptor.capture());
+        assertThat(tradesCaptor.getValue()).extracting(PriceTrade::getTicker).containsExactly("PEP");
+        assertThat(updated).containsExactly("PEP");
+    }
+
+    @Test
+    @DisplayName("should drop out-of-order trades rejected by the database")
+    void ingest_outOfOrderTrade_notApplied() {
+        when(instrumentFundamentalsRepository.findTrackedTickers(anyCollection())).thenReturn(List.of("KO"));
+        when(instrumentPriceRepository.applyTrades(anyList())).thenReturn(new int[] {0});
+        when(instrumentPriceRepository.findExistingTickers(anyCollection())).thenReturn(Set.of("KO"));
+        when(instrumentPriceRepository.insertMissing(anyList())).thenReturn(Set.of());
+
+        Set<String> updated = priceIngestionService.ingest(
+                List.of(trade("KO", "60.00", NOW)), ticker -> true);
+
+        verify(instrumentPriceRepository).insertMissing(tradesCaptor.capture());
+        assertThat(tradesCaptor.getValue()).isEmpty();
+        assertThat(updated).isEmpty();
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+}
@@ -0,0 +1,103 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.rafiki18.divtracker_be.dto.PushNotificationDto;
+import com.rafiki18.divtracker_be.model.InstrumentFundamentals;
+import com.rafiki18.divtracker_be.model.User;
+import com.rafiki18.divtracker_be.model.UserFcmToken;
+import com.rafiki18.divtracker_be.repository.WatchlistItemRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PushNotificationService Tests")
+class PushNotificationServiceTest {
+
+    @Mock
+    private FcmTokenService fcmTokenService;
+
+    @Mock
+    private FirebasePushService firebasePushService;
+
+    @Mock
+    private WatchlistItemRepository watchlistItemRepository;
+
+    @Mock
+    private InstrumentFundamentalsService fundamentalsService;
+
+    @InjectMocks
+    private PushNotificationService service;
+
+    @Test
+    @DisplayName("sendDailySummaries() - One grouped ticker query and cached fundamentals only")
+    void testSendDailySummaries() {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        UserFcmToken aliceToken = token(alice);
+        UserFcmToken bobToken = token(bob);
+        when(fcmTokenService.getTokensForDailySummary()).thenReturn(List.of(aliceToken, bobToken));
+        when(watchlistItemRepository.findDistinctTickersByUserIdIn(Set.of(alice, bob))).thenReturn(List.of(
+                userTicker(alice, "KO"), userTicker(alice, "MSFT"), userTicker(bob, "KO")));
+        when(fundamentalsService.getCachedFundamentals(Set.of("KO", "MSFT"))).thenReturn(Map.of(
+                "KO", fundamentals("KO", "1.2"),
+                "MSFT", fundamentals("MSFT", "-0.4")));
+
+        service.sendDailySummaries();
+
+        ArgumentCaptor<PushNotificationDto> aliceSummary = ArgumentCaptor.forClass(PushNotificationDto.class);
+        verify(firebasePushService).sendNotificationToMultiple(eq(List.of(aliceToken)), aliceSummary.capture());
+        assertThat(aliceSummary.getValue().getData())
+                .containsEntry("tickerCount", "2")
+                .containsEntry("gainersCount", "1")
+                .containsEntry("losersCount", "1");
+        verify(firebasePushService).sendNotificationToMultiple(eq(List.of(bobToken)), any());
+        verify(watchlistItemRepository, never()).findDistinctTickersByUserId(any());
+        verify(fundamentalsService, never()).getFundamentals(anyCollection());
+    }
+
+    private static UserFcmToken token(UUID userId) {
+        return UserFcmToken.builder()
+                .user(User.builder().id(userId).build())
+                .fcmToken("token-" + userId)
+                .build();
+    }
+
+    private static WatchlistItemRepository.UserTicker userTicker(UUID userId, String ticker) {
+        return new WatchlistItemRepository.UserTicker() {
+            @Override
+            public UUID getUserId() {
+                return userId;
+            }
+
+            @Override
+            public String getTicker() {
+                return ticker;
+            }
+        };
+    }
+
+    private static InstrumentFundamentals fundamentals(String ticker, String dailyChangePercent) {
+        return InstrumentFundamentals.builder()
+                .ticker(ticker)
+                .dailyChangePercent(new BigDecimal(dailyChangePercent))
+                .build();
+    }
+}
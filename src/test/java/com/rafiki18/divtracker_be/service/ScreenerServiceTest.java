@@ -0,0 +1,265 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.rafiki18.divtracker_be.config.properties.ValuationProperties;
+import com.rafiki18.divtracker_be.dto.ScreenerRequest;
+import com.rafiki18.divtracker_be.dto.ScreenerResultResponse;
+import com.rafiki18.divtracker_be.marketdata.FundamentalsDeletedEvent;
+import com.rafiki18.divtracker_be.model.InstrumentFundamentals;
+import com.rafiki18.divtracker_be.model.InstrumentPrice;
+import com.rafiki18.divtracker_be.repository.InstrumentFundamentalsRepository;
+import com.rafiki18.divtracker_be.repository.InstrumentPriceRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ScreenerService Tests")
+class ScreenerServiceTest {
+
+    @Mock
+    private InstrumentFundamentalsRepository fundamentalsRepository;
+
+    @Mock
+    private InstrumentPriceRepository priceRepository;
+
+    private final FinancialMetricsService financialMetricsService = new FinancialMetricsService();
+
+    private ScreenerService service;
+
+    @BeforeEach
+    void setUp() {
+        ValuationProperties properties = new ValuationProperties();
+        // Sync on every request
+        properties.setScreenerSyncIntervalMillis(0);
+        properties.setScreenerChunkSize(2);
+        service = new ScreenerService(fundamentalsRepository, priceRepository, financialMetricsService, properties);
+
+        // Growth from the dividend growth, discount rate from the beta
+        when(fundamentalsRepository.findAll()).thenReturn(List.of(
+                fundamentals("KO", "3.10", "4.50", "0.70", "2.60", "0.60", 1),
+                fundamentals("ABBV", "3.80", "9.00", "0.45", "10.00", "0.55", 1),
+                fundamentals("MO", "8.50", "4.00", "0.55", "5.00", "0.65", 1),
+                fundamentals("TXN", "3.00", "10.00", "0.95", "6.00", "1.00", 1),
+                fundamentals("MSFT", "0.80", "10.20", "0.25", "9.00", "0.90", 1),
+                fundamentals("HIGH", "4.00", "9.00", "0.50", "1.00", "1.10", 1),
+                fundamentals("NOFCF", "4.00", "9.00", null, null, "0.90", 1)));
+        when(priceRepository.findAll()).thenReturn(List.of(
+                price("KO", "62.00", 1), price("ABBV", "160.00", 1), price("MO", "45.00", 1),
+                price("TXN", "170.00", 1), price("MSFT", "410.00", 1), price("HIGH", "100.00", 1),
+                price("NOFCF", "20.00", 1)));
+    }
+
+    @Test
+    @DisplayName("Undervalued, Chowder >= 12 and payout < 60% - sorted by margin of safety")
+    void testFilters() {
+        ScreenerRequest filters = ScreenerRequest.builder()
+                .undervalued(true)
+                .minChowderRuleValue(new BigDecimal("12"))
+                .maxPayoutRatioFcf(new BigDecimal("0.60"))
+                .build();
+
+        Page<ScreenerResultResponse> page = service.screen(filters, PageRequest.of(0, 20,
+                Sort.by(Sort.Direction.DESC, "marginOfSafety")));
+
+        assertThat(page.getContent()).extracting(ScreenerResultResponse::getTicker).containsExactly("ABBV", "MO");
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).allSatisfy(result -> {
+            assertThat(result.getUndervalued()).isTrue();
+            assertThat(result.getChowderRuleValue()).isGreaterThanOrEqualTo(new BigDecimal("12"));
+            assertThat(result.getPayoutRatioFcf()).isLessThanOrEqualTo(new BigDecimal("0.60"));
+        });
+    }
+
+    @Test
+    @DisplayName("Default-parameter valuation matches calculateValuation with the derived rates")
+    void testDefaultValuation() {
+        ScreenerResultResponse ko = service.screen(null, PageRequest.of(0, 20, Sort.by("ticker"))).getContent()
+                .stream().filter(result -> result.getTicker().equals("KO")).findFirst().orElseThrow();
+
+        InstrumentFundamentals fundamentals = fundamentals("KO", "3.10", "4.50", "0.70", "2.60", "0.60", 1);
+        ValuationMetrics expected = financialMetricsService.calculateValuation(new BigDecimal("62.00"),
+                new BigDecimal("2.60"), financialMetricsService.estimateGrowthRate(fundamentals),
+                financialMetricsService.estimateDiscountRate(fundamentals), 5, null, new BigDecimal("15"));
+        assertThat(ko.getEstimatedFcfGrowthRate()).isEqualByComparingTo("0.045");
+        assertThat(ko.getDiscountRate()).isEqualByComparingTo("0.077");
+        assertThat(ko.getDcfFairValue()).isEqualByComparingTo(expected.getDcfFairValue());
+        assertThat(ko.getUndervalued()).isFalse();
+        assertThat(ko.getMarginOfSafety()).isEqualByComparingTo(expected.getMarginOfSafety());
+        assertThat(ko.getEstimatedIRR()).isEqualByComparingTo(expected.getEstimatedIrr());
+        assertThat(ko.getFcfYield()).isEqualByComparingTo(expected.getFcfYield());
+    }
+
+    @Test
+    @DisplayName("Sort ascending, missing values last, paged")
+    void testSortAndPaging() {
+        Page<ScreenerResultResponse> first = service.screen(null,
+                PageRequest.of(0, 3, Sort.by(Sort.Direction.ASC, "payoutRatioFcf")));
+        Page<ScreenerResultResponse> second = service.screen(null,
+                PageRequest.of(1, 3, Sort.by(Sort.Direction.ASC, "payoutRatioFcf")));
+        Page<ScreenerResultResponse> last = service.screen(null,
+                PageRequest.of(2, 3, Sort.by(Sort.Direction.ASC, "payoutRatioFcf")));
+
+        assertThat(first.getTotalElements()).isEqualTo(7);
+        assertThat(first.getContent()).extracting(ScreenerResultResponse::getTicker)
+                .containsExactly("MSFT", "ABBV", "HIGH");
+        assertThat(second.getContent()).extracting(ScreenerResultResponse::getTicker)
+                .containsExactly("MO", "KO", "TXN");
+        assertThat(last.getContent()).extracting(ScreenerResultResponse::getTicker).containsExactly("NOFCF");
+        assertThat(last.getContent().get(0).getDcfFairValue()).isNull();
+    }
+
+    @Test
+    @DisplayName("Changed fundamentals and newer prices patch only their rows")
+    void testIncrementalSync() {
+        service.screen(null, PageRequest.of(0, 20, Sort.by("ticker")));
+
+        // KO price moves, MSFT fundamentals change, ABBV price and TXN fundamentals re-read with the same version
+        when(priceRepository.findByUpdatedAtAfter(any())).thenReturn(List.of(
+                price("KO", "40.00", 2), price("ABBV", "160.00", 1)));
+        when(fundamentalsRepository.findRecentlyUpdated(any())).thenReturn(List.of(
+                fundamentals("MSFT", "0.80", "10.20", "0.20", "9.00", "0.90", 2),
+                fundamentals("TXN", "3.00", "10.00", "0.95", "6.00", "1.00", 1)));
+
+        Page<ScreenerResultResponse> page = service.screen(null, PageRequest.of(0, 20, Sort.by("ticker")));
+
+        verify(fundamentalsRepository, times(1)).findAll();
+        verify(priceRepository, never()).findByTickerIn(any());
+        assertThat(page.getContent()).extracting(ScreenerResultResponse::getTicker)
+                .containsExactly("ABBV", "HIGH", "KO", "MO", "MSFT", "NOFCF", "TXN");
+        ScreenerResultResponse ko = page.getContent().get(2);
+        assertThat(ko.getCurrentPrice()).isEqualByComparingTo("40.00");
+        // DCF 53.84 is now above the price
+        assertThat(ko.getUndervalued()).isTrue();
+        assertThat(page.getContent().get(4).getPayoutRatioFcf()).isEqualByComparingTo("0.20");
+    }
+
+    @Test
+    @DisplayName("New ticker from a fundamentals change is appended with its price")
+    void testNewTicker() {
+        service.screen(null, PageRequest.of(0, 20, Sort.by("ticker")));
+
+        when(fundamentalsRepository.findRecentlyUpdated(any())).thenReturn(List.of(
+                fundamentals("JNJ", "3.10", "5.90", "0.65", "7.40", "0.55", 1)));
+        when(priceRepository.findByTickerIn(Set.of("JNJ"))).thenReturn(List.of(price("JNJ", "155.00", 3)));
+
+        Page<ScreenerResultResponse> page = service.screen(ScreenerRequest.builder().sector("healthcare").build(),
+                PageRequest.of(0, 20, Sort.by("ticker")));
+
+        assertThat(page.getContent()).extracting(ScreenerResultResponse::getTicker).containsExactly("JNJ");
+        assertThat(page.getContent().get(0).getCurrentPrice()).isEqualByComparingTo("155.00");
+        assertThat(page.getContent().get(0).getDcfFairValue()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Deleted fundamentals are compacted out of the snapshot")
+    void testDeletedTicker() {
+        service.screen(null, PageRequest.of(0, 20, Sort.by("ticker")));
+
+        service.onFundamentalsDeleted(new FundamentalsDeletedEvent(this, Set.of("ko", "MO")));
+
+        Page<ScreenerResultResponse> page = service.screen(null, PageRequest.of(0, 20, Sort.by("ticker")));
+
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(page.getContent()).extracting(ScreenerResultResponse::getTicker)
+                .containsExactly("ABBV", "HIGH", "MSFT", "NOFCF", "TXN");
+        assertThat(page.getContent().get(4).getCurrentPrice()).isEqualByComparingTo("170.00");
+        assertThat(service.snapshot().row("TXN")).isLessThan(5);
+    }
+
+    @Test
+    @DisplayName("Snapshot is reloaded in full once the reload interval has passed")
+    void testFullReload() {
+        ValuationProperties properties = new ValuationProperties();
+        properties.setScreenerSyncIntervalMillis(0);
+        properties.setScreenerReloadIntervalMillis(0);
+        ScreenerService reloading = new ScreenerService(fundamentalsRepository, priceRepository,
+                financialMetricsService, properties);
+        reloading.screen(null, PageRequest.of(0, 20, Sort.by("ticker")));
+
+        when(fundamentalsRepository.findAll()).thenReturn(List.of(
+                fundamentals("KO", "3.10", "4.50", "0.70", "2.60", "0.60", 1)));
+        Page<ScreenerResultResponse> page = reloading.screen(null, PageRequest.of(0, 20, Sort.by("ticker")));
+
+        verify(fundamentalsRepository, times(2)).findAll();
+        assertThat(page.getContent()).extracting(ScreenerResultResponse::getTicker).containsExactly("KO");
+    }
+
+    @Test
+    @DisplayName("Bounded heap returns the same prefix as a full sort, page by page")
+    void testTopMatchesFullSort() {
+        Random random = new Random(42);
+        int[] values = random.ints(500, 0, 50).toArray();
+        // Ties broken by row, like the ticker tie-break of the screener
+        ScreenerService.RowComparator comparator = (a, b) -> values[a] != values[b]
+                ? Integer.compare(values[a], values[b]) : Integer.compare(a, b);
+        int[] rows = IntStream.range(0, values.length).filter(row -> random.nextBoolean()).toArray();
+        int[] sorted = Arrays.stream(rows).boxed().sorted(comparator::compare).mapToInt(Integer::intValue).toArray();
+
+        for (int limit : new int[] {0, 1, 7, 20, rows.length, rows.length + 5}) {
+            assertThat(ScreenerService.top(rows, limit, comparator))
+                    .containsExactly(Arrays.copyOf(sorted, Math.min(limit, rows.length)));
+        }
+
+        // Every page is the matching slice of the full order
+        List<String> all = service.screen(null, PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "dividendYield")))
+                .map(ScreenerResultResponse::getTicker).getContent();
+        for (int page = 0; page < 4; page++) {
+            assertThat(service.screen(null, PageRequest.of(page, 2, Sort.by(Sort.Direction.DESC, "dividendYield")))
+                    .map(ScreenerResultResponse::getTicker).getContent())
+                    .isEqualTo(all.subList(Math.min(page * 2, all.size()), Math.min(page * 2 + 2, all.size())));
+        }
+    }
+
+    @Test
+    @DisplayName("Unknown sort field is rejected")
+    void testUnknownSort() {
+        assertThatThrownBy(() -> service.screen(null, PageRequest.of(0, 20, Sort.by("companyName"))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static InstrumentFundamentals fundamentals(String ticker, String dividendYield, String dividendGrowth,
+                                                       String payoutRatio, String fcfPerShare, String beta,
+                                                       long version) {
+        return InstrumentFundamentals.builder()
+                .ticker(ticker)
+                .companyName(ticker + " Inc")
+                .sector(ticker.equals("JNJ") ? "Healthcare" : "Consumer Staples")
+                .dividendYield(new BigDecimal(dividendYield))
+                .dividendGrowthRate5Y(new BigDecimal(dividendGrowth))
+                .chowderRuleValue(new BigDecimal(dividendYield).add(new BigDecimal(dividendGrowth)))
+                .payoutRatioFcf(payoutRatio != null ? new BigDecimal(payoutRatio) : null)
+                .fcfPerShareAnnual(fcfPerShare != null ? new BigDecimal(fcfPerShare) : null)
+                .beta(new BigDecimal(beta))
+                .dataVersion(version)
+                .build();
+    }
+
+    private static InstrumentPrice price(String ticker, String price, long version) {
+        return InstrumentPrice.builder()
+                .ticker(ticker)
+                .currentPrice(new BigDecimal(price))
+                .version(version)
+                .build();
+    }
+}
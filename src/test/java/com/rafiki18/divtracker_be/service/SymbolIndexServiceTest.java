@@ -0,0 +1,78 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.rafiki18.divtracker_be.config.properties.SymbolIndexProperties;
+import com.rafiki18.divtracker_be.marketdata.FinnhubClient;
+import com.rafiki18.divtracker_be.marketdata.FinnhubSymbol;
+import com.rafiki18.divtracker_be.marketdata.SymbolIndex;
+import com.rafiki18.divtracker_be.marketdata.SymbolIndexUpdatedEvent;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SymbolIndexService Tests")
+class SymbolIndexServiceTest {
+
+    @Mock
+    private FinnhubClient finnhubClient;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @TempDir
+    Path tempDir;
+
+    private SymbolIndexProperties properties;
+    private SymbolIndexService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SymbolIndexProperties();
+        properties.setPath(tempDir.resolve("symbols-us.idx"));
+        service = new SymbolIndexService(finnhubClient, properties, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Builds the index right after startup when no index file exists")
+    void testBuildIfMissing() {
+        when(finnhubClient.isEnabled()).thenReturn(true);
+        when(finnhubClient.fetchSymbols("US")).thenReturn(List.of(
+                FinnhubSymbol.builder().symbol("AAPL").description("APPLE INC").build()));
+        service.load();
+
+        service.buildIfMissing();
+
+        assertThat(service.getIndex().size()).isEqualTo(1);
+        assertThat(service.lookup("AA", 20)).hasSize(1);
+        verify(eventPublisher).publishEvent(any(SymbolIndexUpdatedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Keeps the loaded index file without calling Finnhub")
+    void testBuildIfMissingWithIndexFile() throws IOException {
+        SymbolIndex.write(properties.getPath(), List.of(
+                FinnhubSymbol.builder().symbol("MSFT").description("MICROSOFT CORP").build()), Instant.now());
+        service.load();
+
+        service.buildIfMissing();
+
+        assertThat(service.getIndex().size()).isEqualTo(1);
+        verify(finnhubClient, never()).fetchSymbols(any());
+    }
+}
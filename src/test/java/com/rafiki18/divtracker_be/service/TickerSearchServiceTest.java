@@ -1,5 +1,8 @@
 package com.rafiki18.divtracker_be.service;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 
@@ -8,8 +11,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -17,6 +24,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.rafiki18.divtracker_be.dto.TickerSearchResult;
 import com.rafiki18.divtracker_be.marketdata.FinnhubClient;
+import com.rafiki18.divtracker_be.marketdata.FinnhubSymbol;
+import com.rafiki18.divtracker_be.marketdata.SymbolIndex;
+import com.rafiki18.divtracker_be.repository.WatchlistItemRepository;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("TickerSearchService Tests")
@@ -24,6 +34,15 @@ class TickerSearchServiceTest {
     
     @Mock
     private FinnhubClient finnhubClient;
+
+    @Mock
+    private SymbolIndexService symbolIndexService;
+
+    @Mock
+    private WatchlistItemRepository watchlistItemRepository;
+
+    @TempDir
+    Path tempDir;
     
     @InjectMocks
     private TickerSearchService service;
@@ -32,6 +51,8 @@ class TickerSearchServiceTest {
     
     @BeforeEach
     void setUp() {
+        lenient().when(symbolIndexService.getIndex()).thenReturn(SymbolIndex.empty());
+        
         mockResults = List.of(
             TickerSearchResult.builder()
                 .symbol("AAPL")
@@ -52,6 +73,99 @@ class TickerSearchServiceTest {
         );
     }
     
+    @Test
+    @DisplayName("lookupTicker() - Debe resolver desde el índice local sin llamar a Finnhub")
+    void testLookupTicker_UsesLocalIndex() throws IOException {
+        // Arrange
+        Path path = tempDir.resolve("symbols.idx");
+        SymbolIndex.write(path, List.of(
+                FinnhubSymbol.builder().symbol("AAPL").description("APPLE INC").build()), Instant.now());
+        when(symbolIndexService.getIndex()).thenReturn(SymbolIndex.open(path));
+        when(symbolIndexService.lookup("AAPL", 20)).thenReturn(mockResults);
+        
+        // Act
+        List<TickerSearchResult> results = service.lookupTicker("  AAPL ");
+        
+        // Assert
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).getSymbol()).isEqualTo("AAPL");
+        verifyNoInteractions(finnhubClient);
+    }
+    
+    @Test
+    @DisplayName("lookupTicker() - Sin índice local debe usar Finnhub filtrado por prefijo")
+    void testLookupTicker_FallsBackToFinnhubWithoutIndex() {
+        // Arrange
+        when(finnhubClient.isEnabled()).thenReturn(true);
+        when(finnhubClient.searchSymbols("aapl.")).thenReturn(mockResults);
+        
+        // Act
+        List<TickerSearchResult> results = service.lookupTicker("aapl.");
+        
+        // Assert
+        assertThat(results).extracting(TickerSearchResult::getSymbol).containsExactly("AAPL.SW");
+        verify(symbolIndexService, never()).lookup("aapl.", 20);
+    }
+    
+    @Test
+    @DisplayName("lookupTicker() - Sin índice local ni Finnhub debe retornar lista vacía")
+    void testLookupTicker_NoIndexAndFinnhubDisabled() {
+        // Arrange
+        when(finnhubClient.isEnabled()).thenReturn(false);
+        
+        // Act
+        List<TickerSearchResult> results = service.lookupTicker("AAPL");
+        
+        // Assert
+        assertThat(results).isEmpty();
+        verify(finnhubClient, never()).searchSymbols("AAPL");
+    }
+    
+    @Test
+    @DisplayName("lookupTicker() - Debe retornar lista vacía cuando query está vacío")
+    void testLookupTicker_EmptyQuery() {
+        // Act
+        List<TickerSearchResult> results = service.lookupTicker(" ");
+        
+        // Assert
+        assertThat(results).isEmpty();
+        verifyNoInteractions(symbolIndexService);
+    }
+    
+    @Test
+    @DisplayName("searchTickers() - Debe resolver desde el índice local sin llamar a Finnhub")
+    void testSearchTickers_UsesLocalIndex() throws IOException {
+        // Arrange
+        Path path = tempDir.resolve("symbols.idx");
+        SymbolIndex.write(path, List.of(
+                FinnhubSymbol.builder().symbol("AAPL").description("APPLE INC").build(),
+                FinnhubSymbol.builder().symbol("MSFT").description("MICROSOFT CORP").build()), Instant.now());
+        when(symbolIndexService.getIndex()).thenReturn(SymbolIndex.open(path));
+        
+        // Act
+        List<TickerSearchResult> results = service.searchTickers("apple");
+        
+        // Assert
+        assertThat(results).extracting(TickerSearchResult::getSymbol).containsExactly("AAPL");
+        verifyNoInteractions(finnhubClient);
+    }
+    
+    @Test
+    @DisplayName("searchTickers() - Debe cachear la respuesta de Finnhub cuando no hay resultados locales")
+    void testSearchTickers_CachesFinnhubFallback() {
+        // Arrange
+        when(finnhubClient.isEnabled()).thenReturn(true);
+        when(finnhubClient.searchSymbols("molson coors")).thenReturn(mockResults);
+        
+        // Act
+        service.searchTickers("molson coors");
+        List<TickerSearchResult> results = service.searchTickers("MOLSON COORS ");
+        
+        // Assert
+        assertThat(results).hasSize(2);
+        verify(finnhubClient, times(1)).searchSymbols("molson coors");
+    }
+    
     @Test
     @DisplayName("searchTickers() - Debe usar searchSymbols directamente")
     void testSearchTickers_Success() {
@@ -72,7 +186,7 @@ class TickerSearchServiceTest {
         
         verify(finnhubClient).isEnabled();
         verify(finnhubClient).searchSymbols(query);
-        verify(finnhubClient, org.mockito.Mockito.never()).lookupSymbol(query);
+        verify(finnhubClient, org.mockito.Mockito.never()).fetchSymbols("US");
     }
     
     @Test
@@ -110,7 +224,7 @@ class TickerSearchServiceTest {
         // Assert
         assertThat(results).isEmpty();
         verify(finnhubClient).isEnabled();
-        verify(finnhubClient, org.mockito.Mockito.never()).lookupSymbol(query);
+        verify(finnhubClient, org.mockito.Mockito.never()).fetchSymbols("US");
         verify(finnhubClient, org.mockito.Mockito.never()).searchSymbols(query);
     }
     
@@ -145,7 +259,30 @@ class TickerSearchServiceTest {
         // Assert
         assertThat(results).isEmpty();
         verify(finnhubClient).searchSymbols(query);
-        verify(finnhubClient, org.mockito.Mockito.never()).lookupSymbol(query);
+        verify(finnhubClient, org.mockito.Mockito.never()).fetchSymbols("US");
+    }
+    
+    @Test
+    @DisplayName("searchTickers() - No debe cachear respuestas vacías de Finnhub (pueden ser un fallo)")
+    void testSearchTickers_DoesNotCacheEmptyResults() {
+        // Arrange
+        String query = "KOF";
+        List<TickerSearchResult> later = List.of(TickerSearchResult.builder()
+                .symbol("KOF")
+                .description("Coca-Cola FEMSA")
+                .type("Common Stock")
+                .build());
+        when(finnhubClient.isEnabled()).thenReturn(true);
+        when(finnhubClient.searchSymbols(query)).thenReturn(Collections.emptyList(), later);
+        
+        // Act
+        List<TickerSearchResult> first = service.searchTickers(query);
+        List<TickerSearchResult> second = service.searchTickers(query);
+        
+        // Assert
+        assertThat(first).isEmpty();
+        assertThat(second).extracting(TickerSearchResult::getSymbol).containsExactly("KOF");
+        verify(finnhubClient, times(2)).searchSymbols(query);
     }
     
     @Test
@@ -162,7 +299,7 @@ class TickerSearchServiceTest {
         // Assert
         assertThat(results).hasSize(2);
         verify(finnhubClient).searchSymbols(query);
-        verify(finnhubClient, org.mockito.Mockito.never()).lookupSymbol(query);
+        verify(finnhubClient, org.mockito.Mockito.never()).fetchSymbols("US");
     }
     
     @Test
@@ -179,7 +316,7 @@ class TickerSearchServiceTest {
         // Assert
         assertThat(results).hasSize(2);
         verify(finnhubClient).searchSymbols(query);
-        verify(finnhubClient, org.mockito.Mockito.never()).lookupSymbol(query);
+        verify(finnhubClient, org.mockito.Mockito.never()).fetchSymbols("US");
     }
     
     @Test
@@ -238,7 +375,7 @@ class TickerSearchServiceTest {
         assertThat(results).extracting(TickerSearchResult::getType)
                 .containsExactly("Common Stock", "Option");
         verify(finnhubClient).searchSymbols("apple");
-        verify(finnhubClient, org.mockito.Mockito.never()).lookupSymbol("apple");
+        verify(finnhubClient, org.mockito.Mockito.never()).fetchSymbols("US");
     }
     
     @Test
@@ -270,6 +407,6 @@ class TickerSearchServiceTest {
         assertThat(result.getCurrency()).isEqualTo("USD");
         assertThat(result.getFigi()).isEqualTo("BBG000BPH459");
         verify(finnhubClient).searchSymbols("microsoft");
-        verify(finnhubClient, org.mockito.Mockito.never()).lookupSymbol("microsoft");
+        verify(finnhubClient, org.mockito.Mockito.never()).fetchSymbols("US");
     }
 }
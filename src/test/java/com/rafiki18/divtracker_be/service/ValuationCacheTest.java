@@ -0,0 +1,132 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.rafiki18.divtracker_be.config.properties.ValuationProperties;
+import com.rafiki18.divtracker_be.marketdata.FundamentalsChangedEvent;
+import com.rafiki18.divtracker_be.model.InstrumentFundamentals;
+
+@DisplayName("ValuationCache Tests")
+class ValuationCacheTest {
+
+    private ValuationProperties properties;
+    private InstrumentFundamentals fundamentals;
+    private final AtomicInteger calculations = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        properties = new ValuationProperties();
+        fundamentals = InstrumentFundamentals.builder()
+                .ticker("KO")
+                .currentPrice(new BigDecimal("62.50"))
+                .fcfPerShareAnnual(new BigDecimal("2.19"))
+                .dataVersion(3)
+                .build();
+    }
+
+    @Test
+    @DisplayName("should share a valuation between equal parameters, comparing decimals by value")
+    void shouldShareEqualParameters() {
+        ValuationCache cache = new ValuationCache(properties);
+
+        ValuationCache.Valuation first = get(cache, new BigDecimal("0.05"), new BigDecimal("15"));
+        ValuationCache.Valuation second = get(cache, new BigDecimal("0.050"), new BigDecimal("15.0"));
+        get(cache, new BigDecimal("0.06"), new BigDecimal("15"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(calculations).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("should recalculate when the data version changes but keep the projection on a price change")
+    void shouldRecalculateOnNewDataVersion() {
+        ValuationCache cache = new ValuationCache(properties);
+        get(cache, null, null);
+
+        fundamentals.setCurrentPrice(new BigDecimal("63.00"));
+        get(cache, null, null);
+        fundamentals.setDataVersion(4);
+        get(cache, null, null);
+        get(cache, null, null);
+
+        assertThat(calculations).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("should price a valuation again only when the price changes")
+    void shouldRepriceOnPriceChange() {
+        ValuationCache cache = new ValuationCache(properties);
+        ValuationCache.Valuation valuation = get(cache, null, null);
+        AtomicInteger pricings = new AtomicInteger();
+        Function<ValuationProjection, ValuationMetrics> pricing = projection -> {
+            pricings.incrementAndGet();
+            return ValuationMetrics.builder().build();
+        };
+
+        ValuationMetrics first = valuation.metricsAt(new BigDecimal("62.50"), pricing);
+        ValuationMetrics again = valuation.metricsAt(new BigDecimal("62.5"), pricing);
+        valuation.metricsAt(new BigDecimal("63.00"), pricing);
+
+        assertThat(again).isSameAs(first);
+        assertThat(pricings).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("should drop a ticker's valuations when its fundamentals change")
+    void shouldInvalidateOnFundamentalsChanged() {
+        ValuationCache cache = new ValuationCache(properties);
+        get(cache, null, null);
+
+        cache.onFundamentalsChanged(new FundamentalsChangedEvent(this, "KO", Set.of("beta"), 3));
+        get(cache, null, null);
+
+        assertThat(calculations).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("should evict the least recently used ticker")
+    void shouldEvictLeastRecentlyUsedTicker() {
+        properties.setCacheMaxTickers(1);
+        ValuationCache cache = new ValuationCache(properties);
+        InstrumentFundamentals other = InstrumentFundamentals.builder()
+                .ticker("PEP")
+                .currentPrice(new BigDecimal("170.00"))
+                .build();
+
+        get(cache, null, null);
+        cache.get(other, null, null, null, null, null, this::calculate);
+        get(cache, null, null);
+
+        assertThat(calculations).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("should always calculate when disabled")
+    void shouldNotCacheWhenDisabled() {
+        properties.setCacheEnabled(false);
+        ValuationCache cache = new ValuationCache(properties);
+
+        get(cache, null, null);
+        get(cache, null, null);
+
+        assertThat(calculations).hasValue(2);
+    }
+
+    private ValuationCache.Valuation get(ValuationCache cache, BigDecimal growthRate, BigDecimal targetPfcf) {
+        return cache.get(fundamentals, growthRate, null, 5, targetPfcf, null, this::calculate);
+    }
+
+    private ValuationCache.Valuation calculate() {
+        calculations.incrementAndGet();
+        return new ValuationCache.Valuation(new BigDecimal("0.05"), new BigDecimal("0.10"),
+                null);
+    }
+}
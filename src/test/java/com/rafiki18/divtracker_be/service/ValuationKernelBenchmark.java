@@ -0,0 +1,132 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.rafiki18.divtracker_be.config.properties.ValuationProperties;
+
+/**
+ * BigDecimal reference vs double kernel valuation of one watchlist read
+ * (100 positions with 5 to 10 year horizons), and the double kernel again
+ * with IRR warm starts from the previous read of the same items. The last
+ * case is a price tick: the projections of the read are kept and only the
+ * price-dependent stage is re-run at a moved price.
+ *
+ * Run from the IDE or with:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.rafiki18.divtracker_be.service.ValuationKernelBenchmark
+ * </pre>
+ * Use {@code -prof gc} (via the Options below) to compare allocation per read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValuationKernelBenchmark {
+
+    private static final int POSITIONS = 100;
+
+    private FinancialMetricsService doubleKernel;
+    private FinancialMetricsService referenceKernel;
+
+    private BigDecimal[] prices;
+    private BigDecimal[] fcfs;
+    private BigDecimal[] growthRates;
+    private BigDecimal[] discountRates;
+    private int[] horizons;
+    private BigDecimal[] exitMultiples;
+    private UUID[] itemIds;
+    private BigDecimal[] tickPrices;
+    private ValuationProjection[] projections;
+
+    @Setup
+    public void setUp() {
+        doubleKernel = new FinancialMetricsService();
+        ValuationProperties reference = new ValuationProperties();
+        reference.setKernel(ValuationProperties.Kernel.REFERENCE);
+        referenceKernel = new FinancialMetricsService(reference);
+
+        Random random = new Random(42);
+        prices = new BigDecimal[POSITIONS];
+        fcfs = new BigDecimal[POSITIONS];
+        growthRates = new BigDecimal[POSITIONS];
+        discountRates = new BigDecimal[POSITIONS];
+        horizons = new int[POSITIONS];
+        exitMultiples = new BigDecimal[POSITIONS];
+        itemIds = new UUID[POSITIONS];
+        tickPrices = new BigDecimal[POSITIONS];
+        projections = new ValuationProjection[POSITIONS];
+        for (int i = 0; i < POSITIONS; i++) {
+            prices[i] = BigDecimal.valueOf(2_000 + random.nextInt(48_000), 2);
+            fcfs[i] = prices[i].multiply(BigDecimal.valueOf(300 + random.nextInt(700), 4))
+                    .setScale(4, RoundingMode.HALF_UP);
+            growthRates[i] = BigDecimal.valueOf(200 + random.nextInt(1_000), 4);
+            discountRates[i] = BigDecimal.valueOf(800 + random.nextInt(500), 4);
+            horizons[i] = 5 + random.nextInt(6);
+            exitMultiples[i] = BigDecimal.valueOf(10 + random.nextInt(16));
+            itemIds[i] = new UUID(random.nextLong(), random.nextLong());
+            tickPrices[i] = prices[i].add(BigDecimal.valueOf(random.nextInt(201) - 100, 2));
+            projections[i] = doubleKernel.projectValuation(fcfs[i], growthRates[i], discountRates[i],
+                    horizons[i], exitMultiples[i]);
+        }
+    }
+
+    @Benchmark
+    public void reference(Blackhole blackhole) {
+        valuate(referenceKernel, false, blackhole);
+    }
+
+    @Benchmark
+    public void doubleKernel(Blackhole blackhole) {
+        valuate(doubleKernel, false, blackhole);
+    }
+
+    @Benchmark
+    public void doubleKernelWarmStart(Blackhole blackhole) {
+        valuate(doubleKernel, true, blackhole);
+    }
+
+    @Benchmark
+    public void priceTick(Blackhole blackhole) {
+        for (int i = 0; i < POSITIONS; i++) {
+            blackhole.consume(doubleKernel.priceValuation(projections[i], tickPrices[i], null, itemIds[i]));
+        }
+    }
+
+    private void valuate(FinancialMetricsService service, boolean warmStart, Blackhole blackhole) {
+        for (int i = 0; i < POSITIONS; i++) {
+            blackhole.consume(service.calculateValuation(prices[i], fcfs[i], growthRates[i], discountRates[i],
+                    horizons[i], null, exitMultiples[i], warmStart ? itemIds[i] : null));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ValuationKernelBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
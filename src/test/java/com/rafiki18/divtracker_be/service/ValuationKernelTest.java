@@ -0,0 +1,172 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.rafiki18.divtracker_be.config.properties.ValuationProperties;
+
+@DisplayName("Valuation Kernel Tests")
+class ValuationKernelTest {
+
+    private final FinancialMetricsService service = new FinancialMetricsService();
+
+    private final FinancialMetricsService reference = referenceService();
+
+    @Test
+    @DisplayName("Golden values - match the BigDecimal implementation")
+    void testGoldenValues() {
+        ValuationMetrics metrics = service.calculateValuation(
+                new BigDecimal("100"), new BigDecimal("10"), new BigDecimal("0.05"), new BigDecimal("0.11"),
+                5, null, new BigDecimal("15"));
+
+        assertThat(metrics.getFcfYield()).isEqualByComparingTo("10.00");
+        assertThat(metrics.getDcfFairValue()).isEqualByComparingTo("133.79");
+        assertThat(metrics.getMarginOfSafety()).isEqualByComparingTo("25.26");
+        assertThat(metrics.getPaybackPeriod()).isEqualByComparingTo("8.0");
+        assertThat(metrics.getEstimatedRoi()).isEqualByComparingTo("91.81");
+        assertThat(metrics.getEstimatedIrr()).isEqualByComparingTo("22.97");
+    }
+
+    @Test
+    @DisplayName("Golden values - long horizon with a manual target price")
+    void testGoldenValues_LongHorizon() {
+        ValuationMetrics metrics = service.calculateValuation(
+                new BigDecimal("62.50"), new BigDecimal("2.19"), new BigDecimal("0.04"), new BigDecimal("0.08"),
+                10, new BigDecimal("70"), new BigDecimal("20"));
+
+        assertThat(metrics.getFcfYield()).isEqualByComparingTo("3.50");
+        assertThat(metrics.getDcfFairValue()).isEqualByComparingTo("43.43");
+        assertThat(metrics.getMarginOfSafety()).isEqualByComparingTo("-43.91");
+        assertThat(metrics.getPaybackPeriod()).isEqualByComparingTo("18.9");
+        assertThat(metrics.getEstimatedRoi()).isEqualByComparingTo("13.24");
+        assertThat(metrics.getEstimatedIrr()).isEqualByComparingTo("4.61");
+    }
+
+    @Test
+    @DisplayName("Golden values - no DCF when discount rate is below perpetual growth")
+    void testGoldenValues_NoDcf() {
+        ValuationMetrics metrics = service.calculateValuation(
+                new BigDecimal("80"), new BigDecimal("4"), new BigDecimal("0.15"), new BigDecimal("0.07"),
+                5, new BigDecimal("90"), new BigDecimal("15"));
+
+        assertThat(metrics.getDcfFairValue()).isNull();
+        assertThat(metrics.getMarginOfSafety()).isNull();
+        assertThat(metrics.getPaybackPeriod()).isEqualByComparingTo("9.2");
+        assertThat(metrics.getEstimatedRoi()).isEqualByComparingTo("51.27");
+        assertThat(metrics.getEstimatedIrr()).isEqualByComparingTo("15.00");
+    }
+
+    @Test
+    @DisplayName("Payback beyond 50 years is null; negative IRR is found")
+    void testNoPayback_NegativeIrr() {
+        ValuationMetrics metrics = service.calculateValuation(
+                new BigDecimal("500"), new BigDecimal("1"), BigDecimal.ZERO, new BigDecimal("0.10"),
+                5, null, new BigDecimal("15"));
+
+        assertThat(metrics.getPaybackPeriod()).isNull();
+        assertThat(metrics.getEstimatedRoi()).isEqualByComparingTo("-97.00");
+        // Newton overshoots below -100% from the default guess, the bracketed search finds it
+        assertThat(metrics.getEstimatedIrr()).isEqualByComparingTo("-49.17");
+    }
+
+    @Test
+    @DisplayName("Reference mode - uses the BigDecimal methods")
+    void testReferenceMode() {
+        ValuationMetrics metrics = reference.calculateValuation(
+                new BigDecimal("500"), new BigDecimal("1"), BigDecimal.ZERO, new BigDecimal("0.10"),
+                5, null, new BigDecimal("15"));
+
+        assertThat(metrics.getDcfFairValue()).isEqualByComparingTo("10.00");
+        assertThat(metrics.getPaybackPeriod()).isNull();
+        assertThat(metrics.getEstimatedIrr()).isEqualByComparingTo("-49.17");
+    }
+
+    @Test
+    @DisplayName("Warm start by item - same metrics as a cold start")
+    void testWarmStartByItem() {
+        UUID itemId = UUID.randomUUID();
+        service.calculateValuation(new BigDecimal("100"), new BigDecimal("10"), new BigDecimal("0.05"),
+                new BigDecimal("0.11"), 5, null, new BigDecimal("15"), itemId);
+
+        ValuationMetrics warm = service.calculateValuation(new BigDecimal("101.25"), new BigDecimal("10"),
+                new BigDecimal("0.05"), new BigDecimal("0.11"), 5, null, new BigDecimal("15"), itemId);
+        ValuationMetrics cold = service.calculateValuation(new BigDecimal("101.25"), new BigDecimal("10"),
+                new BigDecimal("0.05"), new BigDecimal("0.11"), 5, null, new BigDecimal("15"));
+
+        assertThat(warm.getEstimatedIrr()).isEqualByComparingTo(cold.getEstimatedIrr());
+    }
+
+    @Test
+    @DisplayName("Reused projection - priced at each tick like a full valuation")
+    void testProjectionRepricedOnTicks() {
+        ValuationProjection projection = service.projectValuation(new BigDecimal("4.20"), new BigDecimal("0.07"),
+                new BigDecimal("0.09"), 8, new BigDecimal("18"));
+
+        for (String tick : new String[] {"61.10", "62.45", "58.00", "75.30"}) {
+            BigDecimal price = new BigDecimal(tick);
+            ValuationMetrics priced = service.priceValuation(projection, price, null, null);
+            ValuationMetrics full = service.calculateValuation(price, new BigDecimal("4.20"),
+                    new BigDecimal("0.07"), new BigDecimal("0.09"), 8, null, new BigDecimal("18"));
+
+            assertThat(priced).usingRecursiveComparison().isEqualTo(full);
+        }
+    }
+
+    @Test
+    @DisplayName("Random positions - double kernel matches the reference within rounding")
+    void testMatchesReference() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2_000; i++) {
+            BigDecimal price = BigDecimal.valueOf(1_000 + random.nextInt(49_000), 2);
+            // P/FCF between 8 and 40
+            BigDecimal fcf = price.multiply(BigDecimal.valueOf(250 + random.nextInt(1_000), 4))
+                    .setScale(4, RoundingMode.HALF_UP);
+            BigDecimal growth = BigDecimal.valueOf(random.nextInt(1_700) - 200, 4);
+            BigDecimal discount = BigDecimal.valueOf(600 + random.nextInt(900), 4);
+            int years = 3 + random.nextInt(8);
+            BigDecimal target = random.nextBoolean() ? BigDecimal.valueOf(random.nextInt(50_000), 2) : null;
+            BigDecimal multiple = BigDecimal.valueOf(8 + random.nextInt(23));
+
+            ValuationMetrics fast = service.calculateValuation(price, fcf, growth, discount, years, target, multiple);
+            ValuationMetrics exact = reference.calculateValuation(price, fcf, growth, discount, years, target, multiple);
+            String inputs = String.format("price=%s fcf=%s g=%s r=%s n=%d target=%s multiple=%s",
+                    price, fcf, growth, discount, years, target, multiple);
+
+            assertClose(fast.getFcfYield(), exact.getFcfYield(), 0.01, inputs);
+            assertClose(fast.getDcfFairValue(), exact.getDcfFairValue(), 0.01, inputs);
+            assertClose(fast.getPaybackPeriod(), exact.getPaybackPeriod(), 0.1, inputs);
+            if (exact.getDcfFairValue() != null) {
+                // One cent of DCF rounding, carried into the derived percentages
+                double dcf = exact.getDcfFairValue().doubleValue();
+                assertClose(fast.getMarginOfSafety(), exact.getMarginOfSafety(),
+                        0.01 + price.doubleValue() / (dcf * dcf), inputs);
+                assertClose(fast.getEstimatedRoi(), exact.getEstimatedRoi(), 0.01 + 1 / price.doubleValue(), inputs);
+            } else {
+                assertClose(fast.getEstimatedRoi(), exact.getEstimatedRoi(), 0.01, inputs);
+            }
+            assertClose(fast.getEstimatedIrr(), exact.getEstimatedIrr(), 0.01, inputs);
+        }
+    }
+
+    private static void assertClose(BigDecimal actual, BigDecimal expected, double tolerance, String inputs) {
+        if (expected == null) {
+            assertThat(actual).as(inputs).isNull();
+            return;
+        }
+        assertThat(actual).as(inputs).isNotNull();
+        assertThat(actual.doubleValue()).as(inputs).isCloseTo(expected.doubleValue(), within(tolerance + 1e-9));
+    }
+
+    private static FinancialMetricsService referenceService() {
+        ValuationProperties properties = new ValuationProperties();
+        properties.setKernel(ValuationProperties.Kernel.REFERENCE);
+        return new FinancialMetricsService(properties);
+    }
+}
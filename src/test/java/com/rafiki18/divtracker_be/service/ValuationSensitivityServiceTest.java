@@ -0,0 +1,113 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.rafiki18.divtracker_be.dto.ValuationSensitivityRequest;
+import com.rafiki18.divtracker_be.dto.ValuationSensitivityResponse;
+import com.rafiki18.divtracker_be.dto.WatchlistItemResponse;
+
+@DisplayName("ValuationSensitivityService Tests")
+class ValuationSensitivityServiceTest {
+
+    private final ValuationSensitivityService service = new ValuationSensitivityService();
+    private final FinancialMetricsService financialMetricsService = new FinancialMetricsService();
+
+    private WatchlistItemResponse item;
+
+    @BeforeEach
+    void setUp() {
+        item = WatchlistItemResponse.builder()
+                .id(UUID.randomUUID())
+                .ticker("AAPL")
+                .currentPrice(new BigDecimal("170.00"))
+                .freeCashFlowPerShare(new BigDecimal("6.50"))
+                .estimatedFcfGrowthRate(new BigDecimal("0.08"))
+                .discountRate(new BigDecimal("0.09"))
+                .investmentHorizonYears(7)
+                .targetPfcf(new BigDecimal("25"))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Default grid - 21 x 21 around the item's rates")
+    void testDefaultGrid() {
+        ValuationSensitivityResponse grid = service.sensitivity(item, null);
+
+        assertThat(grid.getGrowthRates()).hasSize(21);
+        assertThat(grid.getGrowthRates().get(0)).isEqualByComparingTo("0.03");
+        assertThat(grid.getGrowthRates().get(10)).isEqualByComparingTo("0.08");
+        assertThat(grid.getGrowthRates().get(20)).isEqualByComparingTo("0.13");
+        assertThat(grid.getDiscountRates()).hasSize(21);
+        assertThat(grid.getDiscountRates().get(0)).isEqualByComparingTo("0.06");
+        assertThat(grid.getDiscountRates().get(20)).isEqualByComparingTo("0.12");
+        assertThat(grid.getDcfFairValue()).hasSize(21).allSatisfy(row -> assertThat(row).hasSize(21));
+        assertThat(grid.getEstimatedIRR()).hasSize(21);
+    }
+
+    @Test
+    @DisplayName("Every cell matches calculateDCF and every row the IRR of calculateValuation")
+    void testMatchesPerCellCalculations() {
+        ValuationSensitivityRequest request = ValuationSensitivityRequest.builder()
+                .growthMin(new BigDecimal("-0.02")).growthMax(new BigDecimal("0.20")).growthSteps(12)
+                .discountMin(new BigDecimal("0.04")).discountMax(new BigDecimal("0.15")).discountSteps(12)
+                .build();
+
+        ValuationSensitivityResponse grid = service.sensitivity(item, request);
+
+        for (int j = 0; j < grid.getGrowthRates().size(); j++) {
+            BigDecimal growth = grid.getGrowthRates().get(j);
+            for (int i = 0; i < grid.getDiscountRates().size(); i++) {
+                BigDecimal discount = grid.getDiscountRates().get(i);
+                BigDecimal expected = financialMetricsService.calculateDCF(new BigDecimal("6.50"), growth, discount, 7);
+                BigDecimal actual = grid.getDcfFairValue().get(j).get(i);
+                String cell = "g=" + growth + " r=" + discount;
+                if (expected == null) {
+                    assertThat(actual).as(cell).isNull();
+                    assertThat(grid.getMarginOfSafety().get(j).get(i)).as(cell).isNull();
+                } else {
+                    assertThat(actual.doubleValue()).as(cell).isCloseTo(expected.doubleValue(), within(0.01 + 1e-9));
+                }
+            }
+
+            ValuationMetrics metrics = financialMetricsService.calculateValuation(new BigDecimal("170.00"),
+                    new BigDecimal("6.50"), growth, new BigDecimal("0.09"), 7, null, new BigDecimal("25"));
+            assertThat(grid.getEstimatedIRR().get(j).doubleValue()).as("g=" + growth)
+                    .isCloseTo(metrics.getEstimatedIrr().doubleValue(), within(0.01 + 1e-9));
+        }
+    }
+
+    @Test
+    @DisplayName("No DCF where the discount rate does not exceed perpetual growth")
+    void testNoDcfBelowPerpetualGrowth() {
+        ValuationSensitivityRequest request = ValuationSensitivityRequest.builder()
+                .growthMin(new BigDecimal("0.20")).growthMax(new BigDecimal("0.30")).growthSteps(2)
+                .discountMin(new BigDecimal("0.05")).discountMax(new BigDecimal("0.20")).discountSteps(2)
+                .build();
+
+        ValuationSensitivityResponse grid = service.sensitivity(item, request);
+
+        // Perpetual growth 0.10 and 0.15 against discount 0.05
+        assertThat(grid.getDcfFairValue().get(0).get(0)).isNull();
+        assertThat(grid.getDcfFairValue().get(1).get(0)).isNull();
+        assertThat(grid.getDcfFairValue().get(0).get(1)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Invalid ranges are rejected")
+    void testInvalidRange() {
+        ValuationSensitivityRequest reversed = ValuationSensitivityRequest.builder()
+                .growthMin(new BigDecimal("0.10")).growthMax(new BigDecimal("0.05")).build();
+        ValuationSensitivityRequest tooLarge = ValuationSensitivityRequest.builder().discountSteps(101).build();
+
+        assertThatThrownBy(() -> service.sensitivity(item, reversed)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.sensitivity(item, tooLarge)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
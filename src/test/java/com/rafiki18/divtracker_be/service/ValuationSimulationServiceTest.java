@@ -0,0 +1,104 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.rafiki18.divtracker_be.config.properties.ValuationProperties;
+import com.rafiki18.divtracker_be.dto.ValuationSimulationRequest;
+import com.rafiki18.divtracker_be.dto.ValuationSimulationResponse;
+import com.rafiki18.divtracker_be.dto.WatchlistItemResponse;
+
+@DisplayName("ValuationSimulationService Tests")
+class ValuationSimulationServiceTest {
+
+    private ValuationSimulationService service;
+    private WatchlistItemResponse item;
+
+    @BeforeEach
+    void setUp() {
+        ValuationProperties properties = new ValuationProperties();
+        properties.setSimulationDefaultPaths(20_000);
+        properties.setSimulationChunkSize(2_048);
+        service = new ValuationSimulationService(properties);
+
+        item = WatchlistItemResponse.builder()
+                .id(UUID.randomUUID())
+                .ticker("AAPL")
+                .currentPrice(new BigDecimal("170.00"))
+                .freeCashFlowPerShare(new BigDecimal("6.50"))
+                .estimatedFcfGrowthRate(new BigDecimal("0.08"))
+                .discountRate(new BigDecimal("0.09"))
+                .investmentHorizonYears(7)
+                .targetPfcf(new BigDecimal("25"))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Defaults - distributions centred on the item's parameters")
+    void testDefaults() {
+        ValuationSimulationResponse result = service.simulate(item, null);
+
+        assertThat(result.getTicker()).isEqualTo("AAPL");
+        assertThat(result.getPaths()).isEqualTo(20_000);
+        assertThat(result.getSeed()).isEqualTo(ValuationSimulationService.DEFAULT_SEED);
+        assertThat(result.getGrowthRate().getMean()).isEqualByComparingTo("0.08");
+        assertThat(result.getGrowthRate().getStdDev()).isEqualByComparingTo("0.02");
+        assertThat(result.getDiscountRate().getMean()).isEqualByComparingTo("0.09");
+        assertThat(result.getTerminalMultiple().getMean()).isEqualByComparingTo("25");
+        assertThat(result.getTerminalMultiple().getStdDev()).isEqualByComparingTo("5");
+        assertThat(result.getFairValuePercentiles()).containsOnlyKeys("p5", "p10", "p25", "p50", "p75", "p90", "p95");
+        assertThat(result.getFairValuePercentiles().get("p5"))
+                .isLessThan(result.getFairValuePercentiles().get("p95"));
+        assertThat(result.getProbabilityUndervalued()).isBetween(BigDecimal.ZERO, BigDecimal.ONE);
+    }
+
+    @Test
+    @DisplayName("Same inputs - result served from the cache")
+    void testCachedByInputs() {
+        ValuationSimulationRequest request = ValuationSimulationRequest.builder().paths(5_000).seed(7L).build();
+
+        ValuationSimulationResponse first = service.simulate(item, request);
+        ValuationSimulationResponse second = service.simulate(item, request);
+
+        assertThat(second).usingRecursiveComparison().isEqualTo(first);
+
+        item.setCurrentPrice(new BigDecimal("120.00"));
+        ValuationSimulationResponse cheaper = service.simulate(item, request);
+        assertThat(cheaper.getMeanFairValue()).isEqualByComparingTo(first.getMeanFairValue());
+        assertThat(cheaper.getProbabilityUndervalued()).isGreaterThan(first.getProbabilityUndervalued());
+    }
+
+    @Test
+    @DisplayName("Requested distributions override the item's parameters")
+    void testRequestedDistributions() {
+        ValuationSimulationRequest request = ValuationSimulationRequest.builder()
+                .paths(5_000)
+                .growthRate(new ValuationSimulationRequest.Distribution(new BigDecimal("0.02"), BigDecimal.ZERO))
+                .discountRate(new ValuationSimulationRequest.Distribution(null, BigDecimal.ZERO))
+                .terminalMultiple(new ValuationSimulationRequest.Distribution(new BigDecimal("10"), BigDecimal.ZERO))
+                .build();
+
+        ValuationSimulationResponse result = service.simulate(item, request);
+
+        assertThat(result.getDiscountRate().getMean()).isEqualByComparingTo("0.09");
+        assertThat(result.getFairValueStdDev()).isEqualByComparingTo("0.00");
+        assertThat(result.getFairValuePercentiles().get("p5"))
+                .isEqualByComparingTo(result.getFairValuePercentiles().get("p95"));
+    }
+
+    @Test
+    @DisplayName("Without a positive FCF there is nothing to simulate")
+    void testRequiresFcf() {
+        item.setFreeCashFlowPerShare(new BigDecimal("-1.00"));
+
+        assertThatThrownBy(() -> service.simulate(item, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("AAPL");
+    }
+}
@@ -0,0 +1,182 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.rafiki18.divtracker_be.config.properties.ValuationProperties;
+import com.rafiki18.divtracker_be.dto.WatchlistItemResponse;
+import com.rafiki18.divtracker_be.mapper.WatchlistMapper;
+import com.rafiki18.divtracker_be.marketdata.FundamentalsChangedEvent;
+import com.rafiki18.divtracker_be.marketdata.FundamentalsDeletedEvent;
+import com.rafiki18.divtracker_be.marketdata.PricesChangedEvent;
+import com.rafiki18.divtracker_be.model.InstrumentFundamentals;
+import com.rafiki18.divtracker_be.model.InstrumentPrice;
+import com.rafiki18.divtracker_be.model.WatchlistItem;
+import com.rafiki18.divtracker_be.model.WatchlistItemValuation;
+import com.rafiki18.divtracker_be.repository.InstrumentFundamentalsRepository;
+import com.rafiki18.divtracker_be.repository.InstrumentPriceRepository;
+import com.rafiki18.divtracker_be.repository.WatchlistItemRepository;
+import com.rafiki18.divtracker_be.repository.WatchlistItemValuationRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WatchlistItemValuationService Tests")
+class WatchlistItemValuationServiceTest {
+
+    @Mock
+    private WatchlistItemValuationRepository valuationRepository;
+
+    @Mock
+    private WatchlistItemRepository watchlistItemRepository;
+
+    @Mock
+    private InstrumentFundamentalsRepository fundamentalsRepository;
+
+    @Mock
+    private InstrumentPriceRepository priceRepository;
+
+    @Captor
+    private ArgumentCaptor<List<WatchlistItemValuation>> rowsCaptor;
+
+    private final WatchlistMapper mapper = new WatchlistMapper(
+            new FinancialMetricsService(), new ValuationCache(new ValuationProperties()));
+
+    private WatchlistItemValuationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new WatchlistItemValuationService(valuationRepository, watchlistItemRepository,
+                fundamentalsRepository, priceRepository, mapper);
+    }
+
+    @Test
+    @DisplayName("Revalues every item of the tickers and rewrites existing rows in place")
+    void testRevalue() {
+        WatchlistItem first = item("KO", "0.06");
+        WatchlistItem second = item("KO", null);
+        WatchlistItem noData = item("NEW", null);
+        WatchlistItemValuation stale = WatchlistItemValuation.builder()
+                .itemId(first.getId())
+                .userId(first.getUserId())
+                .ticker("KO")
+                .marginOfSafety(new BigDecimal("-99"))
+                .build();
+
+        when(watchlistItemRepository.findByTickerIn(Set.of("KO", "NEW"))).thenReturn(List.of(first, second, noData));
+        when(priceRepository.findByTickerIn(Set.of("KO", "NEW"))).thenReturn(List.of(InstrumentPrice.builder()
+                .ticker("KO").currentPrice(new BigDecimal("62.00")).version(7).build()));
+        when(fundamentalsRepository.findByTickerIn(Set.of("KO", "NEW"))).thenReturn(List.of(fundamentals()));
+        when(valuationRepository.findAllById(anyCollection())).thenReturn(List.of(stale));
+
+        int written = service.revalue(Set.of("KO", "NEW"));
+
+        assertThat(written).isEqualTo(3);
+        verify(valuationRepository).saveAll(rowsCaptor.capture());
+        List<WatchlistItemValuation> rows = rowsCaptor.getValue();
+        assertThat(rows).extracting(WatchlistItemValuation::getItemId)
+                .containsExactly(first.getId(), second.getId(), noData.getId());
+        assertThat(rows.get(0)).isSameAs(stale);
+
+        WatchlistItemResponse expected = mapper.toResponse(first);
+        mapper.enrichWithMarketData(expected, fundamentals().applyPrice(InstrumentPrice.builder()
+                .ticker("KO").currentPrice(new BigDecimal("62.00")).version(7).build()));
+        assertThat(stale.getMarginOfSafety()).isEqualByComparingTo(expected.getMarginOfSafety());
+        assertThat(stale.getDcfFairValue()).isEqualByComparingTo(expected.getDcfFairValue());
+        assertThat(stale.getCurrentPrice()).isEqualByComparingTo("62.00");
+        assertThat(stale.getFundamentalsVersion()).isEqualTo(3L);
+        assertThat(stale.getPriceVersion()).isEqualTo(7L);
+
+        // Derived growth differs from the item's own 6%
+        assertThat(rows.get(1).getUserId()).isEqualTo(second.getUserId());
+        assertThat(rows.get(1).getDcfFairValue()).isNotEqualByComparingTo(stale.getDcfFairValue());
+
+        // No fundamentals yet: row exists, metrics sort last
+        assertThat(rows.get(2).getMarginOfSafety()).isNull();
+        assertThat(rows.get(2).getFundamentalsVersion()).isNull();
+    }
+
+    @Test
+    @DisplayName("Tickers without watchlist items write nothing")
+    void testRevalueWithoutItems() {
+        when(watchlistItemRepository.findByTickerIn(Set.of("MO"))).thenReturn(List.of());
+
+        assertThat(service.revalue(Set.of("MO"))).isZero();
+        verify(valuationRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Price and fundamentals changes coalesce into pending tickers drained in batches")
+    void testPendingTickers() {
+        service.onPricesChanged(new PricesChangedEvent(this, Set.of("KO", "MO")));
+        service.onPricesChanged(new PricesChangedEvent(this, Set.of("KO")));
+        service.onFundamentalsChanged(new FundamentalsChangedEvent(this, "mo", Set.of("beta"), 2));
+        service.onFundamentalsChanged(new FundamentalsChangedEvent(this, "TXN", Set.of("beta"), 5));
+
+        assertThat(service.pendingCount()).isEqualTo(3);
+        Set<String> first = service.drainPending(2);
+        assertThat(first).hasSize(2);
+        Set<String> rest = service.drainPending(10);
+        assertThat(rest).hasSize(1).doesNotContainAnyElementsOf(first);
+        assertThat(service.pendingCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deleted fundamentals mark their tickers pending and revalue to NULL metrics")
+    void testDeletedFundamentals() {
+        service.onFundamentalsDeleted(new FundamentalsDeletedEvent(this, Set.of("OLD")));
+        Set<String> pending = service.drainPending(10);
+        assertThat(pending).containsExactly("OLD");
+
+        WatchlistItem old = item("OLD", null);
+        WatchlistItemValuation row = WatchlistItemValuation.builder()
+                .itemId(old.getId())
+                .userId(old.getUserId())
+                .ticker("OLD")
+                .marginOfSafety(new BigDecimal("12.5"))
+                .fundamentalsVersion(4L)
+                .build();
+        when(watchlistItemRepository.findByTickerIn(pending)).thenReturn(List.of(old));
+        when(priceRepository.findByTickerIn(pending)).thenReturn(List.of());
+        when(fundamentalsRepository.findByTickerIn(pending)).thenReturn(List.of());
+        when(valuationRepository.findAllById(anyCollection())).thenReturn(List.of(row));
+
+        assertThat(service.revalue(pending)).isEqualTo(1);
+        assertThat(row.getMarginOfSafety()).isNull();
+        assertThat(row.getFundamentalsVersion()).isNull();
+    }
+
+    private static WatchlistItem item(String ticker, String growthRate) {
+        return WatchlistItem.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .ticker(ticker)
+                .estimatedFcfGrowthRate(growthRate != null ? new BigDecimal(growthRate) : null)
+                .build();
+    }
+
+    private static InstrumentFundamentals fundamentals() {
+        return InstrumentFundamentals.builder()
+                .ticker("KO")
+                .fcfPerShareAnnual(new BigDecimal("2.60"))
+                .dividendGrowthRate5Y(new BigDecimal("4.50"))
+                .beta(new BigDecimal("0.60"))
+                .dataVersion(3)
+                .build();
+    }
+}
@@ -0,0 +1,127 @@
+package com.rafiki18.divtracker_be.service;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.rafiki18.divtracker_be.dto.WatchlistItemResponse;
+import com.rafiki18.divtracker_be.model.InstrumentFundamentals;
+import com.rafiki18.divtracker_be.model.InstrumentPrice;
+import com.rafiki18.divtracker_be.model.WatchlistItem;
+import com.rafiki18.divtracker_be.repository.InstrumentFundamentalsRepository;
+import com.rafiki18.divtracker_be.repository.InstrumentPriceRepository;
+import com.rafiki18.divtracker_be.repository.WatchlistItemRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("WatchlistService list() query count Integration Tests")
+class WatchlistServiceQueryCountIntegrationTest {
+
+    private static final int ITEMS = 30;
+
+    // Items page, count, live prices and fundamentals of the page
+    private static final long LIST_QUERIES = 4;
+
+    @Autowired
+    private WatchlistService watchlistService;
+
+    @Autowired
+    private WatchlistItemRepository watchlistItemRepository;
+
+    @Autowired
+    private InstrumentFundamentalsRepository fundamentalsRepository;
+
+    @Autowired
+    private InstrumentPriceRepository priceRepository;
+
+    @MockBean
+    private FundamentalsBackgroundRefresher backgroundRefresher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        for (int i = 0; i < ITEMS; i++) {
+            String ticker = String.format("T%02d", i);
+            watchlistItemRepository.save(WatchlistItem.builder()
+                    .userId(userId)
+                    .ticker(ticker)
+                    .targetPfcf(new BigDecimal("15"))
+                    .build());
+            fundamentalsRepository.save(InstrumentFundamentals.builder()
+                    .ticker(ticker)
+                    .sector("Technology")
+                    .fcfPerShareAnnual(new BigDecimal("5.00").add(BigDecimal.valueOf(i)))
+                    .beta(new BigDecimal("1.00"))
+                    .build());
+            priceRepository.save(InstrumentPrice.builder()
+                    .ticker(ticker)
+                    .currentPrice(new BigDecimal("100.00"))
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("list() - Mismo número de consultas con páginas de 5 y de 25 items")
+    void testList_QueryCountIndependentOfPageSize() {
+        long small = countQueries(PageRequest.of(0, 5, Sort.by("ticker")), 5);
+        long large = countQueries(PageRequest.of(0, 25, Sort.by("ticker")), 25);
+
+        assertThat(small).isEqualTo(LIST_QUERIES);
+        assertThat(large).isEqualTo(small);
+        verify(backgroundRefresher, never()).refreshAsync(any());
+    }
+
+    @Test
+    @DisplayName("list() - Ordenar por una métrica calculada tampoco depende del tamaño de página")
+    void testList_ValuationSortQueryCountIndependentOfPageSize() {
+        long small = countQueries(PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "marginOfSafety")), 5);
+        long large = countQueries(PageRequest.of(0, 25, Sort.by(Sort.Direction.DESC, "marginOfSafety")), 25);
+
+        assertThat(small).isEqualTo(LIST_QUERIES);
+        assertThat(large).isEqualTo(small);
+    }
+
+    private long countQueries(Pageable pageable, int expectedItems) {
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<WatchlistItemResponse> page = watchlistService.list(userId, pageable);
+
+        assertThat(page.getContent()).hasSize(expectedItems)
+                .allSatisfy(item -> assertThat(item.getDcfFairValue()).isNotNull());
+        assertThat(page.getTotalElements()).isEqualTo(ITEMS);
+        long queries = statistics.getPrepareStatementCount();
+        entityManager.clear();
+        return queries;
+    }
+}
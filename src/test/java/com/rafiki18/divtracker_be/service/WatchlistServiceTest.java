@@ -3,6 +3,7 @@ package com.rafiki18.divtracker_be.service;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -27,7 +28,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import com.rafiki18.divtracker_be.dto.ValuationSensitivityRequest;
+import com.rafiki18.divtracker_be.dto.ValuationSensitivityResponse;
+import com.rafiki18.divtracker_be.dto.ValuationSimulationRequest;
+import com.rafiki18.divtracker_be.dto.ValuationSimulationResponse;
 import com.rafiki18.divtracker_be.dto.WatchlistItemRequest;
 import com.rafiki18.divtracker_be.dto.WatchlistItemResponse;
 import com.rafiki18.divtracker_be.exception.DuplicateTickerException;
@@ -50,8 +56,20 @@ class WatchlistServiceTest {
     @Mock
     private MarketDataEnrichmentService marketDataEnrichmentService;
 
+    @Mock
+    private ValuationSimulationService valuationSimulationService;
+    
+    @Mock
+    private ValuationSensitivityService valuationSensitivityService;
+    
     @Mock
     private ApplicationEventPublisher eventPublisher;
+    
+    @Mock
+    private WatchlistItemValuationService itemValuationService;
+    
+    @Mock
+    private PortfolioSummaryService portfolioSummaryService;
 
     @InjectMocks
     private WatchlistService service;
@@ -119,7 +137,7 @@ class WatchlistServiceTest {
         
         when(repository.findAllByUserId(userId, pageable)).thenReturn(itemPage);
         when(mapper.toResponse(item)).thenReturn(response);
-        when(marketDataEnrichmentService.getFundamentals("AAPL")).thenReturn(fundamentals);
+        when(marketDataEnrichmentService.getCachedFundamentals(List.of("AAPL"))).thenReturn(Map.of("AAPL", fundamentals));
         
         // Act
         Page<WatchlistItemResponse> result = service.list(userId, pageable);
@@ -131,7 +149,32 @@ class WatchlistServiceTest {
         
         verify(repository).findAllByUserId(userId, pageable);
         verify(mapper).toResponse(item);
-        verify(mapper).enrichWithMarketData(response, fundamentals);
+        verify(mapper).enrichWithMarketData(List.of(response), Map.of("AAPL", fundamentals));
+        verify(marketDataEnrichmentService, never()).getFundamentals("AAPL");
+    }
+    
+    @Test
+    @DisplayName("list() - Ordena y filtra por métricas calculadas en SQL con la valoración materializada")
+    void testList_SortAndFilterByValuation() {
+        // Arrange
+        Pageable pageable = PageRequest.of(1, 10, Sort.by(Sort.Direction.DESC, "marginOfSafety", "ticker"));
+        Pageable expected = PageRequest.of(1, 10, Sort.by(
+                new Sort.Order(Sort.Direction.DESC, "v.marginOfSafety").nullsLast(),
+                new Sort.Order(Sort.Direction.DESC, "ticker")));
+        Page<WatchlistItem> itemPage = new PageImpl<>(List.of(item), expected, 11);
+        
+        when(repository.findAllByUserIdWithValuation(userId, true, new BigDecimal("20"), expected)).thenReturn(itemPage);
+        when(mapper.toResponse(item)).thenReturn(response);
+        when(marketDataEnrichmentService.getCachedFundamentals(List.of("AAPL"))).thenReturn(Map.of("AAPL", fundamentals));
+        
+        // Act
+        Page<WatchlistItemResponse> result = service.list(userId, true, new BigDecimal("20"), pageable);
+        
+        // Assert
+        assertThat(result.getContent()).containsExactly(response);
+        assertThat(result.getTotalElements()).isEqualTo(11);
+        assertThat(result.getPageable()).isEqualTo(pageable);
+        verify(repository, never()).findAllByUserId(any(), any());
     }
     
     @Test
@@ -158,6 +201,8 @@ class WatchlistServiceTest {
         verify(mapper).toEntity(request, userId);
         verify(mapper).toResponse(item);
         verify(mapper).enrichWithMarketData(response, fundamentals);
+        verify(itemValuationService).store(item, response, fundamentals);
+        verify(portfolioSummaryService).evict(userId);
     }
     
     @Test
@@ -200,6 +245,8 @@ class WatchlistServiceTest {
         verify(repository).save(item);
         verify(mapper).toResponse(item);
         verify(mapper).enrichWithMarketData(response, fundamentals);
+        verify(itemValuationService).store(item, response, fundamentals);
+        verify(portfolioSummaryService).evict(userId);
     }
     
     @Test
@@ -252,6 +299,7 @@ class WatchlistServiceTest {
         // Assert
         verify(repository).findByUserIdAndId(userId, itemId);
         verify(repository).delete(item);
+        verify(portfolioSummaryService).evict(userId);
     }
 
     @Test
@@ -320,6 +368,95 @@ class WatchlistServiceTest {
         verify(mapper).enrichWithMarketData(response, fundamentals);
     }
     
+    @Test
+    @DisplayName("simulate() - Debe simular la valoración del item enriquecido")
+    void testSimulate_Success() {
+        // Arrange
+        ValuationSimulationRequest simulationRequest = ValuationSimulationRequest.builder().paths(10_000).build();
+        ValuationSimulationResponse simulation = ValuationSimulationResponse.builder().ticker("AAPL").build();
+        when(repository.findByUserIdAndId(userId, itemId)).thenReturn(Optional.of(item));
+        when(mapper.toResponse(item)).thenReturn(response);
+        when(marketDataEnrichmentService.getFundamentals("AAPL")).thenReturn(fundamentals);
+        when(valuationSimulationService.simulate(response, simulationRequest)).thenReturn(simulation);
+        
+        // Act
+        ValuationSimulationResponse result = service.simulate(userId, itemId, simulationRequest);
+        
+        // Assert
+        assertThat(result).isSameAs(simulation);
+        verify(mapper).enrichWithMarketData(response, fundamentals);
+    }
+    
+    @Test
+    @DisplayName("simulate() - Debe lanzar WatchlistItemNotFoundException cuando item no existe")
+    void testSimulate_NotFound() {
+        // Arrange
+        when(repository.findByUserIdAndId(userId, itemId)).thenReturn(Optional.empty());
+        
+        // Act & Assert
+        assertThatThrownBy(() -> service.simulate(userId, itemId, null))
+                .isInstanceOf(WatchlistItemNotFoundException.class);
+        verify(valuationSimulationService, never()).simulate(any(), any());
+    }
+    
+    @Test
+    @DisplayName("listETag() - Estable con las mismas versiones, cambia con el precio y la página")
+    void testListETag() {
+        // Arrange
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 15, 10, 30);
+        when(repository.findVersionsByUserId(userId)).thenReturn(
+                List.of(new Versions(itemId, updatedAt, 3L, 7L, null)),
+                List.of(new Versions(itemId, updatedAt, 3L, 7L, null)),
+                List.of(new Versions(itemId, updatedAt, 3L, 8L, null)),
+                List.of(new Versions(itemId, updatedAt, 3L, 7L, null)));
+        Pageable pageable = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt"));
+        
+        // Act
+        String first = service.listETag(userId, null, null, pageable);
+        String same = service.listETag(userId, null, null, pageable);
+        String newPrice = service.listETag(userId, null, null, pageable);
+        String otherPage = service.listETag(userId, null, null, PageRequest.of(1, 20, Sort.by(Sort.Direction.DESC, "createdAt")));
+        
+        // Assert
+        assertThat(first).startsWith("\"").endsWith("\"").hasSize(34);
+        assertThat(same).isEqualTo(first);
+        assertThat(newPrice).isNotEqualTo(first);
+        assertThat(otherPage).isNotEqualTo(first);
+        verify(mapper, never()).enrichWithMarketData(any(List.class), any());
+        verify(marketDataEnrichmentService, never()).getCachedFundamentals(any());
+    }
+    
+    @Test
+    @DisplayName("itemETag() - Debe lanzar WatchlistItemNotFoundException cuando item no existe")
+    void testItemETag_NotFound() {
+        // Arrange
+        when(repository.findVersionsByUserIdAndId(userId, itemId)).thenReturn(Optional.empty());
+        
+        // Act & Assert
+        assertThatThrownBy(() -> service.itemETag(userId, itemId))
+                .isInstanceOf(WatchlistItemNotFoundException.class);
+    }
+    
+    @Test
+    @DisplayName("sensitivity() - Debe calcular la tabla del item enriquecido")
+    void testSensitivity_Success() {
+        // Arrange
+        ValuationSensitivityRequest sensitivityRequest = ValuationSensitivityRequest.builder().growthSteps(11).build();
+        ValuationSensitivityResponse grid = ValuationSensitivityResponse.builder().ticker("AAPL").build();
+        when(repository.findByUserIdAndId(userId, itemId)).thenReturn(Optional.of(item));
+        when(mapper.toResponse(item)).thenReturn(response);
+        when(marketDataEnrichmentService.getFundamentals("AAPL")).thenReturn(fundamentals);
+        when(valuationSensitivityService.sensitivity(response, sensitivityRequest)).thenReturn(grid);
+        
+        // Act
+        ValuationSensitivityResponse result = service.sensitivity(userId, itemId, sensitivityRequest);
+        
+        // Assert
+        assertThat(result).isSameAs(grid);
+        verify(mapper).enrichWithMarketData(response, fundamentals);
+        verify(repository, never()).save(any());
+    }
+    
     @Test
     @DisplayName("create() - Debe cargar datos automáticamente cuando solo se proporciona ticker")
     void testCreate_AutomaticDataLoading_Success() {
@@ -653,4 +790,32 @@ class WatchlistServiceTest {
         assertThat(autoRequest.getTargetPrice()).isEqualTo(expectedPrice);
         verify(marketDataEnrichmentService, org.mockito.Mockito.times(2)).getFundamentals("MSFT");
     }
+    
+    private record Versions(UUID id, LocalDateTime updatedAt, Long fundamentalsVersion, Long priceVersion,
+                            LocalDateTime valuedAt) implements WatchlistItemRepository.ItemVersions {
+        @Override
+        public UUID getId() {
+            return id;
+        }
+        
+        @Override
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+        
+        @Override
+        public Long getFundamentalsVersion() {
+            return fundamentalsVersion;
+        }
+        
+        @Override
+        public Long getPriceVersion() {
+            return priceVersion;
+        }
+        
+        @Override
+        public LocalDateTime getValuedAt() {
+            return valuedAt;
+        }
+    }
 }
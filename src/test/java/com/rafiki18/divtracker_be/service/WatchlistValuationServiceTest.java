@@ -1,7 +1,6 @@
 package com.rafiki18.divtracker_be.service;
 
 import java.math.BigDecimal;
-import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,6 +16,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import com.rafiki18.divtracker_be.dto.WatchlistItemResponse;
 import com.rafiki18.divtracker_be.marketdata.FinnhubClient;
 
+import reactor.core.publisher.Mono;
+
 @ExtendWith(MockitoExtension.class)
 @DisplayName("WatchlistValuationService Tests")
 class WatchlistValuationServiceTest {
@@ -87,8 +88,8 @@ class WatchlistValuationServiceTest {
             BigDecimal currentPrice = new BigDecimal("175.00");
             
             when(finnhubClient.isEnabled()).thenReturn(true);
-            when(finnhubClient.fetchCurrentPrice("AAPL")).thenReturn(Optional.of(currentPrice));
-            when(finnhubClient.calculateFCF("AAPL")).thenReturn(Optional.empty());
+            when(finnhubClient.currentPrice("AAPL")).thenReturn(Mono.just(currentPrice));
+            when(finnhubClient.freeCashFlow("AAPL")).thenReturn(Mono.empty());
             
             WatchlistItemResponse result = valuationService.enrich(baseResponse);
             
@@ -101,8 +102,8 @@ class WatchlistValuationServiceTest {
             BigDecimal fcfPerShare = new BigDecimal("8.50");
             
             when(finnhubClient.isEnabled()).thenReturn(true);
-            when(finnhubClient.fetchCurrentPrice("AAPL")).thenReturn(Optional.empty());
-            when(finnhubClient.calculateFCF("AAPL")).thenReturn(Optional.of(
+            when(finnhubClient.currentPrice("AAPL")).thenReturn(Mono.empty());
+            when(finnhubClient.freeCashFlow("AAPL")).thenReturn(Mono.just(
                     java.util.Map.of("fcfPerShare", fcfPerShare)));
             
             WatchlistItemResponse result = valuationService.enrich(baseResponse);
@@ -118,8 +119,8 @@ class WatchlistValuationServiceTest {
             // actualPfcf = 175 / 8.75 = 20.0000
             
             when(finnhubClient.isEnabled()).thenReturn(true);
-            when(finnhubClient.fetchCurrentPrice("AAPL")).thenReturn(Optional.of(currentPrice));
-            when(finnhubClient.calculateFCF("AAPL")).thenReturn(Optional.of(
+            when(finnhubClient.currentPrice("AAPL")).thenReturn(Mono.just(currentPrice));
+            when(finnhubClient.freeCashFlow("AAPL")).thenReturn(Mono.just(
                     java.util.Map.of("fcfPerShare", fcfPerShare)));
             
             WatchlistItemResponse result = valuationService.enrich(baseResponse);
@@ -134,8 +135,8 @@ class WatchlistValuationServiceTest {
             BigDecimal fcfPerShare = BigDecimal.ZERO;
             
             when(finnhubClient.isEnabled()).thenReturn(true);
-            when(finnhubClient.fetchCurrentPrice("AAPL")).thenReturn(Optional.of(currentPrice));
-            when(finnhubClient.calculateFCF("AAPL")).thenReturn(Optional.of(
+            when(finnhubClient.currentPrice("AAPL")).thenReturn(Mono.just(currentPrice));
+            when(finnhubClient.freeCashFlow("AAPL")).thenReturn(Mono.just(
                     java.util.Map.of("fcfPerShare", fcfPerShare)));
             
             WatchlistItemResponse result = valuationService.enrich(baseResponse);
@@ -151,8 +152,8 @@ class WatchlistValuationServiceTest {
             // fairPrice = 8.50 × 20.00 = 170.00
             
             when(finnhubClient.isEnabled()).thenReturn(true);
-            when(finnhubClient.fetchCurrentPrice("AAPL")).thenReturn(Optional.of(currentPrice));
-            when(finnhubClient.calculateFCF("AAPL")).thenReturn(Optional.of(
+            when(finnhubClient.currentPrice("AAPL")).thenReturn(Mono.just(currentPrice));
+            when(finnhubClient.freeCashFlow("AAPL")).thenReturn(Mono.just(
                     java.util.Map.of("fcfPerShare", fcfPerShare)));
             
             WatchlistItemResponse result = valuationService.enrich(baseResponse);
@@ -169,8 +170,8 @@ class WatchlistValuationServiceTest {
             // discount = (170 - 160) / 170 = 0.0588
             
             when(finnhubClient.isEnabled()).thenReturn(true);
-            when(finnhubClient.fetchCurrentPrice("AAPL")).thenReturn(Optional.of(currentPrice));
-            when(finnhubClient.calculateFCF("AAPL")).thenReturn(Optional.of(
+            when(finnhubClient.currentPrice("AAPL")).thenReturn(Mono.just(currentPrice));
+            when(finnhubClient.freeCashFlow("AAPL")).thenReturn(Mono.just(
                     java.util.Map.of("fcfPerShare", fcfPerShare)));
             
             WatchlistItemResponse result = valuationService.enrich(baseResponse);
@@ -187,8 +188,8 @@ class WatchlistValuationServiceTest {
             // fairPrice = 170.00 > currentPrice = 160.00
             
             when(finnhubClient.isEnabled()).thenReturn(true);
-            when(finnhubClient.fetchCurrentPrice("AAPL")).thenReturn(Optional.of(currentPrice));
-            when(finnhubClient.calculateFCF("AAPL")).thenReturn(Optional.of(
+            when(finnhubClient.currentPrice("AAPL")).thenReturn(Mono.just(currentPrice));
+            when(finnhubClient.freeCashFlow("AAPL")).thenReturn(Mono.just(
                     java.util.Map.of("fcfPerShare", fcfPerShare)));
             
             WatchlistItemResponse result = valuationService.enrich(baseResponse);
@@ -204,8 +205,8 @@ class WatchlistValuationServiceTest {
             // fairPrice = 170.00 < currentPrice = 180.00
             
             when(finnhubClient.isEnabled()).thenReturn(true);
-            when(finnhubClient.fetchCurrentPrice("AAPL")).thenReturn(Optional.of(currentPrice));
-            when(finnhubClient.calculateFCF("AAPL")).thenReturn(Optional.of(
+            when(finnhubClient.currentPrice("AAPL")).thenReturn(Mono.just(currentPrice));
+            when(finnhubClient.freeCashFlow("AAPL")).thenReturn(Mono.just(
                     java.util.Map.of("fcfPerShare", fcfPerShare)));
             
             WatchlistItemResponse result = valuationService.enrich(baseResponse);
@@ -220,8 +221,8 @@ class WatchlistValuationServiceTest {
             // deviation = (165 - 150) / 150 = 0.10
             
             when(finnhubClient.isEnabled()).thenReturn(true);
-            when(finnhubClient.fetchCurrentPrice("AAPL")).thenReturn(Optional.of(currentPrice));
-            when(finnhubClient.calculateFCF("AAPL")).thenReturn(Optional.empty());
+            when(finnhubClient.currentPrice("AAPL")).thenReturn(Mono.just(currentPrice));
+            when(finnhubClient.freeCashFlow("AAPL")).thenReturn(Mono.empty());
             
             WatchlistItemResponse result = valuationService.enrich(baseResponse);
             
@@ -239,8 +240,8 @@ class WatchlistValuationServiceTest {
             BigDecimal currentPrice = new BigDecimal("165.00");
             
             when(finnhubClient.isEnabled()).thenReturn(true);
-            when(finnhubClient.fetchCurrentPrice("AAPL")).thenReturn(Optional.of(currentPrice));
-            when(finnhubClient.calculateFCF("AAPL")).thenReturn(Optional.empty());
+            when(finnhubClient.currentPrice("AAPL")).thenReturn(Mono.just(currentPrice));
+            when(finnhubClient.freeCashFlow("AAPL")).thenReturn(Mono.empty());
             
             WatchlistItemResponse result = valuationService.enrich(responseWithZeroTarget);
             
@@ -254,8 +255,8 @@ class WatchlistValuationServiceTest {
             // deviation = (135 - 150) / 150 = -0.10
             
             when(finnhubClient.isEnabled()).thenReturn(true);
-            when(finnhubClient.fetchCurrentPrice("AAPL")).thenReturn(Optional.of(currentPrice));
-            when(finnhubClient.calculateFCF("AAPL")).thenReturn(Optional.empty());
+            when(finnhubClient.currentPrice("AAPL")).thenReturn(Mono.just(currentPrice));
+            when(finnhubClient.freeCashFlow("AAPL")).thenReturn(Mono.empty());
             
             WatchlistItemResponse result = valuationService.enrich(baseResponse);
             
@@ -274,8 +275,8 @@ class WatchlistValuationServiceTest {
             // deviation = (160 - 150) / 150 = 0.0667
             
             when(finnhubClient.isEnabled()).thenReturn(true);
-            when(finnhubClient.fetchCurrentPrice("AAPL")).thenReturn(Optional.of(currentPrice));
-            when(finnhubClient.calculateFCF("AAPL")).thenReturn(Optional.of(
+            when(finnhubClient.currentPrice("AAPL")).thenReturn(Mono.just(currentPrice));
+            when(finnhubClient.freeCashFlow("AAPL")).thenReturn(Mono.just(
                     java.util.Map.of("fcfPerShare", fcfPerShare)));
             
             WatchlistItemResponse result = valuationService.enrich(baseResponse);